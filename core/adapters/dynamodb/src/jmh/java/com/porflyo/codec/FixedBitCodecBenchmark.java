@@ -0,0 +1,140 @@
+package com.porflyo.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Packing and unpacking one heatmap section, {@value #VALUES} values of 6, 12 or 15 bits,
+ * with {@link FixedBitCodec} against the byte-at-a-time packing it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FixedBitCodecBenchmark {
+
+    private static final int VALUES = 400;
+
+    @Param({"6", "12", "15"})
+    int bits;
+
+    private int[] values;
+    private List<Integer> valueList;
+    private byte[] encoded;
+    private int[] dest;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(2024);
+        values = random.ints(VALUES, 0, 1 << bits).toArray();
+        valueList = IntStream.of(values).boxed().toList();
+        encoded = FixedBitCodec.encode(values, bits);
+        dest = new int[VALUES];
+    }
+
+    // ────────────────────────── Encode ──────────────────────────
+
+    @Benchmark
+    public byte[] encodeByteAtATime() {
+        return ByteAtATimeCodec.encode(valueList, bits);
+    }
+
+    @Benchmark
+    public byte[] encodeWordAtATime() {
+        return FixedBitCodec.encode(values, bits);
+    }
+
+    @Benchmark
+    public byte[] encodeWordAtATimeFromList() {
+        return FixedBitCodec.encode(valueList, bits);
+    }
+
+    // ────────────────────────── Decode ──────────────────────────
+
+    @Benchmark
+    public List<Integer> decodeByteAtATime() {
+        return ByteAtATimeCodec.decode(encoded, bits, VALUES);
+    }
+
+    @Benchmark
+    public List<Integer> decodeWordAtATimeToList() {
+        return FixedBitCodec.decode(encoded, bits, VALUES);
+    }
+
+    @Benchmark
+    public int[] decodeWordAtATimeIntoBuffer() {
+        FixedBitCodec.decode(encoded, 0, encoded.length, bits, VALUES, dest, 0);
+        return dest;
+    }
+
+    // ────────────────────────── Baseline ──────────────────────────
+
+    /** FixedBitCodec before it worked on 64-bit words: an int accumulator flushed one byte at a time. */
+    static final class ByteAtATimeCodec {
+
+        private ByteAtATimeCodec() {}
+
+        static byte[] encode(List<Integer> values, int bitsPerValue) {
+            var out = new ByteArrayOutputStream();
+            final int[] state = {0};
+            final int[] bitCount = {0};
+
+            IntStream.of(values.stream().mapToInt(Integer::intValue).toArray()).forEach(value -> {
+                if (value < 0 || (bitsPerValue < 32 && (value >>> bitsPerValue) != 0))
+                    throw new IllegalArgumentException("Value " + value + " does not fit in " + bitsPerValue + " bits");
+
+                int masked = (bitsPerValue == 32) ? value : (value & ((1 << bitsPerValue) - 1));
+                state[0] = (state[0] << bitsPerValue) | masked;
+                bitCount[0] += bitsPerValue;
+
+                while (bitCount[0] >= 8) {
+                    int shift = bitCount[0] - 8;
+                    int b = (state[0] >> shift) & 0xFF;
+                    out.write(b);
+                    bitCount[0] -= 8;
+                    state[0] &= (shift == 32) ? -1 : ((1 << shift) - 1);
+                }
+            });
+
+            if (bitCount[0] > 0) {
+                int b = (state[0] << (8 - bitCount[0])) & 0xFF;
+                out.write(b);
+            }
+            return out.toByteArray();
+        }
+
+        static List<Integer> decode(byte[] data, int bitsPerValue, int count) {
+            var result = new ArrayList<Integer>(count);
+            final int[] state = {0};
+            final int[] bitCount = {0};
+            final int mask = (bitsPerValue == 32) ? -1 : ((1 << bitsPerValue) - 1);
+
+            IntStream.range(0, data.length).forEach(i -> {
+                state[0] = (state[0] << 8) | (data[i] & 0xFF);
+                bitCount[0] += 8;
+
+                while (bitCount[0] >= bitsPerValue && result.size() < count) {
+                    int shift = bitCount[0] - bitsPerValue;
+                    int value = (bitsPerValue == 32) ? state[0] : ((state[0] >> shift) & mask);
+                    result.add(value);
+                    bitCount[0] -= bitsPerValue;
+                    state[0] &= (shift == 32) ? -1 : ((1 << shift) - 1);
+                }
+            });
+
+            return result;
+        }
+    }
+}
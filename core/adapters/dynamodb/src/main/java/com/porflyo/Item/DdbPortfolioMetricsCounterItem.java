@@ -0,0 +1,188 @@
+package com.porflyo.Item;
+
+/**
+ * Counters of one day stored as top-level numbers, so every ingest can be applied
+ * with a single {@code UpdateItem ADD} and no previous read.
+ */
+public class DdbPortfolioMetricsCounterItem {
+    
+    // ────────────────────────── Key & Index ──────────────────────────
+
+    private String Pk; // "P#{portfolioId}"
+    private String Sk; // "M#{yyyy-MM}#C#{dd}"
+
+
+    // ────────────────────────── Attributes ──────────────────────────
+    private String version;
+    private Integer day;
+
+    // Engagement
+    private Integer activeTime;
+    private Integer views;
+    private Integer qualityVisits;
+    private Integer emailCopies;
+    private Integer socialClicks;
+    private Integer deviceViews;
+
+    // Interaction
+    private Integer totalScrollScore;
+    private Integer totalScrollTime;
+    private Integer ttfiSumMs;
+    private Integer ttfiCount;
+
+    // Projects
+    private Integer viewTime;
+    private Integer exposures;
+    private Integer codeViews;
+    private Integer liveViews;
+
+    public DdbPortfolioMetricsCounterItem() {}
+
+
+    // ────────────────────────── getters & setters ──────────────────────────
+
+    public String getPK() {
+        return Pk;
+    }
+
+    public void setPK(String pk) {
+        Pk = pk;
+    }
+
+    public String getSK() {
+        return Sk;
+    }
+
+    public void setSK(String sk) {
+        Sk = sk;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Integer getDay() {
+        return day;
+    }
+
+    public void setDay(Integer day) {
+        this.day = day;
+    }
+
+    public Integer getActiveTime() {
+        return activeTime;
+    }
+
+    public void setActiveTime(Integer activeTime) {
+        this.activeTime = activeTime;
+    }
+
+    public Integer getViews() {
+        return views;
+    }
+
+    public void setViews(Integer views) {
+        this.views = views;
+    }
+
+    public Integer getQualityVisits() {
+        return qualityVisits;
+    }
+
+    public void setQualityVisits(Integer qualityVisits) {
+        this.qualityVisits = qualityVisits;
+    }
+
+    public Integer getEmailCopies() {
+        return emailCopies;
+    }
+
+    public void setEmailCopies(Integer emailCopies) {
+        this.emailCopies = emailCopies;
+    }
+
+    public Integer getSocialClicks() {
+        return socialClicks;
+    }
+
+    public void setSocialClicks(Integer socialClicks) {
+        this.socialClicks = socialClicks;
+    }
+
+    public Integer getDeviceViews() {
+        return deviceViews;
+    }
+
+    public void setDeviceViews(Integer deviceViews) {
+        this.deviceViews = deviceViews;
+    }
+
+    public Integer getTotalScrollScore() {
+        return totalScrollScore;
+    }
+
+    public void setTotalScrollScore(Integer totalScrollScore) {
+        this.totalScrollScore = totalScrollScore;
+    }
+
+    public Integer getTotalScrollTime() {
+        return totalScrollTime;
+    }
+
+    public void setTotalScrollTime(Integer totalScrollTime) {
+        this.totalScrollTime = totalScrollTime;
+    }
+
+    public Integer getTtfiSumMs() {
+        return ttfiSumMs;
+    }
+
+    public void setTtfiSumMs(Integer ttfiSumMs) {
+        this.ttfiSumMs = ttfiSumMs;
+    }
+
+    public Integer getTtfiCount() {
+        return ttfiCount;
+    }
+
+    public void setTtfiCount(Integer ttfiCount) {
+        this.ttfiCount = ttfiCount;
+    }
+
+    public Integer getViewTime() {
+        return viewTime;
+    }
+
+    public void setViewTime(Integer viewTime) {
+        this.viewTime = viewTime;
+    }
+
+    public Integer getExposures() {
+        return exposures;
+    }
+
+    public void setExposures(Integer exposures) {
+        this.exposures = exposures;
+    }
+
+    public Integer getCodeViews() {
+        return codeViews;
+    }
+
+    public void setCodeViews(Integer codeViews) {
+        this.codeViews = codeViews;
+    }
+
+    public Integer getLiveViews() {
+        return liveViews;
+    }
+
+    public void setLiveViews(Integer liveViews) {
+        this.liveViews = liveViews;
+    }
+
+}
@@ -17,6 +17,8 @@ public class DdbPortfolioMetricsItem {
 
     // ────────────────────────── Attributes ──────────────────────────
     private String version;
+    private Long revision;          // optimistic lock, incremented on every write
+    private byte[] columns;         // version 2: every daily column packed in one blob, the lists below stay null
     private List<Integer> dayIntegers;
 
     // Engagement
@@ -68,6 +70,22 @@ public class DdbPortfolioMetricsItem {
         this.version = version;
     }
 
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public byte[] getColumns() {
+        return columns;
+    }
+
+    public void setColumns(byte[] columns) {
+        this.columns = columns;
+    }
+
     public List<Integer> getDayIntegers() {
         return dayIntegers;
     }
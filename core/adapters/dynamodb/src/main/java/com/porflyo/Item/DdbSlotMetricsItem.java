@@ -11,6 +11,7 @@ public class DdbSlotMetricsItem {
 
     
     private String date; // "yyyy-MM-dd"
+    private Long revision; // optimistic lock, incremented on every write
 
 
     // ────────────────────────── Projects ──────────────────────────
@@ -106,6 +107,14 @@ public class DdbSlotMetricsItem {
         this.version = version;
     }
 
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
     public Integer getColumns() {
         return columns;
     }
@@ -2,28 +2,36 @@ package com.porflyo.codec;
 
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 
 /**
  * PackedBlobReader is a utility class for parsing and reading packed binary blobs
  * with a specific header and sectioned payload format. The blob format is expected to start
  * with a 4-byte magic header ("HMB1"), followed by version, section count, and header length.
- * Each section in the header describes a payload segment with its own id, bit width, count, and length.
+ * Each section in the header describes a payload segment with its own id, bit width, count, and length;
+ * from version 2 on, also the {@link PackedBlob.Transform} applied to its values and its reference value,
+ * which decoding reverts. Version 1 blobs are read as sections without transform.
+ * <p>
+ * Parsing only reads the header; payloads are decoded straight from the backing array at
+ * their offset, never copied, and only when asked for.
  * <p>
  * Usage:
  * <ul>
  *   <li>Use {@link #parse(byte[])} to create an instance from a binary blob.</li>
  *   <li>Access section metadata via {@link #sectionIds()} and {@link #info(int)}.</li>
- *   <li>Extract raw payload bytes with {@link #payload(int)}.</li>
- *   <li>Decode integer values from a section using {@link #decodeSection(int)}.</li>
+ *   <li>Extract raw payload bytes with {@link #payload(int)}, or view them with {@link #payloadView(int)}.</li>
+ *   <li>Decode integer values from a section using {@link #decodeSection(int)} or
+ *       {@link #decodeSectionInto(int, int[], int)}.</li>
+ *   <li>Get a list that decodes the section on first access with {@link #lazySection(int)}.</li>
  * </ul>
  */
 public final class BlobReader {
@@ -36,24 +44,28 @@ public final class BlobReader {
         public final int count;
         public final int offset; // payload start
         public final int length; // payload length in bytes
+        public final PackedBlob.Transform transform;
+        public final int reference;
 
-        SectionInfo(int id, int bitsPerValue, int count, int offset, int length) {
+        SectionInfo(int id, int bitsPerValue, int count, int offset, int length, PackedBlob.Transform transform, int reference) {
             this.id = id;
             this.bitsPerValue = bitsPerValue;
             this.count = count;
-            this.offset = offset; 
+            this.offset = offset;
             this.length = length;
+            this.transform = transform;
+            this.reference = reference;
         }
     }
 
     private final int version;
-    
+
     @SuppressWarnings("unused")
     private final int headerLen;    // Future use
     private final byte[] blob;
-    private final Map<Integer, SectionInfo> sections;
+    private final SectionInfo[] sections;  // header order; a handful of entries, searched linearly
 
-    private BlobReader(int version, int headerLen, byte[] blob, Map<Integer, SectionInfo> sections) {
+    private BlobReader(int version, int headerLen, byte[] blob, SectionInfo[] sections) {
         this.version = version;
         this.headerLen = headerLen;
         this.blob = blob;
@@ -64,61 +76,143 @@ public final class BlobReader {
         Objects.requireNonNull(blob, "blob");
         if (blob.length < 8) throw new IllegalArgumentException("Blob too small");
 
-        var buf = ByteBuffer.wrap(blob).order(ByteOrder.BIG_ENDIAN);
-
-        byte[] magic = new byte[4];
-        buf.get(magic);
-
-        if (!Arrays.equals(magic, MAGIC)) 
+        if (!Arrays.equals(blob, 0, MAGIC.length, MAGIC, 0, MAGIC.length))
             throw new IllegalArgumentException("Invalid magic");
 
-        int version = Byte.toUnsignedInt(buf.get());
-        int sectionCount = Byte.toUnsignedInt(buf.get());
-        int headerLen = Short.toUnsignedInt(buf.getShort());
+        int version = Byte.toUnsignedInt(blob[4]);
+        int sectionCount = Byte.toUnsignedInt(blob[5]);
+        int headerLen = ((blob[6] & 0xFF) << 8) | (blob[7] & 0xFF);
 
-        if (blob.length < headerLen) 
+        if (version == 0 || version > PackedBlob.MAX_VERSION)
+            throw new IllegalArgumentException("Unsupported version: " + version);
+
+        boolean v2 = version >= 2;
+        int entryLen = PackedBlob.entryLength(version);
+        if (blob.length < headerLen || headerLen < 8 + sectionCount * entryLen)
             throw new IllegalArgumentException("Truncated header");
 
-        Map<Integer, SectionInfo> map = new HashMap<>(sectionCount);
+        SectionInfo[] sections = new SectionInfo[sectionCount];
+        int entry = 8;
         int cursor = headerLen;
 
-        for (int i = 0; i < sectionCount; i++) {
-            int id   = Byte.toUnsignedInt(buf.get());
-            int bits = Byte.toUnsignedInt(buf.get());
-            int cnt  = buf.getInt();
-            int len  = buf.getInt();
+        for (int i = 0; i < sectionCount; i++, entry += entryLen) {
+            int at   = entry;
+            int id   = Byte.toUnsignedInt(blob[at++]);
+            int bits = Byte.toUnsignedInt(blob[at++]);
+            var transform = v2 ? PackedBlob.Transform.ofCode(Byte.toUnsignedInt(blob[at++])) : PackedBlob.Transform.NONE;
+            int cnt  = readInt(blob, at);
+            int len  = readInt(blob, at + 4);
+            int ref  = v2 ? readInt(blob, at + 8) : 0;
 
-            if (len < 0 || cursor + len > blob.length) 
+            if (len < 0 || cursor + len > blob.length)
                 throw new IllegalArgumentException("Section out of bounds: id=" + id);
-            
-            map.put(id, new SectionInfo(id, bits, cnt, cursor, len));
+
+            sections[i] = new SectionInfo(id, bits, cnt, cursor, len, transform, ref);
             cursor += len;
         }
 
-        return new BlobReader(version, headerLen, blob, map);
+        return new BlobReader(version, headerLen, blob, sections);
     }
 
     public int version() { return version; }
 
     public Set<Integer> sectionIds() {
-        return Collections.unmodifiableSet(sections.keySet());
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (SectionInfo s : sections) ids.add(s.id);
+        return Collections.unmodifiableSet(ids);
     }
 
     public SectionInfo info(int id) {
-        var s = sections.get(id);
-        if (s == null) 
-            throw new NoSuchElementException("Section " + id + " not found");
-            
-        return s;
+        // Same id twice: the last entry wins, as with the former map
+        for (int i = sections.length - 1; i >= 0; i--) {
+            if (sections[i].id == id) return sections[i];
+        }
+        throw new NoSuchElementException("Section " + id + " not found");
     }
 
+    /** Copy of the payload bytes of the section, as packed (before reverting its transform). */
     public byte[] payload(int id) {
         var s = info(id);
         return Arrays.copyOfRange(blob, s.offset, s.offset + s.length);
     }
 
+    /** Read-only view of the payload bytes of the section as packed, sharing the backing array. */
+    public ByteBuffer payloadView(int id) {
+        var s = info(id);
+        return ByteBuffer.wrap(blob, s.offset, s.length).slice().asReadOnlyBuffer();
+    }
+
     public List<Integer> decodeSection(int id) {
+        int[] values = decodeSectionToArray(id);
+        List<Integer> result = new ArrayList<>(values.length);
+        for (int value : values) result.add(value);
+        return result;
+    }
+
+    public int[] decodeSectionToArray(int id) {
+        var s = info(id);
+        int[] values = new int[FixedBitCodec.decodableCount(s.length, s.bitsPerValue, s.count)];
+        decodeSectionInto(id, values, 0);
+        return values;
+    }
+
+    /**
+     * Decodes the section from the backing array into {@code dest}, starting at {@code destOffset}.
+     *
+     * @return the number of values decoded
+     */
+    public int decodeSectionInto(int id, int[] dest, int destOffset) {
+        var s = info(id);
+        int n = FixedBitCodec.decode(blob, s.offset, s.length, s.bitsPerValue, s.count, dest, destOffset);
+        PackedBlob.revertTransform(s.transform, s.reference, dest, destOffset, n);
+        return n;
+    }
+
+    /**
+     * Returns an unmodifiable list over the section that decodes it on first access, so a
+     * section nobody reads is never decoded. Decoding happens once; the list is safe to share.
+     */
+    public List<Integer> lazySection(int id) {
         var s = info(id);
-        return FixedBitCodec.decode(payload(id), s.bitsPerValue, s.count);
+        return new LazySection(this, s.id, FixedBitCodec.decodableCount(s.length, s.bitsPerValue, s.count));
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static int readInt(byte[] b, int at) {
+        return ((b[at] & 0xFF) << 24) | ((b[at + 1] & 0xFF) << 16) | ((b[at + 2] & 0xFF) << 8) | (b[at + 3] & 0xFF);
+    }
+
+    private static final class LazySection extends AbstractList<Integer> implements RandomAccess {
+        private final BlobReader reader;
+        private final int id;
+        private final int size;
+        private volatile int[] values;
+
+        LazySection(BlobReader reader, int id, int size) {
+            this.reader = reader;
+            this.id = id;
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            Objects.checkIndex(index, size);
+            return values()[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private int[] values() {
+            int[] decoded = values;
+            if (decoded == null) {
+                decoded = reader.decodeSectionToArray(id);
+                values = decoded;
+            }
+            return decoded;
+        }
     }
 }
@@ -0,0 +1,147 @@
+package com.porflyo.codec;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Fixed-size counting Bloom filter over 64-bit hashes, stored as a byte array of 4-bit
+ * counters, two per byte, high nibble first.
+ * </p>
+ *
+ * <p>
+ * Each hash sets {@value #HASHES} counters, picked by double hashing from its low 56 bits,
+ * so the top byte is left free for the caller to pick a shard with. Counters saturate at 15
+ * and a saturated counter is never decremented, so {@link #remove(long)} cannot turn
+ * another hash into a false negative. The array never grows: more hashes only raise the
+ * false positive rate.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe; an instance is read, updated and written back by one caller.
+ * </p>
+ */
+public final class CountingBloomFilter {
+
+    /** Counters set per hash. */
+    public static final int HASHES = 3;
+
+    private static final int MAX_COUNT = 0x0f;
+
+    private final byte[] counters;
+    private final int counterCount;
+
+    private CountingBloomFilter(byte[] counters) {
+        if (counters.length == 0) {
+            throw new IllegalArgumentException("filter must hold at least one byte");
+        }
+        this.counters = counters;
+        this.counterCount = counters.length * 2;
+    }
+
+    /** Empty filter of {@code sizeBytes} bytes, {@code 2 * sizeBytes} counters. */
+    public static CountingBloomFilter empty(int sizeBytes) {
+        return new CountingBloomFilter(new byte[sizeBytes]);
+    }
+
+    /** Filter over a copy of {@code bytes}, as returned by {@link #toByteArray()}. */
+    public static CountingBloomFilter of(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+        return new CountingBloomFilter(bytes.clone());
+    }
+
+    // ────────────────────────── Operations ──────────────────────────
+
+    /** Whether every counter of the hash is set, i.e. the hash may have been added. */
+    public boolean mightContain(long hash) {
+        for (int i = 0; i < HASHES; i++) {
+            if (count(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the hash unless it may already be in the filter.
+     *
+     * @return {@code true} if the hash was added, {@code false} if it may be a duplicate
+     */
+    public boolean add(long hash) {
+        if (mightContain(hash)) {
+            return false;
+        }
+
+        for (int i = 0; i < HASHES; i++) {
+            int index = index(hash, i);
+            int count = count(index);
+            if (count < MAX_COUNT) {
+                setCount(index, count + 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a hash added with {@link #add(long)}. A hash that is not in the filter is
+     * left alone, so removing it twice cannot clear the counters of others.
+     *
+     * @return {@code true} if the hash was in the filter
+     */
+    public boolean remove(long hash) {
+        if (!mightContain(hash)) {
+            return false;
+        }
+
+        for (int i = 0; i < HASHES; i++) {
+            int index = index(hash, i);
+            int count = count(index);
+            if (count < MAX_COUNT) {
+                setCount(index, count - 1);
+            }
+        }
+        return true;
+    }
+
+    /** Size of the stored form, fixed when the filter is created. */
+    public int sizeBytes() {
+        return counters.length;
+    }
+
+    /** Copy of the counters, to store. */
+    public byte[] toByteArray() {
+        return counters.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CountingBloomFilter other && Arrays.equals(counters, other.counters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counters);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    /** i-th counter of the hash: low 32 bits plus i times the next 24 bits, forced odd. */
+    private int index(long hash, int i) {
+        long h1 = hash & 0xffffffffL;
+        long h2 = ((hash >>> 32) & 0xffffffL) | 1L;
+        return (int) Math.floorMod(h1 + i * h2, (long) counterCount);
+    }
+
+    private int count(int index) {
+        int b = counters[index >>> 1] & 0xff;
+        return (index & 1) == 0 ? b >>> 4 : b & 0x0f;
+    }
+
+    private void setCount(int index, int count) {
+        int i = index >>> 1;
+        int b = counters[i] & 0xff;
+        counters[i] = (byte) ((index & 1) == 0
+            ? (b & 0x0f) | (count << 4)
+            : (b & 0xf0) | count);
+    }
+}
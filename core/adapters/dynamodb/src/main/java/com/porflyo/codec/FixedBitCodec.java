@@ -1,10 +1,11 @@
 package com.porflyo.codec;
 
-import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
 
 /**
  * <p>
@@ -19,18 +20,23 @@ import java.util.stream.IntStream;
  *   <li>Supports 1 to 32 bits per value.</li>
  *   <li>Zero-pads the last byte if the total bit count is not a multiple of 8.</li>
  *   <li>Stateless, thread-safe static methods.</li>
+ *   <li>Works on 64-bit words: the {@code int[]} overloads pack into and read from big-endian
+ *       longs, and can decode into a caller-supplied buffer without allocating.</li>
  * </ul>
  * 
  * <h2>Encoding</h2>
  * <p>
- * The {@link #encode(List, int)} method packs each integer value into the output byte array using the specified
- * number of bits per value. Values are written MSB-first, and the last byte is padded with zeros if necessary.
+ * The {@link #encode(int[], int, int, int)} method packs each integer value into the output byte array using the
+ * specified number of bits per value. Values are written MSB-first, and the last byte is padded with zeros if
+ * necessary. {@link #encode(List, int)} is the same for a list.
  * </p>
  *
  * <h2>Decoding</h2>
  * <p>
- * The {@link #decode(byte[], int, int)} method reconstructs the original list of integers from the encoded byte array,
- * extracting the specified number of values using the given bit width.
+ * The {@link #decode(byte[], int, int, int, int, int[], int)} method extracts the specified number of values from
+ * a range of the encoded bytes into an {@code int[]}; each value is read from the 64-bit word starting at its
+ * first byte. {@link #decode(byte[], int, int)} returns them as a list. If the data ends early, only the values
+ * it holds entirely are decoded.
  * </p>
  * 
  * <h2>Exceptions</h2>
@@ -46,8 +52,12 @@ import java.util.stream.IntStream;
  */
 public final class FixedBitCodec {
 
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     private FixedBitCodec() {}
 
+    // ────────────────────────── Encode ──────────────────────────
+
     /**
      * Encodes a list of integers into a compact byte array using the specified number of bits per value.
      * Values are packed MSB-first. The last byte is zero-padded if needed.
@@ -61,36 +71,75 @@ public final class FixedBitCodec {
      */
     public static byte[] encode(List<Integer> values, int bitsPerValue) {
         Objects.requireNonNull(values, "values");
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return encode(array, 0, array.length, bitsPerValue);
+    }
+
+    /**
+     * Encodes {@code values} as {@link #encode(int[], int, int, int)} does.
+     */
+    public static byte[] encode(int[] values, int bitsPerValue) {
+        Objects.requireNonNull(values, "values");
+        return encode(values, 0, values.length, bitsPerValue);
+    }
+
+    /**
+     * Encodes {@code length} integers starting at {@code offset} into a compact byte array, MSB-first,
+     * filling a 64-bit word at a time. The last byte is zero-padded if needed.
+     *
+     * @param values       the values to encode (must not be null)
+     * @param offset       index of the first value to encode
+     * @param length       number of values to encode
+     * @param bitsPerValue the number of bits to use for each value (1 to 32)
+     * @return a byte array of {@code ceil(length * bitsPerValue / 8)} bytes
+     * @throws NullPointerException      if {@code values} is null
+     * @throws IndexOutOfBoundsException if the range is outside {@code values}
+     * @throws IllegalArgumentException  if {@code bitsPerValue} is not in 1..32,
+     *                                   or if any value does not fit in the specified bits
+     */
+    public static byte[] encode(int[] values, int offset, int length, int bitsPerValue) {
+        Objects.requireNonNull(values, "values");
+        Objects.checkFromIndexSize(offset, length, values.length);
         validateBits(bitsPerValue);
 
-        var out = new ByteArrayOutputStream();
-        final int[] state = {0};
-        final int[] bitCount = {0};
+        byte[] out = new byte[(int) (((long) length * bitsPerValue + 7) >>> 3)];
+        long word = 0;
+        int free = 64;      // bits still free in word, filled from the most significant end
+        int pos = 0;        // byte position where word is written
 
-        IntStream.of(values.stream().mapToInt(Integer::intValue).toArray()).forEach(value -> {
-            if (value < 0 || (bitsPerValue < 32 && (value >>> bitsPerValue) != 0)) 
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int value = values[i];
+            if (value < 0 || (bitsPerValue < 32 && (value >>> bitsPerValue) != 0))
                 throw new IllegalArgumentException("Value " + value + " does not fit in " + bitsPerValue + " bits");
-            
-            int masked = (bitsPerValue == 32) ? value : (value & ((1 << bitsPerValue) - 1));
-            state[0] = (state[0] << bitsPerValue) | masked;
-            bitCount[0] += bitsPerValue;
-
-            while (bitCount[0] >= 8) {
-                int shift = bitCount[0] - 8;
-                int b = (state[0] >> shift) & 0xFF;
-                out.write(b);
-                bitCount[0] -= 8;
-                state[0] &= (shift == 32) ? -1 : ((1 << shift) - 1);
+
+            long v = value & 0xFFFFFFFFL;
+            if (bitsPerValue < free) {
+                free -= bitsPerValue;
+                word |= v << free;
+                continue;
             }
-        });
 
-        if (bitCount[0] > 0) {
-            int b = (state[0] << (8 - bitCount[0])) & 0xFF;
-            out.write(b);
+            // The value fills the word, possibly spilling its low bits into the next one
+            int spill = bitsPerValue - free;
+            word |= v >>> spill;
+            LONG_BE.set(out, pos, word);
+            pos += 8;
+            free = 64 - spill;
+            word = spill == 0 ? 0 : v << free;
         }
-        return out.toByteArray();
+
+        // Remaining bits of the last, partial word
+        for (int shift = 56; pos < out.length; shift -= 8) {
+            out[pos++] = (byte) (word >>> shift);
+        }
+        return out;
     }
 
+    // ────────────────────────── Decode ──────────────────────────
+
     /**
      * Decodes a byte array produced by {@link #encode(List, int)} back into a list of integers.
      *
@@ -103,31 +152,91 @@ public final class FixedBitCodec {
      */
     public static List<Integer> decode(byte[] data, int bitsPerValue, int count) {
         Objects.requireNonNull(data, "data");
-        validateBits(bitsPerValue);
-
         if (count < 0) throw new IllegalArgumentException("count must be >= 0");
 
-        var result = new ArrayList<Integer>(count);
-        final int[] state = {0};
-        final int[] bitCount = {0};
-        final int mask = (bitsPerValue == 32) ? -1 : ((1 << bitsPerValue) - 1);
-
-        IntStream.range(0, data.length).forEach(i -> {
-            state[0] = (state[0] << 8) | (data[i] & 0xFF);
-            bitCount[0] += 8;
-
-            while (bitCount[0] >= bitsPerValue && result.size() < count) {
-                int shift = bitCount[0] - bitsPerValue;
-                int value = (bitsPerValue == 32) ? state[0] : ((state[0] >> shift) & mask);
-                result.add(value);
-                bitCount[0] -= bitsPerValue;
-                state[0] &= (shift == 32) ? -1 : ((1 << shift) - 1);
-            }
-        });
+        int[] values = new int[decodableCount(data.length, bitsPerValue, count)];
+        decode(data, 0, data.length, bitsPerValue, values.length, values, 0);
 
+        var result = new ArrayList<Integer>(values.length);
+        for (int value : values) {
+            result.add(value);
+        }
         return result;
     }
 
+    /**
+     * Decodes a byte array produced by {@link #encode(int[], int, int, int)} into a new {@code int[]}.
+     *
+     * @return the decoded values; shorter than {@code count} if {@code data} ends early
+     * @see #decode(byte[], int, int)
+     */
+    public static int[] decodeToArray(byte[] data, int bitsPerValue, int count) {
+        Objects.requireNonNull(data, "data");
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0");
+
+        int[] values = new int[decodableCount(data.length, bitsPerValue, count)];
+        decode(data, 0, data.length, bitsPerValue, values.length, values, 0);
+        return values;
+    }
+
+    /**
+     * Decodes up to {@code count} values packed in {@code data[dataOffset, dataOffset + dataLength)} into
+     * {@code dest}, starting at {@code destOffset}. Reads a 64-bit word per value and allocates nothing.
+     *
+     * @param data         the bytes holding the encoded values (must not be null)
+     * @param dataOffset   index of the first encoded byte
+     * @param dataLength   number of encoded bytes
+     * @param bitsPerValue the number of bits used for each value (1 to 32)
+     * @param count        the number of values to decode (must be &gt;= 0)
+     * @param dest         buffer receiving the values (must not be null)
+     * @param destOffset   index in {@code dest} of the first value
+     * @return the number of values decoded, less than {@code count} if the data ends early
+     * @throws NullPointerException      if {@code data} or {@code dest} is null
+     * @throws IndexOutOfBoundsException if a range is outside its array
+     * @throws IllegalArgumentException  if {@code bitsPerValue} is not in 1..32, or {@code count} is negative
+     */
+    public static int decode(byte[] data, int dataOffset, int dataLength, int bitsPerValue, int count, int[] dest, int destOffset) {
+        Objects.requireNonNull(data, "data");
+        Objects.requireNonNull(dest, "dest");
+        Objects.checkFromIndexSize(dataOffset, dataLength, data.length);
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0");
+
+        int n = decodableCount(dataLength, bitsPerValue, count);
+        Objects.checkFromIndexSize(destOffset, n, dest.length);
+
+        int dataEnd = dataOffset + dataLength;
+        int unshift = 64 - bitsPerValue;
+        long bitPos = (long) dataOffset << 3;
+
+        for (int i = 0; i < n; i++, bitPos += bitsPerValue) {
+            int byteIndex = (int) (bitPos >>> 3);
+            long word = byteIndex + 8 <= dataEnd
+                ? (long) LONG_BE.get(data, byteIndex)
+                : tailWord(data, byteIndex, dataEnd);
+
+            dest[destOffset + i] = (int) ((word << (bitPos & 7)) >>> unshift);
+        }
+        return n;
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    /** Number of values among the first {@code count} held entirely in {@code dataLength} bytes. */
+    static int decodableCount(int dataLength, int bitsPerValue, int count) {
+        validateBits(bitsPerValue);
+        return (int) Math.min(count, ((long) dataLength << 3) / bitsPerValue);
+    }
+
+    /** Big-endian word of the bytes left before {@code end}, zero-padded on the right. */
+    private static long tailWord(byte[] data, int from, int end) {
+        long word = 0;
+        for (int i = 0; i < 8; i++) {
+            word <<= 8;
+            if (from + i < end) word |= data[from + i] & 0xFF;
+        }
+        return word;
+    }
+
     /**
      * Validates that the number of bits per value is within the allowed range.
      *
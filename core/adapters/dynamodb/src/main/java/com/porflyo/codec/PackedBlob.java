@@ -9,14 +9,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.zip.CRC32;
 
-/** Builds a single binary blob with multiple bit-packed sections (versioned). */
 /**
  * Represents a packed binary blob with a custom format, supporting multiple sections of integer data,
  * each encoded with a specified number of bits per value. The blob includes a header with metadata,
  * optional CRC32 checksum, and is designed for efficient storage and retrieval.
  * <p>
  * Usage is via the {@link PackedBlob.Builder}, which allows configuration of version, CRC32,
- * and addition of multiple sections, each with its own identifier and bit-width.
+ * and addition of multiple sections, each with its own identifier and bit-width. The bit width
+ * can also be left to the builder, which picks the smallest one that fits the section.
  * </p>
  *
  * <h2>Format Overview</h2>
@@ -29,8 +29,10 @@ import java.util.zip.CRC32;
  *     <ul>
  *       <li>Section ID (1 byte)</li>
  *       <li>Bits per value (1 byte)</li>
+ *       <li>Transform (1 byte, version 2 only, see {@link Transform})</li>
  *       <li>Value count (4 bytes)</li>
  *       <li>Payload length (4 bytes)</li>
+ *       <li>Reference value (4 bytes, version 2 only)</li>
  *     </ul>
  *   </li>
  *   <li><b>Payloads:</b> Concatenated encoded integer arrays for each section</li>
@@ -46,6 +48,40 @@ import java.util.zip.CRC32;
 public final class PackedBlob {
 
     private static final byte[] MAGIC = new byte[]{'H','M','B','1'};
+
+    /** Highest blob version; version 2 adds a transform and a reference value to each section entry. */
+    public static final int MAX_VERSION = 2;
+
+    /**
+     * How the values of a section are turned into the non-negative integers that get bit-packed.
+     * Requires blob version 2, except {@link #NONE}.
+     */
+    public enum Transform {
+        /** Values are packed as they are. */
+        NONE(0),
+        /** The minimum is stored as the reference value and packed values are offsets from it. */
+        FRAME_OF_REFERENCE(1),
+        /**
+         * The first value is stored as the reference value and packed values are the gaps between
+         * consecutive values (the first gap being 0). Only for non-decreasing values; others fall
+         * back to {@link #FRAME_OF_REFERENCE}.
+         */
+        DELTA(2);
+
+        private final int code;
+
+        Transform(int code) { this.code = code; }
+
+        public int code() { return code; }
+
+        public static Transform ofCode(int code) {
+            for (Transform t : values()) {
+                if (t.code == code) return t;
+            }
+            throw new IllegalArgumentException("Unknown section transform: " + code);
+        }
+    }
+
     private final int version;
     private final byte[] bytes;
 
@@ -69,7 +105,8 @@ public final class PackedBlob {
      * <ul>
      *   <li>Set the blob version using {@link #version(int)}.</li>
      *   <li>Enable or disable CRC32 checksum with {@link #enableCrc32(boolean)}.</li>
-     *   <li>Add sections via {@link #addSection(int, int, List)}.</li>
+     *   <li>Add sections via {@link #addSection(int, int, List)}, or with the smallest bit width that
+     *       fits via {@link #addSection(int, List)} and {@link #addSection(int, List, Transform)}.</li>
      *   <li>Call {@link #build()} to produce the final {@link PackedBlob}.</li>
      * </ul>
      * <p>
@@ -89,28 +126,44 @@ public final class PackedBlob {
 
         /** simple section container */
         private static final class Section {
-            final int id, bitsPerValue;
-            final List<Integer> values;
-            byte[] payload; // filled on build
+            final int id, bitsPerValue;     // bitsPerValue = 0 picks the smallest width on build
+            final Transform transform;
+            final int[] values;             // owned copy, transformed on build
+
+            // filled on build
+            Transform appliedTransform;
+            int reference;
+            int bits;
+            byte[] payload;
 
-            Section(int id, int bitsPerValue, List<Integer> values) {
+            Section(int id, int bitsPerValue, Transform transform, int[] values) {
                 if (id < 0 || id > 255) 
                     throw new IllegalArgumentException("id must be 0..255");
 
-                if (bitsPerValue <= 0 || bitsPerValue > 32) 
-                    throw new IllegalArgumentException("bitsPerValue must be 1..32");
-                    
                 this.id = id;
                 this.bitsPerValue = bitsPerValue;
+                this.transform = Objects.requireNonNull(transform, "transform");
                 this.values = Objects.requireNonNull(values, "values");
             }
+
+            void encode() {
+                if (payload != null) return;   // built already; values hold the transformed form
+
+                appliedTransform = transform == Transform.DELTA && !isNonDecreasing(values)
+                    ? Transform.FRAME_OF_REFERENCE
+                    : transform;
+                reference = applyTransform(appliedTransform, values);
+
+                bits = bitsPerValue != 0 ? bitsPerValue : minimalBits(values);
+                payload = FixedBitCodec.encode(values, bits);
+            }
         }
 
         private final List<Section> sections = new ArrayList<>();
 
         public Builder version(int version) {
-            if (version <= 0 || version > 255) 
-                throw new IllegalArgumentException("version must be 1..255");
+            if (version <= 0 || version > MAX_VERSION) 
+                throw new IllegalArgumentException("version must be 1.." + MAX_VERSION);
             this.version = version;
             return this;
         }
@@ -122,7 +175,31 @@ public final class PackedBlob {
 
         /** Add a section (e.g., IDX=1, V=2, S=3). Same count across sections is typical but not enforced. */
         public Builder addSection(int id, int bitsPerValue, List<Integer> values) {
-            sections.add(new Section(id, bitsPerValue, values));
+            if (bitsPerValue < 1 || bitsPerValue > 32) 
+                throw new IllegalArgumentException("bitsPerValue must be 1..32");
+            sections.add(new Section(id, bitsPerValue, Transform.NONE, toArray(values)));
+            return this;
+        }
+
+        /** Add a section packed with the smallest bit width that fits its largest value. */
+        public Builder addSection(int id, List<Integer> values) {
+            return addSection(id, values, Transform.NONE);
+        }
+
+        /**
+         * Add a section whose values are transformed first, then packed with the smallest bit width
+         * that fits the largest transformed value. Any transform other than {@link Transform#NONE}
+         * requires version 2.
+         */
+        public Builder addSection(int id, List<Integer> values, Transform transform) {
+            sections.add(new Section(id, 0, transform, toArray(values)));
+            return this;
+        }
+
+        /** Same as {@link #addSection(int, List, Transform)}, for values already in an array (copied). */
+        public Builder addSection(int id, int[] values, Transform transform) {
+            Objects.requireNonNull(values, "values");
+            sections.add(new Section(id, 0, transform, values.clone()));
             return this;
         }
 
@@ -130,12 +207,15 @@ public final class PackedBlob {
             if (sections.isEmpty()) 
                 throw new IllegalStateException("No sections added");
 
+            if (version < 2 && sections.stream().anyMatch(s -> s.transform != Transform.NONE))
+                throw new IllegalStateException("Section transforms require version 2");
+
             // 1) encode payloads
-            sections.forEach(s -> s.payload = FixedBitCodec.encode(s.values, s.bitsPerValue));
+            sections.forEach(Section::encode);
 
             // 2) header sizes
             int sectionCount = sections.size();
-            int entryLen = 1 + 1 + 4 + 4;   // id + bits + count + length
+            int entryLen = entryLength(version);
             int headerFixed = 4 + 1 + 1 + 2; // MAGIC + VERSION + COUNT + HEADER_LEN
             int headerLen = headerFixed + sectionCount * entryLen;
 
@@ -148,9 +228,11 @@ public final class PackedBlob {
 
             for (var s : sections) {
                 header.put((byte) s.id);
-                header.put((byte) s.bitsPerValue);
-                header.putInt(s.values.size());
+                header.put((byte) s.bits);
+                if (version >= 2) header.put((byte) s.appliedTransform.code());
+                header.putInt(s.values.length);
                 header.putInt(s.payload.length);
+                if (version >= 2) header.putInt(s.reference);
             }
 
             // 4) concat header + payloads (+ optional crc32)
@@ -173,4 +255,85 @@ public final class PackedBlob {
             return new PackedBlob(version, out.toByteArray());
         }
     }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static int[] toArray(List<Integer> values) {
+        Objects.requireNonNull(values, "values");
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /** Length of a section entry in the header of a blob of the given version. */
+    static int entryLength(int version) {
+        return version >= 2
+            ? 1 + 1 + 1 + 4 + 4 + 4     // id + bits + transform + count + length + reference
+            : 1 + 1 + 4 + 4;            // id + bits + count + length
+    }
+
+    /**
+     * Replaces {@code values} in place by their transformed form.
+     *
+     * @return the reference value to store in the section entry
+     * @throws IllegalArgumentException if a transformed value does not fit in a non-negative int
+     */
+    private static int applyTransform(Transform transform, int[] values) {
+        if (transform == Transform.NONE || values.length == 0) return 0;
+
+        if (transform == Transform.DELTA) {
+            int reference = values[0];
+            int previous = reference;
+            for (int i = 0; i < values.length; i++) {
+                int current = values[i];
+                values[i] = checkedOffset((long) current - previous);
+                previous = current;
+            }
+            return reference;
+        }
+
+        int reference = values[0];
+        for (int v : values) reference = Math.min(reference, v);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = checkedOffset((long) values[i] - reference);
+        }
+        return reference;
+    }
+
+    /** Reverts {@link #applyTransform} on {@code values[from, from + count)}. */
+    static void revertTransform(Transform transform, int reference, int[] values, int from, int count) {
+        if (transform == Transform.DELTA) {
+            int running = reference;
+            for (int i = from, end = from + count; i < end; i++) {
+                running += values[i];
+                values[i] = running;
+            }
+        } else if (transform == Transform.FRAME_OF_REFERENCE) {
+            for (int i = from, end = from + count; i < end; i++) {
+                values[i] += reference;
+            }
+        }
+    }
+
+    private static int checkedOffset(long offset) {
+        if (offset > Integer.MAX_VALUE) 
+            throw new IllegalArgumentException("Section range does not fit in 31 bits");
+        return (int) offset;
+    }
+
+    private static boolean isNonDecreasing(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /** Smallest width (at least 1 bit) that fits every value; negative values get 32 bits and fail to encode. */
+    private static int minimalBits(int[] values) {
+        int or = 0;
+        for (int v : values) or |= v;
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(or));
+    }
 }
@@ -3,7 +3,9 @@ package com.porflyo.common;
 import java.util.List;
 
 import com.porflyo.configuration.DdbConfig;
+import com.porflyo.repository.DdbBeaconDedupRepository;
 import com.porflyo.schema.MediaCountTableSchema;
+import com.porflyo.schema.PortfolioMetricsCounterTableSchema;
 import com.porflyo.schema.PortfolioMetricsTableSchema;
 import com.porflyo.schema.PortfolioTableSchema;
 import com.porflyo.schema.PortfolioUrlTableSchema;
@@ -17,10 +19,13 @@ import io.micronaut.context.env.Environment;
 import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.context.event.StartupEvent;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TimeToLiveStatus;
 
 /**
  * !!!! NEVER use this in production !!!!
@@ -36,11 +41,16 @@ import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 public class DdbBootstrap implements ApplicationEventListener<StartupEvent> {
 
     DynamoDbEnhancedClient enhanced;
+    DynamoDbClient lowClient;
     DdbConfig ddbConfig;
 
     @Inject
-    public DdbBootstrap(DynamoDbEnhancedClient enhanced, DdbConfig ddbConfig) {
+    public DdbBootstrap(
+            DynamoDbEnhancedClient enhanced,
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig ddbConfig) {
         this.enhanced = enhanced;
+        this.lowClient = lowClient;
         this.ddbConfig = ddbConfig;
     }
 
@@ -55,6 +65,7 @@ public class DdbBootstrap implements ApplicationEventListener<StartupEvent> {
 
     private static final List<TableSchema<?>> METRICS_TABLE_SCHEMAS = List.of(
         PortfolioMetricsTableSchema.SCHEMA,
+        PortfolioMetricsCounterTableSchema.SCHEMA,
         SlotMetricsTableSchema.SCHEMA
     );
 
@@ -66,6 +77,9 @@ public class DdbBootstrap implements ApplicationEventListener<StartupEvent> {
         
         // Create metrics table and warm up its schemas
         createTableAndWarmupSchemas(ddbConfig.metricsTable(), METRICS_TABLE_SCHEMAS);
+
+        // Beacon filters expire through the table's TTL, as the templates configure it
+        enableTimeToLive(ddbConfig.metricsTable(), DdbBeaconDedupRepository.TTL_ATTRIBUTE);
     }
 
     private void createTableAndWarmupSchemas(String tableName, List<TableSchema<?>> schemas) {
@@ -86,6 +100,19 @@ public class DdbBootstrap implements ApplicationEventListener<StartupEvent> {
         }
     }
 
+    private void enableTimeToLive(String tableName, String attributeName) {
+        TimeToLiveStatus status = lowClient.describeTimeToLive(r -> r.tableName(tableName))
+            .timeToLiveDescription()
+            .timeToLiveStatus();
+        if (status == TimeToLiveStatus.ENABLED || status == TimeToLiveStatus.ENABLING) {
+            return;
+        }
+
+        lowClient.updateTimeToLive(r -> r
+            .tableName(tableName)
+            .timeToLiveSpecification(t -> t.attributeName(attributeName).enabled(true)));
+    }
+
 
     private boolean tableExists(DynamoDbTable<?> table) {
         try {
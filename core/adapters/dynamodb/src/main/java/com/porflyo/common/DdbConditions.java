@@ -0,0 +1,46 @@
+package com.porflyo.common;
+
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Condition expressions for optimistic writes on read-modify-write items.
+ */
+public final class DdbConditions {
+    private DdbConditions() {}
+
+    /**
+     * Condition for writing back an item read with revision {@code expected}.
+     * The write only succeeds if the item is still missing (not found when read), still has
+     * no revision (written before revisions existed) or still holds {@code expected}.
+     *
+     * @param existed whether the item was found when read
+     * @param expected revision that was read, null if none
+     * @param revisionAttribute name of the revision attribute
+     */
+    public static Expression unchangedSince(boolean existed, Long expected, String revisionAttribute) {
+        if (!existed) {
+            return Expression.builder()
+                .expression("attribute_not_exists(PK)")
+                .build();
+        }
+
+        if (expected == null) {
+            return Expression.builder()
+                .expression("attribute_not_exists(#rev)")
+                .putExpressionName("#rev", revisionAttribute)
+                .build();
+        }
+
+        return Expression.builder()
+            .expression("#rev = :rev")
+            .putExpressionName("#rev", revisionAttribute)
+            .putExpressionValue(":rev", AttributeValue.fromN(expected.toString()))
+            .build();
+    }
+
+    /** Revision to store when writing back an item read with revision {@code expected}. */
+    public static long nextRevision(Long expected) {
+        return expected == null ? 1L : expected + 1;
+    }
+}
@@ -1,7 +1,13 @@
 package com.porflyo.common;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+import com.porflyo.model.metrics.RollupPeriod;
 
 import jakarta.validation.constraints.NotNull;
 
@@ -28,6 +34,13 @@ public final class DdbKeys {
     public static final String METRICS_PK_PREFIX = "P#";
     public static final String METRICS_SK_PREFIX = "M#";
     public static final String METRICS_SLOT_SK_PREFIX = "S#";
+    public static final String METRICS_COUNTER_SK_MARKER = "#C#";
+    public static final String METRICS_BEACON_SK_PREFIX = "B#";
+    public static final String METRICS_ROLLUP_SK_PREFIX = "R#";
+    public static final String METRICS_VIEW_SK = "V#DASHBOARD";
+    public static final String METRICS_LATE_WRITES_SK = "W#LATE";      // revision of writes to past days
+    public static final String METRICS_BASELINE_SK = "Z#BASELINE";     // sorts after every other metrics SK
+    private static final String WEEK_MARKER = "W";
     public static final int METRICS_DAY_SHARDS = 3;  // 3 slots to cover all days in month (31/3=10.33 -> 11)  
     public static final int METRICS_SLOT_COUNT = 10;
 
@@ -71,9 +84,65 @@ public final class DdbKeys {
         return METRICS_SK_PREFIX + monthYear + "#" + slot;
     }
 
+    /**
+     * Builds the SK of the per-day counter item, M#yyyy-MM#C#dd. It sorts inside the
+     * month range, so month queries return shards and counter items together.
+     */
+    public static String skDayCounter(LocalDate date) {
+        String monthYear = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+        return METRICS_SK_PREFIX + monthYear + METRICS_COUNTER_SK_MARKER + String.format("%02d", date.getDayOfMonth());
+    }
+
+    public static boolean isDayCounterSk(String sk) {
+        return sk != null && sk.startsWith(METRICS_SK_PREFIX) && sk.contains(METRICS_COUNTER_SK_MARKER);
+    }
+
+    /**
+     * Builds the SK of one shard of the per-day beacon dedup filter, B#yyyy-MM-dd#xx with the
+     * shard in two hex digits. It sorts before the M# range, so metrics queries and deletes
+     * never see it.
+     */
+    public static String skBeaconShard(LocalDate date, int shard) {
+        return METRICS_BEACON_SK_PREFIX + date.format(DateTimeFormatter.ISO_LOCAL_DATE)
+            + String.format("#%02x", shard);
+    }
+
+    /**
+     * Builds the SK of the rollup of the period starting on {@code start}: R#yyyy-MM for a month,
+     * R#yyyy-Www for an ISO week (week-based year). It sorts after the M# range, so daily metrics
+     * queries never see it.
+     */
+    public static String skRollup(RollupPeriod period, LocalDate start) {
+        return switch (period) {
+            case MONTH -> METRICS_ROLLUP_SK_PREFIX + start.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+            case WEEK -> METRICS_ROLLUP_SK_PREFIX + String.format("%04d-%s%02d",
+                start.get(IsoFields.WEEK_BASED_YEAR), WEEK_MARKER, start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        };
+    }
+
+    /** First day of the period of a rollup SK built by {@link #skRollup(RollupPeriod, LocalDate)}. */
+    public static LocalDate rollupStartFrom(String sk) {
+        String period = idFrom(METRICS_ROLLUP_SK_PREFIX, sk);
+        int dash = period.indexOf('-');
+        int year = Integer.parseInt(period.substring(0, dash));
+
+        if (period.startsWith(WEEK_MARKER, dash + 1)) {
+            int week = Integer.parseInt(period.substring(dash + 1 + WEEK_MARKER.length()));
+            return LocalDate.of(year, 1, 4)
+                .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        return YearMonth.of(year, Integer.parseInt(period.substring(dash + 1))).atDay(1);
+    }
+
     public static String skTodaySlot() {
-        // Get current date and calculate slot based on days since epoch
-        long daysSinceEpoch = LocalDate.now().toEpochDay();
+        return skSlot(LocalDate.now());
+    }
+
+    /** Slot a day is written to; it is reused {@link #METRICS_SLOT_COUNT} days later. */
+    public static String skSlot(LocalDate day) {
+        // Calculate slot based on days since epoch
+        long daysSinceEpoch = day.toEpochDay();
         int slot = (int) (daysSinceEpoch % METRICS_SLOT_COUNT);
 
         // Format SK as S#Slot
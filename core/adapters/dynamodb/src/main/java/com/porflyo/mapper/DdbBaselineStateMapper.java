@@ -0,0 +1,117 @@
+package com.porflyo.mapper;
+
+import static com.porflyo.common.DdbKeys.METRICS_BASELINE_SK;
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.idFrom;
+import static com.porflyo.common.DdbKeys.pk;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Maps a {@link BaselineState} to and from the attributes of its item, {@code Z#BASELINE}
+ * in the portfolio's metrics partition.
+ * <p>
+ * The stats are packed in one binary attribute: a version byte, the stat count and the
+ * window size, then per stat its count, mean and M2 followed by the window values as
+ * doubles, NaN standing for a day without value. A 28-day window takes about 1.2 KB.
+ */
+public final class DdbBaselineStateMapper {
+
+    public static final String PK_ATTRIBUTE = "PK";
+    public static final String SK_ATTRIBUTE = "SK";
+    public static final String THROUGH_ATTRIBUTE = "T";
+    public static final String WINDOW_ATTRIBUTE = "W";
+    public static final String STATS_ATTRIBUTE = "B";
+
+    private static final byte BLOB_VERSION = 1;
+
+    private DdbBaselineStateMapper() {}
+
+
+    // ────────────────────────── Domain -> ITEM ──────────────────────────
+
+    public static Map<String, AttributeValue> toAttributes(BaselineState state) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk(METRICS_PK_PREFIX, state.portfolioId().value())),
+            SK_ATTRIBUTE, AttributeValue.fromS(METRICS_BASELINE_SK),
+            THROUGH_ATTRIBUTE, AttributeValue.fromS(state.throughDate().toString()),
+            WINDOW_ATTRIBUTE, AttributeValue.fromN(Integer.toString(state.windowDays())),
+            STATS_ATTRIBUTE, AttributeValue.fromB(SdkBytes.fromByteArray(encodeStats(state.stats()))));
+    }
+
+    static byte[] encodeStats(List<BaselineState.Stat> stats) {
+        int days = stats.isEmpty() ? 0 : stats.get(0).window().size();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + stats.size() * (20 + days * Double.BYTES));
+
+        buffer.put(BLOB_VERSION);
+        buffer.put((byte) stats.size());
+        buffer.putShort((short) days);
+
+        for (BaselineState.Stat stat : stats) {
+            if (stat.window().size() != days) {
+                throw new IllegalArgumentException("Baseline windows differ in size");
+            }
+            buffer.putInt(stat.count());
+            buffer.putDouble(stat.mean());
+            buffer.putDouble(stat.m2());
+            for (Double value : stat.window()) {
+                buffer.putDouble(value == null ? Double.NaN : value);
+            }
+        }
+
+        return buffer.array();
+    }
+
+
+    // ────────────────────────── ITEM -> Domain ──────────────────────────
+
+    public static BaselineState fromAttributes(Map<String, AttributeValue> item) {
+        PortfolioId portfolioId = new PortfolioId(idFrom(METRICS_PK_PREFIX, item.get(PK_ATTRIBUTE).s()));
+        LocalDate throughDate = LocalDate.parse(item.get(THROUGH_ATTRIBUTE).s());
+        int windowDays = Integer.parseInt(item.get(WINDOW_ATTRIBUTE).n());
+
+        return new BaselineState(portfolioId, throughDate, windowDays, decodeStats(item.get(STATS_ATTRIBUTE).b().asByteArray()));
+    }
+
+    static List<BaselineState.Stat> decodeStats(byte[] blob) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(blob);
+
+            int version = buffer.get();
+            if (version != BLOB_VERSION) {
+                throw new IllegalArgumentException("Unsupported baseline version: " + version);
+            }
+            int statCount = Byte.toUnsignedInt(buffer.get());
+            int days = Short.toUnsignedInt(buffer.getShort());
+
+            List<BaselineState.Stat> stats = new ArrayList<>(statCount);
+            for (int s = 0; s < statCount; s++) {
+                int count = buffer.getInt();
+                double mean = buffer.getDouble();
+                double m2 = buffer.getDouble();
+
+                List<Double> window = new ArrayList<>(days);
+                for (int i = 0; i < days; i++) {
+                    double value = buffer.getDouble();
+                    window.add(Double.isNaN(value) ? null : value);
+                }
+                stats.add(new BaselineState.Stat(count, mean, m2, window));
+            }
+            return stats;
+
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated baseline state", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.porflyo.mapper;
+
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.METRICS_VIEW_SK;
+import static com.porflyo.common.DdbKeys.idFrom;
+import static com.porflyo.common.DdbKeys.pk;
+
+import java.time.Instant;
+import java.util.Map;
+
+import com.porflyo.dto.MetricsView;
+import com.porflyo.model.ids.PortfolioId;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Maps a {@link MetricsView} to and from the attributes of its item, {@code V#DASHBOARD}
+ * in the portfolio's metrics partition. The body is stored as is, already compressed.
+ */
+public final class DdbMetricsViewMapper {
+
+    public static final String PK_ATTRIBUTE = "PK";
+    public static final String SK_ATTRIBUTE = "SK";
+    public static final String MONTHS_ATTRIBUTE = "M";
+    public static final String VERSION_ATTRIBUTE = "V";
+    public static final String RENDERED_AT_ATTRIBUTE = "T";     // epoch millis
+    public static final String BODY_ATTRIBUTE = "B";
+
+    private DdbMetricsViewMapper() {}
+
+
+    // ────────────────────────── Domain -> ITEM ──────────────────────────
+
+    public static Map<String, AttributeValue> toAttributes(MetricsView view) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk(METRICS_PK_PREFIX, view.portfolioId().value())),
+            SK_ATTRIBUTE, AttributeValue.fromS(METRICS_VIEW_SK),
+            MONTHS_ATTRIBUTE, AttributeValue.fromN(Integer.toString(view.monthsBack())),
+            VERSION_ATTRIBUTE, AttributeValue.fromS(view.version()),
+            RENDERED_AT_ATTRIBUTE, AttributeValue.fromN(Long.toString(view.renderedAt().toEpochMilli())),
+            BODY_ATTRIBUTE, AttributeValue.fromB(SdkBytes.fromByteArray(view.body())));
+    }
+
+
+    // ────────────────────────── ITEM -> Domain ──────────────────────────
+
+    public static MetricsView fromAttributes(Map<String, AttributeValue> item) {
+        return new MetricsView(
+            new PortfolioId(idFrom(METRICS_PK_PREFIX, item.get(PK_ATTRIBUTE).s())),
+            Integer.parseInt(item.get(MONTHS_ATTRIBUTE).n()),
+            item.get(VERSION_ATTRIBUTE).s(),
+            Instant.ofEpochMilli(Long.parseLong(item.get(RENDERED_AT_ATTRIBUTE).n())),
+            item.get(BODY_ATTRIBUTE).b().asByteArray());
+    }
+}
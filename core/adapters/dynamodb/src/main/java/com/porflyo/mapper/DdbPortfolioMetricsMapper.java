@@ -3,32 +3,74 @@ package com.porflyo.mapper;
 import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
 import static com.porflyo.common.DdbKeys.idFrom;
 import static com.porflyo.common.DdbKeys.pk;
+import static com.porflyo.common.DdbKeys.rollupStartFrom;
+import static com.porflyo.common.DdbKeys.skDayCounter;
+import static com.porflyo.common.DdbKeys.skRollup;
 import static com.porflyo.common.DdbKeys.skTodayMonthShard;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.function.ToIntFunction;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.porflyo.Item.DdbPortfolioMetricsCounterItem;
 import com.porflyo.Item.DdbPortfolioMetricsItem;
+import com.porflyo.codec.BlobReader;
+import com.porflyo.codec.PackedBlob;
 import com.porflyo.common.DdbKeys;
 import com.porflyo.model.ids.PortfolioId;
 import com.porflyo.model.metrics.Devices;
 import com.porflyo.model.metrics.Engagement;
 import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioMetrics;
 import com.porflyo.model.metrics.ProjectMetrics;
-
+import com.porflyo.model.metrics.RollupPeriod;
+
+/**
+ * Maps the daily metrics of a month shard to and from {@link DdbPortfolioMetricsItem}.
+ * <p>
+ * Version 1 items hold one DynamoDB list per daily column. Version 2 items pack every column
+ * into a single {@link PackedBlob}, one section per column with the smallest width that fits,
+ * which is several times smaller than the lists. Items are always written as version 2 and
+ * both versions are read, so a shard migrates the next time one of its days is written.
+ * <p>
+ * Both directions go through {@link PortfolioMetricsColumns}: one pass over the days fills
+ * a primitive array per column, and reads return a view that builds each day when it is read.
+ */
 public final class DdbPortfolioMetricsMapper {
     
     private DdbPortfolioMetricsMapper() {}
 
-    private static final String VERSION = "1";
+    private static final String VERSION = "2";
+    private static final String COUNTER_VERSION = "C1";
+    private static final String ROLLUP_VERSION = "R1";
+    private static final int BLOB_VERSION = 2;
+
+    // Column sections of a version 2 shard
+    private static final int SEC_DAY = 1;
+    private static final int SEC_ACTIVE_TIME = 2;
+    private static final int SEC_VIEWS = 3;
+    private static final int SEC_QUALITY_VISITS = 4;
+    private static final int SEC_EMAIL_COPIES = 5;
+    private static final int SEC_SOCIAL_CLICKS = 6;
+    private static final int SEC_DEVICE_VIEWS = 7;
+    private static final int SEC_TOTAL_SCROLL_SCORE = 8;
+    private static final int SEC_TOTAL_SCROLL_TIME = 9;
+    private static final int SEC_TTFI_SUM_MS = 10;
+    private static final int SEC_TTFI_COUNT = 11;
+    private static final int SEC_VIEW_TIME = 12;
+    private static final int SEC_EXPOSURES = 13;
+    private static final int SEC_CODE_VIEWS = 14;
+    private static final int SEC_LIVE_VIEWS = 15;
+
+    private static final Set<MetricsField> ALL_FIELDS = Collections.unmodifiableSet(EnumSet.allOf(MetricsField.class));
 
     // ────────────────────────── Domain -> ITEM ──────────────────────────
 
@@ -56,45 +98,74 @@ public final class DdbPortfolioMetricsMapper {
 
         item.setSK(skTodayMonthShard(domain.get(0).date()));
         
-        // ATTRIBUTES
+        // ATTRIBUTES: days are mostly in order, so they pack as gaps; counters as offsets from their minimum
         item.setVersion(VERSION);
-        item.setDayIntegers(getIntegers(domain, "day"));
 
-        // Engagement
-        item.setActiveTime(getIntegers(domain, "activeTime"));
-        item.setViews(getIntegers(domain, "views"));
-        item.setQualityVisits(getIntegers(domain, "qualityVisits"));
-        item.setEmailCopies(getIntegers(domain, "emailCopies"));
-        item.setSocialClicks(getIntegers(domain, "socialClicks"));
-        item.setDeviceViews(getIntegers(domain, "deviceViews"));
+        PortfolioMetricsColumns c = PortfolioMetricsColumns.of(domain);
+
+        PackedBlob columns = PackedBlob.builder()
+            .version(BLOB_VERSION)
+            .addSection(SEC_DAY, c.day, PackedBlob.Transform.DELTA)
+
+            // Engagement
+            .addSection(SEC_ACTIVE_TIME, c.activeTime, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_VIEWS, c.views, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_QUALITY_VISITS, c.qualityVisits, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_EMAIL_COPIES, c.emailCopies, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_SOCIAL_CLICKS, c.socialClicks, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_DEVICE_VIEWS, c.deviceViews, PackedBlob.Transform.FRAME_OF_REFERENCE)
+
+            // Interaction
+            .addSection(SEC_TOTAL_SCROLL_SCORE, c.totalScrollScore, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_TOTAL_SCROLL_TIME, c.totalScrollTime, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_TTFI_SUM_MS, c.ttfiSumMs, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_TTFI_COUNT, c.ttfiCount, PackedBlob.Transform.FRAME_OF_REFERENCE)
+
+            // Projects
+            .addSection(SEC_VIEW_TIME, c.viewTime, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_EXPOSURES, c.exposures, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_CODE_VIEWS, c.codeViews, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_LIVE_VIEWS, c.liveViews, PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .build();
+
+        item.setColumns(columns.bytes());
+        return item;
+    }
 
-        // Interaction
-        item.setTotalScrollScore(getIntegers(domain, "totalScrollScore"));
-        item.setTotalScrollTime(getIntegers(domain, "totalScrollTime"));
-        item.setTtfiSumMs(getIntegers(domain, "ttfiSumMs"));
-        item.setTtfiCount(getIntegers(domain, "ttfiCount"));
 
-        // Projects
-        item.setViewTime(getIntegers(domain, "viewTime"));
-        item.setExposures(getIntegers(domain, "exposures"));
-        item.setCodeViews(getIntegers(domain, "codeViews"));
-        item.setLiveViews(getIntegers(domain, "liveViews"));
+    /**
+     * Returns the days of a shard with the entry of {@code day}'s date replaced (or added).
+     */
+    public static final List<PortfolioMetrics> replaceDay(List<PortfolioMetrics> shard, PortfolioMetrics day) {
+        List<PortfolioMetrics> combined = shard.stream()
+            .filter(pm -> !pm.date().equals(day.date()))
+            .collect(Collectors.toCollection(ArrayList::new));
 
-        return item;
+        combined.add(day);
+        return combined;
     }
 
 
     // ────────────────────────── ITEM -> Domain ──────────────────────────
 
     /**
-     * Reconstruct a list of PortfolioMetrics from a DdbPortfolioMetricsItem.
+     * Reconstruct a list of PortfolioMetrics from a DdbPortfolioMetricsItem of either version.
      * Assumptions:
      * <ul>
-     *  <li>All integer lists in the item are parallel and have the same length.</li>
+     *  <li>All integer lists (or blob sections) in the item are parallel and have the same length.</li>
      *  <li>SK follows the pattern M#yyyy-MM#slot as produced by {@link DdbKeys#skTodayMonthShard()}.</li>
      * </ul>
      */
     public static final List<PortfolioMetrics> fromItem(DdbPortfolioMetricsItem item) {
+        return fromItem(item, ALL_FIELDS);
+    }
+
+    /**
+     * Same as {@link #fromItem(DdbPortfolioMetricsItem)}, decoding only the blob sections of the
+     * given counters; the others are left at 0. Version 1 lists are read when present, as reads
+     * limited to some counters project the other lists away.
+     */
+    public static final List<PortfolioMetrics> fromItem(DdbPortfolioMetricsItem item, Set<MetricsField> fields) {
         Objects.requireNonNull(item, "item must not be null");
 
         String pk = item.getPK();
@@ -112,115 +183,223 @@ public final class DdbPortfolioMetricsMapper {
         String yearMonthStr = parts[1];
         YearMonth ym = YearMonth.parse(yearMonthStr, DateTimeFormatter.ofPattern("yyyy-MM"));
 
-        // Collect lists and validate lengths
-        List<Integer> days = item.getDayIntegers();
-        int n = days == null ? 0 : days.size();
+        // Fill the columns, from the blob for version 2 and from the lists for version 1
+        PortfolioMetricsColumns columns = item.getColumns() != null
+            ? columnsFromBlob(BlobReader.parse(item.getColumns()), fields)
+            : columnsFromLists(item);
 
-        // Helper to ensure we have a list of length n (or null -> list of zeros)
-        java.util.function.Function<List<Integer>, List<Integer>> norm = lst -> {
-            if (lst == null) return java.util.stream.IntStream.range(0, n).map(i -> 0).boxed().collect(Collectors.toList());
-            if (lst.size() != n) throw new IllegalArgumentException("All metric lists must have the same length");
-            return lst;
+        return columns.view(portfolioId, ym);
+    }
+
+    private static PortfolioMetricsColumns columnsFromBlob(BlobReader blob, Set<MetricsField> fields) {
+        int n = blob.info(SEC_DAY).count;
+        PortfolioMetricsColumns c = new PortfolioMetricsColumns(n);
+
+        fill(blob, SEC_DAY, c.day);
+        for (MetricsField field : fields) {
+            fill(blob, section(field), c.column(field));
+        }
+
+        return c;
+    }
+
+    private static int section(MetricsField field) {
+        return switch (field) {
+            // Engagement
+            case ACTIVE_TIME -> SEC_ACTIVE_TIME;
+            case VIEWS -> SEC_VIEWS;
+            case QUALITY_VISITS -> SEC_QUALITY_VISITS;
+            case EMAIL_COPIES -> SEC_EMAIL_COPIES;
+            case SOCIAL_CLICKS -> SEC_SOCIAL_CLICKS;
+            case DEVICE_VIEWS -> SEC_DEVICE_VIEWS;
+
+            // Interaction
+            case SCROLL_SCORE -> SEC_TOTAL_SCROLL_SCORE;
+            case SCROLL_TIME -> SEC_TOTAL_SCROLL_TIME;
+            case TTFI_SUM_MS -> SEC_TTFI_SUM_MS;
+            case TTFI_COUNT -> SEC_TTFI_COUNT;
+
+            // Projects
+            case PROJECT_VIEW_TIME -> SEC_VIEW_TIME;
+            case PROJECT_EXPOSURES -> SEC_EXPOSURES;
+            case PROJECT_CODE_VIEWS -> SEC_CODE_VIEWS;
+            case PROJECT_LIVE_VIEWS -> SEC_LIVE_VIEWS;
         };
+    }
 
+    private static PortfolioMetricsColumns columnsFromLists(DdbPortfolioMetricsItem item) {
+        List<Integer> days = item.getDayIntegers();
+        PortfolioMetricsColumns c = new PortfolioMetricsColumns(days == null ? 0 : days.size());
+
+        fill(days, c.day);
 
         // Engagement
-        List<Integer> activeTime = norm.apply(item.getActiveTime());
-        List<Integer> views = norm.apply(item.getViews());
-        List<Integer> qualityVisits = norm.apply(item.getQualityVisits());
-        List<Integer> emailCopies = norm.apply(item.getEmailCopies());
-        List<Integer> socialClicks = norm.apply(item.getSocialClicks());
-        List<Integer> deviceViews = norm.apply(item.getDeviceViews());
+        fill(item.getActiveTime(), c.activeTime);
+        fill(item.getViews(), c.views);
+        fill(item.getQualityVisits(), c.qualityVisits);
+        fill(item.getEmailCopies(), c.emailCopies);
+        fill(item.getSocialClicks(), c.socialClicks);
+        fill(item.getDeviceViews(), c.deviceViews);
 
         // Interaction
-        List<Integer> totalScrollScore = norm.apply(item.getTotalScrollScore());
-        List<Integer> totalScrollTime = norm.apply(item.getTotalScrollTime());
-        List<Integer> ttfiSumMs = norm.apply(item.getTtfiSumMs());
-        List<Integer> ttfiCount = norm.apply(item.getTtfiCount());
-
+        fill(item.getTotalScrollScore(), c.totalScrollScore);
+        fill(item.getTotalScrollTime(), c.totalScrollTime);
+        fill(item.getTtfiSumMs(), c.ttfiSumMs);
+        fill(item.getTtfiCount(), c.ttfiCount);
 
         // Projects
-        List<Integer> viewTime = norm.apply(item.getViewTime());
-        List<Integer> exposures = norm.apply(item.getExposures());
-        List<Integer> codeViews = norm.apply(item.getCodeViews());
-        List<Integer> liveViews = norm.apply(item.getLiveViews());
-
-        List<PortfolioMetrics> out = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            int day = days.get(i);
-            LocalDate date = ym.atDay(Math.max(1, Math.min(31, day)));
-
-            int dv = deviceViews.get(i) == null ? 0 : deviceViews.get(i);
-            int totalV = views.get(i) == null ? 0 : views.get(i);
-            int desktop = Math.max(0, totalV - dv);
-
-            Devices devices = new Devices(desktop, dv);
-            Engagement engagement = new Engagement(
-                activeTime.get(i),
-                views.get(i),
-                qualityVisits.get(i),
-                emailCopies.get(i),
-                socialClicks.get(i),
-                devices
-            );
-
-            InteractionMetrics scroll = new InteractionMetrics(
-                totalScrollScore.get(i),
-                totalScrollTime.get(i),
-                ttfiSumMs.get(i),
-                ttfiCount.get(i)
-            );
-            
-            ProjectMetrics projects = new ProjectMetrics(
-                viewTime.get(i),
-                exposures.get(i),
-                codeViews.get(i),
-                liveViews.get(i)
-            );
-
-            out.add(new PortfolioMetrics(portfolioId, date, engagement, scroll, projects));
-        }
+        fill(item.getViewTime(), c.viewTime);
+        fill(item.getExposures(), c.exposures);
+        fill(item.getCodeViews(), c.codeViews);
+        fill(item.getLiveViews(), c.liveViews);
+
+        return c;
+    }
 
-        return out;
+    /** Decodes a section into its column; a missing section leaves the column at 0. */
+    private static void fill(BlobReader blob, int section, int[] column) {
+        if (!blob.sectionIds().contains(section)) return;
+        if (blob.info(section).count != column.length || blob.decodeSectionInto(section, column, 0) != column.length)
+            throw new IllegalArgumentException("All metric lists must have the same length");
     }
 
+    /** Copies a list into its column; a missing list leaves the column at 0. */
+    private static void fill(List<Integer> list, int[] column) {
+        if (list == null) return;
+        if (list.size() != column.length) throw new IllegalArgumentException("All metric lists must have the same length");
+        for (int i = 0; i < column.length; i++) {
+            Integer v = list.get(i);
+            column[i] = v == null ? 0 : v;
+        }
+    }
 
-    // Map of field name -> extractor function
-    private static final Map<String, ToIntFunction<PortfolioMetrics>> EXTRACTORS = Map.ofEntries(
-        // Attributes
-        Map.entry("day", pm -> pm.date().getDayOfMonth()),
+
+    // ────────────────────────── Counters ──────────────────────────
+
+    /**
+     * Builds the per-day counter item holding the values to add to the stored counters.
+     */
+    public static final DdbPortfolioMetricsCounterItem toCounterItem(PortfolioMetrics delta) {
+        Objects.requireNonNull(delta, "delta must not be null");
+
+        DdbPortfolioMetricsCounterItem item = new DdbPortfolioMetricsCounterItem();
+
+        // KEY
+        item.setPK(pk(METRICS_PK_PREFIX, delta.portfolioId().value()));
+        item.setSK(skDayCounter(delta.date()));
+
+        // ATTRIBUTES
+        item.setVersion(COUNTER_VERSION);
+        item.setDay(delta.date().getDayOfMonth());
 
         // Engagement
-        Map.entry("activeTime", pm -> pm.engagement().activeTime()),
-        Map.entry("views", pm -> pm.engagement().views()),
-        Map.entry("qualityVisits", pm -> pm.engagement().qualityVisits()),
-        Map.entry("emailCopies", pm -> pm.engagement().emailCopies()),
-        Map.entry("socialClicks", pm -> pm.engagement().socialClicks()),
-        Map.entry("deviceViews", pm -> pm.engagement().devices().mobileTabletViews()),
+        item.setActiveTime(delta.engagement().activeTime());
+        item.setViews(delta.engagement().views());
+        item.setQualityVisits(delta.engagement().qualityVisits());
+        item.setEmailCopies(delta.engagement().emailCopies());
+        item.setSocialClicks(delta.engagement().socialClicks());
+        item.setDeviceViews(delta.engagement().devices().mobileTabletViews());
 
         // Interaction
-        Map.entry("totalScrollScore", pm -> pm.scroll().scoreTotal()),
-        Map.entry("totalScrollTime", pm -> pm.scroll().scrollTimeTotal()),
-        Map.entry("ttfiSumMs", pm -> pm.scroll().ttfiSumMs()),
-        Map.entry("ttfiCount", pm -> pm.scroll().ttfiCount()),
+        item.setTotalScrollScore(delta.scroll().scoreTotal());
+        item.setTotalScrollTime(delta.scroll().scrollTimeTotal());
+        item.setTtfiSumMs(delta.scroll().ttfiSumMs());
+        item.setTtfiCount(delta.scroll().ttfiCount());
 
         // Projects
-        Map.entry("viewTime", pm -> pm.cumProjects().viewTime()),
-        Map.entry("exposures", pm -> pm.cumProjects().exposures()),
-        Map.entry("codeViews", pm -> pm.cumProjects().codeViews()),
-        Map.entry("liveViews", pm -> pm.cumProjects().liveViews())
-    );
-
-    private static final List<Integer> getIntegers(List<PortfolioMetrics> items, String field) {
-        ToIntFunction<PortfolioMetrics> extractor = EXTRACTORS.get(field);
-       
-        if (extractor == null) {
-            throw new IllegalArgumentException("Unknown or unimplemented field extractor: " + field);
+        item.setViewTime(delta.cumProjects().viewTime());
+        item.setExposures(delta.cumProjects().exposures());
+        item.setCodeViews(delta.cumProjects().codeViews());
+        item.setLiveViews(delta.cumProjects().liveViews());
+
+        return item;
+    }
+
+    /**
+     * Reconstruct the PortfolioMetrics of one day from its counter item.
+     * SK follows the pattern M#yyyy-MM#C#dd as produced by {@link DdbKeys#skDayCounter(LocalDate)}.
+     */
+    public static final PortfolioMetrics fromCounterItem(DdbPortfolioMetricsCounterItem item) {
+        Objects.requireNonNull(item, "item must not be null");
+
+        PortfolioId portfolioId = new PortfolioId(idFrom(METRICS_PK_PREFIX, item.getPK()));
+
+        String sk = item.getSK();
+        if (!DdbKeys.isDayCounterSk(sk)) {
+            throw new IllegalArgumentException("Invalid SK format: " + sk);
         }
-       
-        return items.stream()
-            .mapToInt(extractor)
-            .boxed()
-            .collect(Collectors.toList());
+        // sk = M#yyyy-MM#C#dd
+        String[] parts = sk.split("#");
+        YearMonth ym = YearMonth.parse(parts[1], DateTimeFormatter.ofPattern("yyyy-MM"));
+        LocalDate date = ym.atDay(Integer.parseInt(parts[3]));
+
+        return fromCounters(portfolioId, date, item);
+    }
+
+
+    // ────────────────────────── Rollups ──────────────────────────
+
+    /**
+     * Builds the rollup item of a period, holding the summed counters of its {@code days} days
+     * with data. Rollups share the counter item layout; the day attribute holds the day count.
+     */
+    public static final DdbPortfolioMetricsCounterItem toRollupItem(PortfolioMetrics total, RollupPeriod period, int days) {
+        Objects.requireNonNull(total, "total must not be null");
+
+        DdbPortfolioMetricsCounterItem item = toCounterItem(total);
+        item.setSK(skRollup(period, period.startOf(total.date())));
+        item.setVersion(ROLLUP_VERSION);
+        item.setDay(days);
+        return item;
+    }
+
+    /**
+     * Reconstruct the summed PortfolioMetrics of a period from its rollup item, dated on the
+     * first day of the period. SK follows the pattern built by {@link DdbKeys#skRollup}.
+     */
+    public static final PortfolioMetrics fromRollupItem(DdbPortfolioMetricsCounterItem item) {
+        Objects.requireNonNull(item, "item must not be null");
+
+        PortfolioId portfolioId = new PortfolioId(idFrom(METRICS_PK_PREFIX, item.getPK()));
+        return fromCounters(portfolioId, rollupStartFrom(item.getSK()), item);
+    }
+
+    /** Number of days with data summed in a rollup item. */
+    public static final int rollupDays(DdbPortfolioMetricsCounterItem item) {
+        return zeroIfNull(item.getDay());
+    }
+
+    private static PortfolioMetrics fromCounters(PortfolioId portfolioId, LocalDate date, DdbPortfolioMetricsCounterItem item) {
+        int views = zeroIfNull(item.getViews());
+        int deviceViews = zeroIfNull(item.getDeviceViews());
+
+        Engagement engagement = new Engagement(
+            zeroIfNull(item.getActiveTime()),
+            views,
+            zeroIfNull(item.getQualityVisits()),
+            zeroIfNull(item.getEmailCopies()),
+            zeroIfNull(item.getSocialClicks()),
+            new Devices(Math.max(0, views - deviceViews), deviceViews)
+        );
+
+        InteractionMetrics scroll = new InteractionMetrics(
+            zeroIfNull(item.getTotalScrollScore()),
+            zeroIfNull(item.getTotalScrollTime()),
+            zeroIfNull(item.getTtfiSumMs()),
+            zeroIfNull(item.getTtfiCount())
+        );
+
+        ProjectMetrics projects = new ProjectMetrics(
+            zeroIfNull(item.getViewTime()),
+            zeroIfNull(item.getExposures()),
+            zeroIfNull(item.getCodeViews()),
+            zeroIfNull(item.getLiveViews())
+        );
+
+        return new PortfolioMetrics(portfolioId, date, engagement, scroll, projects);
+    }
+
+    private static int zeroIfNull(Integer v) {
+        return v == null ? 0 : v;
     }
 }
@@ -2,7 +2,7 @@ package com.porflyo.mapper;
 
 import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
 import static com.porflyo.common.DdbKeys.pk;
-import static com.porflyo.common.DdbKeys.skTodaySlot;
+import static com.porflyo.common.DdbKeys.skSlot;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -23,9 +23,9 @@ public final class DdbSlotMetricsMapper {
     private static final int SEC_VALUE = 2;
     private static final int SEC_COUNTS = 3;
 
-    private static final int B_IDX = 15;        // 64 * 512 -> 16B: 15 bits x 400 = 6000 bits -> ceil(6000/8) = 750 B
-    private static final int B_VALUE = 12;      // 12 bits x 400 = 4800 bits -> 600 B
-    private static final int B_COUNTS = 6;      // 6  bits x 400 = 2400 bits -> 300 B
+    // Widths are picked per blob from the data: indexes are sorted, so their gaps pack in a few bits,
+    // and values and counts get as many bits as their range needs instead of a fixed 12 and 6.
+    private static final int BLOB_VERSION = 2;
 
     private DdbSlotMetricsMapper() {}
 
@@ -36,17 +36,27 @@ public final class DdbSlotMetricsMapper {
             PortfolioId portfolioId,
             PortfolioHeatmap heatmap,
             List<ProjectMetricsWithId> projectMetrics
+    ) {
+        return toItem(portfolioId, LocalDate.now(), heatmap, projectMetrics);
+    }
+
+    /** Builds the item of the slot {@code day} is written to. */
+    public static final DdbSlotMetricsItem toItem(
+            PortfolioId portfolioId,
+            LocalDate day,
+            PortfolioHeatmap heatmap,
+            List<ProjectMetricsWithId> projectMetrics
     ) {
         Objects.requireNonNull(projectMetrics, "projectMetrics");
         Objects.requireNonNull(heatmap, "heatmap");
 
         String PK = pk(METRICS_PK_PREFIX, portfolioId.value());
-        String SK = skTodaySlot();
+        String SK = skSlot(day);
 
         DdbSlotMetricsItem item = new DdbSlotMetricsItem();
         item.setPK(PK);
         item.setSK(SK);
-        item.setDate(LocalDate.now().toString());
+        item.setDate(day.toString());
 
         // projects -> parallel lists
         List<Integer> ids = new ArrayList<>();
@@ -74,11 +84,11 @@ public final class DdbSlotMetricsMapper {
             throw new IllegalArgumentException("Heatmap arrays must not be null");
 
         PackedBlob blob = PackedBlob.builder()
-            .version(1)
+            .version(BLOB_VERSION)
             .enableCrc32(false)
-            .addSection(SEC_IDX, B_IDX, heatmap.Indexes())
-            .addSection(SEC_VALUE, B_VALUE, heatmap.Values())
-            .addSection(SEC_COUNTS, B_COUNTS, heatmap.Counts())
+            .addSection(SEC_IDX, heatmap.Indexes(), PackedBlob.Transform.DELTA)
+            .addSection(SEC_VALUE, heatmap.Values(), PackedBlob.Transform.FRAME_OF_REFERENCE)
+            .addSection(SEC_COUNTS, heatmap.Counts(), PackedBlob.Transform.FRAME_OF_REFERENCE)
             .build();
 
         item.setVersion(heatmap.version());
@@ -114,15 +124,16 @@ public final class DdbSlotMetricsMapper {
             projects.add(new ProjectMetricsWithId(id, vt, t, cv, lv));
         }
 
-        // decode heatmap from blob
+        // heatmap sections are decoded from the blob on first access, so unread ones cost nothing;
+        // version 1 blobs written with fixed widths are read the same way
         BlobReader reader = BlobReader.parse(item.getHeatMap());
 
         PortfolioHeatmap heatmap = new PortfolioHeatmap(
             item.getVersion(),
             item.getColumns(),
-            reader.decodeSection(SEC_IDX),
-            reader.decodeSection(SEC_VALUE),
-            reader.decodeSection(SEC_COUNTS)
+            reader.lazySection(SEC_IDX),
+            reader.lazySection(SEC_VALUE),
+            reader.lazySection(SEC_COUNTS)
         );
 
         return new DetailSlot(date, heatmap, projects);
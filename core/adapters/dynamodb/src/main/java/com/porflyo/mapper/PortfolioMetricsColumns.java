@@ -0,0 +1,196 @@
+package com.porflyo.mapper;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.Devices;
+import com.porflyo.model.metrics.Engagement;
+import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.MetricsField;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.ProjectMetrics;
+
+/**
+ * The days of a month shard held column by column, one {@code int[]} per stored field.
+ * <p>
+ * {@link #of(List)} fills every column in a single pass over the days, and {@link #view}
+ * turns the columns back into {@link PortfolioMetrics} one day at a time, the first time
+ * each day is read. Null fields are stored as 0.
+ */
+final class PortfolioMetricsColumns {
+
+    final int size;
+
+    final int[] day;
+
+    // Engagement
+    final int[] activeTime;
+    final int[] views;
+    final int[] qualityVisits;
+    final int[] emailCopies;
+    final int[] socialClicks;
+    final int[] deviceViews;
+
+    // Interaction
+    final int[] totalScrollScore;
+    final int[] totalScrollTime;
+    final int[] ttfiSumMs;
+    final int[] ttfiCount;
+
+    // Projects
+    final int[] viewTime;
+    final int[] exposures;
+    final int[] codeViews;
+    final int[] liveViews;
+
+    /** Columns of {@code size} days, all zero. */
+    PortfolioMetricsColumns(int size) {
+        this.size = size;
+        this.day = new int[size];
+        this.activeTime = new int[size];
+        this.views = new int[size];
+        this.qualityVisits = new int[size];
+        this.emailCopies = new int[size];
+        this.socialClicks = new int[size];
+        this.deviceViews = new int[size];
+        this.totalScrollScore = new int[size];
+        this.totalScrollTime = new int[size];
+        this.ttfiSumMs = new int[size];
+        this.ttfiCount = new int[size];
+        this.viewTime = new int[size];
+        this.exposures = new int[size];
+        this.codeViews = new int[size];
+        this.liveViews = new int[size];
+    }
+
+    /** Column of a stored counter. */
+    int[] column(MetricsField field) {
+        return switch (field) {
+            case ACTIVE_TIME -> activeTime;
+            case VIEWS -> views;
+            case QUALITY_VISITS -> qualityVisits;
+            case EMAIL_COPIES -> emailCopies;
+            case SOCIAL_CLICKS -> socialClicks;
+            case DEVICE_VIEWS -> deviceViews;
+            case SCROLL_SCORE -> totalScrollScore;
+            case SCROLL_TIME -> totalScrollTime;
+            case TTFI_SUM_MS -> ttfiSumMs;
+            case TTFI_COUNT -> ttfiCount;
+            case PROJECT_VIEW_TIME -> viewTime;
+            case PROJECT_EXPOSURES -> exposures;
+            case PROJECT_CODE_VIEWS -> codeViews;
+            case PROJECT_LIVE_VIEWS -> liveViews;
+        };
+    }
+
+    static PortfolioMetricsColumns of(List<PortfolioMetrics> days) {
+        PortfolioMetricsColumns c = new PortfolioMetricsColumns(days.size());
+
+        for (int i = 0; i < c.size; i++) {
+            PortfolioMetrics pm = days.get(i);
+            Engagement engagement = pm.engagement();
+            InteractionMetrics scroll = pm.scroll();
+            ProjectMetrics projects = pm.cumProjects();
+
+            c.day[i] = pm.date().getDayOfMonth();
+
+            c.activeTime[i] = zeroIfNull(engagement.activeTime());
+            c.views[i] = zeroIfNull(engagement.views());
+            c.qualityVisits[i] = zeroIfNull(engagement.qualityVisits());
+            c.emailCopies[i] = zeroIfNull(engagement.emailCopies());
+            c.socialClicks[i] = zeroIfNull(engagement.socialClicks());
+            c.deviceViews[i] = zeroIfNull(engagement.devices().mobileTabletViews());
+
+            c.totalScrollScore[i] = zeroIfNull(scroll.scoreTotal());
+            c.totalScrollTime[i] = zeroIfNull(scroll.scrollTimeTotal());
+            c.ttfiSumMs[i] = zeroIfNull(scroll.ttfiSumMs());
+            c.ttfiCount[i] = zeroIfNull(scroll.ttfiCount());
+
+            c.viewTime[i] = zeroIfNull(projects.viewTime());
+            c.exposures[i] = zeroIfNull(projects.exposures());
+            c.codeViews[i] = zeroIfNull(projects.codeViews());
+            c.liveViews[i] = zeroIfNull(projects.liveViews());
+        }
+
+        return c;
+    }
+
+    /**
+     * Unmodifiable list of the days of the shard of {@code month}, each built from the
+     * columns on first access.
+     */
+    List<PortfolioMetrics> view(PortfolioId portfolioId, YearMonth month) {
+        return new View(this, portfolioId, month);
+    }
+
+    PortfolioMetrics materialize(int i, PortfolioId portfolioId, YearMonth month) {
+        LocalDate date = month.atDay(Math.max(1, Math.min(month.lengthOfMonth(), day[i])));
+
+        Engagement engagement = new Engagement(
+            activeTime[i],
+            views[i],
+            qualityVisits[i],
+            emailCopies[i],
+            socialClicks[i],
+            new Devices(Math.max(0, views[i] - deviceViews[i]), deviceViews[i])
+        );
+
+        InteractionMetrics scroll = new InteractionMetrics(
+            totalScrollScore[i],
+            totalScrollTime[i],
+            ttfiSumMs[i],
+            ttfiCount[i]
+        );
+
+        ProjectMetrics projects = new ProjectMetrics(
+            viewTime[i],
+            exposures[i],
+            codeViews[i],
+            liveViews[i]
+        );
+
+        return new PortfolioMetrics(portfolioId, date, engagement, scroll, projects);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static int zeroIfNull(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private static final class View extends AbstractList<PortfolioMetrics> implements RandomAccess {
+        private final PortfolioMetricsColumns columns;
+        private final PortfolioId portfolioId;
+        private final YearMonth month;
+        private final PortfolioMetrics[] built;
+
+        View(PortfolioMetricsColumns columns, PortfolioId portfolioId, YearMonth month) {
+            this.columns = columns;
+            this.portfolioId = portfolioId;
+            this.month = month;
+            this.built = new PortfolioMetrics[columns.size];
+        }
+
+        @Override
+        public PortfolioMetrics get(int index) {
+            Objects.checkIndex(index, columns.size);
+            PortfolioMetrics pm = built[index];
+            if (pm == null) {
+                // Records are immutable, so a racing read at worst builds an equal instance twice
+                pm = columns.materialize(index, portfolioId, month);
+                built[index] = pm;
+            }
+            return pm;
+        }
+
+        @Override
+        public int size() {
+            return columns.size;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.porflyo.repository;
+
+import static com.porflyo.common.DdbKeys.METRICS_BASELINE_SK;
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.pk;
+import static com.porflyo.mapper.DdbBaselineStateMapper.PK_ATTRIBUTE;
+import static com.porflyo.mapper.DdbBaselineStateMapper.SK_ATTRIBUTE;
+import static com.porflyo.mapper.DdbBaselineStateMapper.THROUGH_ATTRIBUTE;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.DdbConfig;
+import com.porflyo.mapper.DdbBaselineStateMapper;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+import com.porflyo.ports.BaselineStateRepository;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+/**
+ * Stores the z-score baseline of a portfolio in one item, {@code Z#BASELINE}, in the
+ * portfolio's metrics partition, next to its shards.
+ * <p>
+ * Writes are conditional on the stored state ending on an earlier day, so two readers
+ * advancing the baseline at once store it once, and a late writer never moves it back.
+ * The item sorts after the M# and S# ranges, so metrics and slot queries never see it.
+ */
+@Singleton
+@Requires(beans = DdbConfig.class)
+public class DdbBaselineStateRepository implements BaselineStateRepository {
+
+    private final Logger log = LoggerFactory.getLogger(DdbBaselineStateRepository.class);
+    private final DynamoDbClient lowClient;
+    private final String tableName;
+
+    @Inject
+    public DdbBaselineStateRepository(
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig dynamoDbConfig) {
+        this.lowClient = lowClient;
+        this.tableName = dynamoDbConfig.metricsTable();
+    }
+
+
+    // ────────────────────────── Find ──────────────────────────
+
+    @Override
+    public Optional<BaselineState> findBaselineState(PortfolioId portfolioId) {
+        GetItemResponse response = lowClient.getItem(r -> r.tableName(tableName).key(key(portfolioId)));
+
+        if (!response.hasItem() || response.item().isEmpty()) {
+            log.debug("No baseline state found for portfolio: {}", portfolioId.value());
+            return Optional.empty();
+        }
+
+        return Optional.of(DdbBaselineStateMapper.fromAttributes(response.item()));
+    }
+
+
+    // ────────────────────────── Save / delete ──────────────────────────
+
+    @Override
+    public boolean saveBaselineState(BaselineState state) {
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(DdbBaselineStateMapper.toAttributes(state))
+            .conditionExpression("attribute_not_exists(#through) OR #through < :through")
+            .expressionAttributeNames(Map.of("#through", THROUGH_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(":through", AttributeValue.fromS(state.throughDate().toString())))
+            .build();
+
+        try {
+            lowClient.putItem(request);
+            log.debug("Saved baseline state for portfolio: {} through {}", state.portfolioId().value(), state.throughDate());
+            return true;
+
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Kept a baseline state at least as recent for portfolio: {}", state.portfolioId().value());
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteBaselineState(PortfolioId portfolioId) {
+        lowClient.deleteItem(r -> r.tableName(tableName).key(key(portfolioId)));
+        log.debug("Deleted baseline state for portfolio: {}", portfolioId.value());
+    }
+
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static Map<String, AttributeValue> key(PortfolioId portfolioId) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk(METRICS_PK_PREFIX, portfolioId.value())),
+            SK_ATTRIBUTE, AttributeValue.fromS(METRICS_BASELINE_SK));
+    }
+}
@@ -0,0 +1,295 @@
+package com.porflyo.repository;
+
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.pk;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.codec.CountingBloomFilter;
+import com.porflyo.common.DdbConditions;
+import com.porflyo.common.DdbKeys;
+import com.porflyo.configuration.DdbConfig;
+import com.porflyo.exceptions.metrics.MetricsWriteConflictException;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.BeaconDedupRepository;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+/**
+ * Stores the beacon ids of a portfolio and day as a counting Bloom filter over 64-bit
+ * hashes, split by the top byte of the hash into {@value #SHARD_COUNT} items,
+ * {@code B#yyyy-MM-dd#xx}, in the portfolio's metrics partition.
+ * <p>
+ * Every shard is a fixed {@value #FILTER_BYTES}-byte binary attribute, so a write costs the
+ * same whatever the number of beacons and an item never approaches the size limit. The ids
+ * of a batch are grouped by shard; the shards touched are read together and each is written
+ * back once, conditioned on its revision, so two containers receiving the same beacon cannot
+ * both count it. With ten thousand beacons a day one in
+ * several thousand new beacons is taken for a duplicate; past that the rate climbs but the
+ * items do not grow. Each item carries a {@code ttl} attribute two days after its day, for
+ * the table's time to live to remove it.
+ */
+@Singleton
+@Requires(beans = DdbConfig.class)
+public class DdbBeaconDedupRepository implements BeaconDedupRepository {
+
+    private final Logger log = LoggerFactory.getLogger(DdbBeaconDedupRepository.class);
+    private final DynamoDbClient lowClient;
+    private final String tableName;
+
+    public static final int SHARD_COUNT = 256;
+    public static final int FILTER_BYTES = 896;   // with the keys and names, one item stays under 1 KB
+    public static final String TTL_ATTRIBUTE = "ttl";   // the table's TimeToLiveSpecification must name it
+
+    private static final String PK_ATTRIBUTE = "PK";
+    private static final String SK_ATTRIBUTE = "SK";
+    private static final String FILTER_ATTRIBUTE = "filter";
+    private static final String REVISION_ATTRIBUTE = "rev";
+    private static final int TTL_DAYS = 2;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_BATCH_GET_KEYS = 100;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Inject
+    public DdbBeaconDedupRepository(
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig dynamoDbConfig) {
+        this.lowClient = lowClient;
+        this.tableName = dynamoDbConfig.metricsTable();
+    }
+
+
+    // ────────────────────────── Mark / forget ──────────────────────────
+
+    /**
+     * Groups the ids by shard, reads every shard touched with one {@code BatchGetItem} and
+     * writes back each shard that gained an id, so a batch costs one read-modify-write per
+     * shard touched, not per beacon. Only a shard whose write lost a race is read again.
+     */
+    @Override
+    public Set<String> markSeen(PortfolioId portfolioId, LocalDate date, Collection<String> beaconIds) {
+        Map<Integer, List<String>> byShard = byShard(beaconIds);
+        Map<Integer, Shard> read = readAll(portfolioId, date, byShard.keySet());
+
+        Set<String> recorded = new HashSet<>();
+        byShard.forEach((shard, ids) -> recorded.addAll(
+            updateShard(portfolioId, date, shard, read.get(shard), ids, CountingBloomFilter::add)));
+
+        log.debug("Recorded {} of {} beacons for portfolio {} on {} in {} shards",
+            recorded.size(), beaconIds.size(), portfolioId.value(), date, byShard.size());
+        return recorded;
+    }
+
+    @Override
+    public void forget(PortfolioId portfolioId, LocalDate date, Collection<String> beaconIds) {
+        Map<Integer, List<String>> byShard = byShard(beaconIds);
+        Map<Integer, Shard> read = readAll(portfolioId, date, byShard.keySet());
+
+        byShard.forEach((shard, ids) ->
+            updateShard(portfolioId, date, shard, read.get(shard), ids, CountingBloomFilter::remove));
+        log.debug("Forgot {} beacons for portfolio {} on {}", beaconIds.size(), portfolioId.value(), date);
+    }
+
+
+    // ────────────────────────── Read / write ──────────────────────────
+
+    /** Filter of a shard as read, with the revision to condition its write on. */
+    private record Shard(boolean existed, Long revision, CountingBloomFilter filter) {}
+
+    /** Adds or removes one hash, returning whether the filter changed. */
+    private interface FilterUpdate {
+        boolean apply(CountingBloomFilter filter, long hash);
+    }
+
+    /**
+     * Applies the update to the ids of one shard and writes it back if anything changed,
+     * re-reading the shard after a concurrent write.
+     *
+     * @return the ids that changed the filter
+     */
+    private List<String> updateShard(
+            PortfolioId portfolioId,
+            LocalDate date,
+            int shardIndex,
+            Shard shard,
+            List<String> ids,
+            FilterUpdate update) {
+        Map<String, AttributeValue> key = key(portfolioId, date, shardIndex);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            List<String> changed = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                if (update.apply(shard.filter(), hash(id))) {
+                    changed.add(id);
+                }
+            }
+
+            if (changed.isEmpty() || write(key, date, shard)) {
+                return changed;
+            }
+
+            log.debug("Concurrent write on beacon filter of portfolio {}, retrying (attempt {})", portfolioId.value(), attempt + 1);
+            shard = read(key);
+        }
+
+        throw new MetricsWriteConflictException(portfolioId.value(), MAX_ATTEMPTS);
+    }
+
+    /** Reads the given shards with consistent {@code BatchGetItem} calls; missing shards are empty. */
+    private Map<Integer, Shard> readAll(PortfolioId portfolioId, LocalDate date, Set<Integer> shards) {
+        Map<String, Integer> shardBySk = new HashMap<>();
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            Map<String, AttributeValue> key = key(portfolioId, date, shard);
+            shardBySk.put(key.get(SK_ATTRIBUTE).s(), shard);
+            keys.add(key);
+        }
+
+        Map<Integer, Shard> out = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += MAX_BATCH_GET_KEYS) {
+            Map<String, KeysAndAttributes> pending = Map.of(tableName, KeysAndAttributes.builder()
+                .keys(keys.subList(from, Math.min(keys.size(), from + MAX_BATCH_GET_KEYS)))
+                .consistentRead(true)
+                .projectionExpression("#sk, #filter, #rev")
+                .expressionAttributeNames(Map.of("#sk", SK_ATTRIBUTE, "#filter", FILTER_ATTRIBUTE, "#rev", REVISION_ATTRIBUTE))
+                .build());
+
+            while (!pending.isEmpty()) {
+                final Map<String, KeysAndAttributes> request = pending;
+                BatchGetItemResponse response = lowClient.batchGetItem(r -> r.requestItems(request));
+
+                response.responses().getOrDefault(tableName, List.of())
+                    .forEach(raw -> out.put(shardBySk.get(raw.get(SK_ATTRIBUTE).s()), toShard(raw)));
+                pending = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+            }
+        }
+
+        for (int shard : shards) {
+            out.computeIfAbsent(shard, s -> toShard(null));
+        }
+        return out;
+    }
+
+    private Shard read(Map<String, AttributeValue> key) {
+        return toShard(lowClient.getItem(GetItemRequest.builder()
+            .tableName(tableName)
+            .key(key)
+            .consistentRead(true)
+            .projectionExpression("#filter, #rev")
+            .expressionAttributeNames(Map.of("#filter", FILTER_ATTRIBUTE, "#rev", REVISION_ATTRIBUTE))
+            .build())
+            .item());
+    }
+
+    private static Shard toShard(Map<String, AttributeValue> item) {
+        if (item == null || item.isEmpty()) {
+            return new Shard(false, null, CountingBloomFilter.empty(FILTER_BYTES));
+        }
+
+        AttributeValue filter = item.get(FILTER_ATTRIBUTE);
+        AttributeValue revision = item.get(REVISION_ATTRIBUTE);
+        return new Shard(
+            true,
+            revision != null ? Long.valueOf(revision.n()) : null,
+            filter != null
+                ? CountingBloomFilter.of(filter.b().asByteArray())
+                : CountingBloomFilter.empty(FILTER_BYTES));
+    }
+
+    /** Writes the shard back, returning {@code false} if another write got there first. */
+    private boolean write(Map<String, AttributeValue> key, LocalDate date, Shard shard) {
+        long ttl = date.plusDays(TTL_DAYS).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        Expression condition = DdbConditions.unchangedSince(shard.existed(), shard.revision(), REVISION_ATTRIBUTE);
+
+        Map<String, String> names = new HashMap<>(Map.of(
+            "#filter", FILTER_ATTRIBUTE,
+            "#rev", REVISION_ATTRIBUTE,
+            "#ttl", TTL_ATTRIBUTE));
+        Map<String, AttributeValue> values = new HashMap<>(Map.of(
+            ":filter", AttributeValue.fromB(SdkBytes.fromByteArray(shard.filter().toByteArray())),
+            ":next", AttributeValue.fromN(Long.toString(DdbConditions.nextRevision(shard.revision()))),
+            ":ttl", AttributeValue.fromN(Long.toString(ttl))));
+        if (condition.expressionNames() != null) {
+            names.putAll(condition.expressionNames());
+        }
+        if (condition.expressionValues() != null) {
+            values.putAll(condition.expressionValues());
+        }
+
+        UpdateItemRequest request = UpdateItemRequest.builder()
+            .tableName(tableName)
+            .key(key)
+            .updateExpression("SET #filter = :filter, #rev = :next, #ttl = if_not_exists(#ttl, :ttl)")
+            .conditionExpression(condition.expression())
+            .expressionAttributeNames(names)
+            .expressionAttributeValues(values)
+            .build();
+
+        try {
+            lowClient.updateItem(request);
+            return true;
+
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static Map<String, AttributeValue> key(PortfolioId portfolioId, LocalDate date, int shard) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.builder().s(pk(METRICS_PK_PREFIX, portfolioId.value())).build(),
+            SK_ATTRIBUTE, AttributeValue.builder().s(DdbKeys.skBeaconShard(date, shard)).build());
+    }
+
+    /** Ids grouped by the shard holding their hash, picked by its top byte. */
+    private static Map<Integer, List<String>> byShard(Collection<String> beaconIds) {
+        Map<Integer, List<String>> byShard = new LinkedHashMap<>();
+        for (String beaconId : beaconIds) {
+            byShard.computeIfAbsent(shard(hash(beaconId)), s -> new ArrayList<>()).add(beaconId);
+        }
+        return byShard;
+    }
+
+    static int shard(long hash) {
+        return (int) (hash >>> 56) % SHARD_COUNT;
+    }
+
+    /** 64-bit FNV-1a of the UTF-8 bytes of the id. */
+    static long hash(String beaconId) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : beaconId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
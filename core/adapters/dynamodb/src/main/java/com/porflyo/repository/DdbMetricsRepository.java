@@ -1,6 +1,9 @@
 package com.porflyo.repository;
 
+import static com.porflyo.common.DdbKeys.METRICS_BEACON_SK_PREFIX;
+import static com.porflyo.common.DdbKeys.METRICS_LATE_WRITES_SK;
 import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.METRICS_ROLLUP_SK_PREFIX;
 import static com.porflyo.common.DdbKeys.METRICS_SK_PREFIX;
 import static com.porflyo.common.DdbKeys.pk;
 
@@ -8,34 +11,70 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.porflyo.Item.DdbPortfolioMetricsCounterItem;
 import com.porflyo.Item.DdbPortfolioMetricsItem;
+import com.porflyo.common.DdbConditions;
 import com.porflyo.common.DdbKeys;
 import com.porflyo.configuration.DdbConfig;
+import com.porflyo.exceptions.metrics.MetricsWriteConflictException;
 import com.porflyo.mapper.DdbPortfolioMetricsMapper;
 import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.Devices;
+import com.porflyo.model.metrics.Engagement;
+import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.ProjectMetrics;
+import com.porflyo.model.metrics.RollupPeriod;
 import com.porflyo.ports.PortfolioMetricsRepository;
+import com.porflyo.schema.PortfolioMetricsCounterTableSchema;
 import com.porflyo.schema.PortfolioMetricsTableSchema;
+import com.porflyo.utils.PortfolioMetricsUtils;
 
 import io.micronaut.context.annotation.Requires;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 @Singleton
 @Requires(beans = DdbConfig.class)
@@ -44,10 +83,28 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
     private final Logger log = LoggerFactory.getLogger(DdbMetricsRepository.class);
     private final DynamoDbTable<DdbPortfolioMetricsItem> table;
     private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbClient lowClient;
+    private final String tableName;
+
+    private static final String PK_ATTRIBUTE = "PK";
+    private static final String SK_ATTRIBUTE = "SK";
+    private static final int ROLLUP_GRACE_DAYS = 1;   // days after its end before a period is compacted
+    private static final int BATCH_GET_LIMIT = 100;   // DynamoDB batch get limit
+    private static final Set<MetricsField> ALL_FIELDS = Collections.unmodifiableSet(EnumSet.allOf(MetricsField.class));
+
+    // Shard reads leave out the revision, which only conditional writes use
+    private static final List<String> SHARD_READ_ATTRIBUTES = PortfolioMetricsTableSchema.SCHEMA.attributeNames().stream()
+        .filter(name -> !name.equals(PortfolioMetricsTableSchema.REVISION_ATTRIBUTE))
+        .toList();
 
     @Inject
-    public DdbMetricsRepository(DynamoDbEnhancedClient enhanced, DdbConfig dynamoDbConfig) {
+    public DdbMetricsRepository(
+            DynamoDbEnhancedClient enhanced,
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig dynamoDbConfig) {
         this.enhancedClient = enhanced;
+        this.lowClient = lowClient;
+        this.tableName = dynamoDbConfig.metricsTable();
         this.table = enhanced.table(
             dynamoDbConfig.metricsTable(),
             PortfolioMetricsTableSchema.SCHEMA);
@@ -58,27 +115,74 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
 
     @Override
     public void saveTodayMetrics(PortfolioMetrics currentPortfolioMetrics) {
-        // Metrics are sharded and saved as a list therefore
-        // first retrieve existing metrics for today
-        Key key = buildTodayMetricsKey(currentPortfolioMetrics.portfolioId(), currentPortfolioMetrics.date());
+        PortfolioId portfolioId = currentPortfolioMetrics.portfolioId();
 
         // Metrics must have been aggregated before saving, 
-        // so we overwrite any existing metrics for today
-        DdbPortfolioMetricsItem existingItem = table.getItem(r -> r.key(key));
-        List<PortfolioMetrics> existingMetrics = existingItem != null
-            ? DdbPortfolioMetricsMapper.fromItem(existingItem)
-            : new ArrayList<PortfolioMetrics>();
-        
-        // Combine existing metrics with new metrics, overwriting today's entry
-        List<PortfolioMetrics> combinedMetrics = existingMetrics.stream()
-            .filter(pm -> !pm.date().equals(currentPortfolioMetrics.date()))
-            .collect(Collectors.toCollection(ArrayList::new));
+        // so we overwrite any existing metrics for that day
+        if (!mergeDayMetrics(portfolioId, currentPortfolioMetrics.date(), existing -> currentPortfolioMetrics)) {
+            throw new MetricsWriteConflictException(portfolioId.value(), 1);
+        }
+
+        log.debug("Saved metrics for portfolio: {}", portfolioId.value());    
+    }
+
+    @Override
+    public boolean mergeTodayMetrics(
+            PortfolioId portfolioId,
+            Function<Optional<PortfolioMetrics>, PortfolioMetrics> merge) {
+        return mergeDayMetrics(portfolioId, LocalDate.now(), merge);
+    }
+
+
+    /**
+     * Adds the counters to the per-day counter item with a single {@code UpdateItem ADD},
+     * so concurrent writers never lose increments and no read is needed.
+     */
+    @Override
+    public void addTodayMetrics(PortfolioMetrics delta) {
+        DdbPortfolioMetricsCounterItem item = DdbPortfolioMetricsMapper.toCounterItem(delta);
+        Map<String, AttributeValue> attributes = PortfolioMetricsCounterTableSchema.SCHEMA.itemToMap(item, true);
+
+        List<String> sets = new ArrayList<>();
+        List<String> adds = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        for (Map.Entry<String, AttributeValue> attribute : attributes.entrySet()) {
+            String name = attribute.getKey();
+            if (name.equals(PK_ATTRIBUTE) || name.equals(SK_ATTRIBUTE)) continue;
+
+            names.put("#" + name, name);
+            values.put(":" + name, attribute.getValue());
+
+            boolean isCounter = !name.equals(PortfolioMetricsCounterTableSchema.VERSION_ATTRIBUTE)
+                && !name.equals(PortfolioMetricsCounterTableSchema.DAY_ATTRIBUTE);
+
+            if (isCounter) {
+                adds.add("#" + name + " :" + name);
+            } else {
+                sets.add("#" + name + " = :" + name);
+            }
+        }
 
-        combinedMetrics.add(currentPortfolioMetrics);
+        // Bumped along with the counters, so readers can tell the day changed without reading it
+        String revision = PortfolioMetricsCounterTableSchema.REVISION_ATTRIBUTE;
+        names.put("#" + revision, revision);
+        values.put(":" + revision, AttributeValue.fromN("1"));
+        adds.add("#" + revision + " :" + revision);
+
+        UpdateItemRequest request = UpdateItemRequest.builder()
+            .tableName(tableName)
+            .key(Map.of(
+                PK_ATTRIBUTE, attributes.get(PK_ATTRIBUTE),
+                SK_ATTRIBUTE, attributes.get(SK_ATTRIBUTE)))
+            .updateExpression("SET " + String.join(", ", sets) + " ADD " + String.join(", ", adds))
+            .expressionAttributeNames(names)
+            .expressionAttributeValues(values)
+            .build();
 
-        // Save back to DynamoDB
-        table.putItem(DdbPortfolioMetricsMapper.toItem(combinedMetrics));
-        log.debug("Saved metrics for portfolio: {}", currentPortfolioMetrics.portfolioId().value());    
+        lowClient.updateItem(request);
+        log.debug("Added metrics counters for portfolio: {}", delta.portfolioId().value());
     }
 
 
@@ -97,19 +201,17 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
         // Use sortBetween to limit range: SK >= "M#oldest-yyyy-MM" AND SK < "N" (next letter after M)
         // This avoids reading Slot items (S#...) which would be charged but filtered out
         String maxSk = "N"; // Next letter after M, ensures we only get M# items
-        QueryEnhancedRequest req = QueryEnhancedRequest.builder()
-            .queryConditional(QueryConditional.sortBetween(
-                k -> k.partitionValue(pk).sortValue(oldestSkPrefix),
-                k -> k.partitionValue(pk).sortValue(maxSk)))
+        QueryRequest req = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("#pk = :pk AND #sk BETWEEN :from AND :to")
+            .expressionAttributeNames(Map.of("#pk", PK_ATTRIBUTE, "#sk", SK_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(
+                ":pk", AttributeValue.fromS(pk),
+                ":from", AttributeValue.fromS(oldestSkPrefix),
+                ":to", AttributeValue.fromS(maxSk)))
             .build();
 
-        List<PortfolioMetrics> out = table.query(req)
-            .items()
-            .stream()
-            .map(DdbPortfolioMetricsMapper::fromItem)
-            .flatMap(List::stream)
-            .sorted(Comparator.comparing(PortfolioMetrics::date).reversed())
-            .toList();
+        List<PortfolioMetrics> out = queryMetrics(req);
 
         log.debug("Found {} metrics for portfolio: {} (monthsBack={})", out.size(), portfolioId.value(), monthsBack);
         return out;
@@ -124,37 +226,185 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
         YearMonth targetMonth = YearMonth.now().minusMonths(monthsBack);
         String targetSkPrefix = METRICS_SK_PREFIX + targetMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
         
-        // Use sortBeginsWith to get all shards for the specific month
-        QueryEnhancedRequest req = QueryEnhancedRequest.builder()
-            .queryConditional(QueryConditional.sortBeginsWith(k -> k.partitionValue(pk).sortValue(targetSkPrefix)))
+        // Use begins_with to get all shards and counter items for the specific month
+        QueryRequest req = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("#pk = :pk AND begins_with(#sk, :prefix)")
+            .expressionAttributeNames(Map.of("#pk", PK_ATTRIBUTE, "#sk", SK_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(
+                ":pk", AttributeValue.fromS(pk),
+                ":prefix", AttributeValue.fromS(targetSkPrefix)))
             .build();
 
-        List<PortfolioMetrics> out = table.query(req)
-            .items()
-            .stream()
-            .map(DdbPortfolioMetricsMapper::fromItem)
-            .flatMap(List::stream)
-            .sorted(Comparator.comparing(PortfolioMetrics::date, Comparator.reverseOrder()))
-            .toList();
+        List<PortfolioMetrics> out = queryMetrics(req);
 
         log.debug("Found {} metrics for portfolio: {} for month {}", out.size(), portfolioId.value(), targetMonth);
         return out;
     }
 
+    /**
+     * Shard keys are computed from the dates, so the shards holding the range are read with
+     * BatchGetItem instead of a query over whole months. The counter items of each month are
+     * read with a query bounded to the days of the range, which never charges for missing
+     * days. The batches and queries run in parallel when there is more than one.
+     */
+    @Override
+    public List<PortfolioMetrics> findPortfolioMetricsBetween(PortfolioId portfolioId, LocalDate from, LocalDate to) {
+        return findPortfolioMetricsBetween(portfolioId, from, to, ALL_FIELDS);
+    }
+
+    /**
+     * Both reads project away the attributes of the counters left out. Version 2 shards pack
+     * every counter in one blob attribute, which is read whole, and only the sections of the
+     * given counters are decoded.
+     */
+    @Override
+    public List<PortfolioMetrics> findPortfolioMetricsBetween(
+            PortfolioId portfolioId, LocalDate from, LocalDate to, Set<MetricsField> fields) {
+        if (from.isAfter(to)) return List.of();
+
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+
+        Set<String> shardSks = new LinkedHashSet<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            shardSks.add(DdbKeys.skTodayMonthShard(day));
+        }
+        List<Map<String, AttributeValue>> keys = shardSks.stream().map(sk -> rawKey(pk, sk)).toList();
+
+        Projection shardProjection = Projection.of(SHARD_READ_ATTRIBUTES, PortfolioMetricsTableSchema.FIELD_ATTRIBUTES, fields);
+        Projection counterProjection = Projection.of(
+            PortfolioMetricsCounterTableSchema.SCHEMA.attributeNames(), PortfolioMetricsCounterTableSchema.FIELD_ATTRIBUTES, fields);
+
+        List<Supplier<List<Map<String, AttributeValue>>>> reads = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += BATCH_GET_LIMIT) {
+            List<Map<String, AttributeValue>> chunk = keys.subList(i, Math.min(i + BATCH_GET_LIMIT, keys.size()));
+            reads.add(() -> batchGetChunk(chunk, shardProjection));
+        }
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            LocalDate first = from.isAfter(month.atDay(1)) ? from : month.atDay(1);
+            LocalDate last = to.isBefore(month.atEndOfMonth()) ? to : month.atEndOfMonth();
+            reads.add(() -> queryCounters(pk, first, last, counterProjection));
+        }
+
+        List<PortfolioMetrics> out = mergeByDate(readAll(reads), fields).stream()
+            .filter(pm -> !pm.date().isBefore(from) && !pm.date().isAfter(to))
+            .toList();
+
+        log.debug("Found {} metrics for portfolio: {} between {} and {} ({} shards)",
+            out.size(), portfolioId.value(), from, to, keys.size());
+        return out;
+    }
+
+    /**
+     * Periods that ended at least {@link #ROLLUP_GRACE_DAYS} ago are served from their rollup item,
+     * with a single BatchGetItem. Periods without a rollup and the periods still open are summed
+     * from one query over the daily items. The rollups that were missing are then written with
+     * BatchWriteItem, so each period is compacted once, by the first read after it closed; periods
+     * without data get a rollup too, and are left out of the result.
+     * <p>
+     * A closed period can still change: a write-behind accumulator buffered before midnight is
+     * written to its own day whenever it is flushed, which a frozen container may delay past the
+     * grace. That write calls {@link #deleteRollupsCovering(PortfolioId, LocalDate)}, so the
+     * period is summed and compacted again on the next read. The grace only keeps the usual
+     * flush, within seconds of midnight, from paying for that.
+     */
+    @Override
+    public List<PortfolioMetrics> findPortfolioMetricsRollups(PortfolioId portfolioId, int monthsBack, RollupPeriod period) {
+        if (monthsBack < 1) monthsBack = 1;
+
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+        LocalDate today = LocalDate.now();
+        LocalDate closedBefore = today.minusDays(ROLLUP_GRACE_DAYS);
+
+        // Periods of the window, oldest first
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = period.startOf(YearMonth.now().minusMonths(monthsBack - 1).atDay(1));
+                !start.isAfter(today); start = period.next(start)) {
+            starts.add(start);
+        }
+
+        // Closed periods from their rollups
+        Map<LocalDate, PortfolioMetrics> totals = new HashMap<>();
+        Map<LocalDate, Integer> days = new HashMap<>();
+        List<Map<String, AttributeValue>> rollupKeys = starts.stream()
+            .filter(start -> !period.next(start).isAfter(closedBefore))
+            .map(start -> rawKey(pk, DdbKeys.skRollup(period, start)))
+            .toList();
+
+        for (Map<String, AttributeValue> raw : batchGetRaw(rollupKeys)) {
+            DdbPortfolioMetricsCounterItem rollup = PortfolioMetricsCounterTableSchema.SCHEMA.mapToItem(raw);
+            PortfolioMetrics total = DdbPortfolioMetricsMapper.fromRollupItem(rollup);
+            totals.put(total.date(), total);
+            days.put(total.date(), DdbPortfolioMetricsMapper.rollupDays(rollup));
+        }
+
+        // The other periods from the daily items, then compact the closed ones
+        List<LocalDate> fromDaily = starts.stream().filter(start -> !days.containsKey(start)).toList();
+        if (!fromDaily.isEmpty()) {
+            Set<LocalDate> pending = new HashSet<>(fromDaily);
+            for (PortfolioMetrics day : queryDailyFrom(pk, fromDaily.get(0))) {
+                LocalDate start = period.startOf(day.date());
+                if (!pending.contains(start)) continue;
+
+                totals.merge(start, withDate(day, start), PortfolioMetricsUtils::sumPortfolioMetrics);
+                days.merge(start, 1, Integer::sum);
+            }
+
+            List<DdbPortfolioMetricsCounterItem> compacted = fromDaily.stream()
+                .filter(start -> !period.next(start).isAfter(closedBefore))
+                .map(start -> DdbPortfolioMetricsMapper.toRollupItem(
+                    totals.getOrDefault(start, emptyMetrics(portfolioId, start)), period, days.getOrDefault(start, 0)))
+                .toList();
+            putRollups(compacted);
+        }
+
+        List<PortfolioMetrics> out = starts.stream()
+            .filter(start -> days.getOrDefault(start, 0) > 0)
+            .sorted(Comparator.reverseOrder())
+            .map(totals::get)
+            .toList();
+
+        log.debug("Found {} {} rollups for portfolio: {} (monthsBack={})", out.size(), period, portfolioId.value(), monthsBack);
+        return out;
+    }
+
+    @Override
+    public void deleteRollupsCovering(PortfolioId portfolioId, LocalDate day) {
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+        List<WriteRequest> deletes = Arrays.stream(RollupPeriod.values())
+            .map(period -> WriteRequest.builder()
+                .deleteRequest(d -> d.key(rawKey(pk, DdbKeys.skRollup(period, period.startOf(day)))))
+                .build())
+            .toList();
+
+        Map<String, List<WriteRequest>> pending = Map.of(tableName, deletes);
+        while (!pending.isEmpty()) {
+            final Map<String, List<WriteRequest>> request = pending;
+            BatchWriteItemResponse response = lowClient.batchWriteItem(r -> r.requestItems(request));
+            pending = response.hasUnprocessedItems() ? response.unprocessedItems() : Map.of();
+        }
+
+        log.debug("Deleted the rollups covering {} for portfolio: {}", day, portfolioId.value());
+    }
+
     @Override
     public Optional<PortfolioMetrics> getTodayMetrics(PortfolioId portfolioId) {
-        Key key = buildTodayMetricsKey(portfolioId, LocalDate.now());
-        DdbPortfolioMetricsItem item = table.getItem(r -> r.key(key));
+        LocalDate today = LocalDate.now();
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+
+        // Today's shard and today's counter item in one round trip
+        List<Map<String, AttributeValue>> keys = List.of(
+            rawKey(pk, DdbKeys.skTodayMonthShard(today)),
+            rawKey(pk, DdbKeys.skDayCounter(today)));
 
-        if (item == null) {
+        List<Map<String, AttributeValue>> rawItems = batchGetRaw(keys);
+
+        if (rawItems.isEmpty()) {
             log.debug("No metrics item found for today for portfolio: {}", portfolioId.value());
             return Optional.empty();
         }
 
-        List<PortfolioMetrics> list = DdbPortfolioMetricsMapper.fromItem(item);
-        LocalDate today = LocalDate.now();
-
-        Optional<PortfolioMetrics> result = list.stream()
+        Optional<PortfolioMetrics> result = mergeByDate(rawItems, ALL_FIELDS).stream()
             .filter(pm -> pm.date().equals(today))
             .findFirst();
             
@@ -169,25 +419,28 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
     public void deleteAllMetrics(PortfolioId portfolioId) {
         String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
 
-        // Only delete items with SK starting with "M#" (month-based metrics)
+        // Only delete items with SK starting with "M#" (month-based metrics), "R#" (their rollups)
+        // or "B#" (beacon filters, which would otherwise stay until their ttl), plus the late writes item
         // Leave "S#" (slot-based metrics) for SlotMetricsRepository to handle
-        QueryEnhancedRequest req = QueryEnhancedRequest.builder()
-            .queryConditional(QueryConditional.sortBeginsWith(k -> k.partitionValue(pk).sortValue(METRICS_SK_PREFIX)))
-            .build();
-
         // DynamoDB does not support conditional deletes; collect the SKs to delete and use batchWrite
-        var items = table.query(req).items();
+        List<Key> keys = new ArrayList<>();
+        for (String prefix : List.of(METRICS_SK_PREFIX, METRICS_ROLLUP_SK_PREFIX, METRICS_BEACON_SK_PREFIX)) {
+            QueryEnhancedRequest req = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.sortBeginsWith(k -> k.partitionValue(pk).sortValue(prefix)))
+                .build();
+
+            table.query(req).items().stream()
+                .map(it -> Key.builder()
+                        .partitionValue(pk)
+                        .sortValue(it.getSK())
+                        .build())
+                .forEach(keys::add);
+        }
+        keys.add(Key.builder().partitionValue(pk).sortValue(METRICS_LATE_WRITES_SK).build());
 
         final int BATCH_LIMIT = 25;         // DynamoDB batch write limit
         int deleted = 0;
 
-        List<Key> keys = items.stream()
-            .map(it -> Key.builder()
-                    .partitionValue(pk)
-                    .sortValue(it.getSK())
-                    .build())
-            .toList();
-
         for (int i = 0; i < keys.size(); i += BATCH_LIMIT) {
             final int end = Math.min(i + BATCH_LIMIT, keys.size());
 
@@ -214,6 +467,220 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
 
     // ────────────────────────── Private Methods ──────────────────────────
 
+    /**
+     * Metrics are sharded and saved as a list, so the whole shard is read, the day is
+     * replaced and the shard is put back only if its revision did not change meanwhile.
+     */
+    private boolean mergeDayMetrics(
+            PortfolioId portfolioId,
+            LocalDate date,
+            Function<Optional<PortfolioMetrics>, PortfolioMetrics> merge) {
+        Key key = buildTodayMetricsKey(portfolioId, date);
+
+        DdbPortfolioMetricsItem existingItem = table.getItem(r -> r.key(key).consistentRead(true));
+        List<PortfolioMetrics> existingMetrics = existingItem != null
+            ? DdbPortfolioMetricsMapper.fromItem(existingItem)
+            : new ArrayList<PortfolioMetrics>();
+
+        Optional<PortfolioMetrics> stored = existingMetrics.stream()
+            .filter(pm -> pm.date().equals(date))
+            .findFirst();
+
+        // Combine existing metrics with the merged day, replacing the stored entry
+        List<PortfolioMetrics> combinedMetrics = DdbPortfolioMetricsMapper.replaceDay(existingMetrics, merge.apply(stored));
+
+        Long expectedRevision = existingItem != null ? existingItem.getRevision() : null;
+        DdbPortfolioMetricsItem item = DdbPortfolioMetricsMapper.toItem(combinedMetrics);
+        item.setRevision(DdbConditions.nextRevision(expectedRevision));
+
+        PutItemEnhancedRequest<DdbPortfolioMetricsItem> req = PutItemEnhancedRequest.builder(DdbPortfolioMetricsItem.class)
+            .item(item)
+            .conditionExpression(DdbConditions.unchangedSince(
+                existingItem != null, expectedRevision, PortfolioMetricsTableSchema.REVISION_ATTRIBUTE))
+            .build();
+
+        try {
+            table.putItem(req);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Concurrent write on metrics shard {} for portfolio: {}", item.getSK(), portfolioId.value());
+            return false;
+        }
+    }
+
+    private List<PortfolioMetrics> queryMetrics(QueryRequest request) {
+        List<Map<String, AttributeValue>> rawItems = new ArrayList<>();
+        lowClient.queryPaginator(request).items().forEach(rawItems::add);
+
+        return mergeByDate(rawItems, ALL_FIELDS);
+    }
+
+    private List<Map<String, AttributeValue>> batchGetRaw(List<Map<String, AttributeValue>> keys) {
+        List<Map<String, AttributeValue>> out = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i += BATCH_GET_LIMIT) {
+            out.addAll(batchGetChunk(keys.subList(i, Math.min(i + BATCH_GET_LIMIT, keys.size())), null));
+        }
+
+        return out;
+    }
+
+    /** One BatchGetItem of at most {@link #BATCH_GET_LIMIT} keys, retried until no key is left unprocessed. */
+    private List<Map<String, AttributeValue>> batchGetChunk(List<Map<String, AttributeValue>> chunk, Projection projection) {
+        KeysAndAttributes.Builder keysAndAttributes = KeysAndAttributes.builder().keys(chunk);
+        if (projection != null) {
+            keysAndAttributes.projectionExpression(projection.expression())
+                .expressionAttributeNames(projection.names());
+        }
+
+        List<Map<String, AttributeValue>> out = new ArrayList<>();
+        Map<String, KeysAndAttributes> pending = Map.of(tableName, keysAndAttributes.build());
+
+        while (!pending.isEmpty()) {
+            final Map<String, KeysAndAttributes> request = pending;
+            BatchGetItemResponse response = lowClient.batchGetItem(r -> r.requestItems(request));
+
+            out.addAll(response.responses().getOrDefault(tableName, List.of()));
+            pending = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+        }
+
+        return out;
+    }
+
+    /** Counter items of the days from {@code first} to {@code last}, both in the same month. */
+    private List<Map<String, AttributeValue>> queryCounters(String pk, LocalDate first, LocalDate last, Projection projection) {
+        Map<String, String> names = new HashMap<>(projection.names());
+        names.put("#pk", PK_ATTRIBUTE);
+        names.put("#sk", SK_ATTRIBUTE);
+
+        QueryRequest req = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("#pk = :pk AND #sk BETWEEN :from AND :to")
+            .projectionExpression(projection.expression())
+            .expressionAttributeNames(names)
+            .expressionAttributeValues(Map.of(
+                ":pk", AttributeValue.fromS(pk),
+                ":from", AttributeValue.fromS(DdbKeys.skDayCounter(first)),
+                ":to", AttributeValue.fromS(DdbKeys.skDayCounter(last))))
+            .build();
+
+        List<Map<String, AttributeValue>> out = new ArrayList<>();
+        lowClient.queryPaginator(req).items().forEach(out::add);
+        return out;
+    }
+
+    /** Runs the reads on virtual threads when there is more than one, and concatenates their items. */
+    private static List<Map<String, AttributeValue>> readAll(List<Supplier<List<Map<String, AttributeValue>>>> reads) {
+        List<Map<String, AttributeValue>> out = new ArrayList<>();
+
+        if (reads.size() == 1) {
+            out.addAll(reads.get(0).get());
+            return out;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<List<Map<String, AttributeValue>>>> futures = reads.stream()
+                .map(read -> CompletableFuture.supplyAsync(read, executor))
+                .toList();
+
+            for (CompletableFuture<List<Map<String, AttributeValue>>> future : futures) {
+                out.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        return out;
+    }
+
+    /**
+     * Maps shard items and counter items to domain metrics, summing the values of a day
+     * found in both layouts, sorted by date (most recent first).
+     */
+    private static List<PortfolioMetrics> mergeByDate(List<Map<String, AttributeValue>> rawItems, Set<MetricsField> fields) {
+        Map<LocalDate, PortfolioMetrics> byDate = new HashMap<>();
+
+        for (Map<String, AttributeValue> raw : rawItems) {
+            for (PortfolioMetrics pm : fromRawItem(raw, fields)) {
+                byDate.merge(pm.date(), pm, (a, b) ->
+                    PortfolioMetricsUtils.updatePortfolioMetrics(a, b.engagement(), b.scroll(), b.cumProjects()));
+            }
+        }
+
+        return byDate.values().stream()
+            .sorted(Comparator.comparing(PortfolioMetrics::date, Comparator.reverseOrder()))
+            .toList();
+    }
+
+    private static List<PortfolioMetrics> fromRawItem(Map<String, AttributeValue> raw, Set<MetricsField> fields) {
+        AttributeValue sk = raw.get(SK_ATTRIBUTE);
+
+        if (sk != null && DdbKeys.isDayCounterSk(sk.s())) {
+            return List.of(DdbPortfolioMetricsMapper.fromCounterItem(
+                PortfolioMetricsCounterTableSchema.SCHEMA.mapToItem(raw)));
+        }
+
+        return DdbPortfolioMetricsMapper.fromItem(PortfolioMetricsTableSchema.SCHEMA.mapToItem(raw), fields);
+    }
+
+    /** Daily metrics from the month of {@code from} up to today, read with a single query. */
+    private List<PortfolioMetrics> queryDailyFrom(String pk, LocalDate from) {
+        String fromSk = METRICS_SK_PREFIX + YearMonth.from(from).format(DateTimeFormatter.ofPattern("yyyy-MM"));
+
+        QueryRequest req = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("#pk = :pk AND #sk BETWEEN :from AND :to")
+            .expressionAttributeNames(Map.of("#pk", PK_ATTRIBUTE, "#sk", SK_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(
+                ":pk", AttributeValue.fromS(pk),
+                ":from", AttributeValue.fromS(fromSk),
+                ":to", AttributeValue.fromS("N")))
+            .build();
+
+        return queryMetrics(req);
+    }
+
+    private void putRollups(List<DdbPortfolioMetricsCounterItem> rollups) {
+        final int BATCH_LIMIT = 25;         // DynamoDB batch write limit
+
+        for (int i = 0; i < rollups.size(); i += BATCH_LIMIT) {
+            List<WriteRequest> writes = rollups.subList(i, Math.min(i + BATCH_LIMIT, rollups.size())).stream()
+                .map(rollup -> WriteRequest.builder()
+                    .putRequest(p -> p.item(PortfolioMetricsCounterTableSchema.SCHEMA.itemToMap(rollup, true)))
+                    .build())
+                .toList();
+
+            Map<String, List<WriteRequest>> pending = Map.of(tableName, writes);
+            while (!pending.isEmpty()) {
+                final Map<String, List<WriteRequest>> request = pending;
+                BatchWriteItemResponse response = lowClient.batchWriteItem(r -> r.requestItems(request));
+                pending = response.hasUnprocessedItems() ? response.unprocessedItems() : Map.of();
+            }
+        }
+
+        if (!rollups.isEmpty()) log.debug("Compacted {} metrics rollups", rollups.size());
+    }
+
+    private static PortfolioMetrics withDate(PortfolioMetrics metrics, LocalDate date) {
+        return new PortfolioMetrics(metrics.portfolioId(), date, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+    }
+
+    private static PortfolioMetrics emptyMetrics(PortfolioId portfolioId, LocalDate date) {
+        return new PortfolioMetrics(
+            portfolioId,
+            date,
+            new Engagement(0, 0, 0, 0, 0, new Devices(0, 0)),
+            new InteractionMetrics(0, 0, 0, 0),
+            new ProjectMetrics(0, 0, 0, 0));
+    }
+
+    private static Map<String, AttributeValue> rawKey(String pk, String sk) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk),
+            SK_ATTRIBUTE, AttributeValue.fromS(sk));
+    }
+
     private Key buildTodayMetricsKey(PortfolioId id, LocalDate date) {
         String pk = pk(METRICS_PK_PREFIX, id.value());
         String sk = DdbKeys.skTodayMonthShard(date);
@@ -223,5 +690,24 @@ public class DdbMetricsRepository implements PortfolioMetricsRepository {
                 .sortValue(sk)
                 .build();
     }
-    
+
+    /** Projection expression over placeholders, so attribute names never clash with reserved words. */
+    private record Projection(String expression, Map<String, String> names) {
+        static Projection of(List<String> attributes) {
+            Map<String, String> names = new LinkedHashMap<>();
+            for (int i = 0; i < attributes.size(); i++) {
+                names.put("#p" + i, attributes.get(i));
+            }
+            return new Projection(String.join(", ", names.keySet()), names);
+        }
+
+        /** The attributes, without those of the counters left out of {@code fields}. */
+        static Projection of(List<String> attributes, Map<MetricsField, String> fieldAttributes, Set<MetricsField> fields) {
+            Set<String> leftOut = new HashSet<>();
+            fieldAttributes.forEach((field, attribute) -> {
+                if (!fields.contains(field)) leftOut.add(attribute);
+            });
+            return of(attributes.stream().filter(name -> !leftOut.contains(name)).toList());
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package com.porflyo.repository;
+
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.METRICS_VIEW_SK;
+import static com.porflyo.common.DdbKeys.pk;
+import static com.porflyo.mapper.DdbMetricsViewMapper.PK_ATTRIBUTE;
+import static com.porflyo.mapper.DdbMetricsViewMapper.RENDERED_AT_ATTRIBUTE;
+import static com.porflyo.mapper.DdbMetricsViewMapper.SK_ATTRIBUTE;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.DdbConfig;
+import com.porflyo.dto.MetricsView;
+import com.porflyo.mapper.DdbMetricsViewMapper;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.MetricsViewRepository;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+/**
+ * Stores the materialized metrics view of a portfolio in one item, {@code V#DASHBOARD}, in
+ * the portfolio's metrics partition, next to the metrics it is rendered from.
+ * <p>
+ * Writes are conditional on the stored view being rendered earlier, so a slow render never
+ * replaces a newer one, and so is marking a view stale, so a view rendered after the write
+ * is kept. The item sorts outside the M# and S# ranges, so metrics and slot
+ * queries never see it.
+ */
+@Singleton
+@Requires(beans = DdbConfig.class)
+public class DdbMetricsViewRepository implements MetricsViewRepository {
+
+    /** Largest body stored, leaving room for the other attributes under the 400 KB item limit. */
+    static final int MAX_BODY_BYTES = 380 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(DdbMetricsViewRepository.class);
+    private final DynamoDbClient lowClient;
+    private final String tableName;
+
+    @Inject
+    public DdbMetricsViewRepository(
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig dynamoDbConfig) {
+        this.lowClient = lowClient;
+        this.tableName = dynamoDbConfig.metricsTable();
+    }
+
+
+    // ────────────────────────── Find ──────────────────────────
+
+    @Override
+    public Optional<MetricsView> findMetricsView(PortfolioId portfolioId) {
+        GetItemResponse response = lowClient.getItem(r -> r.tableName(tableName).key(key(portfolioId)));
+
+        if (!response.hasItem() || response.item().isEmpty()) {
+            log.debug("No metrics view found for portfolio: {}", portfolioId.value());
+            return Optional.empty();
+        }
+
+        return Optional.of(DdbMetricsViewMapper.fromAttributes(response.item()));
+    }
+
+
+    // ────────────────────────── Save / delete ──────────────────────────
+
+    @Override
+    public boolean saveMetricsView(MetricsView view) {
+        if (view.body().length > MAX_BODY_BYTES) {
+            log.warn("Metrics view too large to store for portfolio: {} ({} bytes)", view.portfolioId().value(), view.body().length);
+            return false;
+        }
+
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(DdbMetricsViewMapper.toAttributes(view))
+            .conditionExpression("attribute_not_exists(#renderedAt) OR #renderedAt < :renderedAt")
+            .expressionAttributeNames(Map.of("#renderedAt", RENDERED_AT_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(":renderedAt", AttributeValue.fromN(Long.toString(view.renderedAt().toEpochMilli()))))
+            .build();
+
+        try {
+            lowClient.putItem(request);
+            log.debug("Saved metrics view for portfolio: {} ({} bytes)", view.portfolioId().value(), view.body().length);
+            return true;
+
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Kept a metrics view at least as recent for portfolio: {}", view.portfolioId().value());
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteMetricsView(PortfolioId portfolioId) {
+        lowClient.deleteItem(r -> r.tableName(tableName).key(key(portfolioId)));
+        log.debug("Deleted metrics view for portfolio: {}", portfolioId.value());
+    }
+
+    @Override
+    public boolean deleteMetricsViewRenderedBefore(PortfolioId portfolioId, Instant writtenAt) {
+        // A missing item fails the comparison too, so nothing is deleted twice
+        DeleteItemRequest request = DeleteItemRequest.builder()
+            .tableName(tableName)
+            .key(key(portfolioId))
+            .conditionExpression("#renderedAt < :writtenAt")
+            .expressionAttributeNames(Map.of("#renderedAt", RENDERED_AT_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(":writtenAt", AttributeValue.fromN(Long.toString(writtenAt.toEpochMilli()))))
+            .build();
+
+        try {
+            lowClient.deleteItem(request);
+            log.debug("Deleted metrics view rendered before {} for portfolio: {}", writtenAt, portfolioId.value());
+            return true;
+
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("No metrics view rendered before {} for portfolio: {}", writtenAt, portfolioId.value());
+            return false;
+        }
+    }
+
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static Map<String, AttributeValue> key(PortfolioId portfolioId) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk(METRICS_PK_PREFIX, portfolioId.value())),
+            SK_ATTRIBUTE, AttributeValue.fromS(METRICS_VIEW_SK));
+    }
+}
@@ -5,14 +5,17 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.porflyo.Item.DdbSlotMetricsItem;
+import com.porflyo.common.DdbConditions;
 import com.porflyo.common.DdbKeys;
 import com.porflyo.configuration.DdbConfig;
 import com.porflyo.dto.DetailSlot;
+import com.porflyo.exceptions.metrics.MetricsWriteConflictException;
 import com.porflyo.mapper.DdbSlotMetricsMapper;
 import com.porflyo.model.ids.PortfolioId;
 import com.porflyo.model.metrics.PortfolioHeatmap;
@@ -26,11 +29,15 @@ import jakarta.inject.Singleton;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
 import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 
 @Singleton
 @Requires(beans = DdbConfig.class)
@@ -55,10 +62,54 @@ public class DdbSlotMetricsRepository implements SlotMetricsRepository {
             PortfolioHeatmap heatmap,
             List<ProjectMetricsWithId> projects) 
             {
-        table.putItem(DdbSlotMetricsMapper.toItem(portfolioId, heatmap, projects));
+        DetailSlot slot = new DetailSlot(LocalDate.now(), heatmap, projects);
+
+        if (!mergeTodayMetrics(portfolioId, existing -> slot)) {
+            throw new MetricsWriteConflictException(portfolioId.value(), 1);
+        }
+
         log.debug("Saved HeatMap and Project metrics for portfolio: {}", portfolioId.value());
     }
 
+    @Override
+    public boolean mergeTodayMetrics(PortfolioId portfolioId, Function<Optional<DetailSlot>, DetailSlot> merge) {
+        return mergeDayMetrics(portfolioId, LocalDate.now(), merge);
+    }
+
+    /**
+     * Reads the slot of {@code day} and puts the merged slot back only if its revision did not change meanwhile.
+     * A slot still holding an older day (before rotation) is passed to {@code merge} as empty.
+     */
+    @Override
+    public boolean mergeDayMetrics(PortfolioId portfolioId, LocalDate day, Function<Optional<DetailSlot>, DetailSlot> merge) {
+        Key key = buildKey(portfolioId, DdbKeys.skSlot(day));
+
+        DdbSlotMetricsItem existingItem = table.getItem(r -> r.key(key).consistentRead(true));
+        Optional<DetailSlot> stored = Optional.ofNullable(existingItem)
+            .map(DdbSlotMetricsMapper::toDomain)
+            .filter(slot -> slot.date().equals(day));
+
+        DetailSlot merged = merge.apply(stored);
+
+        Long expectedRevision = existingItem != null ? existingItem.getRevision() : null;
+        DdbSlotMetricsItem item = DdbSlotMetricsMapper.toItem(portfolioId, day, merged.heatmap(), merged.projects());
+        item.setRevision(DdbConditions.nextRevision(expectedRevision));
+
+        PutItemEnhancedRequest<DdbSlotMetricsItem> req = PutItemEnhancedRequest.builder(DdbSlotMetricsItem.class)
+            .item(item)
+            .conditionExpression(DdbConditions.unchangedSince(
+                existingItem != null, expectedRevision, SlotMetricsTableSchema.REVISION_ATTRIBUTE))
+            .build();
+
+        try {
+            table.putItem(req);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Concurrent write on slot {} for portfolio: {}", item.getSK(), portfolioId.value());
+            return false;
+        }
+    }
+
     @Override
     public List<DetailSlot> getAllMetrics(PortfolioId portfolioId) {
         String PK = DdbKeys.pk(DdbKeys.METRICS_PK_PREFIX, portfolioId.value());
@@ -83,6 +134,41 @@ public class DdbSlotMetricsRepository implements SlotMetricsRepository {
         return slots;
     }
 
+    /**
+     * Reads only the slots the days from {@code since} to today are written to, in one batch get,
+     * and drops the ones still holding a day before {@code since} (not yet rotated).
+     */
+    @Override
+    public List<DetailSlot> findMetricsSince(PortfolioId portfolioId, LocalDate since) {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(DdbKeys.METRICS_SLOT_COUNT - 1);
+        LocalDate first = since.isBefore(cutoff) ? cutoff : since;
+        if (first.isAfter(today)) {
+            return List.of();
+        }
+
+        ReadBatch.Builder<DdbSlotMetricsItem> read = ReadBatch.builder(DdbSlotMetricsItem.class)
+            .mappedTableResource(table);
+        for (LocalDate day = first; !day.isAfter(today); day = day.plusDays(1)) {
+            read.addGetItem(buildKey(portfolioId, DdbKeys.skSlot(day)));
+        }
+
+        BatchGetItemEnhancedRequest batchReq = BatchGetItemEnhancedRequest.builder()
+            .readBatches(read.build())
+            .build();
+
+        List<DetailSlot> slots = enhancedClient.batchGetItem(batchReq)
+            .resultsForTable(table)
+            .stream()
+            .map(DdbSlotMetricsMapper::toDomain)
+            .filter(s -> !s.date().isBefore(first))
+            .sorted(Comparator.comparing(DetailSlot::date).reversed()) // desc
+            .toList();
+
+        log.debug("Fetched {} detail slots since {} for portfolio: {}", slots.size(), since, portfolioId.value());
+        return slots;
+    }
+
     @Override
     public Optional<DetailSlot> getTodayMetrics(PortfolioId portfolioId) {
         Key key = buildKey(portfolioId, DdbKeys.skTodaySlot());
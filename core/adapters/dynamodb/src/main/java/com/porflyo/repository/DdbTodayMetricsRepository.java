@@ -0,0 +1,267 @@
+package com.porflyo.repository;
+
+import static com.porflyo.common.DdbKeys.METRICS_PK_PREFIX;
+import static com.porflyo.common.DdbKeys.pk;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.Item.DdbPortfolioMetricsItem;
+import com.porflyo.Item.DdbSlotMetricsItem;
+import com.porflyo.common.DdbConditions;
+import com.porflyo.common.DdbKeys;
+import com.porflyo.configuration.DdbConfig;
+import com.porflyo.dto.DetailSlot;
+import com.porflyo.dto.PortfolioMetricsSnapshot;
+import com.porflyo.mapper.DdbPortfolioMetricsMapper;
+import com.porflyo.mapper.DdbSlotMetricsMapper;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.ports.TodayMetricsRepository;
+import com.porflyo.schema.PortfolioMetricsCounterTableSchema;
+import com.porflyo.schema.PortfolioMetricsTableSchema;
+import com.porflyo.schema.SlotMetricsTableSchema;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+/**
+ * Reads today's metrics shard and detail slot with one {@code BatchGetItem} and writes
+ * both back with one {@code TransactWriteItems}, each put conditioned on the revision read.
+ * Today's change token is read the same way, projected on the revisions only, together with
+ * a counter item bumped after each write to a past day.
+ */
+@Singleton
+@Requires(beans = DdbConfig.class)
+public class DdbTodayMetricsRepository implements TodayMetricsRepository {
+
+    private final Logger log = LoggerFactory.getLogger(DdbTodayMetricsRepository.class);
+    private final DynamoDbClient lowClient;
+    private final String tableName;
+
+    private static final String PK_ATTRIBUTE = "PK";
+    private static final String SK_ATTRIBUTE = "SK";
+
+    @Inject
+    public DdbTodayMetricsRepository(
+            @Named("lowDynamoDbClient") DynamoDbClient lowClient,
+            DdbConfig dynamoDbConfig) {
+        this.lowClient = lowClient;
+        this.tableName = dynamoDbConfig.metricsTable();
+    }
+
+
+    // ────────────────────────── Merge ──────────────────────────
+
+    @Override
+    public boolean mergeTodayMetrics(PortfolioId portfolioId, UnaryOperator<PortfolioMetricsSnapshot> merge) {
+        return mergeDayMetrics(portfolioId, LocalDate.now(), merge);
+    }
+
+    /**
+     * Reads the month shard and the slot {@code day} is written to, so a day buffered before
+     * midnight lands in its own shard and slot, never in today's.
+     */
+    @Override
+    public boolean mergeDayMetrics(PortfolioId portfolioId, LocalDate day, UnaryOperator<PortfolioMetricsSnapshot> merge) {
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+        String shardSk = DdbKeys.skTodayMonthShard(day);
+        String slotSk = DdbKeys.skSlot(day);
+
+        // Both items of the partition in one round trip
+        Map<String, Map<String, AttributeValue>> rawBySk = batchGetConsistent(List.of(
+            rawKey(pk, shardSk),
+            rawKey(pk, slotSk)));
+
+        Map<String, AttributeValue> rawShard = rawBySk.get(shardSk);
+        Map<String, AttributeValue> rawSlot = rawBySk.get(slotSk);
+
+        DdbPortfolioMetricsItem shardItem = rawShard != null ? PortfolioMetricsTableSchema.SCHEMA.mapToItem(rawShard) : null;
+        DdbSlotMetricsItem slotItem = rawSlot != null ? SlotMetricsTableSchema.SCHEMA.mapToItem(rawSlot) : null;
+
+        List<PortfolioMetrics> shard = shardItem != null
+            ? DdbPortfolioMetricsMapper.fromItem(shardItem)
+            : new ArrayList<PortfolioMetrics>();
+
+        PortfolioMetrics storedAggregate = shard.stream()
+            .filter(pm -> pm.date().equals(day))
+            .findFirst()
+            .orElse(null);
+
+        // A slot still holding an older day (before rotation) counts as empty
+        DetailSlot storedSlot = slotItem != null ? DdbSlotMetricsMapper.toDomain(slotItem) : null;
+        if (storedSlot != null && !storedSlot.date().equals(day)) {
+            storedSlot = null;
+        }
+
+        PortfolioMetricsSnapshot merged = merge.apply(new PortfolioMetricsSnapshot(portfolioId, storedAggregate, storedSlot));
+
+        Long shardRevision = shardItem != null ? shardItem.getRevision() : null;
+        DdbPortfolioMetricsItem newShard = DdbPortfolioMetricsMapper.toItem(
+            DdbPortfolioMetricsMapper.replaceDay(shard, merged.aggregate()));
+        newShard.setRevision(DdbConditions.nextRevision(shardRevision));
+
+        Long slotRevision = slotItem != null ? slotItem.getRevision() : null;
+        DdbSlotMetricsItem newSlot = DdbSlotMetricsMapper.toItem(
+            portfolioId, day, merged.todaySlot().heatmap(), merged.todaySlot().projects());
+        newSlot.setRevision(DdbConditions.nextRevision(slotRevision));
+
+        // Transactional write, aggregate and slot are saved together or not at all
+        TransactWriteItemsRequest tx = TransactWriteItemsRequest.builder()
+            .transactItems(
+                conditionalPut(
+                    PortfolioMetricsTableSchema.SCHEMA.itemToMap(newShard, true),
+                    DdbConditions.unchangedSince(shardItem != null, shardRevision, PortfolioMetricsTableSchema.REVISION_ATTRIBUTE)),
+                conditionalPut(
+                    SlotMetricsTableSchema.SCHEMA.itemToMap(newSlot, true),
+                    DdbConditions.unchangedSince(slotItem != null, slotRevision, SlotMetricsTableSchema.REVISION_ATTRIBUTE)))
+            .build();
+
+        try {
+            lowClient.transactWriteItems(tx);
+            log.debug("Saved aggregate and slot of {} for portfolio: {}", day, portfolioId.value());
+            return true;
+
+        } catch (TransactionCanceledException e) {
+            if (!isWriteConflict(e.cancellationReasons())) {
+                throw e; // Others: throughput, throttling, etc.
+            }
+
+            log.debug("Concurrent write on aggregate or slot of {} for portfolio: {}", day, portfolioId.value());
+            return false;
+        }
+    }
+
+
+    // ────────────────────────── Version ──────────────────────────
+
+    /** Adds one to the revision of the portfolio's late writes item, creating it if missing. */
+    @Override
+    public void recordLateWrite(PortfolioId portfolioId) {
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+
+        lowClient.updateItem(r -> r
+            .tableName(tableName)
+            .key(rawKey(pk, DdbKeys.METRICS_LATE_WRITES_SK))
+            .updateExpression("ADD #rev :one")
+            .expressionAttributeNames(Map.of("#rev", PortfolioMetricsTableSchema.REVISION_ATTRIBUTE))
+            .expressionAttributeValues(Map.of(":one", AttributeValue.fromN("1"))));
+    }
+
+    /**
+     * Reads only the revisions of today's shard, counter item and slot, and of the late writes
+     * item, with one {@code BatchGetItem}. Writes of today bump one of the first three, writes
+     * of a past day bump the last one through {@link #recordLateWrite(PortfolioId)}.
+     */
+    @Override
+    public String findTodayVersion(PortfolioId portfolioId) {
+        LocalDate today = LocalDate.now();
+        String pk = pk(METRICS_PK_PREFIX, portfolioId.value());
+        String shardSk = DdbKeys.skTodayMonthShard(today);
+        String counterSk = DdbKeys.skDayCounter(today);
+        String slotSk = DdbKeys.skTodaySlot();
+        String lateSk = DdbKeys.METRICS_LATE_WRITES_SK;
+
+        Map<String, Map<String, AttributeValue>> rawBySk = batchGet(
+            List.of(rawKey(pk, shardSk), rawKey(pk, counterSk), rawKey(pk, slotSk), rawKey(pk, lateSk)),
+            false,
+            "#sk, #rev, #crev",
+            Map.of(
+                "#sk", SK_ATTRIBUTE,
+                "#rev", PortfolioMetricsTableSchema.REVISION_ATTRIBUTE,
+                "#crev", PortfolioMetricsCounterTableSchema.REVISION_ATTRIBUTE));
+
+        return revisionOf(rawBySk.get(shardSk), PortfolioMetricsTableSchema.REVISION_ATTRIBUTE)
+            + "." + revisionOf(rawBySk.get(counterSk), PortfolioMetricsCounterTableSchema.REVISION_ATTRIBUTE)
+            + "." + revisionOf(rawBySk.get(slotSk), SlotMetricsTableSchema.REVISION_ATTRIBUTE)
+            + "." + revisionOf(rawBySk.get(lateSk), PortfolioMetricsTableSchema.REVISION_ATTRIBUTE);
+    }
+
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private Map<String, Map<String, AttributeValue>> batchGetConsistent(List<Map<String, AttributeValue>> keys) {
+        return batchGet(keys, true, null, null);
+    }
+
+    private Map<String, Map<String, AttributeValue>> batchGet(
+            List<Map<String, AttributeValue>> keys,
+            boolean consistent,
+            String projection,
+            Map<String, String> names) {
+
+        Map<String, Map<String, AttributeValue>> out = new HashMap<>();
+        KeysAndAttributes.Builder keysAndAttributes = KeysAndAttributes.builder()
+            .keys(keys)
+            .consistentRead(consistent);
+        if (projection != null) {
+            keysAndAttributes.projectionExpression(projection).expressionAttributeNames(names);
+        }
+        Map<String, KeysAndAttributes> pending = Map.of(tableName, keysAndAttributes.build());
+
+        while (!pending.isEmpty()) {
+            final Map<String, KeysAndAttributes> request = pending;
+            BatchGetItemResponse response = lowClient.batchGetItem(r -> r.requestItems(request));
+
+            response.responses().getOrDefault(tableName, List.of())
+                .forEach(raw -> out.put(raw.get(SK_ATTRIBUTE).s(), raw));
+            pending = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+        }
+
+        return out;
+    }
+
+    private TransactWriteItem conditionalPut(Map<String, AttributeValue> item, Expression condition) {
+        Put.Builder put = Put.builder()
+            .tableName(tableName)
+            .item(item)
+            .conditionExpression(condition.expression());
+
+        if (condition.expressionNames() != null) {
+            put.expressionAttributeNames(condition.expressionNames());
+        }
+        if (condition.expressionValues() != null) {
+            put.expressionAttributeValues(condition.expressionValues());
+        }
+
+        return TransactWriteItem.builder().put(put.build()).build();
+    }
+
+    /** A cancelled transaction is a write conflict when a condition failed or another transaction won. */
+    private static boolean isWriteConflict(List<CancellationReason> reasons) {
+        return reasons.stream()
+            .map(CancellationReason::code)
+            .anyMatch(code -> "ConditionalCheckFailed".equals(code) || "TransactionConflict".equals(code));
+    }
+
+    /** Revision of a raw item, 0 when the item or its revision is missing. */
+    private static String revisionOf(Map<String, AttributeValue> raw, String attribute) {
+        AttributeValue revision = raw != null ? raw.get(attribute) : null;
+        return revision != null && revision.n() != null ? revision.n() : "0";
+    }
+
+    private static Map<String, AttributeValue> rawKey(String pk, String sk) {
+        return Map.of(
+            PK_ATTRIBUTE, AttributeValue.fromS(pk),
+            SK_ATTRIBUTE, AttributeValue.fromS(sk));
+    }
+}
@@ -0,0 +1,117 @@
+package com.porflyo.schema;
+
+import java.util.Map;
+
+import com.porflyo.Item.DdbPortfolioMetricsCounterItem;
+import com.porflyo.model.metrics.MetricsField;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+
+/**
+ * Schema of the per-day counter items. Counter attribute names differ from the
+ * list attributes of {@link PortfolioMetricsTableSchema} so both layouts can live
+ * in the same partition without type clashes.
+ */
+public final class PortfolioMetricsCounterTableSchema {
+    private PortfolioMetricsCounterTableSchema() {}
+
+    /** Attributes that are set on every update instead of being added. */
+    public static final String VERSION_ATTRIBUTE = "V";
+    public static final String DAY_ATTRIBUTE = "nD";
+
+    /**
+     * Incremented by every update of the item. Not mapped onto the item: only change
+     * tokens read it, so counter reads never pay for it.
+     */
+    public static final String REVISION_ATTRIBUTE = "nR";
+
+    /** Attribute of each counter. */
+    public static final Map<MetricsField, String> FIELD_ATTRIBUTES = Map.ofEntries(
+        Map.entry(MetricsField.ACTIVE_TIME, "na"),
+        Map.entry(MetricsField.VIEWS, "nv"),
+        Map.entry(MetricsField.QUALITY_VISITS, "nq"),
+        Map.entry(MetricsField.EMAIL_COPIES, "ne"),
+        Map.entry(MetricsField.SOCIAL_CLICKS, "no"),
+        Map.entry(MetricsField.DEVICE_VIEWS, "nd"),
+        Map.entry(MetricsField.SCROLL_SCORE, "ns"),
+        Map.entry(MetricsField.SCROLL_TIME, "nt"),
+        Map.entry(MetricsField.TTFI_SUM_MS, "nF"),
+        Map.entry(MetricsField.TTFI_COUNT, "nC"),
+        Map.entry(MetricsField.PROJECT_VIEW_TIME, "nw"),
+        Map.entry(MetricsField.PROJECT_EXPOSURES, "nx"),
+        Map.entry(MetricsField.PROJECT_CODE_VIEWS, "nc"),
+        Map.entry(MetricsField.PROJECT_LIVE_VIEWS, "nl"));
+
+    public static final TableSchema<DdbPortfolioMetricsCounterItem> SCHEMA = TableSchema
+            .builder(DdbPortfolioMetricsCounterItem.class)    
+            .newItemSupplier(DdbPortfolioMetricsCounterItem::new)
+
+            // ────────────────────────── Key Attributes ──────────────────────────
+            .addAttribute(String.class, a -> a.name("PK")
+                .getter(DdbPortfolioMetricsCounterItem::getPK)
+                .setter(DdbPortfolioMetricsCounterItem::setPK)
+                .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("SK")
+                .getter(DdbPortfolioMetricsCounterItem::getSK)
+                .setter(DdbPortfolioMetricsCounterItem::setSK)
+                .tags(StaticAttributeTags.primarySortKey()))
+
+
+            // ────────────────────────── Counter Attributes ──────────────────────────
+            .addAttribute(String.class, a -> a.name(VERSION_ATTRIBUTE)
+                .getter(DdbPortfolioMetricsCounterItem::getVersion)
+                .setter(DdbPortfolioMetricsCounterItem::setVersion))
+            .addAttribute(Integer.class, a -> a.name(DAY_ATTRIBUTE)
+                .getter(DdbPortfolioMetricsCounterItem::getDay)
+                .setter(DdbPortfolioMetricsCounterItem::setDay))
+
+            // ────────────────────────── Engagement ──────────────────────────
+            .addAttribute(Integer.class, a -> a.name("na")
+                .getter(DdbPortfolioMetricsCounterItem::getActiveTime)
+                .setter(DdbPortfolioMetricsCounterItem::setActiveTime))
+            .addAttribute(Integer.class, a -> a.name("nv")
+                .getter(DdbPortfolioMetricsCounterItem::getViews)
+                .setter(DdbPortfolioMetricsCounterItem::setViews))
+            .addAttribute(Integer.class, a -> a.name("nq")
+                .getter(DdbPortfolioMetricsCounterItem::getQualityVisits)
+                .setter(DdbPortfolioMetricsCounterItem::setQualityVisits))
+            .addAttribute(Integer.class, a -> a.name("ne")
+                .getter(DdbPortfolioMetricsCounterItem::getEmailCopies)
+                .setter(DdbPortfolioMetricsCounterItem::setEmailCopies))
+            .addAttribute(Integer.class, a -> a.name("no")
+                .getter(DdbPortfolioMetricsCounterItem::getSocialClicks)
+                .setter(DdbPortfolioMetricsCounterItem::setSocialClicks))
+            .addAttribute(Integer.class, a -> a.name("nd")
+                .getter(DdbPortfolioMetricsCounterItem::getDeviceViews)
+                .setter(DdbPortfolioMetricsCounterItem::setDeviceViews))
+
+            // ────────────────────────── Interaction ──────────────────────────
+            .addAttribute(Integer.class, a -> a.name("ns")
+                .getter(DdbPortfolioMetricsCounterItem::getTotalScrollScore)
+                .setter(DdbPortfolioMetricsCounterItem::setTotalScrollScore))
+            .addAttribute(Integer.class, a -> a.name("nt")
+                .getter(DdbPortfolioMetricsCounterItem::getTotalScrollTime)
+                .setter(DdbPortfolioMetricsCounterItem::setTotalScrollTime))
+            .addAttribute(Integer.class, a -> a.name("nF")
+                .getter(DdbPortfolioMetricsCounterItem::getTtfiSumMs)
+                .setter(DdbPortfolioMetricsCounterItem::setTtfiSumMs))
+            .addAttribute(Integer.class, a -> a.name("nC")
+                .getter(DdbPortfolioMetricsCounterItem::getTtfiCount)
+                .setter(DdbPortfolioMetricsCounterItem::setTtfiCount))
+
+            // ────────────────────────── Projects ──────────────────────────
+            .addAttribute(Integer.class, a -> a.name("nw")
+                .getter(DdbPortfolioMetricsCounterItem::getViewTime)
+                .setter(DdbPortfolioMetricsCounterItem::setViewTime))
+            .addAttribute(Integer.class, a -> a.name("nx")
+                .getter(DdbPortfolioMetricsCounterItem::getExposures)
+                .setter(DdbPortfolioMetricsCounterItem::setExposures))
+            .addAttribute(Integer.class, a -> a.name("nc")
+                .getter(DdbPortfolioMetricsCounterItem::getCodeViews)
+                .setter(DdbPortfolioMetricsCounterItem::setCodeViews))
+            .addAttribute(Integer.class, a -> a.name("nl")
+                .getter(DdbPortfolioMetricsCounterItem::getLiveViews)
+                .setter(DdbPortfolioMetricsCounterItem::setLiveViews))
+            .build();
+}
@@ -1,6 +1,9 @@
 package com.porflyo.schema;
 
+import java.util.Map;
+
 import com.porflyo.Item.DdbPortfolioMetricsItem;
+import com.porflyo.model.metrics.MetricsField;
 
 import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
@@ -9,6 +12,25 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
 public final class PortfolioMetricsTableSchema {
     private PortfolioMetricsTableSchema() {}
 
+    public static final String REVISION_ATTRIBUTE = "R";
+
+    /** List attribute of each counter in version 1 shards; version 2 shards pack them all in the blob. */
+    public static final Map<MetricsField, String> FIELD_ATTRIBUTES = Map.ofEntries(
+        Map.entry(MetricsField.ACTIVE_TIME, "a"),
+        Map.entry(MetricsField.VIEWS, "v"),
+        Map.entry(MetricsField.QUALITY_VISITS, "q"),
+        Map.entry(MetricsField.EMAIL_COPIES, "e"),
+        Map.entry(MetricsField.SOCIAL_CLICKS, "o"),
+        Map.entry(MetricsField.DEVICE_VIEWS, "d"),
+        Map.entry(MetricsField.SCROLL_SCORE, "s"),
+        Map.entry(MetricsField.SCROLL_TIME, "t"),
+        Map.entry(MetricsField.TTFI_SUM_MS, "F"),
+        Map.entry(MetricsField.TTFI_COUNT, "C"),
+        Map.entry(MetricsField.PROJECT_VIEW_TIME, "w"),
+        Map.entry(MetricsField.PROJECT_EXPOSURES, "x"),
+        Map.entry(MetricsField.PROJECT_CODE_VIEWS, "c"),
+        Map.entry(MetricsField.PROJECT_LIVE_VIEWS, "l"));
+
     public static final TableSchema<DdbPortfolioMetricsItem> SCHEMA = TableSchema
             .builder(DdbPortfolioMetricsItem.class)    
             .newItemSupplier(DdbPortfolioMetricsItem::new)
@@ -28,6 +50,12 @@ public final class PortfolioMetricsTableSchema {
             .addAttribute(String.class, a -> a.name("V")
                 .getter(DdbPortfolioMetricsItem::getVersion)
                 .setter(DdbPortfolioMetricsItem::setVersion))
+            .addAttribute(Long.class, a -> a.name(REVISION_ATTRIBUTE)
+                .getter(DdbPortfolioMetricsItem::getRevision)
+                .setter(DdbPortfolioMetricsItem::setRevision))
+            .addAttribute(byte[].class, a -> a.name("B")
+                .getter(DdbPortfolioMetricsItem::getColumns)
+                .setter(DdbPortfolioMetricsItem::setColumns))
             .addAttribute(EnhancedType.listOf(Integer.class), a -> a.name("D")
                 .getter(DdbPortfolioMetricsItem::getDayIntegers)
                 .setter(DdbPortfolioMetricsItem::setDayIntegers))
@@ -9,6 +9,8 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
 public final class SlotMetricsTableSchema {
     private SlotMetricsTableSchema() {}
 
+    public static final String REVISION_ATTRIBUTE = "R";
+
     public static final TableSchema<DdbSlotMetricsItem> SCHEMA = TableSchema
             .builder(DdbSlotMetricsItem.class)    
             .newItemSupplier(DdbSlotMetricsItem::new)
@@ -28,6 +30,9 @@ public final class SlotMetricsTableSchema {
             .addAttribute(String.class, a -> a.name("D")
                 .getter(DdbSlotMetricsItem::getDate)
                 .setter(DdbSlotMetricsItem::setDate))
+            .addAttribute(Long.class, a -> a.name(REVISION_ATTRIBUTE)
+                .getter(DdbSlotMetricsItem::getRevision)
+                .setter(DdbSlotMetricsItem::setRevision))
 
 
             // ────────────────────────── Projects ──────────────────────────
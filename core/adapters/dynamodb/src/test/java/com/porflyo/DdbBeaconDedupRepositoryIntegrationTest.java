@@ -0,0 +1,107 @@
+package com.porflyo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.porflyo.common.DdbKeys;
+import com.porflyo.configuration.DdbConfig;
+import com.porflyo.ports.BeaconDedupRepositoryContract;
+import com.porflyo.repository.DdbBeaconDedupRepository;
+import com.porflyo.repository.DdbMetricsRepository;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Integration test for DdbBeaconDedupRepository using Testcontainers.
+ * Extends the BeaconDedupRepositoryContract to ensure consistent behavior.
+ */
+@MicronautTest(environments = {"integration"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@DisplayName("DynamoDB Beacon Dedup Repository Integration Tests")
+public class DdbBeaconDedupRepositoryIntegrationTest
+        extends BeaconDedupRepositoryContract
+        implements TestPropertyProvider {
+
+    @Container
+    @SuppressWarnings("resource")
+    static GenericContainer<?> dynamodb = new GenericContainer<>(DockerImageName.parse("amazon/dynamodb-local:latest"))
+            .withExposedPorts(8000)
+            .withCommand("-jar", "DynamoDBLocal.jar", "-sharedDb", "-inMemory");
+
+    @Inject 
+    DdbBeaconDedupRepository injectedRepository;
+
+    @Inject
+    DdbMetricsRepository injectedMetricsRepository;
+
+    @Inject
+    @Named("lowDynamoDbClient")
+    DynamoDbClient lowClient;
+
+    @Inject
+    DdbConfig ddbConfig;
+
+    
+    public DdbBeaconDedupRepositoryIntegrationTest() {
+        super(null, null); // Initialize with null, will be set in @PostConstruct
+    }
+
+    @PostConstruct
+    void setUp() {
+        this.repository = injectedRepository;
+        this.metricsRepository = injectedMetricsRepository;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        if (!dynamodb.isRunning()) {
+            dynamodb.start();
+        }
+        String dynamoUrl = "http://" + dynamodb.getHost() + ":" + dynamodb.getMappedPort(8000);
+        return Map.of(
+            "dynamodb.endpoint", dynamoUrl,
+            "dynamodb.region", "us-east-1",
+            "micronaut.test.resources.enabled", "false"
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep every filter item at a fixed size however many beacons are seen")
+    void shouldKeepFilterItemsAtFixedSize() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            repository.markSeen(testPortfolioId, today, newBeaconIds(100));
+        }
+
+        // When
+        List<Map<String, AttributeValue>> items = lowClient.query(q -> q
+            .tableName(ddbConfig.metricsTable())
+            .keyConditionExpression("PK = :pk AND begins_with(SK, :sk)")
+            .expressionAttributeValues(Map.of(
+                ":pk", AttributeValue.fromS(DdbKeys.pk(DdbKeys.METRICS_PK_PREFIX, testPortfolioId.value())),
+                ":sk", AttributeValue.fromS(DdbKeys.METRICS_BEACON_SK_PREFIX + today))))
+            .items();
+
+        // Then
+        assertThat(items).hasSizeLessThanOrEqualTo(DdbBeaconDedupRepository.SHARD_COUNT);
+        assertThat(items).allSatisfy(item ->
+            assertThat(item.get("filter").b().asByteArray()).hasSize(DdbBeaconDedupRepository.FILTER_BYTES));
+    }
+}
@@ -0,0 +1,68 @@
+package com.porflyo;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.porflyo.ports.MetricsViewRepositoryContract;
+import com.porflyo.repository.DdbMetricsViewRepository;
+import com.porflyo.repository.DdbMetricsRepository;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+
+/**
+ * Integration test for DdbMetricsViewRepository using Testcontainers.
+ * Extends the MetricsViewRepositoryContract to ensure consistent behavior.
+ */
+@MicronautTest(environments = {"integration"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@DisplayName("DynamoDB Metrics View Repository Integration Tests")
+public class DdbMetricsViewRepositoryIntegrationTest
+        extends MetricsViewRepositoryContract
+        implements TestPropertyProvider {
+
+    @Container
+    @SuppressWarnings("resource")
+    static GenericContainer<?> dynamodb = new GenericContainer<>(DockerImageName.parse("amazon/dynamodb-local:latest"))
+            .withExposedPorts(8000)
+            .withCommand("-jar", "DynamoDBLocal.jar", "-sharedDb", "-inMemory");
+
+    @Inject 
+    DdbMetricsViewRepository injectedRepository;
+
+    @Inject
+    DdbMetricsRepository injectedMetricsRepository;
+
+    
+    public DdbMetricsViewRepositoryIntegrationTest() {
+        super(null, null); // Initialize with null, will be set in @PostConstruct
+    }
+
+    @PostConstruct
+    void setUp() {
+        this.repository = injectedRepository;
+        this.metricsRepository = injectedMetricsRepository;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        if (!dynamodb.isRunning()) {
+            dynamodb.start();
+        }
+        String dynamoUrl = "http://" + dynamodb.getHost() + ":" + dynamodb.getMappedPort(8000);
+        return Map.of(
+            "dynamodb.endpoint", dynamoUrl,
+            "dynamodb.region", "us-east-1",
+            "micronaut.test.resources.enabled", "false"
+        );
+    }
+}
\ No newline at end of file
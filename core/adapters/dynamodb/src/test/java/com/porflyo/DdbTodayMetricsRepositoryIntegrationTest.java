@@ -0,0 +1,73 @@
+package com.porflyo;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.porflyo.ports.TodayMetricsRepositoryContract;
+import com.porflyo.repository.DdbMetricsRepository;
+import com.porflyo.repository.DdbSlotMetricsRepository;
+import com.porflyo.repository.DdbTodayMetricsRepository;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+
+/**
+ * Integration test for DdbTodayMetricsRepository using Testcontainers.
+ * Extends the TodayMetricsRepositoryContract to ensure consistent behavior.
+ */
+@MicronautTest(environments = {"integration"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@DisplayName("DynamoDB Today Metrics Repository Integration Tests")
+public class DdbTodayMetricsRepositoryIntegrationTest
+        extends TodayMetricsRepositoryContract
+        implements TestPropertyProvider {
+
+    @Container
+    @SuppressWarnings("resource")
+    static GenericContainer<?> dynamodb = new GenericContainer<>(DockerImageName.parse("amazon/dynamodb-local:latest"))
+            .withExposedPorts(8000)
+            .withCommand("-jar", "DynamoDBLocal.jar", "-sharedDb", "-inMemory");
+
+    @Inject 
+    DdbTodayMetricsRepository injectedRepository;
+
+    @Inject
+    DdbMetricsRepository injectedMetricsRepository;
+
+    @Inject
+    DdbSlotMetricsRepository injectedSlotRepository;
+
+    
+    public DdbTodayMetricsRepositoryIntegrationTest() {
+        super(null, null, null); // Initialize with null, will be set in @PostConstruct
+    }
+
+    @PostConstruct
+    void setUp() {
+        this.repository = injectedRepository;
+        this.metricsRepository = injectedMetricsRepository;
+        this.slotRepository = injectedSlotRepository;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        if (!dynamodb.isRunning()) {
+            dynamodb.start();
+        }
+        String dynamoUrl = "http://" + dynamodb.getHost() + ":" + dynamodb.getMappedPort(8000);
+        return Map.of(
+            "dynamodb.endpoint", dynamoUrl,
+            "dynamodb.region", "us-east-1",
+            "micronaut.test.resources.enabled", "false"
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.porflyo.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BlobReader (unit)")
+class BlobReaderTest {
+
+    private static final List<Integer> INDEXES = IntStream.range(0, 400).map(i -> i * 81).boxed().toList();
+    private static final List<Integer> VALUES = IntStream.range(0, 400).map(i -> (i * 37) % 4096).boxed().toList();
+    private static final List<Integer> COUNTS = IntStream.range(0, 400).map(i -> i % 64).boxed().toList();
+
+    private final byte[] blob = PackedBlob.builder()
+        .version(1)
+        .addSection(1, 15, INDEXES)
+        .addSection(2, 12, VALUES)
+        .addSection(3, 6, COUNTS)
+        .build()
+        .bytes();
+
+    @Test
+    @DisplayName("should decode every section in place")
+    void should_decode_every_section_in_place() {
+        // given
+        BlobReader reader = BlobReader.parse(blob);
+        int[] dest = new int[800];
+
+        // when
+        int decoded = reader.decodeSectionInto(2, dest, 400);
+
+        // then
+        assertThat(reader.version()).isEqualTo(1);
+        assertThat(reader.sectionIds()).containsExactly(1, 2, 3);
+        assertThat(reader.decodeSection(1)).isEqualTo(INDEXES);
+        assertThat(reader.decodeSectionToArray(3)).containsExactly(COUNTS.stream().mapToInt(Integer::intValue).toArray());
+        assertThat(decoded).isEqualTo(400);
+        assertThat(dest[400 + 5]).isEqualTo(VALUES.get(5));
+    }
+
+    @Test
+    @DisplayName("should view the payload without copying it")
+    void should_view_payload_without_copying_it() {
+        // given
+        BlobReader reader = BlobReader.parse(blob);
+
+        // when
+        ByteBuffer view = reader.payloadView(3);
+
+        // then
+        assertThat(view.isReadOnly()).isTrue();
+        assertThat(view.remaining()).isEqualTo(reader.info(3).length);
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        assertThat(copy).isEqualTo(reader.payload(3));
+    }
+
+    @Test
+    @DisplayName("should decode a lazy section only when it is read")
+    void should_decode_lazy_section_only_when_read() {
+        // given
+        byte[] corrupt = blob.clone();
+        BlobReader reader = BlobReader.parse(corrupt);
+        List<Integer> values = reader.lazySection(2);
+
+        // when
+        int size = values.size();
+        int first = values.get(0);
+        corrupt[reader.info(2).offset] = (byte) 0xFF;   // decoded already, later reads are not affected
+
+        // then
+        assertThat(size).isEqualTo(400);
+        assertThat(first).isEqualTo(VALUES.get(0));
+        assertThat(values).isEqualTo(VALUES);
+        assertThatThrownBy(() -> values.add(1)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("should reject a blob with a bad header or an unknown section")
+    void should_reject_bad_header_or_unknown_section() {
+        // given
+        byte[] badMagic = blob.clone();
+        badMagic[0] = 'X';
+
+        // when / then
+        assertThatThrownBy(() -> BlobReader.parse(badMagic)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlobReader.parse(new byte[4])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlobReader.parse(Arrays.copyOf(blob, 40))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlobReader.parse(blob).info(9)).isInstanceOf(NoSuchElementException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.porflyo.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CountingBloomFilter (unit)")
+class CountingBloomFilterTest {
+
+    private final Random random = new Random(2024);
+
+    @Test
+    @DisplayName("should report an added hash as a duplicate")
+    void should_report_added_hash_as_duplicate() {
+        // given
+        CountingBloomFilter filter = CountingBloomFilter.empty(64);
+        long hash = random.nextLong();
+
+        // when
+        boolean first = filter.add(hash);
+        boolean second = filter.add(hash);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(filter.mightContain(hash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should keep its size however many hashes are added")
+    void should_keep_size_however_many_hashes_added() {
+        // given
+        CountingBloomFilter filter = CountingBloomFilter.empty(896);
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            filter.add(random.nextLong());
+        }
+
+        // then
+        assertThat(filter.sizeBytes()).isEqualTo(896);
+        assertThat(filter.toByteArray()).hasSize(896);
+    }
+
+    @Test
+    @DisplayName("should rarely take a new hash for a duplicate at the expected load")
+    void should_rarely_take_new_hash_for_duplicate_at_expected_load() {
+        // given
+        CountingBloomFilter filter = CountingBloomFilter.empty(896);
+        for (int i = 0; i < 40; i++) {
+            filter.add(random.nextLong());
+        }
+
+        // when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+
+        // then
+        assertThat(falsePositives).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("should accept a removed hash again and keep the others")
+    void should_accept_removed_hash_again_and_keep_others() {
+        // given
+        CountingBloomFilter filter = CountingBloomFilter.empty(64);
+        long kept = random.nextLong();
+        long removed = random.nextLong();
+        filter.add(kept);
+        filter.add(removed);
+
+        // when
+        boolean wasThere = filter.remove(removed);
+        boolean twice = filter.remove(removed);
+
+        // then
+        assertThat(wasThere).isTrue();
+        assertThat(twice).isFalse();
+        assertThat(filter.mightContain(kept)).isTrue();
+        assertThat(filter.add(removed)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should read back what it stores")
+    void should_read_back_what_it_stores() {
+        // given
+        CountingBloomFilter filter = CountingBloomFilter.empty(128);
+        for (int i = 0; i < 50; i++) {
+            filter.add(random.nextLong());
+        }
+
+        // when
+        CountingBloomFilter read = CountingBloomFilter.of(filter.toByteArray());
+
+        // then
+        assertThat(read).isEqualTo(filter);
+    }
+}
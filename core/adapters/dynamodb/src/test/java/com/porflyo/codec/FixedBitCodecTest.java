@@ -0,0 +1,123 @@
+package com.porflyo.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FixedBitCodec (unit)")
+class FixedBitCodecTest {
+
+    private final Random random = new Random(2024);
+
+    @Test
+    @DisplayName("should produce the same bytes as the byte-at-a-time packing")
+    void should_produce_same_bytes_as_byte_at_a_time_packing() {
+        for (int bits = 1; bits <= 24; bits++) {
+            for (int count : new int[] {0, 1, 7, 8, 9, 63, 64, 65, 400}) {
+                int[] values = randomValues(count, bits);
+
+                byte[] encoded = FixedBitCodec.encode(values, bits);
+
+                assertThat(encoded).as("%d values of %d bits", count, bits).isEqualTo(referenceEncode(values, bits));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should decode what it encodes for every width")
+    void should_decode_what_it_encodes_for_every_width() {
+        for (int bits = 1; bits <= 32; bits++) {
+            int[] values = randomValues(400, bits);
+
+            byte[] encoded = FixedBitCodec.encode(values, bits);
+
+            assertThat(encoded).hasSize((400 * bits + 7) / 8);
+            assertThat(FixedBitCodec.decodeToArray(encoded, bits, 400)).as("%d bits", bits).isEqualTo(values);
+            assertThat(FixedBitCodec.decode(encoded, bits, 400)).isEqualTo(Arrays.stream(values).boxed().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("should decode a range of a larger array into a caller buffer")
+    void should_decode_range_into_caller_buffer() {
+        // given
+        int[] values = randomValues(400, 12);
+        byte[] encoded = FixedBitCodec.encode(values, 12);
+        byte[] blob = new byte[encoded.length + 13];
+        System.arraycopy(encoded, 0, blob, 5, encoded.length);
+        int[] dest = new int[410];
+
+        // when
+        int decoded = FixedBitCodec.decode(blob, 5, encoded.length, 12, 400, dest, 10);
+
+        // then
+        assertThat(decoded).isEqualTo(400);
+        assertThat(Arrays.copyOfRange(dest, 10, 410)).isEqualTo(values);
+        assertThat(Arrays.copyOfRange(dest, 0, 10)).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("should decode only the values held entirely when the data ends early")
+    void should_decode_only_complete_values_when_data_ends_early() {
+        // given
+        byte[] encoded = FixedBitCodec.encode(List.of(1, 2, 3, 4), 6);
+
+        // when
+        List<Integer> decoded = FixedBitCodec.decode(Arrays.copyOf(encoded, 2), 6, 4);
+
+        // then
+        assertThat(decoded).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("should reject values that do not fit and invalid widths")
+    void should_reject_values_that_do_not_fit_and_invalid_widths() {
+        assertThatThrownBy(() -> FixedBitCodec.encode(List.of(64), 6)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FixedBitCodec.encode(List.of(-1), 32)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FixedBitCodec.encode(List.of(1), 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FixedBitCodec.decode(new byte[1], 33, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FixedBitCodec.decode(new byte[1], 8, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private int[] randomValues(int count, int bits) {
+        long bound = 1L << Math.min(bits, 31);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (int) (random.nextDouble() * bound);
+        }
+        if (count > 0) values[0] = (int) (bound - 1);   // widest value first
+        return values;
+    }
+
+    /** Byte-at-a-time MSB-first packing, as the codec wrote blobs before working on words. */
+    private static byte[] referenceEncode(int[] values, int bits) {
+        var out = new ByteArrayOutputStream();
+        int state = 0;
+        int bitCount = 0;
+
+        for (int value : values) {
+            state = (state << bits) | value;
+            bitCount += bits;
+            while (bitCount >= 8) {
+                int shift = bitCount - 8;
+                out.write((state >> shift) & 0xFF);
+                bitCount -= 8;
+                state &= (1 << shift) - 1;
+            }
+        }
+
+        if (bitCount > 0) {
+            out.write((state << (8 - bitCount)) & 0xFF);
+        }
+        return out.toByteArray();
+    }
+}
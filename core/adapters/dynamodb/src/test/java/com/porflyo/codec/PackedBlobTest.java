@@ -0,0 +1,96 @@
+package com.porflyo.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.codec.PackedBlob.Transform;
+
+@DisplayName("PackedBlob (unit)")
+class PackedBlobTest {
+
+    private static final List<Integer> SORTED_INDEXES = IntStream.range(0, 400).map(i -> 20_000 + i * 3).boxed().toList();
+
+    @Test
+    @DisplayName("should pick the smallest width that fits each section")
+    void should_pick_smallest_width_that_fits_each_section() {
+        // given
+        List<Integer> values = List.of(0, 5000, 70_000);
+
+        // when
+        BlobReader reader = BlobReader.parse(PackedBlob.builder()
+            .addSection(1, values)
+            .addSection(2, List.of(0, 0))
+            .build()
+            .bytes());
+
+        // then
+        assertThat(reader.version()).isEqualTo(1);
+        assertThat(reader.info(1).bitsPerValue).isEqualTo(17);
+        assertThat(reader.info(2).bitsPerValue).isEqualTo(1);
+        assertThat(reader.decodeSection(1)).isEqualTo(values);
+    }
+
+    @Test
+    @DisplayName("should pack sorted values as gaps from the first one")
+    void should_pack_sorted_values_as_gaps_from_first_one() {
+        // given
+        List<Integer> values = List.of(4096, 4100, 4200, 9000);
+
+        // when
+        BlobReader reader = BlobReader.parse(PackedBlob.builder()
+            .version(2)
+            .addSection(1, SORTED_INDEXES, Transform.DELTA)
+            .addSection(2, values, Transform.FRAME_OF_REFERENCE)
+            .build()
+            .bytes());
+
+        // then
+        assertThat(reader.version()).isEqualTo(2);
+        assertThat(reader.info(1).transform).isEqualTo(Transform.DELTA);
+        assertThat(reader.info(1).reference).isEqualTo(20_000);
+        assertThat(reader.info(1).bitsPerValue).isEqualTo(2);
+        assertThat(reader.decodeSection(1)).isEqualTo(SORTED_INDEXES);
+        assertThat(reader.info(2).reference).isEqualTo(4096);
+        assertThat(reader.info(2).bitsPerValue).isEqualTo(13);
+        assertThat(reader.lazySection(2)).isEqualTo(values);
+    }
+
+    @Test
+    @DisplayName("should fall back to frame of reference when delta values are not sorted")
+    void should_fall_back_to_frame_of_reference_when_delta_values_not_sorted() {
+        // given
+        List<Integer> values = List.of(-7, 300, 12, 12, -7);
+
+        // when
+        BlobReader reader = BlobReader.parse(PackedBlob.builder()
+            .version(2)
+            .addSection(1, values, Transform.DELTA)
+            .build()
+            .bytes());
+
+        // then
+        assertThat(reader.info(1).transform).isEqualTo(Transform.FRAME_OF_REFERENCE);
+        assertThat(reader.info(1).reference).isEqualTo(-7);
+        assertThat(reader.decodeSection(1)).isEqualTo(values);
+    }
+
+    @Test
+    @DisplayName("should reject transforms and widths the version or data cannot hold")
+    void should_reject_transforms_and_widths_version_or_data_cannot_hold() {
+        // when / then
+        assertThatThrownBy(() -> PackedBlob.builder().addSection(1, List.of(1), Transform.DELTA).build())
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> PackedBlob.builder().addSection(1, 12, List.of(4096)).build())
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PackedBlob.builder().version(2).addSection(1, List.of(Integer.MIN_VALUE, Integer.MAX_VALUE), Transform.FRAME_OF_REFERENCE).build())
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PackedBlob.builder().version(3))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
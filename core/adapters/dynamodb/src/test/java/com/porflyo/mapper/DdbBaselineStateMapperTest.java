@@ -0,0 +1,55 @@
+package com.porflyo.mapper;
+
+import static com.porflyo.data.MetricsTestData.DEFAULT_PORTFOLIO_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.model.metrics.BaselineState;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+@DisplayName("DdbBaselineStateMapper (unit)")
+class DdbBaselineStateMapperTest {
+
+    private static final BaselineState STATE = new BaselineState(
+        DEFAULT_PORTFOLIO_ID,
+        LocalDate.of(2025, 3, 14),
+        28,
+        List.of(
+            new BaselineState.Stat(3, 120.0, 800.0, List.of(100.0, 120.0, 140.0)),
+            new BaselineState.Stat(2, 0.75, 0.02, Arrays.asList(0.65, null, 0.85)),
+            new BaselineState.Stat(1, Math.log(900.0), 0.0, Arrays.asList(null, Math.log(900.0), null)),
+            new BaselineState.Stat(3, 0.5, 0.0, List.of(0.5, 0.5, 0.5)),
+            new BaselineState.Stat(0, 0.0, 0.0, Arrays.asList(null, null, null))));
+
+    @Test
+    @DisplayName("should map a baseline state to its item and back unchanged")
+    void should_map_baseline_state_to_item_and_back() {
+        // when
+        Map<String, AttributeValue> item = DdbBaselineStateMapper.toAttributes(STATE);
+
+        // then
+        assertThat(item.get("SK").s()).isEqualTo("Z#BASELINE");
+        assertThat(item).containsOnlyKeys("PK", "SK", "T", "W", "B");
+        assertThat(DdbBaselineStateMapper.fromAttributes(item)).isEqualTo(STATE);
+    }
+
+    @Test
+    @DisplayName("should reject truncated stats")
+    void should_reject_truncated_stats() {
+        // given
+        byte[] blob = DdbBaselineStateMapper.encodeStats(STATE.stats());
+
+        // when / then
+        assertThatThrownBy(() -> DdbBaselineStateMapper.decodeStats(Arrays.copyOf(blob, blob.length - 8)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
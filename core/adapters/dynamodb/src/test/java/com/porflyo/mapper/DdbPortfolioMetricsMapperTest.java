@@ -0,0 +1,118 @@
+package com.porflyo.mapper;
+
+import static com.porflyo.data.MetricsTestData.DEFAULT_PORTFOLIO_ID;
+import static com.porflyo.data.MetricsTestData.createMetricsForDate;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.Item.DdbPortfolioMetricsItem;
+import com.porflyo.model.metrics.MetricsField;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.schema.PortfolioMetricsTableSchema;
+
+@DisplayName("DdbPortfolioMetricsMapper (unit)")
+class DdbPortfolioMetricsMapperTest {
+
+    // views are multiples of 4, so the device split survives being stored as total and mobile views
+    private static final List<PortfolioMetrics> SHARD = List.of(
+        createMetricsForDate(DEFAULT_PORTFOLIO_ID, LocalDate.of(2025, 3, 2), 100, 1_800_000, 75),
+        createMetricsForDate(DEFAULT_PORTFOLIO_ID, LocalDate.of(2025, 3, 7), 4_000, 2_700_000, 80),
+        createMetricsForDate(DEFAULT_PORTFOLIO_ID, LocalDate.of(2025, 3, 31), 0, 0, 0),
+        createMetricsForDate(DEFAULT_PORTFOLIO_ID, LocalDate.of(2025, 3, 14), 200, 86_400_000, 100));
+
+    @Test
+    @DisplayName("should write every column into a single blob")
+    void should_write_every_column_into_single_blob() {
+        // when
+        DdbPortfolioMetricsItem item = DdbPortfolioMetricsMapper.toItem(SHARD);
+
+        // then
+        assertThat(item.getVersion()).isEqualTo("2");
+        assertThat(item.getColumns()).isNotEmpty();
+        assertThat(item.getDayIntegers()).isNull();
+        assertThat(item.getViews()).isNull();
+        assertThat(PortfolioMetricsTableSchema.SCHEMA.itemToMap(item, true)).containsOnlyKeys("PK", "SK", "V", "B");
+        assertThat(DdbPortfolioMetricsMapper.fromItem(item)).isEqualTo(SHARD);
+    }
+
+    @Test
+    @DisplayName("should read a version 1 item from its lists")
+    void should_read_version_1_item_from_its_lists() {
+        // given
+        DdbPortfolioMetricsItem legacy = legacyItem(SHARD);
+
+        // when
+        List<PortfolioMetrics> read = DdbPortfolioMetricsMapper.fromItem(legacy);
+
+        // then
+        assertThat(read).isEqualTo(SHARD);
+        assertThat(DdbPortfolioMetricsMapper.fromItem(DdbPortfolioMetricsMapper.toItem(read))).isEqualTo(SHARD);
+    }
+
+    @Test
+    @DisplayName("should decode only the sections of the requested counters")
+    void should_decode_only_requested_sections() {
+        // given
+        DdbPortfolioMetricsItem item = DdbPortfolioMetricsMapper.toItem(SHARD);
+
+        // when
+        List<PortfolioMetrics> read = DdbPortfolioMetricsMapper.fromItem(item, EnumSet.of(MetricsField.VIEWS));
+
+        // then
+        assertThat(read).extracting(PortfolioMetrics::date).containsExactlyElementsOf(SHARD.stream().map(PortfolioMetrics::date).toList());
+        assertThat(read).extracting(pm -> pm.engagement().views()).containsExactlyElementsOf(SHARD.stream().map(pm -> pm.engagement().views()).toList());
+        assertThat(read).allSatisfy(pm -> {
+            assertThat(pm.engagement().activeTime()).isZero();
+            assertThat(pm.scroll().scoreTotal()).isZero();
+            assertThat(pm.cumProjects().exposures()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("should build each day once, when it is read")
+    void should_build_each_day_once_when_read() {
+        // given
+        List<PortfolioMetrics> read = DdbPortfolioMetricsMapper.fromItem(DdbPortfolioMetricsMapper.toItem(SHARD));
+
+        // when
+        PortfolioMetrics first = read.get(1);
+
+        // then
+        assertThat(read).hasSize(SHARD.size());
+        assertThat(read.get(1)).isSameAs(first).isEqualTo(SHARD.get(1));
+        assertThatThrownBy(() -> read.add(first)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static DdbPortfolioMetricsItem legacyItem(List<PortfolioMetrics> shard) {
+        DdbPortfolioMetricsItem item = new DdbPortfolioMetricsItem();
+        DdbPortfolioMetricsItem packed = DdbPortfolioMetricsMapper.toItem(shard);
+        item.setPK(packed.getPK());
+        item.setSK(packed.getSK());
+        item.setVersion("1");
+        item.setDayIntegers(shard.stream().map(pm -> pm.date().getDayOfMonth()).toList());
+        item.setActiveTime(shard.stream().map(pm -> pm.engagement().activeTime()).toList());
+        item.setViews(shard.stream().map(pm -> pm.engagement().views()).toList());
+        item.setQualityVisits(shard.stream().map(pm -> pm.engagement().qualityVisits()).toList());
+        item.setEmailCopies(shard.stream().map(pm -> pm.engagement().emailCopies()).toList());
+        item.setSocialClicks(shard.stream().map(pm -> pm.engagement().socialClicks()).toList());
+        item.setDeviceViews(shard.stream().map(pm -> pm.engagement().devices().mobileTabletViews()).toList());
+        item.setTotalScrollScore(shard.stream().map(pm -> pm.scroll().scoreTotal()).toList());
+        item.setTotalScrollTime(shard.stream().map(pm -> pm.scroll().scrollTimeTotal()).toList());
+        item.setTtfiSumMs(shard.stream().map(pm -> pm.scroll().ttfiSumMs()).toList());
+        item.setTtfiCount(shard.stream().map(pm -> pm.scroll().ttfiCount()).toList());
+        item.setViewTime(shard.stream().map(pm -> pm.cumProjects().viewTime()).toList());
+        item.setExposures(shard.stream().map(pm -> pm.cumProjects().exposures()).toList());
+        item.setCodeViews(shard.stream().map(pm -> pm.cumProjects().codeViews()).toList());
+        item.setLiveViews(shard.stream().map(pm -> pm.cumProjects().liveViews()).toList());
+        return item;
+    }
+}
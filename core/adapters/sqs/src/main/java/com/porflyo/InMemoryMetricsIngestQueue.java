@@ -0,0 +1,94 @@
+package com.porflyo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import com.porflyo.configuration.MetricsIngestConfig;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.ports.MetricsIngestQueue;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * In-process {@link MetricsIngestQueue} for local runs and tests.
+ * <p>
+ * Mimics the SQS delivery semantics: received sessions stay in flight until they are
+ * acknowledged, and go back to the head of the queue once their visibility timeout
+ * expires. Nothing survives the process.
+ */
+@Singleton
+@Requires(property = "metrics.ingest.queue", value = "memory")
+public class InMemoryMetricsIngestQueue implements MetricsIngestQueue {
+
+    private record InFlight(SessionMetrics session, long visibleAtNanos) {}
+
+    private final Deque<SessionMetrics> visible = new ArrayDeque<>();
+    private final Map<String, InFlight> inFlight = new LinkedHashMap<>();
+    private final long visibilityTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    @Inject
+    public InMemoryMetricsIngestQueue(MetricsIngestConfig ingestConfig) {
+        this(ingestConfig, System::nanoTime);
+    }
+
+    InMemoryMetricsIngestQueue(MetricsIngestConfig ingestConfig, LongSupplier nanoClock) {
+        this.visibilityTimeoutNanos = Math.max(0, ingestConfig.visibilityTimeoutSeconds()) * 1_000_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public synchronized void enqueue(List<SessionMetrics> sessions) {
+        visible.addAll(sessions);
+    }
+
+    @Override
+    public synchronized List<QueuedSession> receive(int maxSessions) {
+        long now = nanoClock.getAsLong();
+        requeueExpired(now);
+
+        List<QueuedSession> received = new ArrayList<>();
+        while (received.size() < maxSessions && !visible.isEmpty()) {
+            SessionMetrics session = visible.pollFirst();
+            String receipt = UUID.randomUUID().toString();
+
+            inFlight.put(receipt, new InFlight(session, now + visibilityTimeoutNanos));
+            received.add(new QueuedSession(receipt, session));
+        }
+
+        return received;
+    }
+
+    @Override
+    public synchronized void acknowledge(List<QueuedSession> sessions) {
+        sessions.forEach(s -> inFlight.remove(s.receipt()));
+    }
+
+    /** Puts back the sessions whose visibility timeout expired, oldest delivery first. */
+    private void requeueExpired(long now) {
+        List<SessionMetrics> expired = new ArrayList<>();
+
+        Iterator<InFlight> it = inFlight.values().iterator();
+        while (it.hasNext()) {
+            InFlight delivery = it.next();
+            if (delivery.visibleAtNanos() <= now) {
+                expired.add(delivery.session());
+                it.remove();
+            }
+        }
+
+        for (int i = expired.size() - 1; i >= 0; i--) {
+            visible.addFirst(expired.get(i));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.porflyo;
+
+import java.net.URI;
+
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+
+/**
+ * Supplies a shared {@link SqsClient} when the metrics ingest queue is backed by SQS.
+ * 
+ */
+@Factory
+@Requires(beans = SqsConfig.class)
+@Requires(property = "metrics.ingest.queue", value = "sqs")
+public class SqsClientFactory {
+
+    private final SqsConfig sqsConfig;
+
+    @Inject
+    public SqsClientFactory(SqsConfig sqsConfig) {
+        this.sqsConfig = sqsConfig;
+    }
+    
+    private AwsBasicCredentials fakeCreds = AwsBasicCredentials.create("test", "test");
+
+
+    // ────────────────────────── LOCAL ──────────────────────────
+
+    @Singleton
+    @Named("lowSqsClient")
+    @Requires(env = {"local", "integration"})
+    SqsClient localSqsClient() {
+        Region region = Region.of(sqsConfig.region());
+        return SqsClient.builder()
+            .region(region)
+            .endpointOverride(URI.create(sqsConfig.endpoint()))
+            .credentialsProvider(StaticCredentialsProvider.create(fakeCreds))
+            .httpClient(UrlConnectionHttpClient.builder().build())
+            .build();
+    }
+
+    
+    // ────────────────────────── PRODUCTION ──────────────────────────
+
+    @Singleton
+    @Named("lowSqsClient")
+    @Requires(notEnv = {"local", "integration"})
+    SqsClient prodSqsClient() {
+        Region region = Region.of(sqsConfig.region());
+        return SqsClient.builder()
+            .region(region)
+            .credentialsProvider(DefaultCredentialsProvider.builder().build())
+            .httpClient(UrlConnectionHttpClient.builder().build())
+            .build();
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.porflyo;
+
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+
+@ConfigurationProperties("sqs")
+public record SqsConfig(
+    String region,
+    String metricsQueueUrl,
+    @Nullable String endpoint
+) {}
@@ -0,0 +1,179 @@
+package com.porflyo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.MetricsIngestConfig;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.ports.MetricsIngestQueue;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+/**
+ * {@link MetricsIngestQueue} backed by an Amazon SQS standard queue.
+ * <p>
+ * Every session is one JSON message. Sends, receives and deletes are batched by
+ * {@value #SQS_MAX_BATCH} (the SQS limit per call); receives never wait for new messages.
+ */
+@Singleton
+@Requires(beans = SqsConfig.class)
+@Requires(property = "metrics.ingest.queue", value = "sqs")
+public class SqsMetricsIngestQueue implements MetricsIngestQueue {
+
+    private final Logger log = LoggerFactory.getLogger(SqsMetricsIngestQueue.class);
+    private static final int SQS_MAX_BATCH = 10;
+    private static final int MAX_SEND_ATTEMPTS = 3;
+
+    private final SqsClient sqsClient;
+    private final JsonMapper jsonMapper;
+    private final String queueUrl;
+    private final int visibilityTimeoutSeconds;
+
+    @Inject
+    public SqsMetricsIngestQueue(
+            @Named("lowSqsClient") SqsClient sqsClient,
+            JsonMapper jsonMapper,
+            SqsConfig sqsConfig,
+            MetricsIngestConfig ingestConfig) {
+        this.sqsClient = sqsClient;
+        this.jsonMapper = jsonMapper;
+        this.queueUrl = sqsConfig.metricsQueueUrl();
+        this.visibilityTimeoutSeconds = Math.max(0, ingestConfig.visibilityTimeoutSeconds());
+    }
+
+
+    // ────────────────────────── Enqueue ──────────────────────────
+
+    @Override
+    public void enqueue(List<SessionMetrics> sessions) {
+        for (int from = 0; from < sessions.size(); from += SQS_MAX_BATCH) {
+            List<SessionMetrics> chunk = sessions.subList(from, Math.min(from + SQS_MAX_BATCH, sessions.size()));
+
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(toJson(chunk.get(i)))
+                    .build());
+            }
+
+            sendBatch(entries);
+        }
+    }
+
+    /** Sends a batch, resending only the entries SQS reported as failed. */
+    private void sendBatch(List<SendMessageBatchRequestEntry> entries) {
+        List<SendMessageBatchRequestEntry> pending = entries;
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            final List<SendMessageBatchRequestEntry> request = pending;
+            SendMessageBatchResponse response = sqsClient.sendMessageBatch(r -> r.queueUrl(queueUrl).entries(request));
+            if (!response.hasFailed() || response.failed().isEmpty()) {
+                return;
+            }
+
+            if (attempt >= MAX_SEND_ATTEMPTS) {
+                BatchResultErrorEntry first = response.failed().get(0);
+                throw new IllegalStateException("Could not enqueue " + response.failed().size()
+                    + " metrics sessions: " + first.code() + " " + first.message());
+            }
+
+            List<String> failedIds = response.failed().stream().map(BatchResultErrorEntry::id).toList();
+            pending = request.stream().filter(e -> failedIds.contains(e.id())).toList();
+            log.warn("Resending {} metrics sessions rejected by SQS", pending.size());
+        }
+    }
+
+
+    // ────────────────────────── Receive ──────────────────────────
+
+    @Override
+    public List<QueuedSession> receive(int maxSessions) {
+        List<QueuedSession> received = new ArrayList<>();
+        List<String> undecodable = new ArrayList<>();
+
+        while (received.size() < maxSessions) {
+            int max = Math.min(SQS_MAX_BATCH, maxSessions - received.size());
+            List<Message> messages = sqsClient.receiveMessage(r -> r
+                    .queueUrl(queueUrl)
+                    .maxNumberOfMessages(max)
+                    .visibilityTimeout(visibilityTimeoutSeconds)
+                    .waitTimeSeconds(0))
+                .messages();
+
+            if (messages.isEmpty()) {
+                break;
+            }
+
+            for (Message message : messages) {
+                try {
+                    received.add(new QueuedSession(
+                        message.receiptHandle(),
+                        jsonMapper.readValue(message.body(), SessionMetrics.class)));
+                } catch (IOException e) {
+                    // Would be redelivered forever otherwise
+                    log.error("Dropping undecodable metrics message {}: {}", message.messageId(), e.getMessage());
+                    undecodable.add(message.receiptHandle());
+                }
+            }
+        }
+
+        deleteBatches(undecodable);
+        return received;
+    }
+
+
+    // ────────────────────────── Acknowledge ──────────────────────────
+
+    @Override
+    public void acknowledge(List<QueuedSession> sessions) {
+        deleteBatches(sessions.stream().map(QueuedSession::receipt).toList());
+    }
+
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private void deleteBatches(List<String> receipts) {
+        for (int from = 0; from < receipts.size(); from += SQS_MAX_BATCH) {
+            List<String> chunk = receipts.subList(from, Math.min(from + SQS_MAX_BATCH, receipts.size()));
+
+            List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                entries.add(DeleteMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .receiptHandle(chunk.get(i))
+                    .build());
+            }
+
+            DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(r -> r.queueUrl(queueUrl).entries(entries));
+            if (response.hasFailed() && !response.failed().isEmpty()) {
+                // At-least-once: these sessions will be delivered and counted again
+                log.warn("Could not delete {} metrics messages, they will be delivered again", response.failed().size());
+            }
+        }
+    }
+
+    private String toJson(SessionMetrics session) {
+        try {
+            return jsonMapper.writeValueAsString(session);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not serialize metrics session", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.porflyo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.configuration.MetricsIngestConfig;
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.ports.MetricsIngestQueueContract;
+
+@DisplayName("In-Memory Metrics Ingest Queue Tests")
+class InMemoryMetricsIngestQueueTest extends MetricsIngestQueueContract {
+
+    private static final MetricsIngestConfig CONFIG = new MetricsIngestConfig("memory", 100, 50, 30, false);
+
+    InMemoryMetricsIngestQueueTest() {
+        super(new InMemoryMetricsIngestQueue(CONFIG));
+    }
+
+    @Test
+    @DisplayName("Should deliver a session again once its visibility timeout expires")
+    void shouldDeliverAgainWhenVisibilityTimeoutExpires() {
+        // Given
+        AtomicLong clock = new AtomicLong();
+        InMemoryMetricsIngestQueue timedQueue = new InMemoryMetricsIngestQueue(CONFIG, clock::get);
+        timedQueue.enqueue(List.of(session(MetricsTestData.TODAY_METRICS)));
+        List<QueuedSession> first = timedQueue.receive(10);
+
+        // When
+        clock.addAndGet(29_000_000_000L);
+        List<QueuedSession> beforeTimeout = timedQueue.receive(10);
+        clock.addAndGet(1_000_000_000L);
+        List<QueuedSession> afterTimeout = timedQueue.receive(10);
+
+        // Then
+        assertTrue(beforeTimeout.isEmpty());
+        assertEquals(1, afterTimeout.size());
+        assertEquals(first.get(0).session(), afterTimeout.get(0).session());
+
+        // The stale receipt no longer acknowledges the new delivery
+        timedQueue.acknowledge(first);
+        clock.addAndGet(30_000_000_000L);
+        assertEquals(1, timedQueue.receive(10).size());
+    }
+}
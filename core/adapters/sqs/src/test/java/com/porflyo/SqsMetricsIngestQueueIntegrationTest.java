@@ -0,0 +1,81 @@
+package com.porflyo;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.porflyo.ports.MetricsIngestQueueContract;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+/**
+ * Integration test for SqsMetricsIngestQueue using Testcontainers.
+ * Extends the MetricsIngestQueueContract to ensure consistent behavior.
+ */
+@MicronautTest(environments = {"integration"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@DisplayName("SQS Metrics Ingest Queue Integration Tests")
+class SqsMetricsIngestQueueIntegrationTest
+        extends MetricsIngestQueueContract
+        implements TestPropertyProvider {
+
+    @Container
+    @SuppressWarnings("resource")
+    static LocalStackContainer SQS = new LocalStackContainer(DockerImageName.parse("localstack/localstack:latest"))
+        .withServices(LocalStackContainer.Service.SQS);
+
+    private static final String QUEUE_NAME = "porflyo-metrics-ingest-test";
+
+    @Inject
+    SqsMetricsIngestQueue injectedQueue;
+
+    protected SqsMetricsIngestQueueIntegrationTest() {
+        super(null);
+    }
+
+    @PostConstruct
+    void init() {
+        this.queue = injectedQueue;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        if (!SQS.isRunning()) {
+            SQS.start();
+        }
+        String sqsUrl = "http://" + SQS.getHost() + ":" + SQS.getMappedPort(4566);
+        return Map.of(
+            "sqs.endpoint", sqsUrl,
+            "sqs.region", "us-east-1",
+            "sqs.metrics-queue-url", createQueue(sqsUrl),
+            "metrics.ingest.queue", "sqs",
+            "micronaut.test.resources.enabled", "false"
+        );
+    }
+
+    private static String createQueue(String endpoint) {
+        try (SqsClient client = SqsClient.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .httpClient(UrlConnectionHttpClient.builder().build())
+                .build()) {
+            return client.createQueue(r -> r.queueName(QUEUE_NAME)).queueUrl();
+        }
+    }
+}
@@ -88,7 +88,7 @@ public class PortfolioLambdaHandler {
                 return publishPortfolio(userId, portfolioId, body);
             }
 
-            return processPortfolioRequest(userId, body, pathRequest, httpMethod);
+            return LambdaHttpUtils.compress(input, processPortfolioRequest(userId, body, pathRequest, httpMethod));
 
         } catch (Exception e) {
             log.error("Error processing portfolio request: {}", e.getMessage(), e);
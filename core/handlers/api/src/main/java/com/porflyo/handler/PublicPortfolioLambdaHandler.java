@@ -58,7 +58,7 @@ public class PublicPortfolioLambdaHandler {
 
         switch (request.toLowerCase()) {
             case "portfolio":
-                return getPublicPortfolio(slug);
+                return LambdaHttpUtils.compress(input, getPublicPortfolio(slug));
             case "isurlavailable":
                 return checkUrlAvailability(slug);
             default:
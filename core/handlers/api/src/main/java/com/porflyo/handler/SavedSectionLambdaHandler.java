@@ -67,7 +67,7 @@ public class SavedSectionLambdaHandler {
             String body = input.getBody();
             String httpMethod = LambdaHttpUtils.getMethod(input);
 
-            return processSavedSectionRequest(userId, body, sectionId, httpMethod);
+            return LambdaHttpUtils.compress(input, processSavedSectionRequest(userId, body, sectionId, httpMethod));
 
         } catch (Exception e) {
             log.error("Error processing saved section request: {}", e.getMessage(), e);
@@ -10,10 +10,14 @@ import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -171,6 +175,60 @@ class PortfolioLambdaHandlerTest {
         then(portfolioService).should().listByOwner(userId);
     }
 
+    @Test
+    @DisplayName("should gzip the portfolio list when the client accepts it")
+    void should_gzip_portfolio_list_when_client_accepts_it() throws IOException {
+        // given
+        Portfolio portfolio = mock(Portfolio.class);
+        PublicPortfolioDto dto = mock(PublicPortfolioDto.class);
+        String json = "[" + "{\"title\":\"My Portfolio\"},".repeat(100) + "{}]";
+
+        given(event.getRawPath()).willReturn("/api/portfolio");
+        given(http.getMethod()).willReturn("GET");
+        given(event.getHeaders()).willReturn(Map.of("Cookie", "session=session-token", "accept-encoding", "gzip, deflate"));
+        given(portfolioService.listByOwner(userId)).willReturn(List.of(portfolio));
+        given(publicPortfolioDtoMapper.toDto(portfolio)).willReturn(dto);
+        given(jsonMapper.writeValueAsString(List.of(dto))).willReturn(json);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handlePortfolioRequest(event);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getIsBase64Encoded()).isTrue();
+        assertThat(response.getHeaders()).containsEntry("Content-Encoding", "gzip").containsEntry("Vary", "Accept-Encoding");
+
+        byte[] compressed = Base64.getDecoder().decode(response.getBody());
+        assertThat(compressed.length).isLessThan(json.length() / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+    }
+
+    @Test
+    @DisplayName("should send the portfolio list uncompressed when the client does not accept any encoding")
+    void should_send_portfolio_list_uncompressed_without_accept_encoding() throws IOException {
+        // given
+        Portfolio portfolio = mock(Portfolio.class);
+        PublicPortfolioDto dto = mock(PublicPortfolioDto.class);
+        String json = "[" + "{\"title\":\"My Portfolio\"},".repeat(100) + "{}]";
+
+        given(event.getRawPath()).willReturn("/api/portfolio");
+        given(http.getMethod()).willReturn("GET");
+        given(event.getHeaders()).willReturn(Map.of("Cookie", "session=session-token", "accept-encoding", "gzip;q=0, br"));
+        given(portfolioService.listByOwner(userId)).willReturn(List.of(portfolio));
+        given(publicPortfolioDtoMapper.toDto(portfolio)).willReturn(dto);
+        given(jsonMapper.writeValueAsString(List.of(dto))).willReturn(json);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handlePortfolioRequest(event);
+
+        // then
+        assertThat(response.getIsBase64Encoded()).isFalse();
+        assertThat(response.getBody()).isEqualTo(json);
+        assertThat(response.getHeaders()).doesNotContainKey("Content-Encoding");
+    }
+
     // ────────────────────────── Get Portfolio ──────────────────────────
 
     
@@ -1,9 +1,18 @@
 package com.porflyo;
 
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
@@ -19,6 +28,7 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
  *   <li>Create error responses with JSON-escaped error messages.</li>
  *   <li>Create redirect responses, including support for setting cookies.</li>
  *   <li>Extract cookie values and query parameters from incoming API Gateway events.</li>
+ *   <li>Compress response bodies with the encoding negotiated through {@code Accept-Encoding}.</li>
  * </ul>
  * All responses are compatible with {@link APIGatewayV2HTTPResponse} and include
  * appropriate headers for CORS and content type.
@@ -29,6 +39,17 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
  */
 public final class LambdaHttpUtils {
 
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    /** Smallest body compressed; below it the encoding overhead outweighs the savings. */
+    public static final int COMPRESSION_MIN_BYTES = 1024;
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
     /**
      * Creates a standard JSON HTTP response for AWS API Gateway HTTP APIs.
      *
@@ -44,6 +65,69 @@ public final class LambdaHttpUtils {
                 .build();
     }
 
+    /**
+     * Creates a JSON HTTP response carrying an {@code ETag}, so clients can revalidate
+     * it later with {@code If-None-Match}.
+     *
+     * @param statusCode the HTTP status code to be set in the response
+     * @param body       the JSON-formatted body of the response
+     * @param etag       the entity tag of the body, quoted as sent in the header
+     * @return an {@link APIGatewayV2HTTPResponse} representing the HTTP response
+     */
+    public static APIGatewayV2HTTPResponse createResponse(int statusCode, String body, String etag) {
+        Map<String, String> headers = defaultJsonHeaders();
+        headers.put(ETAG_HEADER, etag);
+
+        return APIGatewayV2HTTPResponse.builder()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(body)
+                .build();
+    }
+
+    /**
+     * Creates a JSON HTTP response whose body is already gzip-compressed, sent base64-encoded
+     * so API Gateway passes the bytes through unchanged.
+     *
+     * @param statusCode the HTTP status code to be set in the response
+     * @param gzipBody   the gzip-compressed JSON body
+     * @param etag       the entity tag of the body, quoted as sent in the header; may be null
+     * @return an {@link APIGatewayV2HTTPResponse} representing the HTTP response
+     */
+    public static APIGatewayV2HTTPResponse createGzipResponse(int statusCode, byte[] gzipBody, String etag) {
+        Map<String, String> headers = defaultJsonHeaders();
+        headers.put(CONTENT_ENCODING_HEADER, GZIP);
+        headers.put("Vary", ACCEPT_ENCODING_HEADER);
+        if (etag != null) {
+            headers.put(ETAG_HEADER, etag);
+        }
+
+        return APIGatewayV2HTTPResponse.builder()
+                .withStatusCode(statusCode)
+                .withHeaders(headers)
+                .withBody(Base64.getEncoder().encodeToString(gzipBody))
+                .withIsBase64Encoded(true)
+                .build();
+    }
+
+    /**
+     * Creates a {@code 304 Not Modified} response without body for a request whose
+     * {@code If-None-Match} matched the current entity tag.
+     *
+     * @param etag the current entity tag, quoted as sent in the header
+     * @return an {@link APIGatewayV2HTTPResponse} representing the 304 response
+     */
+    public static APIGatewayV2HTTPResponse createNotModifiedResponse(String etag) {
+        Map<String, String> headers = defaultJsonHeaders();
+        headers.remove("Content-Type");
+        headers.put(ETAG_HEADER, etag);
+
+        return APIGatewayV2HTTPResponse.builder()
+                .withStatusCode(304)
+                .withHeaders(headers)
+                .build();
+    }
+
     /**
      * Creates an error response for AWS API Gateway HTTP APIs with the specified
      * status code and error message.
@@ -170,6 +254,103 @@ public final class LambdaHttpUtils {
     }
 
 
+    /**
+     * Extracts the value of a header from the incoming API Gateway event, ignoring the
+     * case of its name (HTTP APIs pass header names in lowercase).
+     *
+     * @param input      the API Gateway event
+     * @param headerName the name of the header to extract
+     * @return the value of the header, or null if not found
+     */
+    public static String extractHeader(APIGatewayV2HTTPEvent input, String headerName) {
+        if (input.getHeaders() == null) {
+            return null;
+        }
+
+        return input.getHeaders().entrySet().stream()
+                .filter(header -> header.getKey().equalsIgnoreCase(headerName))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+
+    /**
+     * Checks whether an {@code If-None-Match} header value matches the given entity tag,
+     * using the weak comparison of RFC 9110: {@code W/} prefixes are ignored.
+     *
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, may be null
+     * @param etag        the current entity tag, quoted
+     * @return true if the client already holds the current representation
+     */
+    public static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+
+        String current = opaqueTag(etag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || opaqueTag(tag).equals(current));
+    }
+
+
+    /**
+     * Checks whether an {@code Accept-Encoding} header value accepts gzip, either by name or
+     * through {@code *}, and not with {@code q=0}.
+     *
+     * @param acceptEncoding the value of the {@code Accept-Encoding} header, may be null
+     * @return true if the response may be sent gzip-compressed
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return qualityOf(acceptEncoding, GZIP) > 0;
+    }
+
+
+    /**
+     * Compresses the body of a response with the encoding the request accepts, preferring gzip
+     * over deflate at equal quality. Handlers opt in by passing their response through it.
+     * <p>
+     * The response is returned unchanged when its body is shorter than
+     * {@link #COMPRESSION_MIN_BYTES}, already encoded, or when no supported encoding is
+     * accepted. Compressed bodies are sent base64-encoded with {@code Content-Encoding} set.
+     *
+     * @param input    the API Gateway event the response answers
+     * @param response the response to compress
+     * @return the compressed response, or {@code response} if it is left as is
+     */
+    public static APIGatewayV2HTTPResponse compress(APIGatewayV2HTTPEvent input, APIGatewayV2HTTPResponse response) {
+        String body = response.getBody();
+        if (body == null || response.getIsBase64Encoded() || body.length() < COMPRESSION_MIN_BYTES) {
+            return response;
+        }
+
+        Map<String, String> headers = response.getHeaders() == null ? new HashMap<>() : new HashMap<>(response.getHeaders());
+        if (headers.containsKey(CONTENT_ENCODING_HEADER)) {
+            return response;
+        }
+        // Set either way, so caches keep the plain and the compressed bodies apart
+        headers.put("Vary", ACCEPT_ENCODING_HEADER);
+
+        String acceptEncoding = extractHeader(input, ACCEPT_ENCODING_HEADER);
+        double gzip = qualityOf(acceptEncoding, GZIP);
+        double deflate = qualityOf(acceptEncoding, DEFLATE);
+        String encoding = (gzip > 0 && gzip >= deflate) ? GZIP : (deflate > 0 ? DEFLATE : null);
+
+        if (encoding != null) {
+            headers.put(CONTENT_ENCODING_HEADER, encoding);
+        }
+        return APIGatewayV2HTTPResponse.builder()
+                .withStatusCode(response.getStatusCode())
+                .withHeaders(headers)
+                .withMultiValueHeaders(response.getMultiValueHeaders())
+                .withCookies(response.getCookies())
+                .withBody(encoding == null ? body : Base64.getEncoder().encodeToString(encode(body, encoding)))
+                .withIsBase64Encoded(encoding != null)
+                .build();
+    }
+
+
     /**
      * Returns the HTTP method of the incoming API Gateway event in lowercase.
      *
@@ -240,12 +421,62 @@ public final class LambdaHttpUtils {
                 .orElse(null);
     }
 
+    /**
+     * Quality of a content coding in an {@code Accept-Encoding} value: its own {@code q} if
+     * listed, else the one of {@code *}, else 0.
+     */
+    private static double qualityOf(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return 0;
+        }
+
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().toLowerCase(Locale.ROOT).split(";");
+            String name = parts[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (name.equals(coding)) {
+                return quality;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    private static byte[] encode(String body, String encoding) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length() / 4);
+        try (OutputStream out = GZIP.equals(encoding) ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
     private static Map<String, String> defaultJsonHeaders() {
         Map<String, String> headers = new HashMap<>();
         headers.put("Content-Type", "application/json");
         headers.put("Access-Control-Allow-Origin", "*");
-        headers.put("Access-Control-Allow-Headers", "Content-Type,Authorization");
+        headers.put("Access-Control-Allow-Headers", "Content-Type,Authorization,If-None-Match");
         headers.put("Access-Control-Allow-Methods", "GET,POST,OPTIONS");
+        headers.put("Access-Control-Expose-Headers", ETAG_HEADER);
         return headers;
     }
 
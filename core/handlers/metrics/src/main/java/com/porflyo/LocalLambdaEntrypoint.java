@@ -1,9 +1,20 @@
 package com.porflyo;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import com.porflyo.dto.SessionMetrics;
 import com.porflyo.exceptions.auth.JwtMalformedException;
+import com.porflyo.handler.MetricsDashboardView;
+import com.porflyo.model.ids.PortfolioId;
 import com.porflyo.usecase.AuthUseCase;
+import com.porflyo.usecase.MetricsIngestUseCase;
 
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.env.Environment;
@@ -15,18 +26,33 @@ import jakarta.inject.Inject;
  * Used to simulate the API Gateway validation, sam can handle it.
  * <p>
  * If the path is for the api first tries to validate the cookie.
+ * <p>
+ * The application context and the metrics entrypoint are built once per
+ * container and reused by every invocation.
+ * <p>
+ * When the ingest queue is configured to drain after each request (local runs with the
+ * in-memory queue), write requests also drain it and refresh the dashboard views of the
+ * portfolios written, standing in for the consumer function.
  */
 public class LocalLambdaEntrypoint extends MicronautRequestHandler<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse>{
+    private static final Logger log = LoggerFactory.getLogger(LocalLambdaEntrypoint.class);
     private final AuthUseCase authUseCase;
+    private final MetricsIngestUseCase metricsIngestUseCase;
+    private final MetricsDashboardView dashboardView;
+    private final MetricsLambdaEntrypoint metricsEntrypoint;
 
 
     @Inject
     public LocalLambdaEntrypoint() {
-        this.applicationContext = ApplicationContext.
-            builder(Environment.FUNCTION)
-            .deduceEnvironment(false)
-            .start();
+        this(LocalLambdaEntrypoint::startApplicationContext);
+    }
+
+    LocalLambdaEntrypoint(Supplier<ApplicationContext> contextSupplier) {
+        super(contextSupplier.get());
         this.authUseCase = applicationContext.getBean(AuthUseCase.class);
+        this.metricsIngestUseCase = applicationContext.getBean(MetricsIngestUseCase.class);
+        this.dashboardView = applicationContext.getBean(MetricsDashboardView.class);
+        this.metricsEntrypoint = new MetricsLambdaEntrypoint(applicationContext);
     }
 
      @Override
@@ -53,8 +79,27 @@ public class LocalLambdaEntrypoint extends MicronautRequestHandler<APIGatewayV2H
             }
         }
 
-        try (MetricsLambdaEntrypoint metricsEntrypoint = new MetricsLambdaEntrypoint()) {
-            return metricsEntrypoint.execute(input);
+        APIGatewayV2HTTPResponse response = metricsEntrypoint.execute(input);
+
+        if (!httpMethod.equals("get")) {
+            Set<PortfolioId> written = new LinkedHashSet<>();
+            try {
+                metricsIngestUseCase.drainAfterRequest(sessions ->
+                    sessions.stream().map(SessionMetrics::portfolioId).forEach(written::add));
+            } catch (RuntimeException e) {
+                // The sessions stay queued and are delivered again
+                log.error("Error draining the metrics ingest queue: {}", e.getMessage(), e);
+            }
+            dashboardView.refreshAfterIngest(written);
         }
+
+        return response;
+    }
+
+    private static ApplicationContext startApplicationContext() {
+        return ApplicationContext.
+            builder(Environment.FUNCTION)
+            .deduceEnvironment(false)
+            .start();
     }
 }
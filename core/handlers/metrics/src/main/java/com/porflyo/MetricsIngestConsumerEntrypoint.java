@@ -0,0 +1,98 @@
+package com.porflyo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.handler.MetricsDashboardView;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.usecase.MetricsIngestUseCase;
+import com.porflyo.usecase.MetricsUseCase;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.env.Environment;
+import io.micronaut.function.aws.MicronautRequestHandler;
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Inject;
+
+/**
+ * Consumer of the metrics ingest queue, invoked by its SQS event source with a batch of messages.
+ * <p>
+ * The sessions of a batch are written through {@code MetricsUseCase}, one write per portfolio,
+ * so the DynamoDB write rate depends on the batch size instead of the beacon traffic. The
+ * messages of a failed write, and those that cannot be decoded, are reported as batch item
+ * failures: only they are delivered again, and the queue moves them to its dead-letter queue
+ * once they keep failing.
+ * <p>
+ * Once written, the write-behind accumulators past their age are written and the
+ * dashboard views of the portfolios written are refreshed.
+ */
+public class MetricsIngestConsumerEntrypoint extends MicronautRequestHandler<SQSEvent, SQSBatchResponse> {
+    private static final Logger log = LoggerFactory.getLogger(MetricsIngestConsumerEntrypoint.class);
+
+    private final MetricsIngestUseCase metricsIngestUseCase;
+    private final MetricsUseCase metricsUseCase;
+    private final MetricsDashboardView dashboardView;
+    private final JsonMapper jsonMapper;
+
+
+    @Inject
+    public MetricsIngestConsumerEntrypoint() {
+        this(ApplicationContext.
+            builder(Environment.FUNCTION)
+            .deduceEnvironment(false)
+            .start());
+    }
+
+    public MetricsIngestConsumerEntrypoint(ApplicationContext applicationContext) {
+        super(applicationContext);
+        this.metricsIngestUseCase = applicationContext.getBean(MetricsIngestUseCase.class);
+        this.metricsUseCase = applicationContext.getBean(MetricsUseCase.class);
+        this.dashboardView = applicationContext.getBean(MetricsDashboardView.class);
+        this.jsonMapper = applicationContext.getBean(JsonMapper.class);
+    }
+
+
+    @Override
+    public SQSBatchResponse execute(SQSEvent input) {
+        List<QueuedSession> delivered = new ArrayList<>();
+        List<BatchItemFailure> failures = new ArrayList<>();
+        for (SQSMessage message : input.getRecords()) {
+            try {
+                delivered.add(new QueuedSession(
+                    message.getMessageId(),
+                    jsonMapper.readValue(message.getBody(), SessionMetrics.class)));
+            } catch (IOException e) {
+                log.error("Undecodable metrics message {}: {}", message.getMessageId(), e.getMessage());
+                failures.add(new BatchItemFailure(message.getMessageId()));
+            }
+        }
+
+        Set<PortfolioId> written = new LinkedHashSet<>();
+        List<String> failed = metricsIngestUseCase.writeDelivered(delivered, sessions ->
+            sessions.stream().map(SessionMetrics::portfolioId).forEach(written::add));
+        failed.forEach(messageId -> failures.add(new BatchItemFailure(messageId)));
+        log.info("Metrics ingest consumer wrote {} of {} sessions", delivered.size() - failed.size(), input.getRecords().size());
+
+        try {
+            metricsUseCase.flushExpiredWriteBehind(written::add);
+        } catch (RuntimeException e) {
+            // The accumulators went back to the buffer; failing here would redeliver the whole batch
+            log.warn("Could not flush expired write-behind accumulators: {}", e.getMessage());
+        }
+
+        dashboardView.refreshAfterIngest(written);
+        return new SQSBatchResponse(failures);
+    }
+}
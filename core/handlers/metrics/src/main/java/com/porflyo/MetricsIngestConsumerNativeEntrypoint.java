@@ -0,0 +1,35 @@
+package com.porflyo;
+
+import java.net.MalformedURLException;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.function.aws.runtime.AbstractMicronautLambdaRuntime;
+
+/**
+ * Native runtime of the metrics ingest consumer. Started by {@link MetricsNativeEntrypoint}
+ * when the function's handler names this class.
+ */
+public class MetricsIngestConsumerNativeEntrypoint extends AbstractMicronautLambdaRuntime<
+    SQSEvent,
+    SQSBatchResponse,
+    SQSEvent,
+    SQSBatchResponse> {
+
+    public static void main(String[] args) {
+        try {
+            new MetricsIngestConsumerNativeEntrypoint().run(args);
+        } catch (MalformedURLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    @Nullable
+    protected RequestHandler<SQSEvent, SQSBatchResponse> createRequestHandler(String... args) {
+        return new MetricsIngestConsumerEntrypoint();
+    }
+}
@@ -1,31 +1,57 @@
 package com.porflyo;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import com.porflyo.handler.MetricsDashboardView;
 import com.porflyo.handler.MetricsLambdaHandler;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.usecase.MetricsUseCase;
 
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.env.Environment;
 import io.micronaut.function.aws.MicronautRequestHandler;
 import jakarta.inject.Inject;
 
+/**
+ * Entrypoint of the metrics API.
+ * <p>
+ * Every invocation ends by writing the write-behind accumulators past their age, since
+ * a frozen container gets no other chance to write them before it is reaped, and marks
+ * the dashboard views of the portfolios written stale.
+ */
 public class MetricsLambdaEntrypoint extends MicronautRequestHandler<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse>{
     private static final Logger log = LoggerFactory.getLogger(MetricsLambdaEntrypoint.class);
     
-    private final ApplicationContext applicationContext;
     private final MetricsLambdaHandler metricsLambdaHandler;
+    private final MetricsUseCase metricsUseCase;
+    private final MetricsDashboardView dashboardView;
 
 
     @Inject
     public MetricsLambdaEntrypoint() {
-        this.applicationContext = ApplicationContext.
+        this(ApplicationContext.
             builder(Environment.FUNCTION)
             .deduceEnvironment(false)
-            .start();
+            .start());
+    }
+
+    /**
+     * Builds the entrypoint on top of an already started context, so the caller
+     * can keep one context (and its DynamoDB clients) for the whole container.
+     *
+     * @param applicationContext started context that provides the metrics beans
+     */
+    public MetricsLambdaEntrypoint(ApplicationContext applicationContext) {
+        super(applicationContext);
         this.metricsLambdaHandler = applicationContext.getBean(MetricsLambdaHandler.class);
+        this.metricsUseCase = applicationContext.getBean(MetricsUseCase.class);
+        this.dashboardView = applicationContext.getBean(MetricsDashboardView.class);
     }
 
     
@@ -47,7 +73,21 @@ public class MetricsLambdaEntrypoint extends MicronautRequestHandler<APIGatewayV
         } catch (Exception e){
             log.error("Error processing request for path: {}, error: {}", input.getRawPath(), e.getMessage(), e);
             return LambdaExceptionTranslator.toResponse(e, input);
+
+        } finally {
+            flushExpiredWriteBehind();
         }
         
     }
+
+    private void flushExpiredWriteBehind() {
+        List<PortfolioId> written = new ArrayList<>();
+        try {
+            metricsUseCase.flushExpiredWriteBehind(written::add);
+        } catch (RuntimeException e) {
+            // The accumulators stay buffered and are retried by the next invocation
+            log.warn("Error flushing write-behind metrics: {}", e.getMessage());
+        }
+        dashboardView.markStale(written);
+    }
 }
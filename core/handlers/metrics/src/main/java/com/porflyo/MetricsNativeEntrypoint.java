@@ -16,6 +16,12 @@ public class MetricsNativeEntrypoint extends AbstractMicronautLambdaRuntime<
     APIGatewayV2HTTPResponse> {
     
     public static void main(String[] args) {
+        // One native binary serves both metrics functions; the function's handler picks the runtime
+        if (MetricsIngestConsumerNativeEntrypoint.class.getName().equals(System.getenv("_HANDLER"))) {
+            MetricsIngestConsumerNativeEntrypoint.main(args);
+            return;
+        }
+
         try {
             new MetricsNativeEntrypoint().run(args);
         } catch (MalformedURLException e) {
@@ -3,14 +3,17 @@ package com.porflyo.dto.received;
 import java.util.List;
 
 import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.serde.annotation.Serdeable;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 /**
  * DTO for saving portfolio metrics.
  * Maps to the JSON structure received from the frontend.
+ * {@code beaconId} is optional; a beacon retried by the browser must send the same id.
  */
 @Serdeable
 @Introspected
@@ -23,5 +26,6 @@ public record MetricsSaveRequestDto(
     @NotNull Integer socialClicks,
     @NotNull @Valid List<ProjectMetricDto> projectMetrics,
     @NotNull @Valid ScrollMetricDto scrollMetrics,
-    @NotNull @Valid HeatmapDataDto heatmapData
+    @NotNull @Valid HeatmapDataDto heatmapData,
+    @Nullable @Size(max = 128) String beaconId
 ) {}
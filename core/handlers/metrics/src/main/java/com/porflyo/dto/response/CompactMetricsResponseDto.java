@@ -0,0 +1,18 @@
+package com.porflyo.dto.response;
+
+import java.util.List;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Columnar form of {@link MetricsResponseDto}: the daily aggregates as one array per field
+ * and the heatmap cells as parallel arrays, with no field name repeated per day or cell.
+ */
+@Serdeable
+@Introspected
+public record CompactMetricsResponseDto(
+    MetaResponseDto meta,
+    DailyColumnsDto dailyAgg,
+    List<CompactSlotDto> slots
+) {}
@@ -0,0 +1,14 @@
+package com.porflyo.dto.response;
+
+import java.util.List;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+@Serdeable
+@Introspected
+public record CompactSlotDto(
+    String date,
+    List<ProjectSlotDto> projects,
+    HeatmapColumnsDto heatmap
+) {}
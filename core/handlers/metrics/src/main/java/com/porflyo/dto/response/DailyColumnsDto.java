@@ -0,0 +1,21 @@
+package com.porflyo.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Daily aggregates by column: the i-th value of every array belongs to {@code dates[i]}.
+ * Each section maps the field names of {@link DailyAggregateDto} to their column; the device
+ * mix is flattened to {@code desktopPct} and {@code mobileTabletPct} in {@code derived}.
+ */
+@Serdeable
+@Introspected
+public record DailyColumnsDto(
+    List<String> dates,
+    Map<String, List<Integer>> raw,
+    Map<String, List<Double>> derived,
+    Map<String, List<Double>> zScores
+) {}
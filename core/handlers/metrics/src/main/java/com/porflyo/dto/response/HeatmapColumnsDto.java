@@ -0,0 +1,18 @@
+package com.porflyo.dto.response;
+
+import java.util.List;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Heatmap cells as three parallel arrays, one entry per cell.
+ */
+@Serdeable
+@Introspected
+public record HeatmapColumnsDto(
+    Integer rows,
+    List<Integer> indexes,
+    List<Integer> values,
+    List<Integer> counts
+) {}
@@ -10,5 +10,6 @@ public record MetaResponseDto(
     String generatedAt,
     String timezone,
     UnitsDto units,
-    BaselineDto baseline
+    BaselineDto baseline,
+    String cursor           // metrics version of the response, to sync from with ?since=
 ) {}
@@ -0,0 +1,317 @@
+package com.porflyo.handler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.MetricsViewConfig;
+import com.porflyo.dto.MetricsView;
+import com.porflyo.dto.response.MetricsResponseDto;
+import com.porflyo.mapper.MetricsFieldSelection;
+import com.porflyo.mapper.MetricsResponseMapper;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.MetricsViewRepository;
+import com.porflyo.usecase.MetricsUseCase;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Materialized dashboard view: the daily metrics response of the default months, kept
+ * serialized and gzip-compressed in one item per portfolio so opening the dashboard costs
+ * one read and no mapping, z-score or serialization work.
+ * <p>
+ * A view is served while it is at most {@code metrics.view.max-age-seconds} old and rendered
+ * the same day; otherwise the handler renders the response live and stores it again. The
+ * ingest consumer re-renders the views of the portfolios it wrote, debounced per portfolio:
+ * a portfolio written again within its window is re-rendered on the first ingest after it,
+ * and meanwhile not served from the view by this container. Writes on the request path only
+ * drop the stored view, so they never pay for a render, and only when it may have been stored
+ * since this container last dropped it: each portfolio is dropped at most once per
+ * {@code refresh-debounce-seconds} unless a view rendered later was stored or read here since.
+ * <p>
+ * Failures are logged and never fail the request: a missing view only means a live read.
+ */
+@Singleton
+public class MetricsDashboardView {
+    private static final Logger log = LoggerFactory.getLogger(MetricsDashboardView.class);
+
+    private final MetricsUseCase metricsUseCase;
+    private final MetricsResponseMapper metricsResponseMapper;
+    private final JsonMapper jsonMapper;
+    private final MetricsViewRepository viewRepository;
+    private final MetricsViewConfig config;
+    private final LongSupplier millisClock;
+
+    /** Last refresh after an ingest, per portfolio, least recently refreshed first. */
+    private final Map<PortfolioId, Instant> lastRefresh = new LinkedHashMap<>();
+
+    /** Portfolios written again within their debounce window, refreshed once it is over. */
+    private final Set<PortfolioId> pending = new LinkedHashSet<>();
+
+    /** Last time the view was marked stale, per portfolio, until a view rendered later is seen. */
+    private final Map<PortfolioId, Instant> lastInvalidation = new LinkedHashMap<>();
+
+    @Inject
+    public MetricsDashboardView(
+            MetricsUseCase metricsUseCase,
+            MetricsResponseMapper metricsResponseMapper,
+            JsonMapper jsonMapper,
+            @Nullable MetricsViewRepository viewRepository,
+            MetricsViewConfig config) {
+        this(metricsUseCase, metricsResponseMapper, jsonMapper, viewRepository, config, System::currentTimeMillis);
+    }
+
+    MetricsDashboardView(
+            MetricsUseCase metricsUseCase,
+            MetricsResponseMapper metricsResponseMapper,
+            JsonMapper jsonMapper,
+            MetricsViewRepository viewRepository,
+            MetricsViewConfig config,
+            LongSupplier millisClock) {
+        this.metricsUseCase = metricsUseCase;
+        this.metricsResponseMapper = metricsResponseMapper;
+        this.jsonMapper = jsonMapper;
+        this.viewRepository = viewRepository;
+        this.config = config;
+        this.millisClock = millisClock;
+    }
+
+    /**
+     * @return {@code true} if the daily metrics of {@code months} months are materialized
+     */
+    public boolean serves(int months) {
+        return config.enabled()
+            && viewRepository != null
+            && Math.max(1, months) == monthsBack();
+    }
+
+    /**
+     * @return the stored view of the portfolio if it is recent enough to be served
+     */
+    public Optional<MetricsView> findFresh(PortfolioId portfolioId) {
+        if (isPending(portfolioId)) {
+            return Optional.empty();
+        }
+
+        try {
+            Instant now = Instant.now();
+            Optional<MetricsView> stored = viewRepository.findMetricsView(portfolioId);
+            stored.ifPresent(view -> viewSeen(portfolioId, view.renderedAt()));
+            return stored
+                .filter(view -> view.monthsBack() == monthsBack())
+                .filter(view -> !view.renderedAt().isBefore(now.minusSeconds(config.maxAgeSeconds())))
+                .filter(view -> LocalDate.ofInstant(view.renderedAt(), ZoneId.systemDefault()).equals(LocalDate.now()));
+
+        } catch (RuntimeException e) {
+            log.warn("Error reading metrics view for portfolio {}: {}", portfolioId.value(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a response rendered live, so the next reads are served from the view.
+     *
+     * @param version metrics version read before the metrics the response was rendered from
+     * @param json    the serialized response
+     */
+    public void store(PortfolioId portfolioId, String version, String json) {
+        if (version == null) {
+            return;
+        }
+
+        try {
+            MetricsView view = new MetricsView(portfolioId, monthsBack(), version, Instant.now(), gzip(json));
+            if (!viewRepository.saveMetricsView(view)) {
+                log.debug("Metrics view of portfolio {} not stored", portfolioId.value());
+                return;
+            }
+            viewSeen(portfolioId, view.renderedAt());
+        } catch (RuntimeException e) {
+            log.warn("Error storing metrics view for portfolio {}: {}", portfolioId.value(), e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the views of portfolios just written, so their next read is rendered live
+     * instead of serving metrics from before the write. A view rendered after the write is
+     * kept, and a portfolio already marked stale within its debounce window is skipped unless
+     * a later view was seen since, so a burst of writes costs one delete, not one per write.
+     *
+     * @param portfolioIds portfolios whose metrics were written, not only buffered
+     */
+    public void markStale(Collection<PortfolioId> portfolioIds) {
+        if (!config.enabled() || viewRepository == null) {
+            return;
+        }
+
+        Instant now = Instant.ofEpochMilli(millisClock.getAsLong());
+        for (PortfolioId portfolioId : dueForInvalidation(portfolioIds, now)) {
+            try {
+                viewRepository.deleteMetricsViewRenderedBefore(portfolioId, now);
+            } catch (RuntimeException e) {
+                forgetInvalidation(portfolioId);
+                log.warn("Error marking metrics view stale for portfolio {}: {}", portfolioId.value(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-renders the views of the portfolios written by an ingest. A portfolio refreshed less
+     * than {@code refresh-debounce-seconds} ago is left pending instead, and re-rendered by
+     * the first call after its window is over, so the last write of a burst is never missed.
+     */
+    public void refreshAfterIngest(Collection<PortfolioId> portfolioIds) {
+        if (!config.enabled() || viewRepository == null) {
+            return;
+        }
+
+        for (PortfolioId portfolioId : dueForRefresh(portfolioIds, Instant.ofEpochMilli(millisClock.getAsLong()))) {
+            refresh(portfolioId);
+        }
+    }
+
+    /**
+     * @return the body of the view, decompressed
+     */
+    public static String json(MetricsView view) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(view.body()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ────────────────────────── helpers ──────────────────────────
+
+    /**
+     * Picks the written and pending portfolios out of their debounce window and records them
+     * as refreshed now; the others stay pending. Both collections keep at most
+     * {@code max-portfolios} entries, dropping the least recently refreshed.
+     */
+    private synchronized List<PortfolioId> dueForRefresh(Collection<PortfolioId> written, Instant now) {
+        Instant debounced = now.minusSeconds(config.refreshDebounceSeconds());
+        Set<PortfolioId> candidates = new LinkedHashSet<>(pending);
+        candidates.addAll(written);
+
+        List<PortfolioId> due = new ArrayList<>();
+        for (PortfolioId portfolioId : candidates) {
+            Instant last = lastRefresh.get(portfolioId);
+            if (last != null && last.isAfter(debounced)) {
+                pending.add(portfolioId);
+                continue;
+            }
+
+            pending.remove(portfolioId);
+            lastRefresh.remove(portfolioId);
+            lastRefresh.put(portfolioId, now);
+            due.add(portfolioId);
+        }
+
+        int maxPortfolios = Math.max(1, config.maxPortfolios());
+        evictOldest(lastRefresh.keySet(), maxPortfolios);
+        evictOldest(pending, maxPortfolios);
+        return due;
+    }
+
+    /**
+     * Picks the written portfolios not marked stale within their debounce window and records
+     * them as marked now. Keeps at most {@code max-portfolios} entries, dropping the oldest.
+     */
+    private synchronized List<PortfolioId> dueForInvalidation(Collection<PortfolioId> written, Instant now) {
+        Instant debounced = now.minusSeconds(config.refreshDebounceSeconds());
+
+        List<PortfolioId> due = new ArrayList<>();
+        for (PortfolioId portfolioId : new LinkedHashSet<>(written)) {
+            Instant last = lastInvalidation.get(portfolioId);
+            if (last != null && last.isAfter(debounced)) {
+                continue;
+            }
+
+            lastInvalidation.remove(portfolioId);
+            lastInvalidation.put(portfolioId, now);
+            due.add(portfolioId);
+        }
+
+        evictOldest(lastInvalidation.keySet(), Math.max(1, config.maxPortfolios()));
+        return due;
+    }
+
+    private synchronized boolean isPending(PortfolioId portfolioId) {
+        return pending.contains(portfolioId);
+    }
+
+    /**
+     * A view rendered at {@code renderedAt} was stored: it is no longer pending, and if it is
+     * later than the last invalidation the next write has to mark it stale again.
+     */
+    private synchronized void viewSeen(PortfolioId portfolioId, Instant renderedAt) {
+        pending.remove(portfolioId);
+        Instant last = lastInvalidation.get(portfolioId);
+        if (last != null && !renderedAt.isBefore(last)) {
+            lastInvalidation.remove(portfolioId);
+        }
+    }
+
+    private synchronized void forgetInvalidation(PortfolioId portfolioId) {
+        lastInvalidation.remove(portfolioId);
+    }
+
+    private static void evictOldest(Collection<PortfolioId> portfolioIds, int maxSize) {
+        Iterator<PortfolioId> it = portfolioIds.iterator();
+        for (int excess = portfolioIds.size() - maxSize; excess > 0 && it.hasNext(); excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private void refresh(PortfolioId portfolioId) {
+        try {
+            // Version first: a write landing during the render leaves an older version stored
+            String version = metricsUseCase.getMetricsVersion(portfolioId);
+            MetricsResponseDto responseDto = metricsResponseMapper.toMetricsResponseDto(
+                metricsUseCase.getPortfolioMetricsWithSlots(portfolioId, monthsBack()), MetricsFieldSelection.ALL, version);
+            store(portfolioId, version, jsonMapper.writeValueAsString(responseDto));
+
+            log.debug("Refreshed metrics view for portfolio: {}", portfolioId.value());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error refreshing metrics view for portfolio {}: {}", portfolioId.value(), e.getMessage());
+        }
+    }
+
+    private int monthsBack() {
+        return Math.max(1, config.monthsBack());
+    }
+
+    private static byte[] gzip(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,7 +1,14 @@
 package com.porflyo.handler;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,49 +17,77 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
 import com.porflyo.LambdaHttpUtils;
 import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
-import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.MetricsView;
+import com.porflyo.dto.SessionMetrics;
 import com.porflyo.dto.received.MetricsSaveRequestDto;
 import com.porflyo.dto.response.MetricsResponseDto;
+import com.porflyo.mapper.MetricsFieldSelection;
 import com.porflyo.mapper.MetricsSaveRequestMapper;
 import com.porflyo.mapper.MetricsResponseMapper;
 import com.porflyo.model.ids.PortfolioId;
-import com.porflyo.model.metrics.Engagement;
-import com.porflyo.model.metrics.InteractionMetrics;
-import com.porflyo.model.metrics.ProjectMetrics;
-import com.porflyo.model.metrics.ProjectMetricsWithId;
+import com.porflyo.model.metrics.RollupPeriod;
+import com.porflyo.usecase.MetricsIngestUseCase;
 import com.porflyo.usecase.MetricsUseCase;
 
+import io.micronaut.core.type.Argument;
 import io.micronaut.json.JsonMapper;
 import jakarta.inject.Inject;
 
 public class MetricsLambdaHandler {
     private static final Logger log = LoggerFactory.getLogger(MetricsLambdaHandler.class);  
+    private static final String BATCH_SEGMENT = "batch";
+    private static final int MAX_BATCH_SESSIONS = 500;
+    private static final String GRANULARITY_PARAM = "granularity";
+    private static final String DAY_GRANULARITY = "day";
+    private static final String FROM_PARAM = "from";
+    private static final String TO_PARAM = "to";
+    private static final String FIELDS_PARAM = "fields";
+    private static final String SLOTS_PARAM = "slots";
+    private static final String SINCE_PARAM = "since";
+    private static final String FORMAT_PARAM = "format";
+    private static final String COMPACT_FORMAT = "compact";
+    private static final String COMPACT_MEDIA_TYPE = "application/vnd.porflyo.metrics.compact+json";
+    private static final int MAX_RANGE_DAYS = 731;
 
     private final JsonMapper jsonMapper;
     private final MetricsSaveRequestMapper metricsSaveMapper;
     private final MetricsResponseMapper metricsResponseMapper;
     private final MetricsUseCase metricsUseCase;
+    private final MetricsIngestUseCase metricsIngestUseCase;
+    private final MetricsDashboardView dashboardView;
 
     @Inject
     public MetricsLambdaHandler(
             JsonMapper jsonMapper,
             MetricsSaveRequestMapper metricsSaveMapper,
             MetricsResponseMapper metricsResponseMapper,
-            MetricsUseCase metricsUseCase) {
+            MetricsUseCase metricsUseCase,
+            MetricsIngestUseCase metricsIngestUseCase,
+            MetricsDashboardView dashboardView) {
         this.jsonMapper = jsonMapper;
         this.metricsSaveMapper = metricsSaveMapper;
         this.metricsResponseMapper = metricsResponseMapper;
         this.metricsUseCase = metricsUseCase;
+        this.metricsIngestUseCase = metricsIngestUseCase;
+        this.dashboardView = dashboardView;
     }
 
 
     public APIGatewayV2HTTPResponse handleMetricsRequest(APIGatewayV2HTTPEvent input) {
         try{
-            // /metrics/{portfolioId}/{months}
+            // /metrics/{portfolioId}/{months}?granularity=day|week|month
+            // /metrics/{portfolioId}/{months}?from=yyyy-MM-dd&to=yyyy-MM-dd&fields=raw.views,zScores&slots=false
+            // /metrics/{portfolioId}/{months}?format=compact (or Accept: application/vnd.porflyo.metrics.compact+json)
+            // /metrics/{portfolioId}/{months}?since={meta.cursor of a previous response}&fields=...&slots=false
+            // /metrics/batch
 
             String httpMethod = LambdaHttpUtils.getMethod(input);
             String body = input.getBody();
 
+            if ("post".equals(httpMethod) && BATCH_SEGMENT.equals(LambdaHttpUtils.extractPathSegment(input, 1))) {
+                return saveMetricsBatch(body);
+            }
+
             String portfolioIdStr = LambdaHttpUtils.extractPathSegment(input, 1);
             PortfolioId portfolioId = new PortfolioId(portfolioIdStr);
 
@@ -60,7 +95,18 @@ public class MetricsLambdaHandler {
             Integer months = (!monthsStr.isEmpty()) ? Integer.valueOf(monthsStr) : 0;
 
 
-            return processMetricsRequest(httpMethod, body, portfolioId, months);
+            MetricsQuery query = new MetricsQuery(
+                LambdaHttpUtils.extractQueryParameter(input, GRANULARITY_PARAM),
+                LambdaHttpUtils.extractQueryParameter(input, FROM_PARAM),
+                LambdaHttpUtils.extractQueryParameter(input, TO_PARAM),
+                LambdaHttpUtils.extractQueryParameter(input, FIELDS_PARAM),
+                LambdaHttpUtils.extractQueryParameter(input, SLOTS_PARAM),
+                LambdaHttpUtils.extractQueryParameter(input, SINCE_PARAM),
+                isCompact(input),
+                LambdaHttpUtils.extractHeader(input, LambdaHttpUtils.IF_NONE_MATCH_HEADER),
+                LambdaHttpUtils.extractHeader(input, LambdaHttpUtils.ACCEPT_ENCODING_HEADER));
+
+            return LambdaHttpUtils.compress(input, processMetricsRequest(httpMethod, body, portfolioId, months, query));
 
         } catch (Exception e) {
             log.error("Error processing metrics request: {}", e.getMessage(), e);
@@ -76,7 +122,8 @@ public class MetricsLambdaHandler {
             String httpMethod,
             String body,
             PortfolioId portfolioId,
-            Integer months) {
+            Integer months,
+            MetricsQuery query) {
 
         log.debug("Handling metrics for portfolio: {}, method: {}", portfolioId, httpMethod);
         
@@ -87,7 +134,7 @@ public class MetricsLambdaHandler {
                     return saveMetrics(portfolioId, body);
                 
                 case "get":
-                    return getMetrics(portfolioId, months);
+                    return getMetrics(portfolioId, months, query);
 
                 default:
                     log.warn("Unsupported HTTP method: {}", httpMethod);
@@ -116,25 +163,20 @@ public class MetricsLambdaHandler {
             
             log.debug("Saving metrics: {}", requestDto);
 
-            // Map DTO to domain objects
-            Engagement engagement = metricsSaveMapper.toEngagement(requestDto);
-            log.debug("Mapped engagement metrics: {}", engagement);
-            InteractionMetrics scroll = metricsSaveMapper.toInteractionMetrics(requestDto);
-            log.debug("Mapped scroll metrics: {}", scroll);
-            ProjectMetrics cumProjects = metricsSaveMapper.toCumulativeProjectMetrics(requestDto);
-            log.debug("Mapped cumulative project metrics: {}", cumProjects);
-            HeatmapSnapshot heatmap = metricsSaveMapper.toHeatmapSnapshot(requestDto);
-            log.debug("Mapped heatmap snapshot: {}", heatmap);
-            List<ProjectMetricsWithId> projects = metricsSaveMapper.toProjectMetricsList(requestDto);
-            log.debug("Mapped individual project metrics: {}", projects);
-            
-            // Save aggregate metrics
-            metricsUseCase.saveTodayPortfolioMetrics(portfolioId, engagement, scroll, cumProjects);
-            log.debug("Saved portfolio metrics for portfolio: {}", portfolioId.value());
-            
-            // Save detail slot (heatmap and project metrics)
-            metricsUseCase.saveTodayDetailSlot(portfolioId, heatmap, projects);
-            log.debug("Saved detail slot metrics for portfolio: {}", portfolioId.value());
+            // Aggregate and detail slot are written together (or buffered when write-behind is enabled)
+            SessionMetrics session = metricsSaveMapper.toSessionMetrics(requestDto);
+            log.debug("Mapped session metrics: {}", session);
+
+            // Queue mode: accepted now, written later by the ingest consumer
+            if (metricsIngestUseCase.isQueueEnabled()) {
+                metricsIngestUseCase.enqueue(List.of(session));
+                return LambdaHttpUtils.createResponse(202, "{\"message\": \"Metrics accepted\"}");
+            }
+
+            // Only the written portfolios: a buffered session is marked stale by the flush writing it
+            List<PortfolioId> written = new ArrayList<>(1);
+            metricsUseCase.saveTodaySessions(List.of(session), written::add);
+            dashboardView.markStale(written);
             
             log.debug("Saved metrics for portfolio: {}", portfolioId.value());
             return LambdaHttpUtils.createResponse(200, "{\"message\": \"Metrics saved successfully\"}");
@@ -150,21 +192,119 @@ public class MetricsLambdaHandler {
     }
 
 
-    private APIGatewayV2HTTPResponse getMetrics(PortfolioId portfolioId, Integer months) {
+    /**
+     * Saves an array of sessions, possibly for several portfolios, with one
+     * read-modify-write per portfolio instead of one per session.
+     * In queue mode the sessions are only enqueued and 202 is returned.
+     */
+    private APIGatewayV2HTTPResponse saveMetricsBatch(String body) {
         try{
-            log.debug("Retrieving metrics for portfolio: {}, months: {}", portfolioId.value(), months);
+            List<MetricsSaveRequestDto> requestDtos = jsonMapper.readValue(body, Argument.listOf(MetricsSaveRequestDto.class));
 
-            EnhancedPortfolioMetricsBundle bundle = 
-                metricsUseCase.getPortfolioMetricsWithSlots(portfolioId, months);
+            if (requestDtos == null || requestDtos.isEmpty()) {
+                return LambdaHttpUtils.createErrorResponse(400, "Empty metrics batch");
+            }
+            if (requestDtos.size() > MAX_BATCH_SESSIONS) {
+                log.warn("Metrics batch too large: {} sessions", requestDtos.size());
+                return LambdaHttpUtils.createErrorResponse(413, "Metrics batch too large");
+            }
 
-            // Convert bundle to response DTO
-            MetricsResponseDto responseDto = metricsResponseMapper.toMetricsResponseDto(bundle);
-            
-            // Serialize to JSON
-            String jsonResponse = jsonMapper.writeValueAsString(responseDto);
+            List<SessionMetrics> sessions = new ArrayList<>(requestDtos.size());
+            for (MetricsSaveRequestDto requestDto : requestDtos) {
+                sessions.add(metricsSaveMapper.toSessionMetrics(requestDto));
+            }
+
+            if (metricsIngestUseCase.isQueueEnabled()) {
+                metricsIngestUseCase.enqueue(sessions);
+                log.debug("Queued metrics batch: {} sessions", sessions.size());
+                return LambdaHttpUtils.createResponse(202, 
+                    "{\"message\": \"Metrics accepted\", \"sessions\": " + sessions.size() + "}");
+            }
+
+            List<PortfolioId> written = new ArrayList<>();
+            int portfolios = metricsUseCase.saveTodaySessions(sessions, written::add);
+            dashboardView.markStale(written);
+
+            log.debug("Saved metrics batch: {} sessions, {} portfolios", sessions.size(), portfolios);
+            return LambdaHttpUtils.createResponse(200, 
+                "{\"message\": \"Metrics saved successfully\", \"sessions\": " + sessions.size() 
+                + ", \"portfolios\": " + portfolios + "}");
+
+        } catch (IOException e) {
+            log.error("Error deserializing metrics batch: {}", e.getMessage(), e);
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid request body");
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid session in metrics batch: {}", e.getMessage());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid metrics session");
+        } catch (Exception e) {
+            log.error("Error saving metrics batch: {}", e.getMessage(), e);
+            return LambdaHttpUtils.createErrorResponse(500, "Internal Server Error");
+        }
+    }
+
+
+    private APIGatewayV2HTTPResponse getMetrics(PortfolioId portfolioId, Integer months, MetricsQuery query) {
+        String granularity = query.granularity();
+        RollupPeriod period = null;
+        if (granularity != null && !granularity.isBlank() && !DAY_GRANULARITY.equalsIgnoreCase(granularity)) {
+            try {
+                period = RollupPeriod.resolve(granularity);
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid metrics granularity: {}", granularity);
+                return LambdaHttpUtils.createErrorResponse(400, "Invalid granularity");
+            }
+        }
+
+        if (!isBlank(query.since())) {
+            if (period != null || !isBlank(query.from()) || !isBlank(query.to())) {
+                log.warn("Metrics cursor requested with granularity or date range: {}", query.since());
+                return LambdaHttpUtils.createErrorResponse(400, "Cursor is only supported for daily metrics without date range");
+            }
+            return getMetricsSince(portfolioId, months, query);
+        }
+
+        if (query.isSelective()) {
+            if (period != null) {
+                log.warn("Date range and fields requested with granularity: {}", granularity);
+                return LambdaHttpUtils.createErrorResponse(400, "Date range and fields are only supported for daily metrics");
+            }
+            return getMetricsSelection(portfolioId, months, query);
+        }
+
+        boolean dashboard = period == null && !query.compact() && dashboardView.serves(months);
+        if (dashboard) {
+            Optional<MetricsView> view = dashboardView.findFresh(portfolioId);
+            if (view.isPresent()) {
+                return dashboardResponse(view.get(), months, query);
+            }
+        }
+
+        String version = metricsVersion(portfolioId);
+        String etag = metricsETag(version, months, query);
+        if (LambdaHttpUtils.matchesETag(query.ifNoneMatch(), etag)) {
+            log.debug("Metrics not modified for portfolio: {}", portfolioId.value());
+            return LambdaHttpUtils.createNotModifiedResponse(etag);
+        }
+
+        try{
+            log.debug("Retrieving metrics for portfolio: {}, months: {}, granularity: {}", portfolioId.value(), months, granularity);
+
+            // Daily shards for day granularity; weeks and months are served from their rollups
+            EnhancedPortfolioMetricsBundle bundle = (period == null)
+                ? metricsUseCase.getPortfolioMetricsWithSlots(portfolioId, months)
+                : metricsUseCase.getPortfolioMetricsWithSlots(portfolioId, months, period);
+
+            // Convert bundle to response DTO and serialize to JSON
+            // Rollups are not synced incrementally, so only daily reads carry a cursor
+            String jsonResponse = toJson(bundle, MetricsFieldSelection.ALL, query.compact(), period == null ? version : null);
+
+            // Missing or stale view: the next dashboard opens are served from this render
+            if (dashboard) {
+                dashboardView.store(portfolioId, version, jsonResponse);
+            }
             
             log.debug("Successfully retrieved metrics for portfolio: {}", portfolioId.value());
-            return LambdaHttpUtils.createResponse(200, jsonResponse);
+            return metricsResponse(jsonResponse, etag);
 
         } catch (Exception e) {
             log.error("Error retrieving metrics: {}", e.getMessage(), e);
@@ -172,4 +312,234 @@ public class MetricsLambdaHandler {
         }
     }
 
+    /**
+     * Daily metrics of a date range, with only the requested fields read and serialized, and
+     * without the detail slots when {@code slots=false}. The range defaults to the months of the
+     * path, up to today.
+     */
+    private APIGatewayV2HTTPResponse getMetricsSelection(PortfolioId portfolioId, Integer months, MetricsQuery query) {
+        MetricsFieldSelection fields;
+        try {
+            fields = MetricsFieldSelection.parse(query.fields());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid metrics fields: {}", query.fields());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid fields");
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            to = isBlank(query.to()) ? LocalDate.now() : LocalDate.parse(query.to());
+            from = isBlank(query.from())
+                ? YearMonth.from(to).minusMonths(Math.max(1, months) - 1L).atDay(1)
+                : LocalDate.parse(query.from());
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid metrics date range: {} - {}", query.from(), query.to());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid date range");
+        }
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            log.warn("Invalid metrics date range: {} - {}", from, to);
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid date range");
+        }
+
+        boolean withSlots = !"false".equalsIgnoreCase(query.slots());
+
+        String version = metricsVersion(portfolioId);
+        String etag = metricsETag(version, months, query);
+        if (LambdaHttpUtils.matchesETag(query.ifNoneMatch(), etag)) {
+            log.debug("Metrics not modified for portfolio: {}", portfolioId.value());
+            return LambdaHttpUtils.createNotModifiedResponse(etag);
+        }
+
+        try{
+            log.debug("Retrieving metrics for portfolio: {}, from: {}, to: {}, fields: {}, slots: {}",
+                portfolioId.value(), from, to, query.fields(), withSlots);
+
+            EnhancedPortfolioMetricsBundle bundle = metricsUseCase.getPortfolioMetricsBetween(
+                portfolioId, from, to, fields.storedFields(), fields.includesAny(MetricsFieldSelection.Z_SCORES), withSlots);
+
+            String jsonResponse = toJson(bundle, fields, query.compact(), version);
+
+            log.debug("Successfully retrieved metrics for portfolio: {}", portfolioId.value());
+            return metricsResponse(jsonResponse, etag);
+
+        } catch (Exception e) {
+            log.error("Error retrieving metrics: {}", e.getMessage(), e);
+            return LambdaHttpUtils.createErrorResponse(500, "Internal Server Error");
+        }
+    }
+
+    /**
+     * Daily metrics changed since the cursor of a previous response, the metrics version it was
+     * rendered from. Every day from the cursor's day to today is returned, with its slots unless
+     * {@code slots=false}, to replace the one the client holds; the response carries the cursor
+     * of the next sync. A cursor still matching the current version is answered with no days.
+     * <p>
+     * Cursors older than the months of the path only return those months.
+     */
+    private APIGatewayV2HTTPResponse getMetricsSince(PortfolioId portfolioId, Integer months, MetricsQuery query) {
+        MetricsFieldSelection fields;
+        try {
+            fields = MetricsFieldSelection.parse(query.fields());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid metrics fields: {}", query.fields());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid fields");
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate since;
+        try {
+            since = cursorDate(query.since());
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid metrics cursor: {}", query.since());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid cursor");
+        }
+        if (since.isAfter(today)) {
+            log.warn("Invalid metrics cursor: {}", query.since());
+            return LambdaHttpUtils.createErrorResponse(400, "Invalid cursor");
+        }
+
+        LocalDate windowStart = YearMonth.from(today).minusMonths(Math.max(1, months) - 1L).atDay(1);
+        if (since.isBefore(windowStart)) {
+            since = windowStart;
+        }
+
+        boolean withSlots = !"false".equalsIgnoreCase(query.slots());
+
+        try{
+            String version = metricsVersion(portfolioId);
+            EnhancedPortfolioMetricsBundle bundle;
+            if (query.since().equals(version)) {
+                log.debug("Metrics unchanged since cursor for portfolio: {}", portfolioId.value());
+                bundle = new EnhancedPortfolioMetricsBundle(portfolioId, List.of(), List.of());
+            } else {
+                log.debug("Retrieving metrics for portfolio: {}, since: {}, fields: {}, slots: {}",
+                    portfolioId.value(), since, query.fields(), withSlots);
+                bundle = metricsUseCase.getPortfolioMetricsSince(
+                    portfolioId, since, fields.storedFields(), fields.includesAny(MetricsFieldSelection.Z_SCORES), withSlots);
+            }
+
+            return LambdaHttpUtils.createResponse(200, toJson(bundle, fields, query.compact(), version));
+
+        } catch (Exception e) {
+            log.error("Error retrieving metrics: {}", e.getMessage(), e);
+            return LambdaHttpUtils.createErrorResponse(500, "Internal Server Error");
+        }
+    }
+
+    /**
+     * Day of a cursor: the date the metrics version starts with.
+     *
+     * @throws DateTimeParseException if the cursor does not start with a date
+     */
+    private static LocalDate cursorDate(String cursor) {
+        int separator = cursor.indexOf('.');
+        return LocalDate.parse(separator < 0 ? cursor : cursor.substring(0, separator));
+    }
+
+    /**
+     * Serializes the bundle as {@link MetricsResponseDto}, or in its columnar form when the
+     * client asked for the compact format. A non-null {@code cursor} is sent in the meta section.
+     */
+    private String toJson(EnhancedPortfolioMetricsBundle bundle, MetricsFieldSelection fields, boolean compact, String cursor)
+            throws IOException {
+        if (compact) {
+            return jsonMapper.writeValueAsString(metricsResponseMapper.toCompactMetricsResponseDto(bundle, fields, cursor));
+        }
+
+        MetricsResponseDto responseDto = metricsResponseMapper.toMetricsResponseDto(bundle, fields, cursor);
+        return jsonMapper.writeValueAsString(responseDto);
+    }
+
+    /**
+     * Whether the client asked for the compact format, with {@code format=compact} or its
+     * media type in {@code Accept}.
+     */
+    private static boolean isCompact(APIGatewayV2HTTPEvent input) {
+        if (COMPACT_FORMAT.equalsIgnoreCase(LambdaHttpUtils.extractQueryParameter(input, FORMAT_PARAM))) {
+            return true;
+        }
+
+        String accept = LambdaHttpUtils.extractHeader(input, "Accept");
+        return accept != null && accept.toLowerCase().contains(COMPACT_MEDIA_TYPE);
+    }
+
+    /**
+     * Serves the materialized dashboard view as stored, gzip-compressed when the client accepts
+     * it, tagged with the metrics version the view was rendered from.
+     */
+    private APIGatewayV2HTTPResponse dashboardResponse(MetricsView view, Integer months, MetricsQuery query) {
+        String etag = metricsETag(view.version(), months, query);
+        if (LambdaHttpUtils.matchesETag(query.ifNoneMatch(), etag)) {
+            log.debug("Metrics not modified for portfolio: {}", view.portfolioId().value());
+            return LambdaHttpUtils.createNotModifiedResponse(etag);
+        }
+
+        log.debug("Serving metrics view for portfolio: {}, rendered at: {}", view.portfolioId().value(), view.renderedAt());
+        try {
+            return LambdaHttpUtils.acceptsGzip(query.acceptEncoding())
+                ? LambdaHttpUtils.createGzipResponse(200, view.body(), etag)
+                : metricsResponse(MetricsDashboardView.json(view), etag);
+
+        } catch (Exception e) {
+            log.error("Error serving metrics view: {}", e.getMessage(), e);
+            return LambdaHttpUtils.createErrorResponse(500, "Internal Server Error");
+        }
+    }
+
+    /**
+     * The portfolio's metrics version, which changes on every write of today's metrics and every
+     * day. It is read before the metrics, so a write landing in between makes the next request
+     * miss instead of being hidden behind a 304.
+     *
+     * @return the version, or null if it could not be read
+     */
+    private String metricsVersion(PortfolioId portfolioId) {
+        try {
+            return metricsUseCase.getMetricsVersion(portfolioId);
+
+        } catch (Exception e) {
+            // Serve the metrics untagged rather than failing the read
+            log.warn("Error reading metrics version for portfolio {}: {}", portfolioId.value(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Weak entity tag of a metrics read: the metrics version plus a hash of the read parameters
+     * and the calculation version.
+     *
+     * @return the entity tag, or null without a version
+     */
+    private static String metricsETag(String version, Integer months, MetricsQuery query) {
+        if (version == null) {
+            return null;
+        }
+
+        int representation = Objects.hash(MetricsResponseMapper.CALC_VERSION, months,
+            query.granularity(), query.from(), query.to(), query.fields(), query.slots(), query.compact());
+        return "W/\"" + version + "-" + Integer.toHexString(representation) + "\"";
+    }
+
+    private static APIGatewayV2HTTPResponse metricsResponse(String jsonResponse, String etag) {
+        return etag != null
+            ? LambdaHttpUtils.createResponse(200, jsonResponse, etag)
+            : LambdaHttpUtils.createResponse(200, jsonResponse);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+
+    /** Query parameters of a metrics read, the entity tags the client already holds and the encodings it accepts. */
+    private record MetricsQuery(String granularity, String from, String to, String fields, String slots,
+            String since, boolean compact, String ifNoneMatch, String acceptEncoding) {
+
+        /** Whether the read asks for less than the full bundle of the path months. */
+        boolean isSelective() {
+            return !isBlank(from) || !isBlank(to) || !isBlank(fields) || !isBlank(slots);
+        }
+    }
+
 }
\ No newline at end of file
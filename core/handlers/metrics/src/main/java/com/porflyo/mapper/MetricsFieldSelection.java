@@ -0,0 +1,116 @@
+package com.porflyo.mapper;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.porflyo.model.metrics.MetricsField;
+
+/**
+ * Daily aggregate fields requested with the {@code fields} query parameter, as paths of the
+ * response: a whole section ({@code raw}, {@code derived}, {@code zScores}) or one field of it,
+ * such as {@code raw.views} or {@code derived.engagementAvg}.
+ * <p>
+ * Each path knows the stored counters it is computed from, so the read can be limited to them.
+ */
+public final class MetricsFieldSelection {
+
+    public static final String RAW = "raw";
+    public static final String DERIVED = "derived";
+    public static final String Z_SCORES = "zScores";
+
+    /** Response paths and the counters each one is computed from. */
+    private static final Map<String, Set<MetricsField>> PATHS = new LinkedHashMap<>();
+    static {
+        // Raw
+        PATHS.put("raw.views", EnumSet.of(MetricsField.VIEWS));
+        PATHS.put("raw.activeTime", EnumSet.of(MetricsField.ACTIVE_TIME));
+        PATHS.put("raw.emailCopies", EnumSet.of(MetricsField.EMAIL_COPIES));
+        PATHS.put("raw.desktopViews", EnumSet.of(MetricsField.VIEWS, MetricsField.DEVICE_VIEWS));
+        PATHS.put("raw.mobileTabletViews", EnumSet.of(MetricsField.DEVICE_VIEWS));
+        PATHS.put("raw.sumScrollScore", EnumSet.of(MetricsField.SCROLL_SCORE));
+        PATHS.put("raw.sumScrollTime", EnumSet.of(MetricsField.SCROLL_TIME));
+        PATHS.put("raw.qualityVisits", EnumSet.of(MetricsField.QUALITY_VISITS));
+        PATHS.put("raw.projectViewTimeTotal", EnumSet.of(MetricsField.PROJECT_VIEW_TIME));
+        PATHS.put("raw.projectExposuresTotal", EnumSet.of(MetricsField.PROJECT_EXPOSURES));
+        PATHS.put("raw.projectCodeViewsTotal", EnumSet.of(MetricsField.PROJECT_CODE_VIEWS));
+        PATHS.put("raw.projectLiveViewsTotal", EnumSet.of(MetricsField.PROJECT_LIVE_VIEWS));
+        PATHS.put("raw.tffiSumMs", EnumSet.of(MetricsField.TTFI_SUM_MS));
+        PATHS.put("raw.tffiCount", EnumSet.of(MetricsField.TTFI_COUNT));
+        PATHS.put("raw.socialClicksTotal", EnumSet.of(MetricsField.SOCIAL_CLICKS));
+
+        // Derived
+        PATHS.put("derived.deviceMix", EnumSet.of(MetricsField.VIEWS, MetricsField.DEVICE_VIEWS));
+        PATHS.put("derived.engagementAvg", EnumSet.of(MetricsField.SCROLL_SCORE, MetricsField.VIEWS));
+        PATHS.put("derived.avgScrollTimeMs", EnumSet.of(MetricsField.SCROLL_TIME, MetricsField.VIEWS));
+        PATHS.put("derived.avgSessionTime", EnumSet.of(MetricsField.ACTIVE_TIME, MetricsField.VIEWS));
+        PATHS.put("derived.avgCardViewTimeMs", EnumSet.of(MetricsField.PROJECT_VIEW_TIME, MetricsField.PROJECT_EXPOSURES));
+        PATHS.put("derived.tffiMeanMs", EnumSet.of(MetricsField.TTFI_SUM_MS, MetricsField.TTFI_COUNT));
+        PATHS.put("derived.emailConversion", EnumSet.of(MetricsField.EMAIL_COPIES, MetricsField.VIEWS));
+
+        // Z-scores
+        PATHS.put("zScores.visits", EnumSet.of(MetricsField.VIEWS));
+        PATHS.put("zScores.engagement", EnumSet.of(MetricsField.SCROLL_SCORE, MetricsField.VIEWS));
+        PATHS.put("zScores.tffi", EnumSet.of(MetricsField.TTFI_SUM_MS, MetricsField.TTFI_COUNT));
+    }
+
+    public static final MetricsFieldSelection ALL = new MetricsFieldSelection(PATHS.keySet());
+
+    private final Set<String> paths;
+
+    private MetricsFieldSelection(Set<String> paths) {
+        this.paths = Collections.unmodifiableSet(paths);
+    }
+
+    /**
+     * Parses a comma-separated list of paths; a blank list selects every field.
+     *
+     * @throws IllegalArgumentException if a path is neither a section nor one of its fields
+     */
+    public static MetricsFieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String token : fields.split(",")) {
+            String path = token.trim();
+            if (path.isEmpty()) continue;
+
+            if (PATHS.containsKey(path)) {
+                selected.add(path);
+            } else if (path.equals(RAW) || path.equals(DERIVED) || path.equals(Z_SCORES)) {
+                PATHS.keySet().stream().filter(p -> p.startsWith(path + ".")).forEach(selected::add);
+            } else {
+                throw new IllegalArgumentException("Unknown metrics field: " + path);
+            }
+        }
+
+        return selected.isEmpty() ? ALL : new MetricsFieldSelection(selected);
+    }
+
+    /** Whether the field {@code name} of {@code section} is selected. */
+    public boolean includes(String section, String name) {
+        return paths.contains(section + "." + name);
+    }
+
+    /** Whether any field of {@code section} is selected. */
+    public boolean includesAny(String section) {
+        String prefix = section + ".";
+        return paths.stream().anyMatch(p -> p.startsWith(prefix));
+    }
+
+    /** Counters to read to compute the selected fields. */
+    public Set<MetricsField> storedFields() {
+        Set<MetricsField> fields = EnumSet.noneOf(MetricsField.class);
+        paths.forEach(p -> fields.addAll(PATHS.get(p)));
+        return fields;
+    }
+
+    public boolean isAll() {
+        return paths.size() == PATHS.size();
+    }
+}
@@ -1,19 +1,30 @@
 package com.porflyo.mapper;
 
+import static com.porflyo.mapper.MetricsFieldSelection.DERIVED;
+import static com.porflyo.mapper.MetricsFieldSelection.RAW;
+import static com.porflyo.mapper.MetricsFieldSelection.Z_SCORES;
+
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.dto.EnhancedPortfolioMetrics;
 import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
 import com.porflyo.dto.response.BaselineDto;
+import com.porflyo.dto.response.CompactMetricsResponseDto;
+import com.porflyo.dto.response.CompactSlotDto;
+import com.porflyo.dto.response.DailyColumnsDto;
 import com.porflyo.dto.response.DailyAggregateDto;
 import com.porflyo.dto.response.DerivedMetricsDto;
 import com.porflyo.dto.response.DeviceMixDto;
 import com.porflyo.dto.response.HeatmapCellDto;
+import com.porflyo.dto.response.HeatmapColumnsDto;
 import com.porflyo.dto.response.HeatmapDto;
 import com.porflyo.dto.response.HeatmapMetaDto;
 import com.porflyo.dto.response.MetaResponseDto;
@@ -35,7 +46,7 @@ import jakarta.inject.Singleton;
 @Singleton
 public class MetricsResponseMapper {
     
-    private static final String CALC_VERSION = "2025.09.26-r1";
+    public static final String CALC_VERSION = "2025.09.26-r1";
     private static final String TIME_BASE = "ds";
     private static final String DISPLAY_TIME = "ms";
     private static final Integer BASELINE_WINDOW_DAYS = 28;
@@ -44,10 +55,27 @@ public class MetricsResponseMapper {
      * Converts EnhancedPortfolioMetricsBundle to MetricsResponseDto.
      */
     public MetricsResponseDto toMetricsResponseDto(EnhancedPortfolioMetricsBundle bundle) {
-        MetaResponseDto meta = buildMeta();
+        return toMetricsResponseDto(bundle, MetricsFieldSelection.ALL);
+    }
+
+    /**
+     * Converts EnhancedPortfolioMetricsBundle to MetricsResponseDto, with only the selected
+     * fields in each daily aggregate. Fields and sections left out are null, so they are not
+     * serialized.
+     */
+    public MetricsResponseDto toMetricsResponseDto(EnhancedPortfolioMetricsBundle bundle, MetricsFieldSelection fields) {
+        return toMetricsResponseDto(bundle, fields, null);
+    }
+
+    /**
+     * Same as {@link #toMetricsResponseDto(EnhancedPortfolioMetricsBundle, MetricsFieldSelection)},
+     * with the sync cursor of the response in its meta section; a null cursor is not serialized.
+     */
+    public MetricsResponseDto toMetricsResponseDto(EnhancedPortfolioMetricsBundle bundle, MetricsFieldSelection fields, String cursor) {
+        MetaResponseDto meta = buildMeta(cursor);
         
         List<DailyAggregateDto> dailyAgg = bundle.aggregates().stream()
-            .map(this::toDailyAggregateDto)
+            .map(enhanced -> toDailyAggregateDto(enhanced, fields))
             .collect(Collectors.toList());
         
         List<SlotDto> slots = bundle.slots().stream()
@@ -57,63 +85,149 @@ public class MetricsResponseMapper {
         return new MetricsResponseDto(meta, dailyAgg, slots);
     }
     
+    /**
+     * Converts EnhancedPortfolioMetricsBundle to the columnar CompactMetricsResponseDto, with
+     * only the selected fields as columns. Sections without any selected field are null.
+     */
+    public CompactMetricsResponseDto toCompactMetricsResponseDto(EnhancedPortfolioMetricsBundle bundle, MetricsFieldSelection fields) {
+        return toCompactMetricsResponseDto(bundle, fields, null);
+    }
+
+    /**
+     * Same as {@link #toCompactMetricsResponseDto(EnhancedPortfolioMetricsBundle, MetricsFieldSelection)},
+     * with the sync cursor of the response in its meta section; a null cursor is not serialized.
+     */
+    public CompactMetricsResponseDto toCompactMetricsResponseDto(
+            EnhancedPortfolioMetricsBundle bundle,
+            MetricsFieldSelection fields,
+            String cursor) {
+        List<EnhancedPortfolioMetrics> days = bundle.aggregates();
+
+        List<String> dates = days.stream().map(enhanced -> enhanced.date().toString()).toList();
+
+        Map<String, List<Integer>> raw = !fields.includesAny(RAW) ? null : new LinkedHashMap<>();
+        if (raw != null) {
+            column(raw, fields, RAW, "views", days, e -> e.engagement().views());
+            column(raw, fields, RAW, "activeTime", days, e -> e.engagement().activeTime());
+            column(raw, fields, RAW, "emailCopies", days, e -> e.engagement().emailCopies());
+            column(raw, fields, RAW, "desktopViews", days, e -> e.engagement().devices().desktopViews());
+            column(raw, fields, RAW, "mobileTabletViews", days, e -> e.engagement().devices().mobileTabletViews());
+            column(raw, fields, RAW, "sumScrollScore", days, e -> e.scroll().scoreTotal());
+            column(raw, fields, RAW, "sumScrollTime", days, e -> e.scroll().scrollTimeTotal());
+            column(raw, fields, RAW, "qualityVisits", days, e -> e.engagement().qualityVisits());
+            column(raw, fields, RAW, "projectViewTimeTotal", days, e -> e.cumProjects().viewTime());
+            column(raw, fields, RAW, "projectExposuresTotal", days, e -> e.cumProjects().exposures());
+            column(raw, fields, RAW, "projectCodeViewsTotal", days, e -> e.cumProjects().codeViews());
+            column(raw, fields, RAW, "projectLiveViewsTotal", days, e -> e.cumProjects().liveViews());
+            column(raw, fields, RAW, "tffiSumMs", days, e -> e.scroll().ttfiSumMs());
+            column(raw, fields, RAW, "tffiCount", days, e -> e.scroll().ttfiCount());
+            column(raw, fields, RAW, "socialClicksTotal", days, e -> e.engagement().socialClicks());
+        }
+
+        Map<String, List<Double>> derived = !fields.includesAny(DERIVED) ? null : new LinkedHashMap<>();
+        if (derived != null) {
+            if (fields.includes(DERIVED, "deviceMix")) {
+                derived.put("desktopPct", days.stream().map(e -> e.derived().desktopPct()).toList());
+                derived.put("mobileTabletPct", days.stream().map(e -> e.derived().mobileTabletPct()).toList());
+            }
+            column(derived, fields, DERIVED, "engagementAvg", days, e -> e.derived().engagementAvg());
+            column(derived, fields, DERIVED, "avgScrollTimeMs", days, e -> e.derived().avgScrollTimeMs());
+            column(derived, fields, DERIVED, "avgSessionTime", days, this::calculateAvgSessionTime);
+            column(derived, fields, DERIVED, "avgCardViewTimeMs", days, e -> e.derived().avgCardViewTimeMs());
+            column(derived, fields, DERIVED, "tffiMeanMs", days, e -> e.derived().ttfiMeanMs());
+            column(derived, fields, DERIVED, "emailConversion", days, e -> e.derived().emailConversion());
+        }
+
+        Map<String, List<Double>> zScores = !fields.includesAny(Z_SCORES) ? null : new LinkedHashMap<>();
+        if (zScores != null) {
+            column(zScores, fields, Z_SCORES, "visits", days, e -> e.zScores().visits());
+            column(zScores, fields, Z_SCORES, "engagement", days, e -> e.zScores().engagement());
+            column(zScores, fields, Z_SCORES, "tffi", days, e -> e.zScores().ttfi());
+        }
+
+        List<CompactSlotDto> slots = bundle.slots().stream()
+            .map(this::toCompactSlotDto)
+            .toList();
+
+        return new CompactMetricsResponseDto(buildMeta(cursor), new DailyColumnsDto(dates, raw, derived, zScores), slots);
+    }
+
+    private static <T> void column(
+            Map<String, List<T>> section,
+            MetricsFieldSelection fields,
+            String sectionName,
+            String name,
+            List<EnhancedPortfolioMetrics> days,
+            Function<EnhancedPortfolioMetrics, T> value) {
+        if (fields.includes(sectionName, name)) {
+            // Days without a value (e.g. no z-score yet) keep their position as null
+            List<T> column = new ArrayList<>(days.size());
+            days.forEach(day -> column.add(value.apply(day)));
+            section.put(name, column);
+        }
+    }
+
     /**
      * Builds the meta section of the response.
      */
-    private MetaResponseDto buildMeta() {
+    private MetaResponseDto buildMeta(String cursor) {
         String generatedAt = LocalDate.now().toString();
         String timezone = ZoneId.systemDefault().getId();
         UnitsDto units = new UnitsDto(TIME_BASE, DISPLAY_TIME);
         BaselineDto baseline = new BaselineDto(BASELINE_WINDOW_DAYS);
         
-        return new MetaResponseDto(CALC_VERSION, generatedAt, timezone, units, baseline);
+        return new MetaResponseDto(CALC_VERSION, generatedAt, timezone, units, baseline, cursor);
     }
     
     /**
      * Converts EnhancedPortfolioMetrics to DailyAggregateDto.
      */
-    private DailyAggregateDto toDailyAggregateDto(EnhancedPortfolioMetrics enhanced) {
+    private DailyAggregateDto toDailyAggregateDto(EnhancedPortfolioMetrics enhanced, MetricsFieldSelection fields) {
         String date = enhanced.date().toString();
         
-        RawMetricsDto raw = new RawMetricsDto(
-            enhanced.engagement().views(),
-            enhanced.engagement().activeTime(),
-            enhanced.engagement().emailCopies(),
-            enhanced.engagement().devices().desktopViews(),
-            enhanced.engagement().devices().mobileTabletViews(),
-            enhanced.scroll().scoreTotal(),
-            enhanced.scroll().scrollTimeTotal(),
-            enhanced.engagement().qualityVisits(),
-            enhanced.cumProjects().viewTime(),
-            enhanced.cumProjects().exposures(),
-            enhanced.cumProjects().codeViews(),
-            enhanced.cumProjects().liveViews(),
-            enhanced.scroll().ttfiSumMs(),
-            enhanced.scroll().ttfiCount(),
-            enhanced.engagement().socialClicks()
+        RawMetricsDto raw = !fields.includesAny(RAW) ? null : new RawMetricsDto(
+            pick(fields, RAW, "views", enhanced.engagement().views()),
+            pick(fields, RAW, "activeTime", enhanced.engagement().activeTime()),
+            pick(fields, RAW, "emailCopies", enhanced.engagement().emailCopies()),
+            pick(fields, RAW, "desktopViews", enhanced.engagement().devices().desktopViews()),
+            pick(fields, RAW, "mobileTabletViews", enhanced.engagement().devices().mobileTabletViews()),
+            pick(fields, RAW, "sumScrollScore", enhanced.scroll().scoreTotal()),
+            pick(fields, RAW, "sumScrollTime", enhanced.scroll().scrollTimeTotal()),
+            pick(fields, RAW, "qualityVisits", enhanced.engagement().qualityVisits()),
+            pick(fields, RAW, "projectViewTimeTotal", enhanced.cumProjects().viewTime()),
+            pick(fields, RAW, "projectExposuresTotal", enhanced.cumProjects().exposures()),
+            pick(fields, RAW, "projectCodeViewsTotal", enhanced.cumProjects().codeViews()),
+            pick(fields, RAW, "projectLiveViewsTotal", enhanced.cumProjects().liveViews()),
+            pick(fields, RAW, "tffiSumMs", enhanced.scroll().ttfiSumMs()),
+            pick(fields, RAW, "tffiCount", enhanced.scroll().ttfiCount()),
+            pick(fields, RAW, "socialClicksTotal", enhanced.engagement().socialClicks())
         );
         
-        DerivedMetricsDto derived = new DerivedMetricsDto(
-            new DeviceMixDto(
+        DerivedMetricsDto derived = !fields.includesAny(DERIVED) ? null : new DerivedMetricsDto(
+            !fields.includes(DERIVED, "deviceMix") ? null : new DeviceMixDto(
                 enhanced.derived().desktopPct(),
                 enhanced.derived().mobileTabletPct()
             ),
-            enhanced.derived().engagementAvg(),
-            enhanced.derived().avgScrollTimeMs(),
-            calculateAvgSessionTime(enhanced),
-            enhanced.derived().avgCardViewTimeMs(),
-            enhanced.derived().ttfiMeanMs(),
-            enhanced.derived().emailConversion()
+            pick(fields, DERIVED, "engagementAvg", enhanced.derived().engagementAvg()),
+            pick(fields, DERIVED, "avgScrollTimeMs", enhanced.derived().avgScrollTimeMs()),
+            fields.includes(DERIVED, "avgSessionTime") ? calculateAvgSessionTime(enhanced) : null,
+            pick(fields, DERIVED, "avgCardViewTimeMs", enhanced.derived().avgCardViewTimeMs()),
+            pick(fields, DERIVED, "tffiMeanMs", enhanced.derived().ttfiMeanMs()),
+            pick(fields, DERIVED, "emailConversion", enhanced.derived().emailConversion())
         );
         
-        ZScoresDto zScores = new ZScoresDto(
-            enhanced.zScores().visits(),
-            enhanced.zScores().engagement(),
-            enhanced.zScores().ttfi()
+        ZScoresDto zScores = !fields.includesAny(Z_SCORES) ? null : new ZScoresDto(
+            pick(fields, Z_SCORES, "visits", enhanced.zScores().visits()),
+            pick(fields, Z_SCORES, "engagement", enhanced.zScores().engagement()),
+            pick(fields, Z_SCORES, "tffi", enhanced.zScores().ttfi())
         );
         
         return new DailyAggregateDto(date, raw, derived, zScores);
     }
+
+    private static <T> T pick(MetricsFieldSelection fields, String section, String name, T value) {
+        return fields.includes(section, name) ? value : null;
+    }
     
     /**
      * Calculates average session time from engagement metrics.
@@ -142,6 +256,25 @@ public class MetricsResponseMapper {
         return new SlotDto(date, projects, heatmap);
     }
     
+    /**
+     * Converts DetailSlot to CompactSlotDto, with the heatmap as parallel arrays.
+     */
+    private CompactSlotDto toCompactSlotDto(DetailSlot slot) {
+        List<ProjectSlotDto> projects = slot.projects().stream()
+            .map(this::toProjectSlotDto)
+            .toList();
+
+        PortfolioHeatmap heatmap = slot.heatmap();
+        HeatmapColumnsDto cells = new HeatmapColumnsDto(
+            heatmap.rows(),
+            heatmap.Indexes(),
+            heatmap.Values(),
+            heatmap.Counts()
+        );
+
+        return new CompactSlotDto(slot.date().toString(), projects, cells);
+    }
+
     /**
      * Converts ProjectMetricsWithId to ProjectSlotDto.
      */
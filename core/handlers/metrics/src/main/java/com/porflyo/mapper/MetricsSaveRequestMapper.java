@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.SessionMetrics;
 import com.porflyo.dto.received.HeatmapDataDto;
 import com.porflyo.dto.received.MetricsSaveRequestDto;
 import com.porflyo.model.ids.PortfolioId;
@@ -30,6 +31,21 @@ public class MetricsSaveRequestMapper {
         return new PortfolioId(dto.portfolioId());
     }
 
+    /**
+     * Maps the whole request DTO to the metrics of a single session.
+     */
+    public SessionMetrics toSessionMetrics(MetricsSaveRequestDto dto) {
+        return new SessionMetrics(
+            toPortfolioId(dto),
+            toEngagement(dto),
+            toInteractionMetrics(dto),
+            toCumulativeProjectMetrics(dto),
+            toHeatmapSnapshot(dto),
+            toProjectMetricsList(dto),
+            dto.beaconId()
+        );
+    }
+
     /**
      * Maps the request DTO to an Engagement domain object.
      * 
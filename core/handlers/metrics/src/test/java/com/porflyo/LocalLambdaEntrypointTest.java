@@ -0,0 +1,190 @@
+package com.porflyo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.handler.MetricsDashboardView;
+import com.porflyo.handler.MetricsLambdaHandler;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.usecase.AuthUseCase;
+import com.porflyo.usecase.MetricsIngestUseCase;
+import com.porflyo.usecase.MetricsUseCase;
+
+import io.micronaut.context.ApplicationContext;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Local Lambda Entrypoint Tests")
+class LocalLambdaEntrypointTest {
+
+    @Test
+    @DisplayName("should build the application context once and flush expired write-behind on every invocation")
+    void should_reuseApplicationContext_when_handlingSeveralInvocations() {
+        // given
+        ApplicationContext context = mock(ApplicationContext.class);
+        MetricsLambdaHandler metricsHandler = mock(MetricsLambdaHandler.class);
+        MetricsUseCase metricsUseCase = mock(MetricsUseCase.class);
+        AtomicInteger contextsBuilt = new AtomicInteger();
+
+        given(context.isRunning()).willReturn(true);
+        given(context.getBean(AuthUseCase.class)).willReturn(mock(AuthUseCase.class));
+        given(context.getBean(MetricsIngestUseCase.class)).willReturn(mock(MetricsIngestUseCase.class));
+        given(context.getBean(MetricsLambdaHandler.class)).willReturn(metricsHandler);
+        given(context.getBean(MetricsUseCase.class)).willReturn(metricsUseCase);
+        given(context.getBean(MetricsDashboardView.class)).willReturn(mock(MetricsDashboardView.class));
+        given(metricsHandler.handleMetricsRequest(any()))
+            .willReturn(LambdaHttpUtils.createResponse(200, "{}"));
+
+        LocalLambdaEntrypoint entrypoint = new LocalLambdaEntrypoint(() -> {
+            contextsBuilt.incrementAndGet();
+            return context;
+        });
+
+        // when
+        int invocations = 5;
+        for (int i = 0; i < invocations; i++) {
+            APIGatewayV2HTTPResponse response = entrypoint.execute(createPostEvent("/metrics"));
+            assertEquals(200, response.getStatusCode());
+        }
+
+        // then
+        assertEquals(1, contextsBuilt.get());
+        verify(context, times(1)).getBean(MetricsLambdaHandler.class);
+        verify(metricsHandler, times(invocations)).handleMetricsRequest(any());
+        verify(metricsUseCase, times(invocations)).flushExpiredWriteBehind(any());
+    }
+
+    @Test
+    @DisplayName("should drain the ingest queue after a write request")
+    void should_drainIngestQueue_when_handlingWriteRequest() {
+        // given
+        ApplicationContext context = mock(ApplicationContext.class);
+        MetricsLambdaHandler metricsHandler = mock(MetricsLambdaHandler.class);
+        MetricsIngestUseCase ingestUseCase = mock(MetricsIngestUseCase.class);
+
+        given(context.isRunning()).willReturn(true);
+        given(context.getBean(AuthUseCase.class)).willReturn(mock(AuthUseCase.class));
+        given(context.getBean(MetricsIngestUseCase.class)).willReturn(ingestUseCase);
+        given(context.getBean(MetricsLambdaHandler.class)).willReturn(metricsHandler);
+        given(context.getBean(MetricsUseCase.class)).willReturn(mock(MetricsUseCase.class));
+        given(context.getBean(MetricsDashboardView.class)).willReturn(mock(MetricsDashboardView.class));
+        given(metricsHandler.handleMetricsRequest(any()))
+            .willReturn(LambdaHttpUtils.createResponse(202, "{}"));
+        given(ingestUseCase.drainAfterRequest(any())).willThrow(new IllegalStateException("boom"));
+
+        LocalLambdaEntrypoint entrypoint = new LocalLambdaEntrypoint(() -> context);
+
+        // when
+        APIGatewayV2HTTPResponse response = entrypoint.execute(createPostEvent("/metrics/batch"));
+
+        // then
+        assertEquals(202, response.getStatusCode());
+        verify(ingestUseCase, times(1)).drainAfterRequest(any());
+    }
+
+    @Test
+    @DisplayName("should refresh the dashboard views of the portfolios drained after a write request")
+    void should_refreshDashboardViews_when_drainingAfterWriteRequest() {
+        // given
+        ApplicationContext context = mock(ApplicationContext.class);
+        MetricsLambdaHandler metricsHandler = mock(MetricsLambdaHandler.class);
+        MetricsIngestUseCase ingestUseCase = mock(MetricsIngestUseCase.class);
+        MetricsDashboardView dashboardView = mock(MetricsDashboardView.class);
+        PortfolioId portfolioA = new PortfolioId("portfolio-a");
+        PortfolioId portfolioB = new PortfolioId("portfolio-b");
+
+        given(context.isRunning()).willReturn(true);
+        given(context.getBean(AuthUseCase.class)).willReturn(mock(AuthUseCase.class));
+        given(context.getBean(MetricsIngestUseCase.class)).willReturn(ingestUseCase);
+        given(context.getBean(MetricsLambdaHandler.class)).willReturn(metricsHandler);
+        given(context.getBean(MetricsUseCase.class)).willReturn(mock(MetricsUseCase.class));
+        given(context.getBean(MetricsDashboardView.class)).willReturn(dashboardView);
+        given(metricsHandler.handleMetricsRequest(any()))
+            .willReturn(LambdaHttpUtils.createResponse(202, "{}"));
+        given(ingestUseCase.drainAfterRequest(any())).willAnswer(invocation -> {
+            Consumer<List<SessionMetrics>> onWritten = invocation.getArgument(0);
+            onWritten.accept(List.of(session(portfolioA), session(portfolioB)));
+            onWritten.accept(List.of(session(portfolioA)));
+            return 3;
+        });
+
+        LocalLambdaEntrypoint entrypoint = new LocalLambdaEntrypoint(() -> context);
+
+        // when
+        entrypoint.execute(createPostEvent("/metrics/batch"));
+
+        // then
+        verify(dashboardView, times(1)).refreshAfterIngest(Set.of(portfolioA, portfolioB));
+    }
+
+    @Test
+    @DisplayName("should mark the dashboard views of the portfolios flushed from write-behind stale")
+    void should_markDashboardViewsStale_when_flushingWriteBehind() {
+        // given
+        ApplicationContext context = mock(ApplicationContext.class);
+        MetricsLambdaHandler metricsHandler = mock(MetricsLambdaHandler.class);
+        MetricsUseCase metricsUseCase = mock(MetricsUseCase.class);
+        MetricsDashboardView dashboardView = mock(MetricsDashboardView.class);
+        PortfolioId portfolioA = new PortfolioId("portfolio-a");
+
+        given(context.isRunning()).willReturn(true);
+        given(context.getBean(AuthUseCase.class)).willReturn(mock(AuthUseCase.class));
+        given(context.getBean(MetricsIngestUseCase.class)).willReturn(mock(MetricsIngestUseCase.class));
+        given(context.getBean(MetricsLambdaHandler.class)).willReturn(metricsHandler);
+        given(context.getBean(MetricsUseCase.class)).willReturn(metricsUseCase);
+        given(context.getBean(MetricsDashboardView.class)).willReturn(dashboardView);
+        given(metricsHandler.handleMetricsRequest(any()))
+            .willReturn(LambdaHttpUtils.createResponse(200, "{}"));
+        willAnswer(invocation -> {
+            Consumer<PortfolioId> onWritten = invocation.getArgument(0);
+            onWritten.accept(portfolioA);
+            throw new IllegalStateException("DynamoDB down");
+        }).given(metricsUseCase).flushExpiredWriteBehind(any());
+
+        LocalLambdaEntrypoint entrypoint = new LocalLambdaEntrypoint(() -> context);
+
+        // when
+        APIGatewayV2HTTPResponse response = entrypoint.execute(createPostEvent("/metrics"));
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        verify(dashboardView, times(1)).markStale(List.of(portfolioA));
+    }
+
+    private static SessionMetrics session(PortfolioId portfolioId) {
+        return new SessionMetrics(portfolioId, null, null, null, null, List.of());
+    }
+
+    private static APIGatewayV2HTTPEvent createPostEvent(String path) {
+        return APIGatewayV2HTTPEvent.builder()
+            .withRawPath(path)
+            .withRequestContext(APIGatewayV2HTTPEvent.RequestContext.builder()
+                .withHttp(APIGatewayV2HTTPEvent.RequestContext.Http.builder()
+                    .withMethod("POST")
+                    .withPath(path)
+                    .build())
+                .build())
+            .withBody("{}")
+            .build();
+    }
+}
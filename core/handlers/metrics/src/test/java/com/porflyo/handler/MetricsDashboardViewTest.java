@@ -0,0 +1,160 @@
+package com.porflyo.handler;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.configuration.MetricsViewConfig;
+import com.porflyo.mapper.MetricsResponseMapper;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.MetricsViewRepository;
+import com.porflyo.usecase.MetricsUseCase;
+
+import io.micronaut.json.JsonMapper;
+
+@DisplayName("Metrics Dashboard View Tests")
+class MetricsDashboardViewTest {
+
+    private static final PortfolioId PORTFOLIO_A = new PortfolioId("portfolio-a");
+    private static final PortfolioId PORTFOLIO_B = new PortfolioId("portfolio-b");
+    private static final PortfolioId PORTFOLIO_C = new PortfolioId("portfolio-c");
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private MetricsUseCase metricsUseCase;
+    private MetricsViewRepository viewRepository;
+    private JsonMapper jsonMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metricsUseCase = mock(MetricsUseCase.class);
+        viewRepository = mock(MetricsViewRepository.class);
+        jsonMapper = mock(JsonMapper.class);
+        when(metricsUseCase.getMetricsVersion(any())).thenReturn("2025-11-10.4.0.2");
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+    }
+
+    @Test
+    @DisplayName("should refresh a portfolio written during its debounce window once the window is over")
+    void should_refresh_portfolio_written_during_debounce_once_window_over() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 100);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A));
+
+        // when
+        clock.set(10_000);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A));
+        clock.set(29_000);
+        dashboardView.refreshAfterIngest(List.of());
+        verify(metricsUseCase, times(1)).getMetricsVersion(PORTFOLIO_A);
+        clock.set(31_000);
+        dashboardView.refreshAfterIngest(List.of());
+        clock.set(40_000);
+        dashboardView.refreshAfterIngest(List.of());
+
+        // then
+        verify(metricsUseCase, times(2)).getMetricsVersion(PORTFOLIO_A);
+    }
+
+    @Test
+    @DisplayName("should not serve the stored view of a portfolio waiting for its refresh")
+    void should_not_serve_view_of_portfolio_pending_refresh() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 100);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A));
+        clock.set(10_000);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A));
+
+        // when / then
+        assertTrue(dashboardView.findFresh(PORTFOLIO_A).isEmpty());
+        verify(viewRepository, never()).findMetricsView(PORTFOLIO_A);
+    }
+
+    @Test
+    @DisplayName("should track at most max portfolios, forgetting the least recently refreshed")
+    void should_track_at_most_max_portfolios() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 2);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A, PORTFOLIO_B, PORTFOLIO_C));
+
+        // when
+        clock.set(1_000);
+        dashboardView.refreshAfterIngest(List.of(PORTFOLIO_A, PORTFOLIO_C));
+
+        // then
+        verify(metricsUseCase, times(2)).getMetricsVersion(PORTFOLIO_A);
+        verify(metricsUseCase, times(1)).getMetricsVersion(PORTFOLIO_C);
+    }
+
+    @Test
+    @DisplayName("should mark a portfolio stale once per debounce window, with a delete conditional on the write")
+    void should_mark_portfolio_stale_once_per_debounce_window() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 100);
+
+        // when
+        dashboardView.markStale(List.of(PORTFOLIO_A, PORTFOLIO_A));
+        clock.set(10_000);
+        dashboardView.markStale(List.of(PORTFOLIO_A));
+        clock.set(31_000);
+        dashboardView.markStale(List.of(PORTFOLIO_A));
+
+        // then
+        verify(viewRepository, times(1)).deleteMetricsViewRenderedBefore(PORTFOLIO_A, Instant.ofEpochMilli(0));
+        verify(viewRepository, never()).deleteMetricsViewRenderedBefore(PORTFOLIO_A, Instant.ofEpochMilli(10_000));
+        verify(viewRepository, times(1)).deleteMetricsViewRenderedBefore(PORTFOLIO_A, Instant.ofEpochMilli(31_000));
+        verify(viewRepository, never()).deleteMetricsView(any());
+    }
+
+    @Test
+    @DisplayName("should mark a portfolio stale again once a view rendered after the last invalidation is stored")
+    void should_mark_portfolio_stale_again_once_later_view_stored() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 100);
+        when(viewRepository.saveMetricsView(any())).thenReturn(true);
+        dashboardView.markStale(List.of(PORTFOLIO_A, PORTFOLIO_B));
+
+        // when
+        clock.set(1_000);
+        dashboardView.store(PORTFOLIO_A, "2025-11-10.4.0.2", "{}");
+        dashboardView.markStale(List.of(PORTFOLIO_A, PORTFOLIO_B));
+
+        // then
+        verify(viewRepository, times(1)).deleteMetricsViewRenderedBefore(PORTFOLIO_A, Instant.ofEpochMilli(1_000));
+        verify(viewRepository, times(1)).deleteMetricsViewRenderedBefore(eq(PORTFOLIO_B), any());
+    }
+
+    @Test
+    @DisplayName("should not delete anything when no portfolio was written")
+    void should_not_delete_when_no_portfolio_written() {
+        // given
+        MetricsDashboardView dashboardView = view(30, 100);
+
+        // when
+        dashboardView.markStale(List.of());
+
+        // then
+        verifyNoInteractions(viewRepository);
+    }
+
+    // Helper methods
+
+    private MetricsDashboardView view(int debounceSeconds, int maxPortfolios) {
+        return new MetricsDashboardView(metricsUseCase, mock(MetricsResponseMapper.class), jsonMapper,
+            viewRepository, new MetricsViewConfig(true, 3, 300, debounceSeconds, maxPortfolios), clock::get);
+    }
+}
@@ -1,27 +1,53 @@
 package com.porflyo.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import com.porflyo.configuration.MetricsViewConfig;
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.dto.EnhancedPortfolioMetrics;
 import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
+import com.porflyo.dto.MetricsView;
+import com.porflyo.dto.response.CompactMetricsResponseDto;
 import com.porflyo.dto.response.DailyAggregateDto;
 import com.porflyo.dto.response.MetricsResponseDto;
 import com.porflyo.dto.response.SlotDto;
@@ -32,10 +58,14 @@ import com.porflyo.model.metrics.DerivedMetrics;
 import com.porflyo.model.metrics.Devices;
 import com.porflyo.model.metrics.Engagement;
 import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioHeatmap;
 import com.porflyo.model.metrics.ProjectMetrics;
 import com.porflyo.model.metrics.ProjectMetricsWithId;
+import com.porflyo.model.metrics.RollupPeriod;
 import com.porflyo.model.metrics.ZScores;
+import com.porflyo.ports.MetricsViewRepository;
+import com.porflyo.usecase.MetricsIngestUseCase;
 import com.porflyo.usecase.MetricsUseCase;
 
 import io.micronaut.json.JsonMapper;
@@ -57,12 +87,16 @@ class MetricsGetHandlerTest {
     MetricsResponseMapper metricsResponseMapper;
 
     private MetricsUseCase metricsUseCase;
+    private MetricsIngestUseCase metricsIngestUseCase;
+    private MetricsViewRepository viewRepository;
     private MetricsLambdaHandler handler;
 
     @BeforeEach
     void setUp() {
         metricsUseCase = mock(MetricsUseCase.class);
-        handler = new MetricsLambdaHandler(jsonMapper, metricsSaveMapper, metricsResponseMapper, metricsUseCase);
+        metricsIngestUseCase = mock(MetricsIngestUseCase.class);
+        viewRepository = mock(MetricsViewRepository.class);
+        handler = handlerWithView(false);
     }
 
     @Test
@@ -193,8 +227,470 @@ class MetricsGetHandlerTest {
         assertTrue(jsonResponse.contains("\"projects\""));
     }
 
+    @Test
+    @DisplayName("should serve rollups when a coarse granularity is requested")
+    void should_serve_rollups_when_coarse_granularity_requested() throws Exception {
+        // given
+        String portfolioId = "test-portfolio";
+        EnhancedPortfolioMetricsBundle bundle = createMockBundle(portfolioId);
+
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt(), eq(RollupPeriod.MONTH)))
+            .thenReturn(bundle);
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "12");
+        event.setQueryStringParameters(Map.of("granularity", "month"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        verify(metricsUseCase, never()).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("should return bad request when granularity is unknown")
+    void should_return_bad_request_when_granularity_unknown() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("granularity", "hour"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        verifyNoInteractions(metricsUseCase);
+    }
+
+    @Test
+    @DisplayName("should read only the requested range and fields when given")
+    void should_read_only_requested_range_and_fields_when_given() throws Exception {
+        // given
+        String portfolioId = "test-portfolio";
+        EnhancedPortfolioMetricsBundle bundle = createMockBundle(portfolioId);
+        LocalDate from = LocalDate.of(2025, 11, 1);
+        LocalDate to = LocalDate.of(2025, 11, 14);
+
+        when(metricsUseCase.getPortfolioMetricsBetween(any(PortfolioId.class), eq(from), eq(to), any(), eq(false), eq(false)))
+            .thenReturn(new EnhancedPortfolioMetricsBundle(bundle.portfolioId(), bundle.aggregates(), List.of()));
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "3");
+        event.setQueryStringParameters(Map.of(
+            "from", "2025-11-01", "to", "2025-11-14", "fields", "raw.views", "slots", "false"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        verify(metricsUseCase).getPortfolioMetricsBetween(
+            any(PortfolioId.class), eq(from), eq(to), eq(EnumSet.of(MetricsField.VIEWS)), eq(false), eq(false));
+        verify(metricsUseCase, never()).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+
+        String jsonResponse = response.getBody();
+        assertTrue(jsonResponse.contains("\"views\":4"));
+        assertFalse(jsonResponse.contains("\"activeTime\""));
+        assertFalse(jsonResponse.contains("\"derived\""));
+    }
+
+    @Test
+    @DisplayName("should return bad request when a field is unknown")
+    void should_return_bad_request_when_field_unknown() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("fields", "raw.bounces"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        verifyNoInteractions(metricsUseCase);
+    }
+
+    @Test
+    @DisplayName("should return bad request when the range is reversed")
+    void should_return_bad_request_when_range_reversed() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("from", "2025-11-14", "to", "2025-11-01"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        verifyNoInteractions(metricsUseCase);
+    }
+
+    @Test
+    @DisplayName("should return bad request when a range is combined with a coarse granularity")
+    void should_return_bad_request_when_range_with_coarse_granularity() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("granularity", "month", "from", "2025-11-01"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        verifyNoInteractions(metricsUseCase);
+    }
+
+    @Test
+    @DisplayName("should tag metrics with an ETag derived from the metrics version")
+    void should_tag_metrics_with_etag() {
+        // given
+        String portfolioId = "test-portfolio";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn("2025-11-10.4.0.2");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle(portfolioId));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(createEvent("GET", portfolioId, "3"));
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        String etag = response.getHeaders().get("ETag");
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/\"2025-11-10.4.0.2-"));
+    }
+
+    @Test
+    @DisplayName("should answer 304 without reading metrics when the ETag still matches")
+    void should_answer_not_modified_when_etag_matches() {
+        // given
+        String portfolioId = "test-portfolio";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn("2025-11-10.4.0.2");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle(portfolioId));
+        String etag = handler.handleMetricsRequest(createEvent("GET", portfolioId, "3")).getHeaders().get("ETag");
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "3");
+        event.setHeaders(Map.of("if-none-match", etag));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(304, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().get("ETag"));
+        assertNull(response.getBody());
+        verify(metricsUseCase, times(1)).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("should serve metrics again once the version changed")
+    void should_serve_metrics_when_version_changed() {
+        // given
+        String portfolioId = "test-portfolio";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class)))
+            .thenReturn("2025-11-10.4.0.2", "2025-11-10.5.0.3");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle(portfolioId));
+        String etag = handler.handleMetricsRequest(createEvent("GET", portfolioId, "3")).getHeaders().get("ETag");
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "3");
+        event.setHeaders(Map.of("if-none-match", etag));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().get("ETag"));
+        verify(metricsUseCase, times(2)).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("should not share ETags between different reads of the same portfolio")
+    void should_not_share_etags_between_different_reads() {
+        // given
+        String portfolioId = "test-portfolio";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn("2025-11-10.4.0.2");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle(portfolioId));
+        String etag = handler.handleMetricsRequest(createEvent("GET", portfolioId, "3")).getHeaders().get("ETag");
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "6");
+        event.setHeaders(Map.of("if-none-match", etag));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("should return only the days since the cursor, with the cursor of the next sync")
+    void should_return_only_days_since_cursor() {
+        // given
+        String portfolioId = "test-portfolio";
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        String version = LocalDate.now() + ".5.0.3";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn(version);
+        when(metricsUseCase.getPortfolioMetricsSince(any(PortfolioId.class), eq(yesterday), any(), eq(true), eq(true)))
+            .thenReturn(createMockBundle(portfolioId));
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", portfolioId, "3");
+        event.setQueryStringParameters(Map.of("since", yesterday + ".4.0.2"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"cursor\":\"" + version + "\""));
+        assertNull(response.getHeaders().get("ETag"));
+        verify(metricsUseCase, never()).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("should answer no days without reading metrics when the cursor is current")
+    void should_answer_no_days_when_cursor_current() throws Exception {
+        // given
+        String version = LocalDate.now() + ".5.0.3";
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn(version);
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("since", version));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        MetricsResponseDto responseDto = jsonMapper.readValue(response.getBody(), MetricsResponseDto.class);
+        assertTrue(responseDto.dailyAgg() == null || responseDto.dailyAgg().isEmpty());
+        assertEquals(version, responseDto.meta().cursor());
+        verify(metricsUseCase, never()).getPortfolioMetricsSince(any(), any(), any(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("should return bad request when the cursor is malformed, in the future or with a coarse granularity")
+    void should_return_bad_request_when_cursor_invalid() {
+        // given
+        APIGatewayV2HTTPEvent malformed = createEvent("GET", "test-portfolio", "3");
+        malformed.setQueryStringParameters(Map.of("since", "yesterday"));
+        APIGatewayV2HTTPEvent future = createEvent("GET", "test-portfolio", "3");
+        future.setQueryStringParameters(Map.of("since", LocalDate.now().plusDays(1) + ".1.0.1"));
+        APIGatewayV2HTTPEvent weekly = createEvent("GET", "test-portfolio", "3");
+        weekly.setQueryStringParameters(Map.of("since", LocalDate.now() + ".1.0.1", "granularity", "week"));
+
+        // when / then
+        assertEquals(400, handler.handleMetricsRequest(malformed).getStatusCode());
+        assertEquals(400, handler.handleMetricsRequest(future).getStatusCode());
+        assertEquals(400, handler.handleMetricsRequest(weekly).getStatusCode());
+        verifyNoInteractions(metricsUseCase);
+    }
+
+    @Test
+    @DisplayName("should serve column arrays when the compact format is requested")
+    void should_serve_columns_when_compact_format_requested() throws Exception {
+        // given
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle("test-portfolio"));
+
+        APIGatewayV2HTTPEvent byParameter = createEvent("GET", "test-portfolio", "3");
+        byParameter.setQueryStringParameters(Map.of("format", "compact"));
+        APIGatewayV2HTTPEvent byAccept = createEvent("GET", "test-portfolio", "3");
+        byAccept.setHeaders(Map.of("accept", "application/vnd.porflyo.metrics.compact+json"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(byParameter);
+        APIGatewayV2HTTPResponse accepted = handler.handleMetricsRequest(byAccept);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertEquals(response.getBody(), accepted.getBody());
+        assertFalse(response.getBody().contains("\n"));
+
+        CompactMetricsResponseDto responseDto = jsonMapper.readValue(response.getBody(), CompactMetricsResponseDto.class);
+        assertEquals(List.of("2025-11-10"), responseDto.dailyAgg().dates());
+        assertEquals(List.of(4), responseDto.dailyAgg().raw().get("views"));
+        assertEquals(List.of(7318, 2954, 6302), responseDto.slots().get(0).heatmap().indexes());
+        assertFalse(response.getBody().contains("\"cells\""));
+    }
+
+    @Test
+    @DisplayName("should not share ETags between the compact and the default format")
+    void should_not_share_etags_between_formats() {
+        // given
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn("2025-11-10.4.0.2");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle("test-portfolio"));
+        String etag = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "3")).getHeaders().get("ETag");
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setQueryStringParameters(Map.of("format", "compact"));
+        event.setHeaders(Map.of("if-none-match", etag));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("should deflate live metrics when the client prefers deflate")
+    void should_deflate_live_metrics_when_client_prefers_deflate() throws Exception {
+        // given
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle("test-portfolio"));
+        String plain = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "3")).getBody();
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setHeaders(Map.of("accept-encoding", "gzip;q=0.5, deflate"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertEquals("deflate", response.getHeaders().get("Content-Encoding"));
+        assertTrue(response.getIsBase64Encoded());
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(response.getBody())))) {
+            assertEquals(plain, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("should serve a fresh dashboard view gzip-compressed without computing metrics")
+    void should_serve_fresh_view_without_computing_metrics() throws Exception {
+        // given
+        handler = handlerWithView(true);
+        String json = "{\"dailyAgg\":[]}";
+        when(viewRepository.findMetricsView(any(PortfolioId.class)))
+            .thenReturn(Optional.of(view("test-portfolio", Instant.now(), json)));
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setHeaders(Map.of("accept-encoding", "gzip, deflate, br"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals(json, gunzip(Base64.getDecoder().decode(response.getBody())));
+        assertTrue(response.getHeaders().get("ETag").startsWith("W/\"2025-11-10.4.0.2-"));
+        verify(metricsUseCase, never()).getMetricsVersion(any(PortfolioId.class));
+        verify(metricsUseCase, never()).getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("should decompress the dashboard view when the client does not accept gzip")
+    void should_decompress_view_when_gzip_not_accepted() {
+        // given
+        handler = handlerWithView(true);
+        String json = "{\"dailyAgg\":[]}";
+        when(viewRepository.findMetricsView(any(PortfolioId.class)))
+            .thenReturn(Optional.of(view("test-portfolio", Instant.now(), json)));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "3"));
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertEquals(json, response.getBody());
+        assertNull(response.getHeaders().get("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("should answer 304 from the dashboard view version")
+    void should_answer_not_modified_from_view_version() {
+        // given
+        handler = handlerWithView(true);
+        when(viewRepository.findMetricsView(any(PortfolioId.class)))
+            .thenReturn(Optional.of(view("test-portfolio", Instant.now(), "{}")));
+        String etag = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "3")).getHeaders().get("ETag");
+
+        APIGatewayV2HTTPEvent event = createEvent("GET", "test-portfolio", "3");
+        event.setHeaders(Map.of("if-none-match", etag));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(304, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("should render live and store the dashboard view when the stored one is stale")
+    void should_render_live_and_store_view_when_stale() throws Exception {
+        // given
+        handler = handlerWithView(true);
+        when(viewRepository.findMetricsView(any(PortfolioId.class)))
+            .thenReturn(Optional.of(view("test-portfolio", Instant.now().minusSeconds(600), "{}")));
+        when(metricsUseCase.getMetricsVersion(any(PortfolioId.class))).thenReturn("2025-11-10.5.0.3");
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle("test-portfolio"));
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "3"));
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        ArgumentCaptor<MetricsView> viewCaptor = ArgumentCaptor.forClass(MetricsView.class);
+        verify(viewRepository).saveMetricsView(viewCaptor.capture());
+        assertEquals("2025-11-10.5.0.3", viewCaptor.getValue().version());
+        assertEquals(3, viewCaptor.getValue().monthsBack());
+        assertEquals(response.getBody(), gunzip(viewCaptor.getValue().body()));
+    }
+
+    @Test
+    @DisplayName("should read other months and granularities live without the dashboard view")
+    void should_read_live_when_not_default_dashboard() {
+        // given
+        handler = handlerWithView(true);
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt()))
+            .thenReturn(createMockBundle("test-portfolio"));
+        when(metricsUseCase.getPortfolioMetricsWithSlots(any(PortfolioId.class), anyInt(), eq(RollupPeriod.WEEK)))
+            .thenReturn(createMockBundle("test-portfolio"));
+
+        APIGatewayV2HTTPEvent weekly = createEvent("GET", "test-portfolio", "3");
+        weekly.setQueryStringParameters(Map.of("granularity", "week"));
+
+        // when
+        APIGatewayV2HTTPResponse sixMonths = handler.handleMetricsRequest(createEvent("GET", "test-portfolio", "6"));
+        APIGatewayV2HTTPResponse weeks = handler.handleMetricsRequest(weekly);
+
+        // then
+        assertEquals(200, sixMonths.getStatusCode());
+        assertEquals(200, weeks.getStatusCode());
+        verifyNoInteractions(viewRepository);
+    }
+
     // Helper methods
 
+    private MetricsLambdaHandler handlerWithView(boolean enabled) {
+        MetricsDashboardView dashboardView = new MetricsDashboardView(metricsUseCase, metricsResponseMapper, jsonMapper,
+            viewRepository, new MetricsViewConfig(enabled, 3, 300, 30, 10000));
+        return new MetricsLambdaHandler(jsonMapper, metricsSaveMapper, metricsResponseMapper, metricsUseCase, metricsIngestUseCase, dashboardView);
+    }
+
+    private static MetricsView view(String portfolioId, Instant renderedAt, String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MetricsView(new PortfolioId(portfolioId), 3, "2025-11-10.4.0.2", renderedAt, bytes.toByteArray());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
     private APIGatewayV2HTTPEvent createEvent(String method, String portfolioId, String months) {
         APIGatewayV2HTTPEvent event = new APIGatewayV2HTTPEvent();
         
@@ -21,11 +21,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,13 +39,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
-import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.SessionMetrics;
 import com.porflyo.mapper.MetricsSaveRequestMapper;
 import com.porflyo.mapper.MetricsResponseMapper;
 import com.porflyo.model.ids.PortfolioId;
 import com.porflyo.model.metrics.Engagement;
 import com.porflyo.model.metrics.InteractionMetrics;
 import com.porflyo.model.metrics.ProjectMetrics;
+import com.porflyo.usecase.MetricsIngestUseCase;
 import com.porflyo.usecase.MetricsUseCase;
 
 import io.micronaut.json.JsonMapper;
@@ -63,12 +68,16 @@ class MetricsSaveHandlerTest {
     MetricsResponseMapper metricsResponseMapper;
 
     private MetricsUseCase metricsUseCase;
+    private MetricsIngestUseCase metricsIngestUseCase;
+    private MetricsDashboardView dashboardView;
     private MetricsLambdaHandler handler;
 
     @BeforeEach
     void setUp() {
         metricsUseCase = mock(MetricsUseCase.class);
-        handler = new MetricsLambdaHandler(jsonMapper, metricsSaveMapper, metricsResponseMapper, metricsUseCase);
+        metricsIngestUseCase = mock(MetricsIngestUseCase.class);
+        dashboardView = mock(MetricsDashboardView.class);
+        handler = new MetricsLambdaHandler(jsonMapper, metricsSaveMapper, metricsResponseMapper, metricsUseCase, metricsIngestUseCase, dashboardView);
     }
 
     @Test
@@ -76,6 +85,12 @@ class MetricsSaveHandlerTest {
     void should_save_metrics_successfully_when_valid_request() {
         // given
         APIGatewayV2HTTPEvent event = createEvent("POST", VALID_PORTFOLIO_ID, VALID_METRICS_REQUEST_BODY);
+        given(metricsUseCase.saveTodaySessions(anyList(), any())).willAnswer(invocation -> {
+            List<SessionMetrics> saved = invocation.getArgument(0);
+            Consumer<PortfolioId> onWritten = invocation.getArgument(1);
+            saved.forEach(session -> onWritten.accept(session.portfolioId()));
+            return 1;
+        });
 
         // when
         APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
@@ -84,18 +99,32 @@ class MetricsSaveHandlerTest {
         assertEquals(200, response.getStatusCode());
         assertTrue(response.getBody().contains("Metrics saved successfully"));
 
-        verify(metricsUseCase, times(1)).saveTodayPortfolioMetrics(
-            any(PortfolioId.class),
-            any(Engagement.class),
-            any(InteractionMetrics.class),
-            any(ProjectMetrics.class)
-        );
-
-        verify(metricsUseCase, times(1)).saveTodayDetailSlot(
-            any(PortfolioId.class),
-            any(HeatmapSnapshot.class),
-            anyList()
-        );
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionMetrics>> sessionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(metricsUseCase, times(1)).saveTodaySessions(sessionsCaptor.capture(), any());
+        verify(metricsUseCase, never()).saveTodayPortfolioMetrics(any(), any(), any(), any());
+        verify(metricsUseCase, never()).saveTodayDetailSlot(any(), any(), any());
+
+        List<SessionMetrics> sessions = sessionsCaptor.getValue();
+        assertEquals(1, sessions.size());
+        assertEquals(VALID_PORTFOLIO_ID, sessions.get(0).portfolioId().value());
+        verify(dashboardView).markStale(List.of(new PortfolioId(VALID_PORTFOLIO_ID)));
+        verify(dashboardView, never()).refreshAfterIngest(any());
+    }
+
+    @Test
+    @DisplayName("should not mark the view stale when the session is only buffered")
+    void should_not_mark_view_stale_when_session_only_buffered() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("POST", VALID_PORTFOLIO_ID, VALID_METRICS_REQUEST_BODY);
+        given(metricsUseCase.saveTodaySessions(anyList(), any())).willReturn(1);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        verify(dashboardView).markStale(List.of());
     }
 
     @Test
@@ -110,42 +139,23 @@ class MetricsSaveHandlerTest {
         // then
         assertEquals(200, response.getStatusCode());
 
-        ArgumentCaptor<Engagement> engagementCaptor = ArgumentCaptor.forClass(Engagement.class);
-        verify(metricsUseCase).saveTodayPortfolioMetrics(
-            any(PortfolioId.class),
-            engagementCaptor.capture(),
-            any(InteractionMetrics.class),
-            any(ProjectMetrics.class)
-        );
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionMetrics>> sessionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(metricsUseCase).saveTodaySessions(sessionsCaptor.capture(), any());
+        SessionMetrics session = sessionsCaptor.getValue().get(0);
 
-        Engagement engagement = engagementCaptor.getValue();
+        Engagement engagement = session.engagement();
         assertEquals(EXPECTED_ACTIVE_TIME, engagement.activeTime());
         assertEquals(EXPECTED_EMAIL_COPIES, engagement.emailCopies());
         assertEquals(EXPECTED_SOCIAL_CLICKS, engagement.socialClicks());
         assertEquals(EXPECTED_DESKTOP_VIEWS, engagement.devices().desktopViews());
         assertEquals(EXPECTED_MOBILE_VIEWS, engagement.devices().mobileTabletViews());
 
-        ArgumentCaptor<InteractionMetrics> scrollCaptor = ArgumentCaptor.forClass(InteractionMetrics.class);
-        verify(metricsUseCase).saveTodayPortfolioMetrics(
-            any(PortfolioId.class),
-            any(Engagement.class),
-            scrollCaptor.capture(),
-            any(ProjectMetrics.class)
-        );
-
-        InteractionMetrics scroll = scrollCaptor.getValue();
+        InteractionMetrics scroll = session.scroll();
         assertEquals(EXPECTED_SCROLL_SCORE, scroll.scoreTotal());
         assertEquals(EXPECTED_SCROLL_TIME, scroll.scrollTimeTotal());
 
-        ArgumentCaptor<ProjectMetrics> projectMetricsCaptor = ArgumentCaptor.forClass(ProjectMetrics.class);
-        verify(metricsUseCase).saveTodayPortfolioMetrics(
-            any(PortfolioId.class),
-            any(Engagement.class),
-            any(InteractionMetrics.class),
-            projectMetricsCaptor.capture()
-        );
-
-        ProjectMetrics cumProjects = projectMetricsCaptor.getValue();
+        ProjectMetrics cumProjects = session.cumProjects();
         assertEquals(EXPECTED_VIEW_TIME, cumProjects.viewTime());
         assertEquals(EXPECTED_EXPOSURES, cumProjects.exposures());
         assertEquals(EXPECTED_CODE_VIEWS, cumProjects.codeViews());
@@ -203,6 +213,111 @@ class MetricsSaveHandlerTest {
         verify(metricsUseCase, never()).saveTodayDetailSlot(any(), any(), any());
     }
 
+    @Test
+    @DisplayName("should save every session with a single use case call when batch request")
+    void should_save_every_session_with_single_call_when_batch_request() {
+        // given
+        String body = "[" + VALID_METRICS_REQUEST_BODY + "," + MOBILE_METRICS_REQUEST_BODY + "," + MISMATCHED_PORTFOLIO_REQUEST_BODY + "]";
+        APIGatewayV2HTTPEvent event = createEvent("POST", "batch", body);
+        given(metricsUseCase.saveTodaySessions(anyList(), any())).willAnswer(invocation -> {
+            Consumer<PortfolioId> onWritten = invocation.getArgument(1);
+            onWritten.accept(new PortfolioId(VALID_PORTFOLIO_ID));
+            onWritten.accept(new PortfolioId("XYZ789"));
+            return 2;
+        });
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"sessions\": 3"));
+        assertTrue(response.getBody().contains("\"portfolios\": 2"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionMetrics>> sessionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(metricsUseCase, times(1)).saveTodaySessions(sessionsCaptor.capture(), any());
+
+        List<SessionMetrics> sessions = sessionsCaptor.getValue();
+        assertEquals(3, sessions.size());
+        assertEquals(VALID_PORTFOLIO_ID, sessions.get(0).portfolioId().value());
+        assertEquals(EXPECTED_ACTIVE_TIME, sessions.get(1).engagement().activeTime());
+        assertEquals("XYZ789", sessions.get(2).portfolioId().value());
+
+        verify(dashboardView).markStale(List.of(new PortfolioId(VALID_PORTFOLIO_ID), new PortfolioId("XYZ789")));
+        verify(dashboardView, never()).refreshAfterIngest(any());
+        verify(metricsUseCase, never()).saveTodayPortfolioMetrics(any(), any(), any(), any());
+        verify(metricsUseCase, never()).saveTodayDetailSlot(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should enqueue the session and return 202 when ingest queue enabled")
+    void should_enqueue_session_and_return_202_when_queue_enabled() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("POST", VALID_PORTFOLIO_ID, VALID_METRICS_REQUEST_BODY);
+        given(metricsIngestUseCase.isQueueEnabled()).willReturn(true);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(202, response.getStatusCode());
+        verify(metricsIngestUseCase, times(1)).enqueue(anyList());
+        verify(metricsUseCase, never()).saveTodaySessions(anyList(), any());
+        verify(dashboardView, never()).markStale(any());
+    }
+
+    @Test
+    @DisplayName("should enqueue the whole batch and return 202 when ingest queue enabled")
+    void should_enqueue_batch_and_return_202_when_queue_enabled() {
+        // given
+        String body = "[" + VALID_METRICS_REQUEST_BODY + "," + MOBILE_METRICS_REQUEST_BODY + "]";
+        APIGatewayV2HTTPEvent event = createEvent("POST", "batch", body);
+        given(metricsIngestUseCase.isQueueEnabled()).willReturn(true);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(202, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"sessions\": 2"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionMetrics>> sessionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(metricsIngestUseCase, times(1)).enqueue(sessionsCaptor.capture());
+        assertEquals(2, sessionsCaptor.getValue().size());
+        verify(metricsUseCase, never()).saveTodaySessions(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should return 400 when batch is empty")
+    void should_return_400_when_batch_empty() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("POST", "batch", "[]");
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        verify(metricsUseCase, never()).saveTodaySessions(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should return 400 when batch body is not an array")
+    void should_return_400_when_batch_body_not_array() {
+        // given
+        APIGatewayV2HTTPEvent event = createEvent("POST", "batch", INVALID_JSON_BODY);
+
+        // when
+        APIGatewayV2HTTPResponse response = handler.handleMetricsRequest(event);
+
+        // then
+        assertEquals(400, response.getStatusCode());
+        assertTrue(response.getBody().contains("Invalid request body"));
+        verify(metricsUseCase, never()).saveTodaySessions(anyList(), any());
+    }
+
     // Helper methods
 
     private APIGatewayV2HTTPEvent createEvent(String method, String portfolioId, String body) {
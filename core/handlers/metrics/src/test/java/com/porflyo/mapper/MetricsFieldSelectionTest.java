@@ -0,0 +1,63 @@
+package com.porflyo.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.model.metrics.MetricsField;
+
+@DisplayName("Metrics Field Selection Tests")
+class MetricsFieldSelectionTest {
+
+    @Test
+    @DisplayName("should_select_every_field_when_blank")
+    void should_select_every_field_when_blank() {
+        assertSame(MetricsFieldSelection.ALL, MetricsFieldSelection.parse(null));
+        assertSame(MetricsFieldSelection.ALL, MetricsFieldSelection.parse(" "));
+        assertEquals(EnumSet.allOf(MetricsField.class), MetricsFieldSelection.ALL.storedFields());
+    }
+
+    @Test
+    @DisplayName("should_expand_a_section_to_its_fields")
+    void should_expand_a_section_to_its_fields() {
+        // When
+        MetricsFieldSelection selection = MetricsFieldSelection.parse("zScores");
+
+        // Then
+        assertTrue(selection.includes(MetricsFieldSelection.Z_SCORES, "visits"));
+        assertTrue(selection.includes(MetricsFieldSelection.Z_SCORES, "tffi"));
+        assertFalse(selection.includesAny(MetricsFieldSelection.RAW));
+        assertEquals(
+            EnumSet.of(MetricsField.VIEWS, MetricsField.SCROLL_SCORE, MetricsField.TTFI_SUM_MS, MetricsField.TTFI_COUNT),
+            selection.storedFields());
+    }
+
+    @Test
+    @DisplayName("should_read_the_counters_a_derived_field_depends_on")
+    void should_read_the_counters_a_derived_field_depends_on() {
+        // When
+        MetricsFieldSelection selection = MetricsFieldSelection.parse("raw.emailCopies, derived.tffiMeanMs");
+
+        // Then
+        assertTrue(selection.includes(MetricsFieldSelection.RAW, "emailCopies"));
+        assertFalse(selection.includes(MetricsFieldSelection.RAW, "views"));
+        assertFalse(selection.isAll());
+        assertEquals(
+            EnumSet.of(MetricsField.EMAIL_COPIES, MetricsField.TTFI_SUM_MS, MetricsField.TTFI_COUNT),
+            selection.storedFields());
+    }
+
+    @Test
+    @DisplayName("should_reject_unknown_fields")
+    void should_reject_unknown_fields() {
+        assertThrows(IllegalArgumentException.class, () -> MetricsFieldSelection.parse("raw.bounces"));
+        assertThrows(IllegalArgumentException.class, () -> MetricsFieldSelection.parse("projects"));
+    }
+}
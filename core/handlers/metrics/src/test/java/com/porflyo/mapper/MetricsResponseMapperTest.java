@@ -13,7 +13,10 @@ import org.junit.jupiter.api.Test;
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.dto.EnhancedPortfolioMetrics;
 import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
+import com.porflyo.dto.response.CompactMetricsResponseDto;
 import com.porflyo.dto.response.DailyAggregateDto;
+import com.porflyo.dto.response.DailyColumnsDto;
+import com.porflyo.dto.response.HeatmapColumnsDto;
 import com.porflyo.dto.response.MetricsResponseDto;
 import com.porflyo.dto.response.SlotDto;
 import com.porflyo.model.ids.PortfolioId;
@@ -175,5 +178,100 @@ class MetricsResponseMapperTest {
         assertEquals(0, result.dailyAgg().size());
         assertEquals(0, result.slots().size());
     }
-}
 
+    @Test
+    @DisplayName("should_leave_out_fields_and_sections_not_selected")
+    void should_leave_out_fields_and_sections_not_selected() {
+        // Given
+        PortfolioId portfolioId = new PortfolioId(TEST_PORTFOLIO_ID);
+        EnhancedPortfolioMetrics enhanced = new EnhancedPortfolioMetrics(
+            portfolioId,
+            LocalDate.of(2025, 11, 10),
+            new Engagement(ENHANCED_ACTIVE_TIME, ENHANCED_VIEWS, ENHANCED_QUALITY_VISITS, ENHANCED_EMAIL_COPIES,
+                ENHANCED_SOCIAL_CLICKS, new Devices(ENHANCED_DESKTOP_VIEWS, ENHANCED_MOBILE_VIEWS)),
+            new InteractionMetrics(ENHANCED_SCORE_TOTAL, ENHANCED_SCROLL_TIME_TOTAL, ENHANCED_TFFI_SUM_MS, ENHANCED_TFFI_COUNT),
+            new ProjectMetrics(ENHANCED_PROJECT_VIEW_TIME, ENHANCED_PROJECT_EXPOSURES, ENHANCED_PROJECT_CODE_VIEWS, ENHANCED_PROJECT_LIVE_VIEWS),
+            new DerivedMetrics(ENHANCED_DESKTOP_PCT, ENHANCED_MOBILE_PCT, ENHANCED_ENGAGEMENT_AVG, ENHANCED_AVG_SCROLL_TIME_MS,
+                ENHANCED_AVG_CARD_VIEW_TIME_MS, ENHANCED_TFFI_MEAN_MS, ENHANCED_EMAIL_CONVERSION, null, null),
+            new ZScores(ENHANCED_Z_VISITS, ENHANCED_Z_ENGAGEMENT, ENHANCED_Z_TFFI, null, null)
+        );
+        EnhancedPortfolioMetricsBundle bundle = new EnhancedPortfolioMetricsBundle(portfolioId, List.of(enhanced), List.of());
+
+        // When
+        MetricsResponseDto result = mapper.toMetricsResponseDto(bundle, MetricsFieldSelection.parse("raw.views,zScores"));
+
+        // Then
+        DailyAggregateDto dailyAgg = result.dailyAgg().get(0);
+        assertEquals("2025-11-10", dailyAgg.date());
+        assertEquals(ENHANCED_VIEWS, dailyAgg.raw().views());
+        assertNull(dailyAgg.raw().activeTime());
+        assertNull(dailyAgg.raw().desktopViews());
+        assertNull(dailyAgg.derived());
+        assertEquals(ENHANCED_Z_VISITS, dailyAgg.zScores().visits());
+        assertEquals(ENHANCED_Z_ENGAGEMENT, dailyAgg.zScores().engagement());
+    }
+
+    @Test
+    @DisplayName("should_map_bundle_to_columns_in_compact_format")
+    void should_map_bundle_to_columns_in_compact_format() {
+        // Given
+        PortfolioId portfolioId = new PortfolioId(TEST_PORTFOLIO_ID);
+        EnhancedPortfolioMetrics today = enhancedMetrics(portfolioId, LocalDate.of(2025, 11, 10));
+        EnhancedPortfolioMetrics yesterday = enhancedMetrics(portfolioId, LocalDate.of(2025, 11, 9));
+        PortfolioHeatmap heatmap = new PortfolioHeatmap("1.0", 512, List.of(7, 12), List.of(384, 117), List.of(3, 1));
+        DetailSlot slot = new DetailSlot(LocalDate.of(2025, 11, 10), heatmap,
+            List.of(new ProjectMetricsWithId(3, 3368, 98, 0, 1)));
+        EnhancedPortfolioMetricsBundle bundle = new EnhancedPortfolioMetricsBundle(
+            portfolioId, List.of(today, yesterday), List.of(slot));
+
+        // When
+        CompactMetricsResponseDto result = mapper.toCompactMetricsResponseDto(bundle, MetricsFieldSelection.ALL);
+
+        // Then
+        DailyColumnsDto days = result.dailyAgg();
+        assertEquals(List.of("2025-11-10", "2025-11-09"), days.dates());
+        assertEquals(List.of(ENHANCED_VIEWS, ENHANCED_VIEWS), days.raw().get("views"));
+        assertEquals(15, days.raw().size());
+        assertEquals(List.of(ENHANCED_DESKTOP_PCT, ENHANCED_DESKTOP_PCT), days.derived().get("desktopPct"));
+        assertEquals(List.of(ENHANCED_Z_VISITS, ENHANCED_Z_VISITS), days.zScores().get("visits"));
+        assertEquals(MetricsResponseMapper.CALC_VERSION, result.meta().calcVersion());
+
+        HeatmapColumnsDto cells = result.slots().get(0).heatmap();
+        assertEquals(512, cells.rows());
+        assertEquals(List.of(7, 12), cells.indexes());
+        assertEquals(List.of(384, 117), cells.values());
+        assertEquals(List.of(3, 1), cells.counts());
+        assertEquals(3, result.slots().get(0).projects().get(0).projectId());
+    }
+
+    @Test
+    @DisplayName("should_keep_only_selected_columns_in_compact_format")
+    void should_keep_only_selected_columns_in_compact_format() {
+        // Given
+        PortfolioId portfolioId = new PortfolioId(TEST_PORTFOLIO_ID);
+        EnhancedPortfolioMetricsBundle bundle = new EnhancedPortfolioMetricsBundle(
+            portfolioId, List.of(enhancedMetrics(portfolioId, LocalDate.of(2025, 11, 10))), List.of());
+
+        // When
+        CompactMetricsResponseDto result = mapper.toCompactMetricsResponseDto(bundle, MetricsFieldSelection.parse("raw.views,zScores"));
+
+        // Then
+        assertEquals(List.of("views"), List.copyOf(result.dailyAgg().raw().keySet()));
+        assertNull(result.dailyAgg().derived());
+        assertEquals(3, result.dailyAgg().zScores().size());
+    }
+
+    private static EnhancedPortfolioMetrics enhancedMetrics(PortfolioId portfolioId, LocalDate date) {
+        return new EnhancedPortfolioMetrics(
+            portfolioId,
+            date,
+            new Engagement(ENHANCED_ACTIVE_TIME, ENHANCED_VIEWS, ENHANCED_QUALITY_VISITS, ENHANCED_EMAIL_COPIES,
+                ENHANCED_SOCIAL_CLICKS, new Devices(ENHANCED_DESKTOP_VIEWS, ENHANCED_MOBILE_VIEWS)),
+            new InteractionMetrics(ENHANCED_SCORE_TOTAL, ENHANCED_SCROLL_TIME_TOTAL, ENHANCED_TFFI_SUM_MS, ENHANCED_TFFI_COUNT),
+            new ProjectMetrics(ENHANCED_PROJECT_VIEW_TIME, ENHANCED_PROJECT_EXPOSURES, ENHANCED_PROJECT_CODE_VIEWS, ENHANCED_PROJECT_LIVE_VIEWS),
+            new DerivedMetrics(ENHANCED_DESKTOP_PCT, ENHANCED_MOBILE_PCT, ENHANCED_ENGAGEMENT_AVG, ENHANCED_AVG_SCROLL_TIME_MS,
+                ENHANCED_AVG_CARD_VIEW_TIME_MS, ENHANCED_TFFI_MEAN_MS, ENHANCED_EMAIL_CONVERSION, null, null),
+            new ZScores(ENHANCED_Z_VISITS, ENHANCED_Z_ENGAGEMENT, ENHANCED_Z_TFFI, null, null)
+        );
+    }
+}
@@ -2,6 +2,7 @@ package com.porflyo.mapper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.Arrays;
 import java.util.List;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.SessionMetrics;
 import com.porflyo.dto.received.HeatmapDataDto;
 import com.porflyo.dto.received.MetricsSaveRequestDto;
 import com.porflyo.dto.received.ProjectMetricDto;
@@ -177,6 +179,20 @@ class MetricsSaveRequestMapperTest {
         assertEquals(2, second.liveViews());
     }
 
+    @Test
+    @DisplayName("should keep the beacon id when mapping to SessionMetrics")
+    void shouldKeepBeaconIdWhenMappingToSessionMetrics() {
+        // Given
+        MetricsSaveRequestDto dto = createSampleDto();
+
+        // When
+        SessionMetrics result = mapper.toSessionMetrics(dto);
+
+        // Then
+        assertEquals("beacon-1", result.beaconId());
+        assertNull(mapper.toSessionMetrics(createMobileDto()).beaconId());
+    }
+
     @Test
     @DisplayName("should not count as quality visit when no significant interactions")
     void shouldNotCountAsQualityVisitWhenNoSignificantInteractions() {
@@ -193,7 +209,8 @@ class MetricsSaveRequestMapperTest {
                 new ProjectMetricDto("2", 50, 0, 0, 0)
             ),
             new ScrollMetricDto(10, 5000),
-            createHeatmapData()
+            createHeatmapData(),
+            null
         );
 
         // When
@@ -219,7 +236,8 @@ class MetricsSaveRequestMapperTest {
                 new ProjectMetricDto("1", 100, 1, 1, 0)
             ),
             new ScrollMetricDto(10, 1000),
-            createHeatmapData()
+            createHeatmapData(),
+            null
         );
 
         // When
@@ -245,7 +263,8 @@ class MetricsSaveRequestMapperTest {
                 new ProjectMetricDto("1", 60000, 10, 0, 0)
             ),
             new ScrollMetricDto(50, 60000),
-            createHeatmapData()
+            createHeatmapData(),
+            null
         );
 
         // When
@@ -268,7 +287,8 @@ class MetricsSaveRequestMapperTest {
             2,
             createProjectMetrics(),
             new ScrollMetricDto(70, 17643),
-            createHeatmapData()
+            createHeatmapData(),
+            "beacon-1"
         );
     }
 
@@ -282,7 +302,8 @@ class MetricsSaveRequestMapperTest {
             1,
             createProjectMetrics(),
             new ScrollMetricDto(50, 10000),
-            createHeatmapData()
+            createHeatmapData(),
+            null
         );
     }
 
@@ -296,7 +317,8 @@ class MetricsSaveRequestMapperTest {
             1,
             createProjectMetrics(),
             new ScrollMetricDto(50, 10000),
-            createHeatmapData()
+            createHeatmapData(),
+            null
         );
     }
 
@@ -0,0 +1,124 @@
+package com.porflyo.usecase;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.porflyo.configuration.MetricsAdmissionConfig;
+import com.porflyo.configuration.MetricsConfig;
+import com.porflyo.configuration.MetricsDedupConfig;
+import com.porflyo.dto.EnhancedPortfolioMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.DerivedMetrics;
+import com.porflyo.model.metrics.Devices;
+import com.porflyo.model.metrics.Engagement;
+import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.ProjectMetrics;
+import com.porflyo.model.metrics.ZScores;
+import com.porflyo.ports.PortfolioMetricsRepository;
+import com.porflyo.utils.facade.PortfolioAnalyticsFacade;
+
+/**
+ * Scoring {@code days} daily metrics against the {@value #WINDOW_DAYS} days before each one:
+ * {@link MetricsUseCase#getPortfolioMetrics(PortfolioId, int)} with its rolling baseline, against
+ * the per-day baseline rebuild it replaced. The repository hands out the same list on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnhanceMetricsBenchmark {
+
+    private static final int WINDOW_DAYS = 28;
+    private static final PortfolioId PORTFOLIO_ID = new PortfolioId("portfolio-bench");
+
+    @Param({"90", "365", "730"})
+    int days;
+
+    private List<PortfolioMetrics> rawMetrics;     // most recent first
+    private MetricsUseCase metricsUseCase;
+
+    @Setup
+    public void setUp() {
+        rawMetrics = new ArrayList<>(days);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < days; i++) {
+            rawMetrics.add(metricsForDate(today.minusDays(i),
+                40 + (i * 37) % 160, 600_000 + (i * 7919) % 900_000, 20 + (i * 53) % 80));
+        }
+
+        PortfolioMetricsRepository repository = (PortfolioMetricsRepository) Proxy.newProxyInstance(
+            PortfolioMetricsRepository.class.getClassLoader(),
+            new Class<?>[] {PortfolioMetricsRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findPortfolioMetrics")) {
+                    return rawMetrics;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+        metricsUseCase = new MetricsUseCase(
+            repository, null, null,
+            new MetricsConfig(100, WINDOW_DAYS, false, 50, 30, 100, false, 5, 10, 200),
+            null,
+            new MetricsDedupConfig(false, 600, 1000, false),
+            new MetricsAdmissionConfig(false, 5, 50, 100, 1000),
+            null, null);
+    }
+
+    @Benchmark
+    public List<EnhancedPortfolioMetrics> rollingBaseline() {
+        return metricsUseCase.getPortfolioMetrics(PORTFOLIO_ID, 24);
+    }
+
+    /** enhanceMetricsWithAnalytics before the rolling baseline: the window is copied and rebuilt per day. */
+    @Benchmark
+    public List<EnhancedPortfolioMetrics> perDayBaselineRebuild() {
+        List<EnhancedPortfolioMetrics> enhancedMetrics = new ArrayList<>(rawMetrics.size());
+
+        for (int i = 0; i < rawMetrics.size(); i++) {
+            PortfolioMetrics currentMetric = rawMetrics.get(i);
+
+            DerivedMetrics derived = PortfolioAnalyticsFacade.calculateDerivedMetrics(
+                currentMetric.engagement(),
+                currentMetric.scroll(),
+                currentMetric.cumProjects()
+            );
+
+            List<PortfolioMetrics> baselineMetrics = rawMetrics.stream()
+                .skip(i + 1)
+                .limit(WINDOW_DAYS)
+                .collect(Collectors.toList());
+
+            ZScores zScores = PortfolioAnalyticsFacade.calculateZScores(currentMetric, baselineMetrics, WINDOW_DAYS);
+
+            enhancedMetrics.add(EnhancedPortfolioMetrics.from(currentMetric, derived, zScores));
+        }
+
+        return enhancedMetrics;
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static PortfolioMetrics metricsForDate(LocalDate date, int views, int activeTime, int scrollScore) {
+        return new PortfolioMetrics(
+            PORTFOLIO_ID,
+            date,
+            new Engagement(activeTime, views, views * 2 / 3, 2, 1, new Devices(views * 3 / 4, views / 4)),
+            new InteractionMetrics(scrollScore, activeTime / 100, 5000, views / 10),
+            new ProjectMetrics(activeTime / 2, views / 5, views / 10, views / 15)
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.porflyo.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+/**
+ * Per-portfolio admission control of the metrics ingest.
+ * <p>
+ * When {@code enabled}, each portfolio gets a token bucket refilled with
+ * {@code sessionsPerSecond} tokens per second and holding up to {@code burst} tokens;
+ * every write takes one, whether it carries a single session or a batch of the
+ * portfolio's sessions folded together. The sessions of a write arriving with an empty
+ * bucket are shed, and the next admitted write of the portfolio is scaled to count them
+ * too, up to {@code maxWeight} times its own sessions, so daily totals stay close to the
+ * real traffic while the writes into the portfolio's partition stay bounded. At most {@code maxPortfolios} buckets are
+ * kept in memory, the least recently used being dropped first.
+ */
+@ConfigurationProperties("metrics.admission")
+public record MetricsAdmissionConfig(
+    @Bindable(defaultValue = "false") boolean enabled,
+    @Bindable(defaultValue = "5") int sessionsPerSecond,
+    @Bindable(defaultValue = "50") int burst,
+    @Bindable(defaultValue = "100") int maxWeight,
+    @Bindable(defaultValue = "10000") int maxPortfolios
+) {}
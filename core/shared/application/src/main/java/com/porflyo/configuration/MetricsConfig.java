@@ -1,9 +1,37 @@
 package com.porflyo.configuration;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
 
+/**
+ * Metrics configuration.
+ * <p>
+ * The write-behind settings control the optional in-process buffer of
+ * {@code MetricsUseCase}: sessions of the same portfolio and day are folded in
+ * memory and written once the accumulator reaches {@code writeBehindMaxSessions}
+ * sessions, gets older than {@code writeBehindMaxAgeSeconds}, the buffer holds
+ * more than {@code writeBehindMaxPortfolios} accumulators, or the context shuts down.
+ * <p>
+ * With {@code atomicCountersEnabled} the daily aggregate is stored as per-day counters
+ * incremented server-side, so an ingest is a single write with no previous read.
+ * Switch it on or off at a day boundary: counters and shard values of the same day
+ * are summed when read back.
+ * <p>
+ * Today's aggregate and detail slot are written conditionally on the revision that was
+ * read. A rejected write is re-read, merged and retried up to {@code writeMaxAttempts}
+ * times, sleeping a random delay below {@code writeRetryBaseDelayMs * 2^retry} (capped
+ * at {@code writeRetryMaxDelayMs}) between attempts.
+ */
 @ConfigurationProperties("metrics")
 public record MetricsConfig(
     int heatmapCellCount,
-    int baselineWindowDays
+    int baselineWindowDays,
+    @Bindable(defaultValue = "false") boolean writeBehindEnabled,
+    @Bindable(defaultValue = "50") int writeBehindMaxSessions,
+    @Bindable(defaultValue = "30") int writeBehindMaxAgeSeconds,
+    @Bindable(defaultValue = "100") int writeBehindMaxPortfolios,
+    @Bindable(defaultValue = "false") boolean atomicCountersEnabled,
+    @Bindable(defaultValue = "5") int writeMaxAttempts,
+    @Bindable(defaultValue = "10") int writeRetryBaseDelayMs,
+    @Bindable(defaultValue = "200") int writeRetryMaxDelayMs
 ) {}
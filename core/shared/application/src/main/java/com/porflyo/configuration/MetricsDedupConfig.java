@@ -0,0 +1,21 @@
+package com.porflyo.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+/**
+ * Metrics beacon deduplication configuration.
+ * <p>
+ * When {@code enabled}, sessions that carry a beacon id already seen within
+ * {@code windowSeconds} are dropped before anything is read or written. The ids are
+ * kept in a per-container LRU of at most {@code lruMaxEntries} entries; with
+ * {@code persisted} an LRU miss is also checked against a per-portfolio, per-day filter
+ * stored next to the metrics, which catches retries that land on another container.
+ */
+@ConfigurationProperties("metrics.dedup")
+public record MetricsDedupConfig(
+    @Bindable(defaultValue = "true") boolean enabled,
+    @Bindable(defaultValue = "600") int windowSeconds,
+    @Bindable(defaultValue = "10000") int lruMaxEntries,
+    @Bindable(defaultValue = "false") boolean persisted
+) {}
@@ -0,0 +1,27 @@
+package com.porflyo.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+/**
+ * Metrics ingest queue configuration.
+ * <p>
+ * {@code queue} selects the {@code MetricsIngestQueue} adapter: {@code none} writes
+ * every beacon synchronously, {@code memory} uses the in-process queue meant for local
+ * runs and tests, and {@code sqs} uses Amazon SQS.
+ * <p>
+ * A drain receives batches of up to {@code batchSize} sessions, at most
+ * {@code maxBatchesPerDrain} times. Received sessions that are not acknowledged within
+ * {@code visibilityTimeoutSeconds} are delivered again. With {@code drainAfterRequest}
+ * the HTTP entrypoint drains the queue itself after each write request, standing in for
+ * the consumer function on local runs. The consumer function itself is handed its batches
+ * by the queue's SQS event source, sized in the SAM templates.
+ */
+@ConfigurationProperties("metrics.ingest")
+public record MetricsIngestConfig(
+    @Bindable(defaultValue = "none") String queue,
+    @Bindable(defaultValue = "100") int batchSize,
+    @Bindable(defaultValue = "50") int maxBatchesPerDrain,
+    @Bindable(defaultValue = "30") int visibilityTimeoutSeconds,
+    @Bindable(defaultValue = "false") boolean drainAfterRequest
+) {}
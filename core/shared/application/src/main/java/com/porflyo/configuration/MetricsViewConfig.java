@@ -0,0 +1,26 @@
+package com.porflyo.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+/**
+ * Materialized dashboard view configuration.
+ * <p>
+ * When {@code enabled}, the daily metrics response of the last {@code monthsBack} months is
+ * kept pre-serialized and gzip-compressed in one item per portfolio, and served as is while
+ * it is at most {@code maxAgeSeconds} old; older or missing views are rendered live and stored
+ * again. Written portfolios have their view dropped, at most once every
+ * {@code refreshDebounceSeconds} per portfolio and container unless a later view was stored
+ * since; the ingest consumer re-renders the views of the
+ * portfolios it wrote, at most once every {@code refreshDebounceSeconds} per portfolio and
+ * container, and once more after the window if written again within it, tracking at most
+ * {@code maxPortfolios} portfolios.
+ */
+@ConfigurationProperties("metrics.view")
+public record MetricsViewConfig(
+    @Bindable(defaultValue = "false") boolean enabled,
+    @Bindable(defaultValue = "3") int monthsBack,
+    @Bindable(defaultValue = "300") int maxAgeSeconds,
+    @Bindable(defaultValue = "30") int refreshDebounceSeconds,
+    @Bindable(defaultValue = "10000") int maxPortfolios
+) {}
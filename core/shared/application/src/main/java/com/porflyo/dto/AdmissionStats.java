@@ -0,0 +1,19 @@
+package com.porflyo.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Counters of the per-portfolio admission control of the metrics ingest.
+ *
+ * @param admitted sessions written since the container started
+ * @param shed sessions not written because their portfolio was over its limit
+ * @param trackedPortfolios portfolios whose token bucket is currently held in memory
+ */
+@Serdeable
+@Introspected
+public record AdmissionStats(
+    long admitted,
+    long shed,
+    int trackedPortfolios
+) {}
@@ -0,0 +1,19 @@
+package com.porflyo.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Counters of the metrics beacon deduplication.
+ *
+ * @param checked sessions with a beacon id checked since the container started
+ * @param duplicates sessions dropped because their beacon id was already seen
+ * @param remembered beacon ids currently held in the in-process LRU
+ */
+@Serdeable
+@Introspected
+public record BeaconDedupStats(
+    long checked,
+    long duplicates,
+    int remembered
+) {}
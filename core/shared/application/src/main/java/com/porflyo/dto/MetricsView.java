@@ -0,0 +1,23 @@
+package com.porflyo.dto;
+
+import java.time.Instant;
+
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Pre-rendered metrics response of a portfolio, kept to be served without reading or
+ * computing its metrics.
+ *
+ * @param portfolioId  the portfolio the view belongs to
+ * @param monthsBack   months of daily metrics the view covers
+ * @param version      metrics version the view was rendered from
+ * @param renderedAt   when the view was rendered
+ * @param body         gzip-compressed JSON response
+ */
+public record MetricsView(
+    PortfolioId portfolioId,
+    int monthsBack,
+    String version,
+    Instant renderedAt,
+    byte[] body
+) {}
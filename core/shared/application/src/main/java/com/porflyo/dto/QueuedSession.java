@@ -0,0 +1,18 @@
+package com.porflyo.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Session received from the metrics ingest queue.
+ *
+ * @param receipt handle used to acknowledge this delivery, or the id of the message when
+ *                the queue's event source acknowledges it
+ * @param session the queued session
+ */
+@Serdeable
+@Introspected
+public record QueuedSession(
+    String receipt,
+    SessionMetrics session
+) {}
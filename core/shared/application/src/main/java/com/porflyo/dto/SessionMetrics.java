@@ -0,0 +1,42 @@
+package com.porflyo.dto;
+
+import java.util.List;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.Engagement;
+import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.ProjectMetrics;
+import com.porflyo.model.metrics.ProjectMetricsWithId;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Metrics of a single visitor session, already mapped to domain objects.
+ * <p>
+ * {@code beaconId} is the optional id sent by the browser; a retried beacon carries the
+ * same id, so it can be dropped instead of being counted twice.
+ */
+@Serdeable
+@Introspected
+public record SessionMetrics(
+    PortfolioId portfolioId,
+    Engagement engagement,
+    InteractionMetrics scroll,
+    ProjectMetrics cumProjects,
+    HeatmapSnapshot heatmap,
+    List<ProjectMetricsWithId> projects,
+    @Nullable String beaconId
+) {
+
+    public SessionMetrics(
+            PortfolioId portfolioId,
+            Engagement engagement,
+            InteractionMetrics scroll,
+            ProjectMetrics cumProjects,
+            HeatmapSnapshot heatmap,
+            List<ProjectMetricsWithId> projects) {
+        this(portfolioId, engagement, scroll, cumProjects, heatmap, projects, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.porflyo.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Counters of the metrics write-behind buffer.
+ *
+ * @param bufferedSessions sessions received but not written yet
+ * @param flushedSessions sessions written since the container started
+ * @param pendingPortfolios portfolio/day accumulators currently held in memory
+ */
+@Serdeable
+@Introspected
+public record WriteBehindStats(
+    long bufferedSessions,
+    long flushedSessions,
+    int pendingPortfolios
+) {}
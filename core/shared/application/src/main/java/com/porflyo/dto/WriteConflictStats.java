@@ -0,0 +1,19 @@
+package com.porflyo.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Counters of the conditional writes on today's metrics.
+ *
+ * @param conflicts writes rejected because another writer changed the item first
+ * @param retries re-read/merge/write attempts made after a conflict
+ * @param exhausted writes given up after the last attempt
+ */
+@Serdeable
+@Introspected
+public record WriteConflictStats(
+    long conflicts,
+    long retries,
+    long exhausted
+) {}
@@ -0,0 +1,38 @@
+package com.porflyo.ports;
+
+import java.util.Optional;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+
+/**
+ * Repository interface for the persisted z-score baseline of each portfolio.
+ * <p>
+ * Keeps one small state per portfolio, advanced as days close, so today's z-scores can be
+ * computed without reading the days of the baseline window.
+ */
+public interface BaselineStateRepository {
+
+    /**
+     * Retrieves the baseline state of the given portfolio.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return An Optional containing the state if found, or empty if none is stored.
+     */
+    Optional<BaselineState> findBaselineState(PortfolioId portfolioId);
+
+    /**
+     * Stores the baseline state, unless the stored one already goes up to the same day or a later one.
+     *
+     * @param state The state to store.
+     * @return {@code true} if the state was stored, {@code false} if a state at least as recent was kept.
+     */
+    boolean saveBaselineState(BaselineState state);
+
+    /**
+     * Deletes the baseline state of the given portfolio.
+     *
+     * @param portfolioId The ID of the portfolio.
+     */
+    void deleteBaselineState(PortfolioId portfolioId);
+}
@@ -0,0 +1,40 @@
+package com.porflyo.ports;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Repository interface for the persisted filter of metrics beacon ids.
+ * <p>
+ * Keeps, per portfolio and day, the ids of the beacons already counted, so a retried
+ * beacon is recognised even when it reaches another container. Implementations may store
+ * hashes of the ids or a fixed-size filter over them; a collision drops a beacon, never
+ * counts one twice. Ids are passed in batches, so a batch of sessions costs one round of
+ * reads and writes, not one per beacon.
+ *
+ */
+public interface BeaconDedupRepository {
+
+    /**
+     * Records the beacon ids for the given portfolio and day, atomically with the check.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param date The day the beacons are counted in.
+     * @param beaconIds The ids sent with the beacons.
+     * @return the ids that were not recorded yet; the others are duplicates.
+     */
+    Set<String> markSeen(PortfolioId portfolioId, LocalDate date, Collection<String> beaconIds);
+
+    /**
+     * Removes beacon ids recorded by {@link #markSeen}, so the beacons can be counted when
+     * retried. Used when the write of their sessions fails.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param date The day the beacons were recorded in.
+     * @param beaconIds The ids sent with the beacons.
+     */
+    void forget(PortfolioId portfolioId, LocalDate date, Collection<String> beaconIds);
+}
@@ -0,0 +1,40 @@
+package com.porflyo.ports;
+
+import java.util.List;
+
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+
+/**
+ * Queue decoupling the metrics beacons from the DynamoDB writes.
+ * <p>
+ * The HTTP handler only enqueues the validated sessions; a consumer receives them
+ * in batches and writes them through {@code MetricsUseCase}. A received session stays
+ * hidden from other consumers until it is acknowledged or its visibility timeout
+ * expires, after which it is delivered again (at-least-once delivery).
+ *
+ */
+public interface MetricsIngestQueue {
+
+    /**
+     * Adds the given sessions to the queue.
+     *
+     * @param sessions sessions already validated and mapped to domain objects
+     */
+    void enqueue(List<SessionMetrics> sessions);
+
+    /**
+     * Receives up to {@code maxSessions} visible sessions, without waiting for new ones.
+     *
+     * @param maxSessions upper bound of sessions to return
+     * @return the received sessions with their receipts, empty if the queue is drained
+     */
+    List<QueuedSession> receive(int maxSessions);
+
+    /**
+     * Removes received sessions from the queue once they have been written.
+     *
+     * @param sessions sessions returned by {@link #receive(int)}
+     */
+    void acknowledge(List<QueuedSession> sessions);
+}
@@ -0,0 +1,50 @@
+package com.porflyo.ports;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import com.porflyo.dto.MetricsView;
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Repository interface for the materialized metrics view of each portfolio.
+ * <p>
+ * Keeps one pre-rendered response per portfolio, so dashboards can be served with a
+ * single key read.
+ */
+public interface MetricsViewRepository {
+
+    /**
+     * Retrieves the view of the given portfolio.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return An Optional containing the view if found, or empty if none is stored.
+     */
+    Optional<MetricsView> findMetricsView(PortfolioId portfolioId);
+
+    /**
+     * Stores the view, unless the stored one was rendered at the same time or later.
+     *
+     * @param view The view to store.
+     * @return {@code true} if the view was stored, {@code false} if a view at least as recent was kept
+     *         or the view is too large to be stored.
+     */
+    boolean saveMetricsView(MetricsView view);
+
+    /**
+     * Deletes the view of the given portfolio.
+     *
+     * @param portfolioId The ID of the portfolio.
+     */
+    void deleteMetricsView(PortfolioId portfolioId);
+
+    /**
+     * Deletes the view of the given portfolio only if it was rendered before {@code writtenAt},
+     * so a view rendered after a write, which already shows it, is kept.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param writtenAt   When the portfolio's metrics were written.
+     * @return {@code true} if a view was deleted, {@code false} if none was stored or it was rendered later.
+     */
+    boolean deleteMetricsViewRenderedBefore(PortfolioId portfolioId, Instant writtenAt);
+}
@@ -1,10 +1,15 @@
 package com.porflyo.ports;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.RollupPeriod;
 
 /**
  * Repository interface for managing {@link PortfolioMetrics} entities.
@@ -23,6 +28,27 @@ public interface PortfolioMetricsRepository {
      * @param metrics The PortfolioMetrics to save.
      */
     void saveTodayMetrics(PortfolioMetrics metrics);
+
+    /**
+     * Reads the metrics stored for today, applies {@code merge} to them and saves the result,
+     * only if no other writer changed today's metrics in between.
+     * <p>
+     * Nothing is saved when the write is rejected; the caller is expected to retry.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param merge Builds the metrics to save from the stored ones (empty if none).
+     * @return {@code true} if the metrics were saved, {@code false} on a concurrent write.
+     */
+    boolean mergeTodayMetrics(PortfolioId portfolioId, Function<Optional<PortfolioMetrics>, PortfolioMetrics> merge);
+
+    /**
+     * Adds the counters of the given PortfolioMetrics to the metrics stored for its day,
+     * creating them if needed. Implementations apply the increment atomically, without
+     * reading the stored metrics first.
+     *
+     * @param delta The counters to add.
+     */
+    void addTodayMetrics(PortfolioMetrics delta);
     
     /**
      * Retrieves portfolio metrics for the given portfolio ID over the past specified months.
@@ -42,6 +68,55 @@ public interface PortfolioMetricsRepository {
      */
     List<PortfolioMetrics> findPortfolioMetricsOneMonth(PortfolioId portfolioId, int monthsBack);
 
+    /**
+     * Retrieves the daily metrics of the given portfolio between two days, both included,
+     * sorted most recent first.
+     * <p>
+     * Implementations read only the items that can hold those days, so a range of a few days
+     * costs a few item reads whatever the month it falls in.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param from The first day to retrieve.
+     * @param to The last day to retrieve.
+     * @return A list of PortfolioMetrics, empty if {@code from} is after {@code to}.
+     */
+    List<PortfolioMetrics> findPortfolioMetricsBetween(PortfolioId portfolioId, LocalDate from, LocalDate to);
+
+    /**
+     * Same as {@link #findPortfolioMetricsBetween(PortfolioId, LocalDate, LocalDate)}, reading only
+     * the given counters. The counters left out are 0 in the returned metrics.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param from The first day to retrieve.
+     * @param to The last day to retrieve.
+     * @param fields The counters to read.
+     * @return A list of PortfolioMetrics, empty if {@code from} is after {@code to}.
+     */
+    List<PortfolioMetrics> findPortfolioMetricsBetween(PortfolioId portfolioId, LocalDate from, LocalDate to, Set<MetricsField> fields);
+
+    /**
+     * Retrieves the metrics of the past specified months summed per week or per month, one entry
+     * per period with data, dated on the first day of the period and sorted most recent first.
+     * <p>
+     * Implementations may serve periods that are over from stored rollups and only read the daily
+     * metrics of the periods still open. The oldest week may start before the oldest month.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param monthsBack The number of months back to retrieve metrics for.
+     * @param period The period to sum the daily metrics over.
+     * @return A list of PortfolioMetrics, one per period.
+     */
+    List<PortfolioMetrics> findPortfolioMetricsRollups(PortfolioId portfolioId, int monthsBack, RollupPeriod period);
+
+    /**
+     * Deletes the stored rollups of every period containing the given day, so they are summed
+     * again from the daily metrics on the next read. Called after a write to a past day.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param day The day that was written.
+     */
+    void deleteRollupsCovering(PortfolioId portfolioId, LocalDate day);
+
     
     /**
      * Retrieves the portfolio metrics for the current day.
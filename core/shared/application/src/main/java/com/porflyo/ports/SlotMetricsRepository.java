@@ -1,7 +1,9 @@
 package com.porflyo.ports;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.model.ids.PortfolioId;
@@ -29,6 +31,29 @@ public interface SlotMetricsRepository {
         PortfolioHeatmap heatmap,
         List<ProjectMetricsWithId> projects);
 
+    /**
+     * Reads today's detail slot, applies {@code merge} to it and saves the heatmap and
+     * projects of the result, only if no other writer changed the slot in between.
+     * <p>
+     * Nothing is saved when the write is rejected; the caller is expected to retry.
+     *
+     * @param portfolioId the unique identifier of the portfolio
+     * @param merge builds the slot to save from the stored one (empty if none for today)
+     * @return {@code true} if the slot was saved, {@code false} on a concurrent write
+     */
+    boolean mergeTodayMetrics(PortfolioId portfolioId, Function<Optional<DetailSlot>, DetailSlot> merge);
+
+    /**
+     * Same as {@link #mergeTodayMetrics(PortfolioId, Function)} for the slot of {@code day},
+     * which may be before today, e.g. for sessions buffered before midnight.
+     *
+     * @param portfolioId the unique identifier of the portfolio
+     * @param day the day the slot belongs to
+     * @param merge builds the slot to save from the stored one (empty if none for that day)
+     * @return {@code true} if the slot was saved, {@code false} on a concurrent write
+     */
+    boolean mergeDayMetrics(PortfolioId portfolioId, LocalDate day, Function<Optional<DetailSlot>, DetailSlot> merge);
+
     /**
      * Retrieves all stored metrics (detail slots) for the given portfolio ID.
      *
@@ -37,6 +62,18 @@ public interface SlotMetricsRepository {
      */
     List<DetailSlot> getAllMetrics(PortfolioId portfolioId);
 
+    /**
+     * Retrieves the stored detail slots dated on or after {@code since}, most recent first.
+     * <p>
+     * Implementations read only the slots those days are written to, so a recent {@code since}
+     * costs as many item reads as days since then.
+     *
+     * @param portfolioId the unique identifier of the portfolio
+     * @param since the first day to retrieve
+     * @return the detail slots from {@code since} to today, empty if {@code since} is after today
+     */
+    List<DetailSlot> findMetricsSince(PortfolioId portfolioId, LocalDate since);
+
     /**
      * Retrieves today's metrics (detail slot) for the given portfolio ID.
      *
@@ -0,0 +1,63 @@
+package com.porflyo.ports;
+
+import java.time.LocalDate;
+import java.util.function.UnaryOperator;
+
+import com.porflyo.dto.PortfolioMetricsSnapshot;
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Repository interface for updating today's aggregate {@link com.porflyo.model.metrics.PortfolioMetrics}
+ * and today's {@link com.porflyo.dto.DetailSlot} of a portfolio together.
+ * <p>
+ * Lets an ingest read and write both records in a single round trip each, and keeps
+ * the aggregate and the heatmap consistent with each other.
+ *
+ */
+public interface TodayMetricsRepository {
+
+    /**
+     * Reads today's aggregate and detail slot, applies {@code merge} to them and saves both
+     * results atomically, only if neither was changed by another writer in between.
+     * <p>
+     * The snapshot passed to {@code merge} has a null aggregate or slot when none is stored
+     * for today. Nothing is saved when the write is rejected; the caller is expected to retry.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param merge Builds the aggregate and slot to save from the stored ones.
+     * @return {@code true} if both were saved, {@code false} on a concurrent write.
+     */
+    boolean mergeTodayMetrics(PortfolioId portfolioId, UnaryOperator<PortfolioMetricsSnapshot> merge);
+
+    /**
+     * Same as {@link #mergeTodayMetrics(PortfolioId, UnaryOperator)} for the aggregate and detail
+     * slot of {@code day}, which may be before today, e.g. for sessions buffered before midnight.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param day The day the aggregate and slot belong to.
+     * @param merge Builds the aggregate and slot to save from the stored ones.
+     * @return {@code true} if both were saved, {@code false} on a concurrent write.
+     */
+    boolean mergeDayMetrics(PortfolioId portfolioId, LocalDate day, UnaryOperator<PortfolioMetricsSnapshot> merge);
+
+    /**
+     * Records that metrics of a day before today were written for the portfolio, e.g. when
+     * sessions buffered before midnight are flushed, so that {@link #findTodayVersion(PortfolioId)}
+     * changes even though none of today's metrics did. Called after the write.
+     *
+     * @param portfolioId The ID of the portfolio.
+     */
+    void recordLateWrite(PortfolioId portfolioId);
+
+    /**
+     * Returns a token that changes whenever today's metrics of the portfolio are written,
+     * whichever way they are written, and on every {@link #recordLateWrite(PortfolioId)},
+     * read without reading the metrics themselves.
+     * <p>
+     * Tokens of different days are not comparable; callers combine it with the date.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The change token, the same for every portfolio with nothing stored today.
+     */
+    String findTodayVersion(PortfolioId portfolioId);
+}
@@ -0,0 +1,20 @@
+package com.porflyo.usecase;
+
+import java.util.List;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.PortfolioHeatmap;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.ProjectMetricsWithId;
+
+/**
+ * Several sessions of one portfolio and day folded in memory, ready to be merged
+ * with the stored aggregate and detail slot in a single read-modify-write.
+ */
+record FoldedSessions(
+    PortfolioId portfolioId,
+    PortfolioMetrics aggregate,
+    PortfolioHeatmap heatmap,
+    List<ProjectMetricsWithId> projects,
+    int sessions
+) {}
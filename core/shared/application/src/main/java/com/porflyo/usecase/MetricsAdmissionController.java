@@ -0,0 +1,182 @@
+package com.porflyo.usecase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import com.porflyo.configuration.MetricsAdmissionConfig;
+import com.porflyo.dto.AdmissionStats;
+import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.ProjectMetricsWithId;
+import com.porflyo.utils.PortfolioMetricsUtils;
+
+/**
+ * Per-portfolio token bucket in front of the metrics writes of {@link MetricsUseCase}.
+ * <p>
+ * A write, of one session or of a portfolio's sessions folded together, is admitted when its
+ * portfolio's bucket holds a token. Otherwise its sessions are shed and added to the
+ * portfolio's carried weight; the next admitted write takes that weight and has its counters
+ * scaled by it, so one write stands for the shed sessions too. Heatmap cell counts are not
+ * scaled, only their values.
+ * <p>
+ * Buckets are kept in access order and the least recently used one is dropped when there
+ * are too many, losing at most its carried weight.
+ */
+final class MetricsAdmissionController {
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAtNanos;
+        int carriedWeight;
+
+        Bucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+
+    private final Map<PortfolioId, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxWeight;
+    private final int maxPortfolios;
+    private final LongSupplier nanoClock;
+
+    private long admitted;
+    private long shed;
+
+    MetricsAdmissionController(MetricsAdmissionConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    MetricsAdmissionController(MetricsAdmissionConfig config, LongSupplier nanoClock) {
+        this.tokensPerNano = Math.max(0, config.sessionsPerSecond()) / 1_000_000_000d;
+        this.burst = Math.max(1, config.burst());
+        this.maxWeight = Math.max(1, config.maxWeight());
+        this.maxPortfolios = Math.max(1, config.maxPortfolios());
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token for one write of a single session of the portfolio.
+     *
+     * @param portfolioId portfolio of the session
+     * @return number of sessions the admitted session stands for, or 0 if it is shed
+     */
+    int admit(PortfolioId portfolioId) {
+        return admit(portfolioId, 1);
+    }
+
+    /**
+     * Takes a token for one write of {@code sessions} sessions of the portfolio. An admitted
+     * write takes the carried weight too, up to {@code maxWeight} per session.
+     *
+     * @param portfolioId portfolio of the sessions
+     * @param sessions    number of sessions folded into the write
+     * @return number of sessions the admitted write stands for, or 0 if it is shed
+     */
+    synchronized int admit(PortfolioId portfolioId, int sessions) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = bucket(portfolioId, now);
+
+        bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAtNanos) * tokensPerNano);
+        bucket.refilledAtNanos = now;
+
+        if (bucket.tokens < 1) {
+            bucket.carriedWeight = (int) Math.min(Integer.MAX_VALUE, (long) bucket.carriedWeight + sessions);
+            shed += sessions;
+            return 0;
+        }
+
+        bucket.tokens -= 1;
+        int weight = (int) Math.min(Integer.MAX_VALUE,
+            Math.min((long) sessions * maxWeight, (long) sessions + bucket.carriedWeight));
+        bucket.carriedWeight -= weight - sessions;
+        admitted += sessions;
+        return weight;
+    }
+
+    /**
+     * Takes one token for the write of the sessions of a portfolio, folded together.
+     * The weight of an admitted write is spread over its sessions, so the folded write is
+     * scaled by the weight over the number of sessions.
+     *
+     * @param portfolioId portfolio of the sessions
+     * @param sessions    sessions of the write
+     * @return the sessions to write instead, or an empty list if they are shed
+     */
+    List<SessionMetrics> admit(PortfolioId portfolioId, List<SessionMetrics> sessions) {
+        int weight = admit(portfolioId, sessions.size());
+        if (weight == 0) {
+            return List.of();
+        }
+
+        int perSession = weight / sessions.size();
+        int remainder = weight % sessions.size();
+        List<SessionMetrics> admittedSessions = new ArrayList<>(sessions.size());
+        for (int i = 0; i < sessions.size(); i++) {
+            admittedSessions.add(weighted(sessions.get(i), perSession + (i < remainder ? 1 : 0)));
+        }
+
+        return admittedSessions;
+    }
+
+    synchronized AdmissionStats stats() {
+        return new AdmissionStats(admitted, shed, buckets.size());
+    }
+
+    /**
+     * Scales every counter of the session by {@code weight}; heatmap cells keep their count.
+     */
+    static SessionMetrics weighted(SessionMetrics session, int weight) {
+        if (weight == 1) {
+            return session;
+        }
+
+        List<ProjectMetricsWithId> projects = session.projects() == null ? null : session.projects().stream()
+            .map(p -> new ProjectMetricsWithId(
+                p.id(),
+                PortfolioMetricsUtils.scale(p.viewTime(), weight),
+                PortfolioMetricsUtils.scale(p.exposures(), weight),
+                PortfolioMetricsUtils.scale(p.codeViews(), weight),
+                PortfolioMetricsUtils.scale(p.liveViews(), weight)))
+            .toList();
+
+        HeatmapSnapshot heatmap = session.heatmap();
+        HeatmapSnapshot weightedHeatmap = heatmap == null || heatmap.Values() == null ? heatmap : new HeatmapSnapshot(
+            heatmap.version(),
+            heatmap.columns(),
+            heatmap.Indexes(),
+            heatmap.Values().stream().map(v -> PortfolioMetricsUtils.scale(v, weight)).toList());
+
+        return new SessionMetrics(
+            session.portfolioId(),
+            PortfolioMetricsUtils.scaleEngagement(session.engagement(), weight),
+            PortfolioMetricsUtils.scaleInteraction(session.scroll(), weight),
+            PortfolioMetricsUtils.scaleProjectMetrics(session.cumProjects(), weight),
+            weightedHeatmap,
+            projects,
+            session.beaconId());
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private Bucket bucket(PortfolioId portfolioId, long now) {
+        Bucket bucket = buckets.get(portfolioId);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxPortfolios) {
+            buckets.remove(buckets.keySet().iterator().next());
+        }
+
+        bucket = new Bucket(burst, now);
+        buckets.put(portfolioId, bucket);
+        return bucket;
+    }
+}
@@ -0,0 +1,189 @@
+package com.porflyo.usecase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.MetricsDedupConfig;
+import com.porflyo.dto.BeaconDedupStats;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.BeaconDedupRepository;
+
+/**
+ * Drops metrics sessions whose beacon id was already seen, for {@link MetricsUseCase}.
+ * <p>
+ * Ids are remembered in process, oldest first, until they leave the configured window or
+ * the map holds more than the configured number of entries. Only an id missing from the
+ * map is checked against the persisted filter, when there is one, in one call per portfolio
+ * and batch, so a retry that reaches the same container costs no I/O. Sessions without a
+ * beacon id are always kept.
+ * <p>
+ * The persisted filter fails open: if it cannot be reached the session is kept, since
+ * losing a beacon is worse than the rare double count.
+ */
+final class MetricsBeaconDeduplicator {
+    private static final Logger log = LoggerFactory.getLogger(MetricsBeaconDeduplicator.class);
+
+    private record Key(PortfolioId portfolioId, String beaconId) {}
+
+    private final Map<Key, Long> seen = new LinkedHashMap<>();
+    private final BeaconDedupRepository repository;
+    private final long windowNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private long checked;
+    private long duplicates;
+
+    MetricsBeaconDeduplicator(BeaconDedupRepository repository, MetricsDedupConfig config) {
+        this(repository, config, System::nanoTime);
+    }
+
+    MetricsBeaconDeduplicator(BeaconDedupRepository repository, MetricsDedupConfig config, LongSupplier nanoClock) {
+        this.repository = repository;
+        this.windowNanos = Math.max(0, config.windowSeconds()) * 1_000_000_000L;
+        this.maxEntries = Math.max(1, config.lruMaxEntries());
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the sessions whose beacon id was not seen yet, in their original order, and
+     * remembers their ids. The ids missing from the map are checked against the persisted
+     * filter with one call per portfolio.
+     *
+     * @param sessions sessions to check
+     * @param date day the sessions are counted in
+     * @return the sessions to write
+     */
+    List<SessionMetrics> dropDuplicates(List<SessionMetrics> sessions, LocalDate date) {
+        List<SessionMetrics> claimed = new ArrayList<>(sessions.size());
+        Map<PortfolioId, List<String>> missed = new LinkedHashMap<>();
+
+        for (SessionMetrics session : sessions) {
+            String beaconId = session.beaconId();
+            if (beaconId == null || beaconId.isBlank()) {
+                claimed.add(session);
+                continue;
+            }
+
+            if (!claim(new Key(session.portfolioId(), beaconId))) {
+                dropped(session);
+                continue;
+            }
+
+            claimed.add(session);
+            missed.computeIfAbsent(session.portfolioId(), id -> new ArrayList<>()).add(beaconId);
+        }
+
+        if (repository == null || missed.isEmpty()) {
+            return claimed;
+        }
+
+        Map<PortfolioId, Set<String>> recorded = new HashMap<>();
+        missed.forEach((portfolioId, beaconIds) -> recorded.put(portfolioId, markSeenPersisted(portfolioId, date, beaconIds)));
+
+        List<SessionMetrics> unique = new ArrayList<>(claimed.size());
+        for (SessionMetrics session : claimed) {
+            String beaconId = session.beaconId();
+            if (beaconId != null && !beaconId.isBlank() && !recorded.get(session.portfolioId()).contains(beaconId)) {
+                dropped(session);
+                continue;
+            }
+            unique.add(session);
+        }
+
+        return unique;
+    }
+
+    /**
+     * Forgets the beacon ids of sessions that could not be written, so their retries are counted.
+     *
+     * @param sessions sessions returned by {@link #dropDuplicates} whose write failed
+     * @param date day the sessions were checked for
+     */
+    void forget(List<SessionMetrics> sessions, LocalDate date) {
+        Map<PortfolioId, List<String>> byPortfolio = new LinkedHashMap<>();
+        for (SessionMetrics session : sessions) {
+            String beaconId = session.beaconId();
+            if (beaconId == null || beaconId.isBlank()) {
+                continue;
+            }
+
+            synchronized (this) {
+                seen.remove(new Key(session.portfolioId(), beaconId));
+            }
+            byPortfolio.computeIfAbsent(session.portfolioId(), id -> new ArrayList<>()).add(beaconId);
+        }
+
+        if (repository == null) {
+            return;
+        }
+
+        byPortfolio.forEach((portfolioId, beaconIds) -> {
+            try {
+                repository.forget(portfolioId, date, beaconIds);
+            } catch (RuntimeException e) {
+                log.warn("Could not forget {} beacons for portfolio {}", beaconIds.size(), portfolioId, e);
+            }
+        });
+    }
+
+    synchronized BeaconDedupStats stats() {
+        return new BeaconDedupStats(checked, duplicates, seen.size());
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    /** Remembers the key, returning {@code false} if it is already remembered within the window. */
+    private synchronized boolean claim(Key key) {
+        long now = nanoClock.getAsLong();
+        evictExpired(now);
+        checked++;
+
+        if (seen.containsKey(key)) {
+            return false;
+        }
+
+        if (seen.size() >= maxEntries) {
+            seen.remove(seen.keySet().iterator().next());
+        }
+        seen.put(key, now);
+        return true;
+    }
+
+    private void dropped(SessionMetrics session) {
+        countDuplicate();
+        log.debug("Dropped duplicate beacon {} for portfolio {}", session.beaconId(), session.portfolioId());
+    }
+
+    private synchronized void countDuplicate() {
+        duplicates++;
+    }
+
+    private Set<String> markSeenPersisted(PortfolioId portfolioId, LocalDate date, List<String> beaconIds) {
+        try {
+            return repository.markSeen(portfolioId, date, beaconIds);
+        } catch (RuntimeException e) {
+            log.warn("Beacon dedup filter unavailable for portfolio {}, keeping {} beacons", portfolioId, beaconIds.size(), e);
+            return new HashSet<>(beaconIds);
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Long> it = seen.values().iterator();
+        while (it.hasNext() && now - it.next() >= windowNanos) {
+            it.remove();
+        }
+    }
+}
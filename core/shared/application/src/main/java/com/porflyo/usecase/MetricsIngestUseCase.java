@@ -0,0 +1,167 @@
+package com.porflyo.usecase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.porflyo.configuration.MetricsIngestConfig;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.MetricsIngestQueue;
+
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Entry point of the metrics beacons.
+ * <p>
+ * When an ingest queue is configured, sessions are only enqueued and a consumer
+ * writes them later in batches through {@link MetricsUseCase}, either handed over by the
+ * queue's event source or drained in-process; otherwise they are written synchronously,
+ * as before.
+ */
+@Singleton
+public class MetricsIngestUseCase {
+    private static final Logger log = LoggerFactory.getLogger(MetricsIngestUseCase.class);
+    private final MetricsUseCase metricsUseCase;
+    private final MetricsIngestQueue ingestQueue;
+    private final MetricsIngestConfig ingestConfig;
+
+    @Inject
+    public MetricsIngestUseCase(
+            MetricsUseCase metricsUseCase,
+            @Nullable MetricsIngestQueue ingestQueue,
+            MetricsIngestConfig ingestConfig
+    ) {
+        this.metricsUseCase = metricsUseCase;
+        this.ingestQueue = ingestQueue;
+        this.ingestConfig = ingestConfig;
+    }
+
+    /**
+     * @return {@code true} if sessions are queued instead of written synchronously
+     */
+    public boolean isQueueEnabled() {
+        return ingestQueue != null;
+    }
+
+    /**
+     * Adds the sessions to the ingest queue; they are written by a later {@link #drain()}.
+     *
+     * @param sessions sessions already validated and mapped to domain objects
+     * @throws IllegalStateException if no ingest queue is configured
+     */
+    public void enqueue(List<SessionMetrics> sessions) {
+        if (ingestQueue == null) {
+            throw new IllegalStateException("No metrics ingest queue configured");
+        }
+
+        if (!sessions.isEmpty()) {
+            ingestQueue.enqueue(sessions);
+            log.debug("Queued {} metrics sessions", sessions.size());
+        }
+    }
+
+    /**
+     * Receives queued sessions in batches and writes each batch with a single
+     * {@link MetricsUseCase#saveTodaySessions(List)} call, acknowledging it once written.
+     * <p>
+     * A batch whose write fails is not acknowledged, so it is delivered again after the
+     * visibility timeout, and the exception is propagated to the caller.
+     *
+     * @return number of sessions written
+     */
+    public int drain() {
+        return drain(written -> {});
+    }
+
+    /**
+     * Same as {@link #drain()}, passing each batch to {@code onWritten} once it is written.
+     *
+     * @param onWritten receives the sessions of each batch written
+     * @return number of sessions written
+     */
+    public int drain(Consumer<List<SessionMetrics>> onWritten) {
+        if (ingestQueue == null) {
+            return 0;
+        }
+
+        int batchSize = Math.max(1, ingestConfig.batchSize());
+        int maxBatches = Math.max(1, ingestConfig.maxBatchesPerDrain());
+        int drained = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<QueuedSession> received = ingestQueue.receive(batchSize);
+            if (received.isEmpty()) {
+                break;
+            }
+
+            List<SessionMetrics> sessions = received.stream().map(QueuedSession::session).toList();
+            metricsUseCase.saveTodaySessions(sessions);
+            ingestQueue.acknowledge(received);
+            onWritten.accept(sessions);
+            drained += received.size();
+        }
+
+        log.debug("Drained {} metrics sessions from the ingest queue", drained);
+        return drained;
+    }
+
+    /**
+     * Writes a batch of sessions delivered by the queue's event source, with one
+     * {@link MetricsUseCase#saveTodaySessions(List)} call per portfolio. A failed write only
+     * fails the messages of its portfolio; the others are written and not delivered again.
+     *
+     * @param delivered sessions of the batch, each with the id of the message that carried it
+     * @param onWritten receives the sessions of each portfolio written
+     * @return ids of the messages whose sessions could not be written, to be delivered again
+     */
+    public List<String> writeDelivered(List<QueuedSession> delivered, Consumer<List<SessionMetrics>> onWritten) {
+        Map<PortfolioId, List<QueuedSession>> byPortfolio = new LinkedHashMap<>();
+        for (QueuedSession queued : delivered) {
+            byPortfolio.computeIfAbsent(queued.session().portfolioId(), id -> new ArrayList<>()).add(queued);
+        }
+
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<PortfolioId, List<QueuedSession>> entry : byPortfolio.entrySet()) {
+            List<SessionMetrics> sessions = entry.getValue().stream().map(QueuedSession::session).toList();
+            try {
+                metricsUseCase.saveTodaySessions(sessions);
+                onWritten.accept(sessions);
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} metrics sessions of portfolio {}, they will be delivered again: {}",
+                    sessions.size(), entry.getKey().value(), e.getMessage());
+                entry.getValue().forEach(queued -> failed.add(queued.receipt()));
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Drains the queue in-process when configured to, standing in for the consumer function.
+     *
+     * @return number of sessions written
+     */
+    public int drainAfterRequest() {
+        return drainAfterRequest(written -> {});
+    }
+
+    /**
+     * Same as {@link #drainAfterRequest()}, passing each batch to {@code onWritten} once it is
+     * written, as {@link #drain(Consumer)} does for the consumer function.
+     *
+     * @param onWritten receives the sessions of each batch written
+     * @return number of sessions written
+     */
+    public int drainAfterRequest(Consumer<List<SessionMetrics>> onWritten) {
+        return ingestConfig.drainAfterRequest() ? drain(onWritten) : 0;
+    }
+}
@@ -1,18 +1,33 @@
 package com.porflyo.usecase;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.porflyo.configuration.MetricsAdmissionConfig;
 import com.porflyo.configuration.MetricsConfig;
+import com.porflyo.configuration.MetricsDedupConfig;
+import com.porflyo.dto.AdmissionStats;
+import com.porflyo.dto.BeaconDedupStats;
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.dto.EnhancedDetailSlot;
 import com.porflyo.dto.EnhancedPortfolioMetrics;
@@ -20,41 +35,116 @@ import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
 import com.porflyo.dto.EnhancedPortfolioMetricsSnapshot;
 import com.porflyo.dto.EnhancedProjectMetricsWithId;
 import com.porflyo.dto.HeatmapSnapshot;
-
+import com.porflyo.dto.PortfolioMetricsSnapshot;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.dto.WriteBehindStats;
+import com.porflyo.dto.WriteConflictStats;
+import com.porflyo.exceptions.metrics.MetricsWriteConflictException;
 import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
 import com.porflyo.model.metrics.DerivedMetrics;
 import com.porflyo.model.metrics.Engagement;
 import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioHeatmap;
 import com.porflyo.model.metrics.PortfolioMetrics;
 import com.porflyo.model.metrics.ProjectMetrics;
 import com.porflyo.model.metrics.ProjectMetricsWithId;
+import com.porflyo.model.metrics.RollupPeriod;
 import com.porflyo.model.metrics.ZScores;
+import com.porflyo.ports.BaselineStateRepository;
+import com.porflyo.ports.BeaconDedupRepository;
+import com.porflyo.ports.MetricsViewRepository;
 import com.porflyo.ports.PortfolioMetricsRepository;
 import com.porflyo.ports.SlotMetricsRepository;
+import com.porflyo.ports.TodayMetricsRepository;
 import com.porflyo.utils.derived.ProjectDerivedCalculator;
 import com.porflyo.utils.facade.PortfolioAnalyticsFacade;
+import com.porflyo.utils.zscore.RollingBaseline;
+import com.porflyo.utils.HeatmapCells;
 import com.porflyo.utils.HeatmapUtils;
 import com.porflyo.utils.PortfolioMetricsUtils;
 
+import io.micronaut.core.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
-
+import jakarta.inject.Singleton;
+
+/**
+ * Metrics use case.
+ * <p>
+ * When {@code metrics.write-behind-enabled} is set, batches saved through
+ * {@link #saveTodaySessions(List)} are kept in an in-process buffer and written
+ * per portfolio and day according to the flush policy of {@link MetricsConfig}.
+ * The bean is a singleton so the buffer is shared by every caller and flushed
+ * when the context shuts down.
+ * <p>
+ * When {@code metrics.dedup.enabled} is set, sessions whose beacon id was already seen
+ * are dropped by {@link #saveTodaySessions(List)} before anything is read or written.
+ * When {@code metrics.admission.enabled} is set, each portfolio's writes are limited by
+ * a token bucket; the sessions of a write over the limit are shed and their count carried
+ * as a weight by the next admitted write.
+ */
+@Singleton
 public class MetricsUseCase {
     private static final Logger log = LoggerFactory.getLogger(MetricsUseCase.class);
     private final PortfolioMetricsRepository portfolioMetricsRepository;
     private final SlotMetricsRepository slotMetricsRepository;
+    private final TodayMetricsRepository todayMetricsRepository;
     private final MetricsConfig metricsConfig;
+    private final MetricsWriteBehindBuffer writeBehindBuffer;
+    private final MetricsBeaconDeduplicator beaconDeduplicator;
+    private final MetricsAdmissionController admissionController;
+    private final BaselineStateRepository baselineStateRepository;
+    private final MetricsViewRepository metricsViewRepository;
+    private final LongSupplier millisClock;
+
+    private final AtomicLong writeConflicts = new AtomicLong();
+    private final AtomicLong writeRetries = new AtomicLong();
+    private final AtomicLong writeRetriesExhausted = new AtomicLong();
 
     @Inject
     public MetricsUseCase(
             PortfolioMetricsRepository portfolioMetricsRepository,
             SlotMetricsRepository slotMetricsRepository,
-            MetricsConfig metricsConfig
+            TodayMetricsRepository todayMetricsRepository,
+            MetricsConfig metricsConfig,
+            @Nullable BeaconDedupRepository beaconDedupRepository,
+            MetricsDedupConfig dedupConfig,
+            MetricsAdmissionConfig admissionConfig,
+            @Nullable BaselineStateRepository baselineStateRepository,
+            @Nullable MetricsViewRepository metricsViewRepository
+    ) {
+        this(portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, dedupConfig, admissionConfig, baselineStateRepository, metricsViewRepository,
+            System::currentTimeMillis);
+    }
+
+    MetricsUseCase(
+            PortfolioMetricsRepository portfolioMetricsRepository,
+            SlotMetricsRepository slotMetricsRepository,
+            TodayMetricsRepository todayMetricsRepository,
+            MetricsConfig metricsConfig,
+            BeaconDedupRepository beaconDedupRepository,
+            MetricsDedupConfig dedupConfig,
+            MetricsAdmissionConfig admissionConfig,
+            BaselineStateRepository baselineStateRepository,
+            MetricsViewRepository metricsViewRepository,
+            LongSupplier millisClock
     ) {
 
         this.portfolioMetricsRepository = portfolioMetricsRepository;
         this.slotMetricsRepository = slotMetricsRepository;
+        this.todayMetricsRepository = todayMetricsRepository;
         this.metricsConfig = metricsConfig;
+        this.writeBehindBuffer = metricsConfig.writeBehindEnabled() ? new MetricsWriteBehindBuffer(metricsConfig) : null;
+        this.beaconDeduplicator = dedupConfig.enabled()
+            ? new MetricsBeaconDeduplicator(dedupConfig.persisted() ? beaconDedupRepository : null, dedupConfig)
+            : null;
+        this.admissionController = admissionConfig.enabled() ? new MetricsAdmissionController(admissionConfig) : null;
+        this.baselineStateRepository = baselineStateRepository;
+        this.metricsViewRepository = metricsViewRepository;
+        this.millisClock = millisClock;
     }
 
 
@@ -63,6 +153,9 @@ public class MetricsUseCase {
     /**
      * Save the aggregate PortfolioMetrics for today.
      * The repository implementation is responsible for creating or updating the record as needed.
+     * The stored value is merged and written conditionally, retrying on concurrent writes.
+     * With atomic counters enabled the values are added server-side, without reading today's metrics.
+     * With admission control enabled, nothing is saved when the portfolio is over its limit.
      *
      * @param portfolioId target portfolio
      * @param engagement today's engagement metrics
@@ -76,30 +169,40 @@ public class MetricsUseCase {
             ProjectMetrics cumProjects
     ){
 
-        Optional<PortfolioMetrics> existing = portfolioMetricsRepository.getTodayMetrics(portfolioId);
-        PortfolioMetrics toSave;
+        int weight = admissionController == null ? 1 : admissionController.admit(portfolioId);
+        if (weight == 0) {
+            log.debug("Shed today's portfolio metrics for portfolio {}", portfolioId);
+            return;
+        }
 
-        if (existing.isPresent()) {
-            toSave = PortfolioMetricsUtils.updatePortfolioMetrics(
-                    existing.get(),
-                    engagement,
-                    scroll,
-                    cumProjects);
-            
-            log.debug("Updating existing metrics for portfolio {} on date {}", portfolioId, existing.get().date());
+        Engagement weightedEngagement = weight == 1 ? engagement : PortfolioMetricsUtils.scaleEngagement(engagement, weight);
+        InteractionMetrics weightedScroll = weight == 1 ? scroll : PortfolioMetricsUtils.scaleInteraction(scroll, weight);
+        ProjectMetrics weightedProjects = weight == 1 ? cumProjects : PortfolioMetricsUtils.scaleProjectMetrics(cumProjects, weight);
 
-        } else {
-            toSave = new PortfolioMetrics(portfolioId, LocalDate.now(), engagement, scroll, cumProjects);
+        if (metricsConfig.atomicCountersEnabled()) {
+            portfolioMetricsRepository.addTodayMetrics(
+                new PortfolioMetrics(portfolioId, LocalDate.now(), weightedEngagement, weightedScroll, weightedProjects));
+            log.debug("Added today's portfolio metrics counters for portfolio {}", portfolioId);
+            return;
         }
 
-        portfolioMetricsRepository.saveTodayMetrics(toSave);
-        log.debug("Saved today's portfolio metrics for portfolio {}", toSave.portfolioId());
+        writeWithRetry(portfolioId, () -> portfolioMetricsRepository.mergeTodayMetrics(portfolioId, existing -> {
+            if (existing.isPresent()) {
+                log.debug("Updating existing metrics for portfolio {} on date {}", portfolioId, existing.get().date());
+                return PortfolioMetricsUtils.updatePortfolioMetrics(existing.get(), weightedEngagement, weightedScroll, weightedProjects);
+            }
+
+            return new PortfolioMetrics(portfolioId, LocalDate.now(), weightedEngagement, weightedScroll, weightedProjects);
+        }));
+
+        log.debug("Saved today's portfolio metrics for portfolio {}", portfolioId);
     }
 
 
     /**
      * Save today's details (one heatmap and the list of project metrics for today).
      * The repository implementation is responsible for rotating the 10 slots and compacting storage.
+     * The stored slot is merged and written conditionally, retrying on concurrent writes.
      *
      * @param portfolioId target portfolio
      * @param heatmap today's heatmap
@@ -111,24 +214,181 @@ public class MetricsUseCase {
         HeatmapSnapshot heatmap,
         List<ProjectMetricsWithId> projects
     ) {
-        Optional<DetailSlot> dbSlot = slotMetricsRepository.getTodayMetrics(portfolioId);
-        PortfolioHeatmap heatmapToSave;
-        List<ProjectMetricsWithId> projectsToSave;
+        writeWithRetry(portfolioId, () -> slotMetricsRepository.mergeTodayMetrics(portfolioId, dbSlot -> {
+            if (dbSlot.isEmpty()) {
+                log.debug("Created new slot for portfolio {}", portfolioId);
+                return new DetailSlot(LocalDate.now(), convertToPortfolioHeatmap(heatmap), projects);
+            }
 
-        if (dbSlot.isEmpty()) {
-            heatmapToSave = convertToPortfolioHeatmap(heatmap);
-            projectsToSave = projects;
-            
-            log.debug("Created new slot for portfolio {}", portfolioId);
-        
+            log.debug("Updated existing slot for portfolio {}", portfolioId);
+            return new DetailSlot(
+                dbSlot.get().date(),
+                HeatmapUtils.updateHeatmap(dbSlot.get().heatmap(), heatmap, metricsConfig.heatmapCellCount()),
+                updateProjects(dbSlot.get().projects(), projects));
+        }));
+    }
+
+
+    /**
+     * Save a batch of sessions, possibly for several portfolios.
+     * Sessions whose beacon id was already seen are dropped first, when deduplication is enabled.
+     * The rest are grouped by portfolio and folded in memory, so each portfolio costs a single
+     * read-modify-write of today's aggregate and detail slot together, whatever the batch size.
+     * With admission control, each portfolio's write takes one token: without one, all its
+     * sessions are shed; with one, the write is scaled to also stand for the sessions shed before.
+     * In write-behind mode the folded sessions are buffered and only the due accumulators are written.
+     * <p>
+     * If a write fails, the exception is propagated. Without write-behind, the beacon ids of the
+     * sessions not written yet are forgotten so their retries are counted. In write-behind mode
+     * the failed accumulators are put back in the buffer, so the beacon ids are kept.
+     *
+     * @param sessions sessions to save
+     * @return number of portfolios written or buffered
+     */
+    public int saveTodaySessions(List<SessionMetrics> sessions) {
+        return saveTodaySessions(sessions, written -> {});
+    }
+
+    /**
+     * Same as {@link #saveTodaySessions(List)}, passing each portfolio to {@code onWritten} once
+     * its metrics are written. A portfolio whose sessions were only buffered is not passed.
+     *
+     * @param sessions  sessions to save
+     * @param onWritten receives each portfolio written
+     * @return number of portfolios written or buffered
+     */
+    public int saveTodaySessions(List<SessionMetrics> sessions, Consumer<PortfolioId> onWritten) {
+        if (sessions == null || sessions.isEmpty()) {
+            return 0;
+        }
+
+        long now = millisClock.getAsLong();
+        LocalDate today = dayOf(now);
+        List<SessionMetrics> unique = beaconDeduplicator == null ? sessions : beaconDeduplicator.dropDuplicates(sessions, today);
+
+        Map<PortfolioId, List<SessionMetrics>> byPortfolio = new LinkedHashMap<>();
+        for (SessionMetrics session : unique) {
+            byPortfolio.computeIfAbsent(session.portfolioId(), id -> new ArrayList<>()).add(session);
+        }
+
+        // One token per portfolio write, whatever the number of sessions folded into it
+        int shed = 0;
+        if (admissionController != null) {
+            Iterator<Map.Entry<PortfolioId, List<SessionMetrics>>> it = byPortfolio.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<PortfolioId, List<SessionMetrics>> entry = it.next();
+                List<SessionMetrics> admitted = admissionController.admit(entry.getKey(), entry.getValue());
+                if (admitted.isEmpty()) {
+                    shed += entry.getValue().size();
+                    it.remove();
+                } else {
+                    entry.setValue(admitted);
+                }
+            }
+        }
+
+        if (byPortfolio.isEmpty()) {
+            log.debug("Dropped {} duplicate and {} shed sessions", sessions.size() - unique.size(), shed);
+            return 0;
+        }
+
+        if (writeBehindBuffer != null) {
+            // Every session is buffered before anything is written, so none is left out on a failure
+            List<FoldedSessions> due = new ArrayList<>();
+            for (Map.Entry<PortfolioId, List<SessionMetrics>> entry : byPortfolio.entrySet()) {
+                FoldedSessions folded = foldSessions(entry.getKey(), entry.getValue(), today);
+                due.addAll(writeBehindBuffer.add(folded, now, this::mergeFoldedSessions));
+            }
+            saveDueSessions(due, onWritten);
         } else {
-            heatmapToSave = HeatmapUtils.updateHeatmap(dbSlot.get().heatmap(), heatmap, metricsConfig.heatmapCellCount());
-            projectsToSave = updateProjects(dbSlot.get().projects(), projects);
+            saveByPortfolio(byPortfolio, today, onWritten);
+        }
 
-            log.debug("Updated existing slot for portfolio {}", portfolioId);
+        log.debug("Saved {} sessions for {} portfolios ({} duplicates dropped, {} shed)",
+            unique.size() - shed, byPortfolio.size(), sessions.size() - unique.size(), shed);
+        return byPortfolio.size();
+    }
+
+
+    /**
+     * Writes every accumulator held by the write-behind buffer.
+     * Called when the context shuts down; does nothing when write-behind is disabled.
+     */
+    @PreDestroy
+    public void flushWriteBehind() {
+        if (writeBehindBuffer == null) {
+            return;
+        }
+
+        List<FoldedSessions> due = writeBehindBuffer.drainAll();
+        saveDueSessions(due, written -> {});
+        log.debug("Flushed {} write-behind accumulators", due.size());
+    }
+
+    /**
+     * Writes the accumulators of the write-behind buffer that are older than the configured age
+     * or belong to a past day. Entrypoints call it on every invocation, so the age limit holds
+     * without waiting for the next beacon. Does nothing when write-behind is disabled.
+     */
+    public void flushExpiredWriteBehind() {
+        flushExpiredWriteBehind(written -> {});
+    }
+
+    /**
+     * Same as {@link #flushExpiredWriteBehind()}, passing each portfolio to {@code onWritten}
+     * once its accumulator is written.
+     *
+     * @param onWritten receives each portfolio written
+     */
+    public void flushExpiredWriteBehind(Consumer<PortfolioId> onWritten) {
+        if (writeBehindBuffer == null) {
+            return;
         }
 
-        slotMetricsRepository.saveTodayMetrics(portfolioId, heatmapToSave, projectsToSave);
+        long now = millisClock.getAsLong();
+        saveDueSessions(writeBehindBuffer.drainExpired(now, dayOf(now)), onWritten);
+    }
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehindBuffer != null;
+    }
+
+    /**
+     * Returns the write-behind counters, all zero when write-behind is disabled.
+     */
+    public WriteBehindStats getWriteBehindStats() {
+        if (writeBehindBuffer == null) {
+            return new WriteBehindStats(0, 0, 0);
+        }
+
+        return new WriteBehindStats(
+            writeBehindBuffer.bufferedSessions(),
+            writeBehindBuffer.flushedSessions(),
+            writeBehindBuffer.pendingPortfolios());
+    }
+
+
+    /**
+     * Returns the beacon deduplication counters, all zero when deduplication is disabled.
+     */
+    public BeaconDedupStats getBeaconDedupStats() {
+        return beaconDeduplicator == null ? new BeaconDedupStats(0, 0, 0) : beaconDeduplicator.stats();
+    }
+
+
+    /**
+     * Returns the admission control counters, all zero when admission control is disabled.
+     */
+    public AdmissionStats getAdmissionStats() {
+        return admissionController == null ? new AdmissionStats(0, 0, 0) : admissionController.stats();
+    }
+
+
+    /**
+     * Returns the counters of the conditional writes on today's metrics since the container started.
+     */
+    public WriteConflictStats getWriteConflictStats() {
+        return new WriteConflictStats(writeConflicts.get(), writeRetries.get(), writeRetriesExhausted.get());
     }
 
 
@@ -157,9 +417,111 @@ public class MetricsUseCase {
      */
     public EnhancedPortfolioMetricsBundle getPortfolioMetricsWithSlots(PortfolioId portfolioId, int monthsBack) {
         List<PortfolioMetrics> rawMetrics = portfolioMetricsRepository.findPortfolioMetrics(portfolioId, monthsBack);
-        List<DetailSlot> slots = slotMetricsRepository.getAllMetrics(portfolioId);
-        
-        List<EnhancedPortfolioMetrics> enhancedMetrics = enhanceMetricsWithAnalytics(rawMetrics);
+        return bundleWithSlots(portfolioId, rawMetrics);
+    }
+
+    /**
+     * Same as {@link #getPortfolioMetricsWithSlots(PortfolioId, int)}, with one aggregate per
+     * {@code period} instead of one per day. Each aggregate is dated on the first day of its
+     * period, and z-scores are computed against the previous periods.
+     *
+     * @param portfolioId target portfolio
+     * @param monthsBack months to go back
+     * @param period week or month
+     * @return bundle with computed analytics including project-level metrics
+     */
+    public EnhancedPortfolioMetricsBundle getPortfolioMetricsWithSlots(PortfolioId portfolioId, int monthsBack, RollupPeriod period) {
+        List<PortfolioMetrics> rawMetrics = portfolioMetricsRepository.findPortfolioMetricsRollups(portfolioId, monthsBack, period);
+        return bundleWithSlots(portfolioId, rawMetrics);
+    }
+
+    /**
+     * Returns the daily metrics from {@code from} to {@code to}, both included, with derived
+     * metrics and, if {@code withZScores} is set, z-scores. Only the counters in {@code fields}
+     * are read; the others are 0, as are the derived metrics computed from them.
+     * <p>
+     * Z-scores need the {@code baselineWindowDays} days before {@code from}, which are read too
+     * and left out of the result. Detail slots are only read if {@code withSlots} is set.
+     *
+     * @param portfolioId target portfolio
+     * @param from first day to return
+     * @param to last day to return
+     * @param fields counters to read
+     * @param withZScores whether to compute z-scores
+     * @param withSlots whether to return the detail slots
+     * @return bundle with the days of the range, most recent first, and the slots if requested
+     */
+    public EnhancedPortfolioMetricsBundle getPortfolioMetricsBetween(
+            PortfolioId portfolioId,
+            LocalDate from,
+            LocalDate to,
+            Set<MetricsField> fields,
+            boolean withZScores,
+            boolean withSlots) {
+        LocalDate readFrom = withZScores ? from.minusDays(metricsConfig.baselineWindowDays()) : from;
+        List<PortfolioMetrics> rawMetrics = portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, readFrom, to, fields);
+
+        List<EnhancedPortfolioMetrics> enhancedMetrics = enhanceMetricsWithAnalytics(rawMetrics, withZScores).stream()
+            .filter(metrics -> !metrics.date().isBefore(from))
+            .toList();
+
+        if (!withSlots) {
+            return new EnhancedPortfolioMetricsBundle(portfolioId, enhancedMetrics, List.of());
+        }
+        return attachSlots(portfolioId, enhancedMetrics);
+    }
+
+    /**
+     * Returns the daily metrics written on or after {@code since}, to bring a client holding
+     * the metrics up to that day up to date: each returned day replaces the one it holds.
+     * <p>
+     * Only the days from {@code since} to today are read, and with {@code withSlots} only the
+     * detail slots of those days. When {@code since} is today, the common case of a client
+     * polling, z-scores come from the persisted rolling baseline instead of the baseline window.
+     *
+     * @param portfolioId target portfolio
+     * @param since first day to return, not after today
+     * @param fields counters to read
+     * @param withZScores whether to compute z-scores
+     * @param withSlots whether to return the detail slots
+     * @return bundle with the days since {@code since}, most recent first, and their slots if requested
+     */
+    public EnhancedPortfolioMetricsBundle getPortfolioMetricsSince(
+            PortfolioId portfolioId,
+            LocalDate since,
+            Set<MetricsField> fields,
+            boolean withZScores,
+            boolean withSlots) {
+        LocalDate today = LocalDate.now();
+
+        List<EnhancedPortfolioMetrics> enhancedMetrics;
+        if (since.equals(today) && withZScores) {
+            enhancedMetrics = portfolioMetricsRepository.getTodayMetrics(portfolioId)
+                .map(aggregate -> enhanceTodayMetrics(portfolioId, aggregate))
+                .stream()
+                .toList();
+        } else {
+            enhancedMetrics = getPortfolioMetricsBetween(portfolioId, since, today, fields, withZScores, false).aggregates();
+        }
+
+        if (!withSlots) {
+            return new EnhancedPortfolioMetricsBundle(portfolioId, enhancedMetrics, List.of());
+        }
+        return attachSlots(portfolioId, enhancedMetrics, slotMetricsRepository.findMetricsSince(portfolioId, since));
+    }
+
+    private EnhancedPortfolioMetricsBundle bundleWithSlots(PortfolioId portfolioId, List<PortfolioMetrics> rawMetrics) {
+        return attachSlots(portfolioId, enhanceMetricsWithAnalytics(rawMetrics));
+    }
+
+    private EnhancedPortfolioMetricsBundle attachSlots(PortfolioId portfolioId, List<EnhancedPortfolioMetrics> enhancedMetrics) {
+        return attachSlots(portfolioId, enhancedMetrics, slotMetricsRepository.getAllMetrics(portfolioId));
+    }
+
+    private EnhancedPortfolioMetricsBundle attachSlots(
+            PortfolioId portfolioId,
+            List<EnhancedPortfolioMetrics> enhancedMetrics,
+            List<DetailSlot> slots) {
         List<EnhancedDetailSlot> enhancedSlots = enhanceDetailSlots(slots);
         
         // Convert enhanced slots back to regular DetailSlot shape for backward compatibility
@@ -195,30 +557,51 @@ public class MetricsUseCase {
         PortfolioMetrics aggregate = portfolioMetricsRepository.getTodayMetrics(portfolioId).orElse(null);
         DetailSlot details = slotMetricsRepository.getTodayMetrics(portfolioId).orElse(null);
         
-        EnhancedPortfolioMetrics enhancedAggregate = null;
-        if (aggregate != null) {
-            // Get baseline metrics for z-score calculation
-            List<PortfolioMetrics> baselineMetrics = portfolioMetricsRepository.findPortfolioMetrics(
-                portfolioId, 
-                1 // Get current month for baseline calculation
-            );
-            
-            DerivedMetrics derived = PortfolioAnalyticsFacade.calculateDerivedMetrics(
-                aggregate.engagement(), 
-                aggregate.scroll(), 
-                aggregate.cumProjects()
+        EnhancedPortfolioMetrics enhancedAggregate = aggregate != null ? enhanceTodayMetrics(portfolioId, aggregate) : null;
+        
+        return new EnhancedPortfolioMetricsSnapshot(portfolioId, enhancedAggregate, details);
+    }
+
+    private EnhancedPortfolioMetrics enhanceTodayMetrics(PortfolioId portfolioId, PortfolioMetrics aggregate) {
+        DerivedMetrics derived = PortfolioAnalyticsFacade.calculateDerivedMetrics(
+            aggregate.engagement(), 
+            aggregate.scroll(), 
+            aggregate.cumProjects()
+        );
+        
+        ZScores zScores;
+        if (baselineStateRepository != null) {
+            // Persisted rolling baseline: one small item, advanced once per closed day
+            zScores = PortfolioAnalyticsFacade.calculateZScores(aggregate, currentBaseline(portfolioId, aggregate.date()));
+        } else {
+            // Get the days of the baseline window for z-score calculation
+            List<PortfolioMetrics> baselineMetrics = portfolioMetricsRepository.findPortfolioMetricsBetween(
+                portfolioId,
+                aggregate.date().minusDays(metricsConfig.baselineWindowDays()),
+                aggregate.date().minusDays(1)
             );
-            
-            ZScores zScores = PortfolioAnalyticsFacade.calculateZScores(
+
+            zScores = PortfolioAnalyticsFacade.calculateZScores(
                 aggregate, 
                 baselineMetrics, 
                 metricsConfig.baselineWindowDays()
             );
-            
-            enhancedAggregate = EnhancedPortfolioMetrics.from(aggregate, derived, zScores);
         }
         
-        return new EnhancedPortfolioMetricsSnapshot(portfolioId, enhancedAggregate, details);
+        return EnhancedPortfolioMetrics.from(aggregate, derived, zScores);
+    }
+
+    /**
+     * Returns a token that changes whenever the metrics served for the portfolio may change:
+     * on every write of today's metrics, on every write of a past day's metrics flushed late
+     * by the write-behind buffer, and when the day rolls over. Reading it costs one
+     * small key read, so callers can tell an unchanged portfolio apart before reading its metrics.
+     *
+     * @param portfolioId target portfolio
+     * @return the change token of the portfolio's metrics
+     */
+    public String getMetricsVersion(PortfolioId portfolioId) {
+        return LocalDate.now() + "." + todayMetricsRepository.findTodayVersion(portfolioId);
     }
 
 
@@ -227,52 +610,108 @@ public class MetricsUseCase {
     public void deleteAll(PortfolioId portfolioId){
         portfolioMetricsRepository.deleteAllMetrics(portfolioId);
         slotMetricsRepository.deleteAllMetrics(portfolioId);
+        if (baselineStateRepository != null) {
+            baselineStateRepository.deleteBaselineState(portfolioId);
+        }
+        if (metricsViewRepository != null) {
+            metricsViewRepository.deleteMetricsView(portfolioId);
+        }
     }
 
 
     // ────────────────────────── Helpers ──────────────────────────
 
+    /**
+     * Returns the baseline of the days before {@code today}, from the persisted state when it
+     * already covers yesterday. Otherwise the days closed since the state was stored are pushed
+     * into it, or the baseline is rebuilt when there is no usable state, and the result is stored
+     * for the next reads.
+     */
+    private RollingBaseline currentBaseline(PortfolioId portfolioId, LocalDate today) {
+        int windowDays = metricsConfig.baselineWindowDays();
+        LocalDate lastClosed = today.minusDays(1);
+        LocalDate windowStart = today.minusDays(windowDays);
+        LocalDate horizon = YearMonth.from(today).minusMonths(windowDays / 28 + 1).atDay(1);    // oldest day a rebuild reads
+
+        Optional<BaselineState> stored = baselineStateRepository.findBaselineState(portfolioId)
+            .filter(state -> state.windowDays() == windowDays && state.throughDate().isBefore(today));
+
+        if (stored.isPresent() && !stored.get().throughDate().isBefore(lastClosed)) {
+            return RollingBaseline.from(stored.get());
+        }
+
+        // Catch up from the stored state, unless it is older than a rebuild would read anyway
+        boolean catchUp = stored.isPresent() && !stored.get().throughDate().isBefore(horizon);
+
+        RollingBaseline baseline = catchUp ? RollingBaseline.from(stored.get()) : RollingBaseline.empty(windowDays);
+        LocalDate after = catchUp ? stored.get().throughDate() : LocalDate.MIN;
+
+        // Most recent first; only the days closed since the state, or the window to rebuild
+        List<PortfolioMetrics> days = portfolioMetricsRepository.findPortfolioMetricsBetween(
+            portfolioId, catchUp ? after.plusDays(1) : windowStart, lastClosed);
+
+        if (!catchUp && days.size() < windowDays && horizon.isBefore(windowStart)) {
+            // Sparse history: the last windowDays days with metrics reach further back
+            List<PortfolioMetrics> older = portfolioMetricsRepository.findPortfolioMetricsBetween(
+                portfolioId, horizon, windowStart.minusDays(1));
+            days = new ArrayList<>(days);
+            days.addAll(older);
+        }
+
+        // Push the closed days oldest first
+        for (int i = days.size() - 1; i >= 0; i--) {
+            LocalDate date = days.get(i).date();
+            if (date.isAfter(after) && date.isBefore(today)) {
+                baseline.push(days.get(i));
+            }
+        }
+
+        baselineStateRepository.saveBaselineState(baseline.toState(portfolioId, lastClosed));
+        log.debug("Advanced baseline of portfolio {} to {} ({} days)", portfolioId.value(), lastClosed, baseline.days());
+        return baseline;
+    }
+
     /**
      * Enhances a list of raw portfolio metrics with derived metrics and z-scores.
-     * This method is optimized to calculate analytics efficiently in a single pass.
+     * <p>
+     * The baseline of each day is the {@code baselineWindowDays} days before it. The list is
+     * walked once from the oldest day, pushing each day into a {@link RollingBaseline} after
+     * scoring it, so every day is scored in O(1) instead of rebuilding its baseline.
      *
      * @param rawMetrics list of raw portfolio metrics sorted by date (most recent first)
      * @return list of enhanced portfolio metrics with computed analytics
      */
     private List<EnhancedPortfolioMetrics> enhanceMetricsWithAnalytics(List<PortfolioMetrics> rawMetrics) {
+        return enhanceMetricsWithAnalytics(rawMetrics, true);
+    }
+
+    private List<EnhancedPortfolioMetrics> enhanceMetricsWithAnalytics(List<PortfolioMetrics> rawMetrics, boolean withZScores) {
         if (rawMetrics == null || rawMetrics.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<EnhancedPortfolioMetrics> enhancedMetrics = new ArrayList<>(rawMetrics.size());
-        
-        // Process each metric and calculate derived metrics and z-scores
-        for (int i = 0; i < rawMetrics.size(); i++) {
+        EnhancedPortfolioMetrics[] enhanced = new EnhancedPortfolioMetrics[rawMetrics.size()];
+        RollingBaseline baseline = withZScores ? RollingBaseline.empty(Math.max(1, metricsConfig.baselineWindowDays())) : null;
+
+        for (int i = rawMetrics.size() - 1; i >= 0; i--) {
             PortfolioMetrics currentMetric = rawMetrics.get(i);
-            
-            // Calculate derived metrics
+
             DerivedMetrics derived = PortfolioAnalyticsFacade.calculateDerivedMetrics(
                 currentMetric.engagement(),
-                currentMetric.scroll(), 
+                currentMetric.scroll(),
                 currentMetric.cumProjects()
             );
-            
-            // Calculate z-scores using a baseline window of previous days
-            // Get baseline from the rest of the list (excluding current index)
-            List<PortfolioMetrics> baselineMetrics = rawMetrics.stream()
-                .skip(i + 1) // Skip current and more recent metrics
-                .limit(metricsConfig.baselineWindowDays())
-                .collect(Collectors.toList());
-                
-            ZScores zScores = PortfolioAnalyticsFacade.calculateZScores(
-                currentMetric,
-                baselineMetrics,
-                metricsConfig.baselineWindowDays()
-            );
-            
-            enhancedMetrics.add(EnhancedPortfolioMetrics.from(currentMetric, derived, zScores));
+
+            // The window holds the days after i in the list, i.e. the ones before it in time
+            ZScores zScores = PortfolioAnalyticsFacade.calculateZScores(currentMetric, baseline);
+
+            enhanced[i] = EnhancedPortfolioMetrics.from(currentMetric, derived, zScores);
+            if (baseline != null) {
+                baseline.push(currentMetric);
+            }
         }
-        
+
+        List<EnhancedPortfolioMetrics> enhancedMetrics = Arrays.asList(enhanced);
         log.debug("Enhanced {} portfolio metrics with derived metrics and z-scores", enhancedMetrics.size());
         return enhancedMetrics;
     }
@@ -338,6 +777,199 @@ public class MetricsUseCase {
         return new ArrayList<>(merged.values());
     }
 
+    /**
+     * Folds the sessions of one portfolio in memory, dated on {@code day}.
+     * The heatmap is folded on {@link HeatmapCells} and converted back to lists once.
+     */
+    private FoldedSessions foldSessions(PortfolioId portfolioId, List<SessionMetrics> sessions, LocalDate day) {
+        SessionMetrics first = sessions.get(0);
+        if (sessions.size() == 1) {
+            return new FoldedSessions(portfolioId,
+                new PortfolioMetrics(portfolioId, day, first.engagement(), first.scroll(), first.cumProjects()),
+                convertToPortfolioHeatmap(first.heatmap()), first.projects(), 1);
+        }
+
+        PortfolioMetrics aggregate = new PortfolioMetrics(
+            portfolioId, day, first.engagement(), first.scroll(), first.cumProjects());
+        HeatmapCells cells = HeatmapCells.of(first.heatmap());
+        HeatmapSnapshot last = first.heatmap();
+        List<ProjectMetricsWithId> projects = first.projects();
+
+        for (SessionMetrics session : sessions.subList(1, sessions.size())) {
+            aggregate = PortfolioMetricsUtils.updatePortfolioMetrics(
+                aggregate, session.engagement(), session.scroll(), session.cumProjects());
+            cells = cells.merge(HeatmapCells.of(session.heatmap())).top(metricsConfig.heatmapCellCount());
+            last = session.heatmap();
+            projects = updateProjects(projects, session.projects());
+        }
+
+        PortfolioHeatmap heatmap = cells.toPortfolioHeatmap(last.version(), last.columns());
+        return new FoldedSessions(portfolioId, aggregate, heatmap, projects, sessions.size());
+    }
+
+    /**
+     * Folds two accumulators of the same portfolio and day.
+     */
+    private FoldedSessions mergeFoldedSessions(FoldedSessions existing, FoldedSessions incoming) {
+        PortfolioMetrics aggregate = PortfolioMetricsUtils.updatePortfolioMetrics(
+            existing.aggregate(),
+            incoming.aggregate().engagement(),
+            incoming.aggregate().scroll(),
+            incoming.aggregate().cumProjects());
+        PortfolioHeatmap heatmap = HeatmapUtils.mergeHeatmaps(existing.heatmap(), incoming.heatmap(), metricsConfig.heatmapCellCount());
+        List<ProjectMetricsWithId> projects = updateProjects(existing.projects(), incoming.projects());
+
+        return new FoldedSessions(existing.portfolioId(), aggregate, heatmap, projects, existing.sessions() + incoming.sessions());
+    }
+
+    /**
+     * Folds and writes the sessions of each portfolio. If a write fails, the beacon ids of the
+     * sessions of that portfolio and the ones after it are forgotten, as none was written.
+     */
+    private void saveByPortfolio(Map<PortfolioId, List<SessionMetrics>> byPortfolio, LocalDate today, Consumer<PortfolioId> onWritten) {
+        List<List<SessionMetrics>> unwritten = new ArrayList<>(byPortfolio.values());
+        for (Map.Entry<PortfolioId, List<SessionMetrics>> entry : byPortfolio.entrySet()) {
+            try {
+                saveFoldedSessions(foldSessions(entry.getKey(), entry.getValue(), today));
+            } catch (RuntimeException e) {
+                if (beaconDeduplicator != null) {
+                    unwritten.forEach(portfolioSessions -> beaconDeduplicator.forget(portfolioSessions, today));
+                }
+                throw e;
+            }
+
+            unwritten.remove(0);
+            onWritten.accept(entry.getKey());
+        }
+    }
+
+    /**
+     * Writes accumulators handed out by the write-behind buffer. If a write fails, that
+     * accumulator and the ones not written yet go back to the buffer for the next flush.
+     */
+    private void saveDueSessions(List<FoldedSessions> due, Consumer<PortfolioId> onWritten) {
+        for (int i = 0; i < due.size(); i++) {
+            try {
+                saveFoldedSessions(due.get(i));
+            } catch (RuntimeException e) {
+                writeBehindBuffer.restore(due.subList(i, due.size()), this::mergeFoldedSessions);
+                log.warn("Put {} write-behind accumulators back after a failed write", due.size() - i);
+                throw e;
+            }
+            onWritten.accept(due.get(i).portfolioId());
+        }
+    }
+
+    /**
+     * Merges folded sessions with the stored aggregate and detail slot of their day, written together.
+     * The day is the one the sessions were folded on, which is before today for an accumulator
+     * buffered before midnight.
+     * With atomic counters the aggregate is added server-side and only the slot is merged.
+     * The slot goes first: the counter increment cannot be undone, so it is only sent once
+     * the retryable part succeeded, and a failed slot write leaves nothing to count twice.
+     * The sessions were admitted by {@link #saveTodaySessions(List)}, so nothing is shed here.
+     * A write to a past day changes none of today's revisions, so it is recorded afterwards
+     * for {@link #getMetricsVersion(PortfolioId)}, and the stored baseline and rollups, which
+     * may already cover that day, are dropped to be rebuilt on the next read.
+     */
+    private void saveFoldedSessions(FoldedSessions folded) {
+        PortfolioId portfolioId = folded.portfolioId();
+        LocalDate day = folded.aggregate().date();
+
+        if (metricsConfig.atomicCountersEnabled()) {
+            writeWithRetry(portfolioId, () -> slotMetricsRepository.mergeDayMetrics(portfolioId, day,
+                dbSlot -> mergeFoldedSlot(dbSlot.orElse(null), folded)));
+            portfolioMetricsRepository.addTodayMetrics(folded.aggregate());
+        } else {
+            writeWithRetry(portfolioId, () -> todayMetricsRepository.mergeDayMetrics(portfolioId, day,
+                stored -> new PortfolioMetricsSnapshot(
+                    portfolioId,
+                    mergeFoldedAggregate(stored.aggregate(), folded),
+                    mergeFoldedSlot(stored.todaySlot(), folded))));
+        }
+
+        if (day.isBefore(dayOf(millisClock.getAsLong()))) {
+            todayMetricsRepository.recordLateWrite(portfolioId);
+            if (baselineStateRepository != null) {
+                baselineStateRepository.deleteBaselineState(portfolioId);
+            }
+            portfolioMetricsRepository.deleteRollupsCovering(portfolioId, day);
+        }
+
+        log.debug("Folded {} sessions into the metrics of {} for portfolio {}", folded.sessions(), day, portfolioId);
+    }
+
+    private PortfolioMetrics mergeFoldedAggregate(PortfolioMetrics stored, FoldedSessions folded) {
+        if (stored == null) {
+            return folded.aggregate();
+        }
+
+        return PortfolioMetricsUtils.updatePortfolioMetrics(
+            stored,
+            folded.aggregate().engagement(),
+            folded.aggregate().scroll(),
+            folded.aggregate().cumProjects());
+    }
+
+    private DetailSlot mergeFoldedSlot(DetailSlot stored, FoldedSessions folded) {
+        if (stored == null) {
+            return new DetailSlot(folded.aggregate().date(), folded.heatmap(), folded.projects());
+        }
+
+        return new DetailSlot(
+            stored.date(),
+            HeatmapUtils.mergeHeatmaps(stored.heatmap(), folded.heatmap(), metricsConfig.heatmapCellCount()),
+            updateProjects(stored.projects(), folded.projects()));
+    }
+
+    /**
+     * Runs a conditional read/merge/write until it is accepted, sleeping a jittered exponential
+     * backoff between attempts so concurrent writers of the same portfolio spread out.
+     *
+     * @throws MetricsWriteConflictException when every attempt was rejected
+     */
+    private void writeWithRetry(PortfolioId portfolioId, BooleanSupplier conditionalWrite) {
+        int maxAttempts = Math.max(1, metricsConfig.writeMaxAttempts());
+
+        for (int attempt = 1; ; attempt++) {
+            if (conditionalWrite.getAsBoolean()) {
+                return;
+            }
+
+            writeConflicts.incrementAndGet();
+
+            if (attempt >= maxAttempts) {
+                writeRetriesExhausted.incrementAndGet();
+                log.warn("Gave up writing today's metrics for portfolio {} after {} attempts", portfolioId, attempt);
+                throw new MetricsWriteConflictException(portfolioId.value(), attempt);
+            }
+
+            writeRetries.incrementAndGet();
+            log.debug("Concurrent write on today's metrics for portfolio {}, retrying (attempt {})", portfolioId, attempt + 1);
+            sleepBackoff(portfolioId, attempt);
+        }
+    }
+
+    private void sleepBackoff(PortfolioId portfolioId, int attempt) {
+        long cap = Math.min(
+            (long) metricsConfig.writeRetryBaseDelayMs() << Math.min(attempt - 1, 16),
+            metricsConfig.writeRetryMaxDelayMs());
+        if (cap <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetricsWriteConflictException(portfolioId.value(), attempt);
+        }
+    }
+
+    private static LocalDate dayOf(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
     private static int safe(Integer v) {
         return v == null ? 0 : v;
     }
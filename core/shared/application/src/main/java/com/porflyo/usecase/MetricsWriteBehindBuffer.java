@@ -0,0 +1,162 @@
+package com.porflyo.usecase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+import com.porflyo.configuration.MetricsConfig;
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * In-process write-behind buffer for {@link MetricsUseCase}.
+ * <p>
+ * Keeps one accumulator per portfolio and day, in insertion order so the oldest
+ * accumulator is always first. The buffer never writes by itself: every operation
+ * returns the accumulators that are due, and the use case writes them.
+ * <p>
+ * An accumulator is due when it reaches the configured number of sessions, when it
+ * gets older than the configured age, when its day is over, or when the buffer holds
+ * more accumulators than allowed (the oldest one is evicted first). Accumulators whose
+ * write failed are put back and due again on the next flush.
+ */
+final class MetricsWriteBehindBuffer {
+
+    private record Key(PortfolioId portfolioId, LocalDate date) {}
+
+    private record Pending(FoldedSessions folded, long createdAtMillis) {}
+
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private final int maxSessions;
+    private final long maxAgeMillis;
+    private final int maxPortfolios;
+
+    private long bufferedSessions;
+    private long flushedSessions;
+
+    MetricsWriteBehindBuffer(MetricsConfig config) {
+        this.maxSessions = Math.max(1, config.writeBehindMaxSessions());
+        this.maxAgeMillis = Math.max(0, config.writeBehindMaxAgeSeconds()) * 1000L;
+        this.maxPortfolios = Math.max(1, config.writeBehindMaxPortfolios());
+    }
+
+    /**
+     * Folds the given sessions into the accumulator of their portfolio and day.
+     *
+     * @param folded sessions to add, already folded
+     * @param nowMillis current time
+     * @param merger folds two accumulators of the same portfolio and day
+     * @return accumulators that must be written now
+     */
+    synchronized List<FoldedSessions> add(FoldedSessions folded, long nowMillis, BinaryOperator<FoldedSessions> merger) {
+        Key key = new Key(folded.portfolioId(), folded.aggregate().date());
+
+        Pending current = pending.get(key);
+        Pending updated = current == null
+            ? new Pending(folded, nowMillis)
+            : new Pending(merger.apply(current.folded(), folded), current.createdAtMillis());
+
+        pending.put(key, updated);
+        bufferedSessions += folded.sessions();
+
+        List<FoldedSessions> due = new ArrayList<>();
+        if (updated.folded().sessions() >= maxSessions) {
+            due.add(remove(key));
+        }
+
+        due.addAll(drainExpired(nowMillis, folded.aggregate().date()));
+
+        while (pending.size() > maxPortfolios) {
+            due.add(remove(pending.keySet().iterator().next()));
+        }
+
+        return due;
+    }
+
+    /**
+     * Removes the accumulators that are older than the configured age or belong to a past day.
+     *
+     * @param nowMillis current time
+     * @param today current day
+     * @return accumulators that must be written now
+     */
+    synchronized List<FoldedSessions> drainExpired(long nowMillis, LocalDate today) {
+        List<FoldedSessions> due = new ArrayList<>();
+
+        Iterator<Map.Entry<Key, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Pending> entry = it.next();
+            boolean expired = nowMillis - entry.getValue().createdAtMillis() >= maxAgeMillis;
+            boolean pastDay = entry.getKey().date().isBefore(today);
+
+            if (expired || pastDay) {
+                it.remove();
+                due.add(flushed(entry.getValue()));
+            }
+        }
+
+        return due;
+    }
+
+    /**
+     * Removes every accumulator, used when the container shuts down.
+     *
+     * @return accumulators that must be written now
+     */
+    synchronized List<FoldedSessions> drainAll() {
+        List<FoldedSessions> due = new ArrayList<>(pending.size());
+        for (Pending p : pending.values()) {
+            due.add(flushed(p));
+        }
+        pending.clear();
+        return due;
+    }
+
+    /**
+     * Puts back accumulators whose write failed, folded into the ones received since for the
+     * same portfolio and day. They are due again on the next flush.
+     *
+     * @param failed accumulators handed out by this buffer and not written
+     * @param merger folds two accumulators of the same portfolio and day
+     */
+    synchronized void restore(List<FoldedSessions> failed, BinaryOperator<FoldedSessions> merger) {
+        for (FoldedSessions folded : failed) {
+            Key key = new Key(folded.portfolioId(), folded.aggregate().date());
+            Pending current = pending.get(key);
+            FoldedSessions restored = current == null ? folded : merger.apply(folded, current.folded());
+
+            // Created at the epoch, so it is past the age limit and retried by the next flush
+            pending.put(key, new Pending(restored, 0L));
+            bufferedSessions += folded.sessions();
+            flushedSessions -= folded.sessions();
+        }
+    }
+
+    /** Sessions received but not written yet. */
+    synchronized long bufferedSessions() {
+        return bufferedSessions;
+    }
+
+    /** Sessions handed out for writing since the buffer was created. */
+    synchronized long flushedSessions() {
+        return flushedSessions;
+    }
+
+    /** Accumulators currently held. */
+    synchronized int pendingPortfolios() {
+        return pending.size();
+    }
+
+    private FoldedSessions remove(Key key) {
+        return flushed(pending.remove(key));
+    }
+
+    private FoldedSessions flushed(Pending p) {
+        bufferedSessions -= p.folded().sessions();
+        flushedSessions += p.folded().sessions();
+        return p.folded();
+    }
+}
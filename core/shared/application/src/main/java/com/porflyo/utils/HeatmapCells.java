@@ -0,0 +1,291 @@
+package com.porflyo.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.model.metrics.PortfolioHeatmap;
+
+/**
+ * Heatmap cells held in primitive arrays, sorted by index with no repeated index.
+ * <p>
+ * Merging two heatmaps is a single merge-join of their sorted cells, and trimming to
+ * the most relevant cells is an in-place selection on a score array, so neither boxes
+ * a cell nor allocates per cell. Instances are immutable; {@link #of} and
+ * {@link #toPortfolioHeatmap} convert from and to the list-based records.
+ */
+public final class HeatmapCells {
+
+    private static final HeatmapCells EMPTY = new HeatmapCells(new int[0], new int[0], new int[0], 0);
+
+    private final int[] indexes;
+    private final int[] values;
+    private final int[] counts;
+    private final int size;
+
+    private HeatmapCells(int[] indexes, int[] values, int[] counts, int size) {
+        this.indexes = indexes;
+        this.values = values;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    // ────────────────────────── Conversions ──────────────────────────
+
+    public static HeatmapCells of(PortfolioHeatmap heatmap) {
+        return of(heatmap.Indexes(), heatmap.Values(), heatmap.Counts());
+    }
+
+    /** Cells of a single visit, each with count 1. */
+    public static HeatmapCells of(HeatmapSnapshot snapshot) {
+        return of(snapshot.Indexes(), snapshot.Values(), null);
+    }
+
+    /**
+     * Builds the cells from parallel lists, sorting them and summing repeated indexes.
+     * A null counts list means every cell comes from a single visit (count = 1); null
+     * values and counts count as 0.
+     */
+    public static HeatmapCells of(List<Integer> indexes, List<Integer> values, List<Integer> counts) {
+        int n = indexes == null ? 0 : indexes.size();
+        if (n == 0) {
+            return EMPTY;
+        }
+
+        int[] idx = new int[n];
+        int[] val = new int[n];
+        int[] cnt = new int[n];
+        boolean strictlySorted = true;
+
+        for (int i = 0; i < n; i++) {
+            idx[i] = intOf(indexes.get(i));
+            val[i] = intOf(values.get(i));
+            cnt[i] = counts == null ? 1 : intOf(counts.get(i));
+            strictlySorted &= i == 0 || idx[i - 1] < idx[i];
+        }
+
+        return strictlySorted ? new HeatmapCells(idx, val, cnt, n) : sortAndCombine(idx, val, cnt, n);
+    }
+
+    public PortfolioHeatmap toPortfolioHeatmap(String version, Integer columns) {
+        List<Integer> resultIndexes = new ArrayList<>(size);
+        List<Integer> resultValues = new ArrayList<>(size);
+        List<Integer> resultCounts = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            resultIndexes.add(indexes[i]);
+            resultValues.add(values[i]);
+            resultCounts.add(counts[i]);
+        }
+
+        return new PortfolioHeatmap(version, columns, resultIndexes, resultValues, resultCounts);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int indexAt(int i) {
+        return indexes[i];
+    }
+
+    public int valueAt(int i) {
+        return values[i];
+    }
+
+    public int countAt(int i) {
+        return counts[i];
+    }
+
+    // ────────────────────────── Merge ──────────────────────────
+
+    /**
+     * Merge-joins these cells with {@code other}, summing values and counts of common indexes.
+     */
+    public HeatmapCells merge(HeatmapCells other) {
+        if (other.size == 0) return this;
+        if (size == 0) return other;
+
+        int capacity = size + other.size;
+        int[] idx = new int[capacity];
+        int[] val = new int[capacity];
+        int[] cnt = new int[capacity];
+
+        int a = 0, b = 0, n = 0;
+        while (a < size && b < other.size) {
+            int ia = indexes[a];
+            int ib = other.indexes[b];
+
+            if (ia < ib) {
+                idx[n] = ia; val[n] = values[a]; cnt[n] = counts[a]; a++;
+            } else if (ib < ia) {
+                idx[n] = ib; val[n] = other.values[b]; cnt[n] = other.counts[b]; b++;
+            } else {
+                idx[n] = ia; val[n] = values[a] + other.values[b]; cnt[n] = counts[a] + other.counts[b]; a++; b++;
+            }
+            n++;
+        }
+
+        for (; a < size; a++, n++) {
+            idx[n] = indexes[a]; val[n] = values[a]; cnt[n] = counts[a];
+        }
+        for (; b < other.size; b++, n++) {
+            idx[n] = other.indexes[b]; val[n] = other.values[b]; cnt[n] = other.counts[b];
+        }
+
+        return new HeatmapCells(idx, val, cnt, n);
+    }
+
+    // ────────────────────────── Top-K ──────────────────────────
+
+    /**
+     * Keeps the {@code maxCells} most relevant cells, still sorted by index.
+     * <p>
+     * Score = 0.7 * value / maxValue + 0.3 * (value / count) / maxRatio. The k-th best
+     * score is found by introselect on a copy of the scores; cells tied with it are kept
+     * in index order until {@code maxCells} cells are kept.
+     *
+     * @throws IllegalArgumentException if trimming is needed and {@code maxCells} is not positive
+     */
+    public HeatmapCells top(int maxCells) {
+        if (size <= maxCells) {
+            return this;
+        }
+        if (maxCells < 1) {
+            throw new IllegalArgumentException("maxCells must be positive: " + maxCells);
+        }
+
+        double[] scores = scores();
+        double[] scratch = Arrays.copyOf(scores, size);
+        double threshold = select(scratch, size - maxCells);
+
+        int above = 0;
+        for (int i = 0; i < size; i++) {
+            if (scores[i] > threshold) above++;
+        }
+        int tiesToKeep = maxCells - above;
+
+        int[] idx = new int[maxCells];
+        int[] val = new int[maxCells];
+        int[] cnt = new int[maxCells];
+        int n = 0;
+
+        for (int i = 0; i < size && n < maxCells; i++) {
+            boolean keep = scores[i] > threshold || (scores[i] == threshold && tiesToKeep-- > 0);
+            if (keep) {
+                idx[n] = indexes[i]; val[n] = values[i]; cnt[n] = counts[i]; n++;
+            }
+        }
+
+        return new HeatmapCells(idx, val, cnt, n);
+    }
+
+    private double[] scores() {
+        int maxValue = 1;
+        double maxRatio = 1.0;
+
+        for (int i = 0; i < size; i++) {
+            if (values[i] > maxValue) maxValue = values[i];
+            double ratio = ratio(i);
+            if (ratio > maxRatio) maxRatio = ratio;
+        }
+
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            scores[i] = 0.7 * ((double) values[i] / maxValue) + 0.3 * (ratio(i) / maxRatio);
+        }
+        return scores;
+    }
+
+    private double ratio(int i) {
+        return counts[i] > 0 ? (double) values[i] / counts[i] : values[i];
+    }
+
+    /**
+     * Returns the k-th smallest element (0-based), partially reordering {@code a}.
+     * Quickselect with median-of-three pivots, falling back to a full sort if the
+     * partitioning degenerates.
+     */
+    static double select(double[] a, int k) {
+        int lo = 0;
+        int hi = a.length - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+
+        while (hi > lo) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return a[k];
+            }
+
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, mid, lo);
+            if (a[hi] < a[lo]) swap(a, hi, lo);
+            if (a[hi] < a[mid]) swap(a, hi, mid);
+            double pivot = a[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    swap(a, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return a[k];
+            }
+        }
+
+        return a[k];
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    /** Sorts the cells by index (stable) and sums the cells of repeated indexes. */
+    private static HeatmapCells sortAndCombine(int[] idx, int[] val, int[] cnt, int n) {
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) idx[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] sortedIdx = new int[n];
+        int[] sortedVal = new int[n];
+        int[] sortedCnt = new int[n];
+        int m = 0;
+
+        for (long key : keys) {
+            int from = (int) key;
+            if (m > 0 && sortedIdx[m - 1] == idx[from]) {
+                sortedVal[m - 1] += val[from];
+                sortedCnt[m - 1] += cnt[from];
+            } else {
+                sortedIdx[m] = idx[from];
+                sortedVal[m] = val[from];
+                sortedCnt[m] = cnt[from];
+                m++;
+            }
+        }
+
+        return new HeatmapCells(sortedIdx, sortedVal, sortedCnt, m);
+    }
+
+    private static int intOf(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -29,6 +29,49 @@ public final class PortfolioMetricsUtils {
     }
 
 
+    /**
+     * Adds every counter of {@code incoming} to {@code total}, keeping the date of {@code total}.
+     * Unlike {@link #updatePortfolioMetrics}, nulls count as 0 and sums saturate at
+     * {@link Integer#MAX_VALUE}, since totals over weeks or months can outgrow an int.
+     */
+    public static PortfolioMetrics sumPortfolioMetrics(PortfolioMetrics total, PortfolioMetrics incoming) {
+        Engagement te = total.engagement();
+        Engagement ie = incoming.engagement();
+        Engagement engagement = new Engagement(
+            add(te.activeTime(), ie.activeTime()),
+            add(te.views(), ie.views()),
+            add(te.qualityVisits(), ie.qualityVisits()),
+            add(te.emailCopies(), ie.emailCopies()),
+            add(te.socialClicks(), ie.socialClicks()),
+            new Devices(
+                add(te.devices().desktopViews(), ie.devices().desktopViews()),
+                add(te.devices().mobileTabletViews(), ie.devices().mobileTabletViews())));
+
+        InteractionMetrics ts = total.scroll();
+        InteractionMetrics is = incoming.scroll();
+        InteractionMetrics scroll = new InteractionMetrics(
+            add(ts.scoreTotal(), is.scoreTotal()),
+            add(ts.scrollTimeTotal(), is.scrollTimeTotal()),
+            add(ts.ttfiSumMs(), is.ttfiSumMs()),
+            add(ts.ttfiCount(), is.ttfiCount()));
+
+        ProjectMetrics tp = total.cumProjects();
+        ProjectMetrics ip = incoming.cumProjects();
+        ProjectMetrics projects = new ProjectMetrics(
+            add(tp.viewTime(), ip.viewTime()),
+            add(tp.exposures(), ip.exposures()),
+            add(tp.codeViews(), ip.codeViews()),
+            add(tp.liveViews(), ip.liveViews()));
+
+        return new PortfolioMetrics(total.portfolioId(), total.date(), engagement, scroll, projects);
+    }
+
+    private static Integer add(Integer a, Integer b) {
+        long sum = (long) safeInt(a) + safeInt(b);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum));
+    }
+
+
     private static Engagement aggregateEngagementData(Engagement pe, Engagement ie) {
         Integer desktop = pe.devices().desktopViews() + ie.devices().desktopViews();
         Integer deviceViews = pe.devices().mobileTabletViews() + ie.devices().mobileTabletViews();
@@ -69,4 +112,47 @@ public final class PortfolioMetricsUtils {
         ProjectMetrics resultProj = new ProjectMetrics(viewTime, exposures, codeViews, liveViews);
         return resultProj;
     }
+
+
+    /** Scales every counter of the engagement with {@link #scale(Integer, int)}. */
+    public static Engagement scaleEngagement(Engagement e, int weight) {
+        Devices devices = new Devices(
+            scale(e.devices().desktopViews(), weight),
+            scale(e.devices().mobileTabletViews(), weight));
+
+        return new Engagement(
+            scale(e.activeTime(), weight),
+            scale(e.views(), weight),
+            scale(e.qualityVisits(), weight),
+            scale(e.emailCopies(), weight),
+            scale(e.socialClicks(), weight),
+            devices);
+    }
+
+    /** Scales every total of the interaction metrics with {@link #scale(Integer, int)}. */
+    public static InteractionMetrics scaleInteraction(InteractionMetrics i, int weight) {
+        return new InteractionMetrics(
+            scale(i.scoreTotal(), weight),
+            scale(i.scrollTimeTotal(), weight),
+            scale(i.ttfiSumMs(), weight),
+            scale(i.ttfiCount(), weight));
+    }
+
+    /** Scales every counter of the project metrics with {@link #scale(Integer, int)}. */
+    public static ProjectMetrics scaleProjectMetrics(ProjectMetrics p, int weight) {
+        return new ProjectMetrics(
+            scale(p.viewTime(), weight),
+            scale(p.exposures(), weight),
+            scale(p.codeViews(), weight),
+            scale(p.liveViews(), weight));
+    }
+
+    /**
+     * Multiplies {@code v} (null counts as 0) by {@code weight}, saturating at the {@code int}
+     * range instead of overflowing. Used when one sampled session stands for several.
+     */
+    public static Integer scale(Integer v, int weight) {
+        long scaled = (long) safeInt(v) * weight;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, scaled));
+    }
 }
@@ -10,6 +10,7 @@ import com.porflyo.model.metrics.ProjectMetrics;
 import com.porflyo.model.metrics.ZScores;
 import com.porflyo.utils.derived.PortfolioDerivedCalculator;
 import com.porflyo.utils.zscore.PortfolioZScoreCalculator;
+import com.porflyo.utils.zscore.RollingBaseline;
 
 /**
  * Facade for portfolio analytics calculations.
@@ -51,4 +52,15 @@ public final class PortfolioAnalyticsFacade {
     ) {
         return PortfolioZScoreCalculator.calculate(currentMetrics, baselineMetrics, windowDays);
     }
-}
\ No newline at end of file
+
+    /**
+     * Calculates z-scores for a current day's metrics against a rolling baseline of previous days.
+     * 
+     * @param currentMetrics metrics for the current day
+     * @param baseline rolling baseline holding the previous days
+     * @return calculated z-scores
+     */
+    public static ZScores calculateZScores(PortfolioMetrics currentMetrics, RollingBaseline baseline) {
+        return PortfolioZScoreCalculator.calculate(currentMetrics, baseline);
+    }
+}
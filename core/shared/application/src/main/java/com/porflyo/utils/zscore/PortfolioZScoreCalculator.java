@@ -57,6 +57,31 @@ public final class PortfolioZScoreCalculator {
         );
     }
 
+    /**
+     * Calculates z-scores for a current day's metrics against a rolling baseline of previous days,
+     * without going through the baseline days again.
+     * 
+     * @param currentMetrics metrics for the current day
+     * @param baseline rolling baseline holding the previous days, not the current one
+     * @return calculated z-scores, or empty z-scores if insufficient data
+     */
+    public static ZScores calculate(PortfolioMetrics currentMetrics, RollingBaseline baseline) {
+        if (currentMetrics == null || baseline == null || baseline.days() < 2) {
+            return createEmpty();
+        }
+
+        Double currentTtfi = extractCurrentTtfi(currentMetrics);
+        Double ttfi = baseline.zScore(RollingBaseline.TTFI, currentTtfi != null ? Math.log(Math.max(currentTtfi, 1.0)) : null);
+
+        return new ZScores(
+            baseline.zScore(RollingBaseline.VIEWS, extractCurrentViews(currentMetrics)),
+            baseline.zScore(RollingBaseline.ENGAGEMENT, extractCurrentEngagement(currentMetrics)),
+            ttfi != null ? -ttfi : null, // TTFI: lower is better
+            baseline.zScore(RollingBaseline.QUALITY_VISIT_RATE, extractCurrentQualityVisitRate(currentMetrics)),
+            baseline.zScore(RollingBaseline.SOCIAL_CTR, extractCurrentSocialCtr(currentMetrics))
+        );
+    }
+
     /**
      * Creates an empty ZScores instance with all null values.
      */
@@ -107,7 +132,7 @@ public final class PortfolioZScoreCalculator {
     /**
      * Calculates engagement average for current day extraction.
      */
-    private static double calculateEngagementAvg(Engagement engagement, InteractionMetrics scroll) {
+    static double calculateEngagementAvg(Engagement engagement, InteractionMetrics scroll) {
         if (engagement == null || scroll == null || engagement.views() == null || scroll.scoreTotal() == null) {
             return Double.NaN;
         }
@@ -120,7 +145,7 @@ public final class PortfolioZScoreCalculator {
     /**
      * Calculates TTFI mean for current day extraction.
      */
-    private static double calculateTtfiMean(InteractionMetrics scroll) {
+    static double calculateTtfiMean(InteractionMetrics scroll) {
         if (scroll == null || scroll.ttfiSumMs() == null || scroll.ttfiCount() == null || scroll.ttfiCount() == 0) {
             return Double.NaN;
         }
@@ -130,7 +155,7 @@ public final class PortfolioZScoreCalculator {
     /**
      * Calculates quality visit rate for current day extraction.
      */
-    private static double calculateQualityVisitRate(Engagement engagement) {
+    static double calculateQualityVisitRate(Engagement engagement) {
         if (engagement == null || engagement.qualityVisits() == null || engagement.views() == null || engagement.views() == 0) {
             return Double.NaN;
         }
@@ -140,7 +165,7 @@ public final class PortfolioZScoreCalculator {
     /**
      * Calculates social CTR for current day extraction.
      */
-    private static double calculateSocialCtr(Engagement engagement) {
+    static double calculateSocialCtr(Engagement engagement) {
         if (engagement == null || engagement.socialClicks() == null || engagement.views() == null || engagement.views() == 0) {
             return Double.NaN;
         }
@@ -0,0 +1,194 @@
+package com.porflyo.utils.zscore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+import com.porflyo.model.metrics.PortfolioMetrics;
+
+/**
+ * Z-score baseline over a sliding window of the last {@code windowDays} days with metrics,
+ * updated one day at a time.
+ * <p>
+ * Each z-score metric keeps its count, mean and M2 over the window with Welford's
+ * algorithm, and the window values themselves so the oldest day can be taken out when a
+ * new one comes in. Pushing a day and reading a z-score are O(1). The moments are
+ * recomputed from the window values once per full turn of the window, so rounding from
+ * removals does not build up. Instances are not thread-safe.
+ */
+public final class RollingBaseline {
+
+    static final int VIEWS = 0;
+    static final int ENGAGEMENT = 1;
+    static final int TTFI = 2;          // natural log of the TTFI mean
+    static final int QUALITY_VISIT_RATE = 3;
+    static final int SOCIAL_CTR = 4;
+    static final int STATS = 5;
+
+    private final int windowDays;
+    private final double[][] window;    // [stat][slot], ring of windowDays slots; NaN = no value that day
+    private final int[] count = new int[STATS];
+    private final double[] mean = new double[STATS];
+    private final double[] m2 = new double[STATS];
+
+    private int head;                   // slot of the oldest day
+    private int days;                   // days in the window
+
+    private RollingBaseline(int windowDays) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("windowDays must be positive: " + windowDays);
+        }
+        this.windowDays = windowDays;
+        this.window = new double[STATS][windowDays];
+    }
+
+    public static RollingBaseline empty(int windowDays) {
+        return new RollingBaseline(windowDays);
+    }
+
+    /**
+     * Restores a baseline from its persisted state.
+     *
+     * @throws IllegalArgumentException if the state does not hold one stat per z-score metric
+     *         with windows of the same size, at most {@code windowDays}
+     */
+    public static RollingBaseline from(BaselineState state) {
+        RollingBaseline baseline = new RollingBaseline(state.windowDays());
+        List<BaselineState.Stat> stats = state.stats();
+        if (stats == null || stats.size() != STATS) {
+            throw new IllegalArgumentException("Baseline state must hold " + STATS + " stats");
+        }
+
+        int size = stats.get(0).window().size();
+        if (size > state.windowDays()) {
+            throw new IllegalArgumentException("Baseline window larger than windowDays: " + size);
+        }
+
+        for (int s = 0; s < STATS; s++) {
+            BaselineState.Stat stat = stats.get(s);
+            if (stat.window().size() != size) {
+                throw new IllegalArgumentException("Baseline windows differ in size");
+            }
+            for (int i = 0; i < size; i++) {
+                Double value = stat.window().get(i);
+                baseline.window[s][i] = value == null ? Double.NaN : value;
+            }
+            baseline.count[s] = stat.count();
+            baseline.mean[s] = stat.mean();
+            baseline.m2[s] = stat.m2();
+        }
+        baseline.days = size;
+        return baseline;
+    }
+
+    public BaselineState toState(PortfolioId portfolioId, LocalDate throughDate) {
+        List<BaselineState.Stat> stats = new ArrayList<>(STATS);
+        for (int s = 0; s < STATS; s++) {
+            List<Double> values = new ArrayList<>(days);
+            for (int i = 0; i < days; i++) {
+                double value = window[s][slot(i)];
+                values.add(Double.isNaN(value) ? null : value);
+            }
+            stats.add(new BaselineState.Stat(count[s], mean[s], m2[s], values));
+        }
+        return new BaselineState(portfolioId, throughDate, windowDays, stats);
+    }
+
+    /** Adds a day after the ones already in the window, dropping the oldest one when full. */
+    public void push(PortfolioMetrics day) {
+        boolean evicted = days == windowDays;
+        if (evicted) {
+            for (int s = 0; s < STATS; s++) {
+                remove(s, window[s][head]);
+            }
+            head = (head + 1) % windowDays;
+            days--;
+        }
+
+        int slot = slot(days);
+        double[] values = values(day);
+        for (int s = 0; s < STATS; s++) {
+            window[s][slot] = values[s];
+            add(s, values[s]);
+        }
+        days++;
+
+        if (evicted && head == 0) {
+            resync();
+        }
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public int windowDays() {
+        return windowDays;
+    }
+
+    /** Z-score of {@code current} against the window of metric {@code stat}, as {@link ZScoreCalculator#calculate} computes it. */
+    Double zScore(int stat, Double current) {
+        return ZScoreCalculator.fromMoments(current, count[stat], mean[stat], m2[stat]);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private int slot(int i) {
+        return (head + i) % windowDays;
+    }
+
+    private void add(int s, double x) {
+        if (Double.isNaN(x)) return;
+
+        count[s]++;
+        double delta = x - mean[s];
+        mean[s] += delta / count[s];
+        m2[s] += delta * (x - mean[s]);
+    }
+
+    private void remove(int s, double x) {
+        if (Double.isNaN(x)) return;
+
+        int n = count[s] - 1;
+        if (n == 0) {
+            count[s] = 0;
+            mean[s] = 0.0;
+            m2[s] = 0.0;
+            return;
+        }
+
+        double delta = x - mean[s];
+        mean[s] -= delta / n;
+        m2[s] = Math.max(0.0, m2[s] - delta * (x - mean[s]));
+        count[s] = n;
+    }
+
+    private void resync() {
+        for (int s = 0; s < STATS; s++) {
+            count[s] = 0;
+            mean[s] = 0.0;
+            m2[s] = 0.0;
+            for (int i = 0; i < days; i++) {
+                add(s, window[s][slot(i)]);
+            }
+        }
+    }
+
+    /** The z-score inputs of a day, NaN where the day has none; TTFI as a natural log. */
+    static double[] values(PortfolioMetrics day) {
+        double[] values = new double[STATS];
+
+        Integer views = day.engagement() != null ? day.engagement().views() : null;
+        values[VIEWS] = views != null ? views.doubleValue() : Double.NaN;
+        values[ENGAGEMENT] = PortfolioZScoreCalculator.calculateEngagementAvg(day.engagement(), day.scroll());
+
+        double ttfi = PortfolioZScoreCalculator.calculateTtfiMean(day.scroll());
+        values[TTFI] = Double.isNaN(ttfi) ? Double.NaN : Math.log(Math.max(ttfi, 1.0));
+
+        values[QUALITY_VISIT_RATE] = PortfolioZScoreCalculator.calculateQualityVisitRate(day.engagement());
+        values[SOCIAL_CTR] = PortfolioZScoreCalculator.calculateSocialCtr(day.engagement());
+        return values;
+    }
+}
@@ -36,7 +36,17 @@ public final class ZScoreCalculator {
             m2 += delta * delta2;
         }
 
-        if (n < 2) {
+        return fromMoments(currentValue, n, mean, m2);
+    }
+
+    /**
+     * Calculates z-score for a value against a baseline given by its count, mean and sum of
+     * squared deviations (M2), as kept by a running Welford accumulator.
+     *
+     * @return z-score clamped to [-3, +3] range, or null if insufficient data
+     */
+    static Double fromMoments(Double currentValue, int n, double mean, double m2) {
+        if (currentValue == null || n < 2) {
             return null;
         }
 
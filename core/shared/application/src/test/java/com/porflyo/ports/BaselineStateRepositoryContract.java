@@ -0,0 +1,120 @@
+package com.porflyo.ports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+
+/**
+ * Contract test for BaselineStateRepository implementations.
+ */
+public abstract class BaselineStateRepositoryContract {
+
+    protected BaselineStateRepository repository;
+    protected PortfolioMetricsRepository metricsRepository;
+
+    protected final PortfolioId testPortfolioId = MetricsTestData.DEFAULT_PORTFOLIO_ID;
+    protected final LocalDate yesterday = LocalDate.now().minusDays(1);
+
+    protected BaselineStateRepositoryContract(
+            BaselineStateRepository repository,
+            PortfolioMetricsRepository metricsRepository) {
+        this.repository = repository;
+        this.metricsRepository = metricsRepository;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteBaselineState(testPortfolioId);
+        metricsRepository.deleteAllMetrics(testPortfolioId);
+    }
+
+    // ────────────────────── SAVE / FIND TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should return empty when no baseline state exists")
+    protected void shouldReturnEmptyWhenNoBaselineStateExists() {
+        assertTrue(repository.findBaselineState(new PortfolioId("non-existent-portfolio")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should save and retrieve a baseline state unchanged")
+    protected void shouldSaveAndRetrieveBaselineState() {
+        // Given
+        BaselineState state = state(yesterday, 12.5, 3.0);
+
+        // When
+        boolean saved = repository.saveBaselineState(state);
+
+        // Then
+        assertTrue(saved);
+        assertEquals(state, repository.findBaselineState(testPortfolioId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should keep the stored state when saving one that is not more recent")
+    protected void shouldKeepStoredStateWhenSavingOlderOne() {
+        // Given
+        BaselineState current = state(yesterday, 12.5, 3.0);
+        repository.saveBaselineState(current);
+
+        // When
+        boolean sameDay = repository.saveBaselineState(state(yesterday, 99.0, 1.0));
+        boolean older = repository.saveBaselineState(state(yesterday.minusDays(1), 42.0, 1.0));
+        boolean newer = repository.saveBaselineState(state(yesterday.plusDays(1), 7.0, 2.0));
+
+        // Then
+        assertFalse(sameDay);
+        assertFalse(older);
+        assertTrue(newer);
+        assertEquals(yesterday.plusDays(1), repository.findBaselineState(testPortfolioId).orElseThrow().throughDate());
+    }
+
+    // ────────────────────── DELETE / ISOLATION TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should delete the baseline state")
+    protected void shouldDeleteBaselineState() {
+        // Given
+        repository.saveBaselineState(state(yesterday, 12.5, 3.0));
+
+        // When
+        repository.deleteBaselineState(testPortfolioId);
+
+        // Then
+        assertTrue(repository.findBaselineState(testPortfolioId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not show up in the portfolio metrics")
+    protected void shouldNotShowUpInPortfolioMetrics() {
+        // Given
+        repository.saveBaselineState(state(yesterday, 12.5, 3.0));
+
+        // When / Then
+        assertTrue(metricsRepository.findPortfolioMetrics(testPortfolioId, 1).isEmpty());
+        assertTrue(metricsRepository.getTodayMetrics(testPortfolioId).isEmpty());
+    }
+
+    // ────────────────────── HELPERS ──────────────────────
+
+    private BaselineState state(LocalDate throughDate, double mean, double m2) {
+        List<BaselineState.Stat> stats = new ArrayList<>();
+        for (int s = 0; s < 5; s++) {
+            stats.add(new BaselineState.Stat(2, mean + s, m2, Arrays.asList(mean + s - 1, null, mean + s + 1)));
+        }
+        return new BaselineState(testPortfolioId, throughDate, 28, stats);
+    }
+}
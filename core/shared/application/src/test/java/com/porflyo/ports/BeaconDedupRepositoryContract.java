@@ -0,0 +1,154 @@
+package com.porflyo.ports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Contract test for BeaconDedupRepository implementations.
+ * <p>
+ * Every test uses fresh beacon ids, since the filter only loses ids through
+ * {@link BeaconDedupRepository#forget} or deleting the portfolio's metrics.
+ * </p>
+ */
+public abstract class BeaconDedupRepositoryContract {
+
+    protected BeaconDedupRepository repository;
+    protected PortfolioMetricsRepository metricsRepository;
+
+    protected final PortfolioId testPortfolioId = MetricsTestData.DEFAULT_PORTFOLIO_ID;
+    protected final PortfolioId otherPortfolioId = MetricsTestData.SECONDARY_PORTFOLIO_ID;
+    protected final LocalDate today = LocalDate.now();
+
+    protected BeaconDedupRepositoryContract(
+            BeaconDedupRepository repository,
+            PortfolioMetricsRepository metricsRepository) {
+        this.repository = repository;
+        this.metricsRepository = metricsRepository;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        metricsRepository.deleteAllMetrics(testPortfolioId);
+        metricsRepository.deleteAllMetrics(otherPortfolioId);
+    }
+
+    // ────────────────────── MARK SEEN TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should report a beacon id as new only the first time")
+    protected void shouldReportBeaconAsNewOnlyFirstTime() {
+        // Given
+        String beaconId = newBeaconId();
+
+        // When
+        Set<String> first = repository.markSeen(testPortfolioId, today, List.of(beaconId));
+        Set<String> second = repository.markSeen(testPortfolioId, today, List.of(beaconId));
+
+        // Then
+        assertEquals(Set.of(beaconId), first);
+        assertTrue(second.isEmpty(), "A repeated beacon id should be reported as a duplicate");
+    }
+
+    @Test
+    @DisplayName("Should report only the new beacon ids of a batch")
+    protected void shouldReportOnlyNewBeaconIdsOfBatch() {
+        // Given
+        List<String> seen = newBeaconIds(20);
+        List<String> fresh = newBeaconIds(20);
+        repository.markSeen(testPortfolioId, today, seen);
+
+        List<String> batch = new ArrayList<>(seen);
+        batch.addAll(fresh);
+
+        // When
+        Set<String> recorded = repository.markSeen(testPortfolioId, today, batch);
+
+        // Then
+        assertEquals(Set.copyOf(fresh), recorded);
+    }
+
+    @Test
+    @DisplayName("Should keep beacon ids apart per portfolio and day")
+    protected void shouldKeepBeaconIdsApartPerPortfolioAndDay() {
+        // Given
+        String beaconId = newBeaconId();
+        repository.markSeen(testPortfolioId, today, List.of(beaconId));
+
+        // When / Then
+        assertEquals(Set.of(beaconId), repository.markSeen(otherPortfolioId, today, List.of(beaconId)));
+        assertEquals(Set.of(beaconId), repository.markSeen(testPortfolioId, today.minusDays(1), List.of(beaconId)));
+        assertEquals(1, repository.markSeen(testPortfolioId, today, List.of(newBeaconId())).size());
+    }
+
+    // ────────────────────── FORGET TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should accept a forgotten beacon id again")
+    protected void shouldAcceptForgottenBeaconAgain() {
+        // Given
+        String kept = newBeaconId();
+        String forgotten = newBeaconId();
+        repository.markSeen(testPortfolioId, today, List.of(kept, forgotten));
+
+        // When
+        repository.forget(testPortfolioId, today, List.of(forgotten));
+
+        // Then
+        assertEquals(Set.of(forgotten), repository.markSeen(testPortfolioId, today, List.of(kept, forgotten)),
+            "Only the forgotten id should be removed");
+    }
+
+    @Test
+    @DisplayName("Should forget every beacon id when the portfolio metrics are deleted")
+    protected void shouldForgetBeaconIdsWhenMetricsDeleted() {
+        // Given
+        List<String> beaconIds = newBeaconIds(10);
+        repository.markSeen(testPortfolioId, today, beaconIds);
+
+        // When
+        metricsRepository.deleteAllMetrics(testPortfolioId);
+
+        // Then
+        assertEquals(Set.copyOf(beaconIds), repository.markSeen(testPortfolioId, today, beaconIds));
+    }
+
+    // ────────────────────── ISOLATION TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should not show up in the portfolio metrics")
+    protected void shouldNotShowUpInPortfolioMetrics() {
+        // Given
+        repository.markSeen(testPortfolioId, today, List.of(newBeaconId()));
+
+        // When / Then
+        assertTrue(metricsRepository.findPortfolioMetrics(testPortfolioId, 1).isEmpty());
+        assertTrue(metricsRepository.getTodayMetrics(testPortfolioId).isEmpty());
+    }
+
+    // ────────────────────── HELPERS ──────────────────────
+
+    protected static String newBeaconId() {
+        return UUID.randomUUID().toString();
+    }
+
+    protected static List<String> newBeaconIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(newBeaconId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,145 @@
+package com.porflyo.ports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.PortfolioMetrics;
+
+/**
+ * Contract test for MetricsIngestQueue implementations.
+ * <p>
+ * Ordering is not part of the contract (SQS standard queues do not keep it).
+ * </p>
+ */
+public abstract class MetricsIngestQueueContract {
+
+    protected MetricsIngestQueue queue;
+
+    protected MetricsIngestQueueContract(MetricsIngestQueue queue) {
+        this.queue = queue;
+    }
+
+    @BeforeEach
+    void drainQueue() {
+        // Acknowledge whatever a previous test left visible
+        List<QueuedSession> leftover;
+        while (!(leftover = queue.receive(10)).isEmpty()) {
+            queue.acknowledge(leftover);
+        }
+    }
+
+    // ────────────────────── ENQUEUE AND RECEIVE TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should receive the enqueued sessions unchanged")
+    protected void shouldReceiveEnqueuedSessionsUnchanged() {
+        // Given
+        SessionMetrics first = session(MetricsTestData.TODAY_METRICS);
+        SessionMetrics second = session(MetricsTestData.SECONDARY_PORTFOLIO_TODAY);
+
+        // When
+        queue.enqueue(List.of(first, second));
+        List<QueuedSession> received = queue.receive(10);
+
+        // Then
+        assertEquals(2, received.size());
+        assertTrue(received.stream().map(QueuedSession::session).toList().containsAll(List.of(first, second)));
+        received.forEach(r -> assertFalse(r.receipt() == null || r.receipt().isBlank(), "Every delivery needs a receipt"));
+        queue.acknowledge(received);
+    }
+
+    @Test
+    @DisplayName("Should return empty when nothing is queued")
+    protected void shouldReturnEmptyWhenNothingQueued() {
+        // When
+        List<QueuedSession> received = queue.receive(10);
+
+        // Then
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should receive at most the requested number of sessions")
+    protected void shouldReceiveAtMostRequestedSessions() {
+        // Given
+        queue.enqueue(sessions(25));
+
+        // When
+        List<QueuedSession> firstBatch = queue.receive(12);
+
+        // Then
+        assertTrue(firstBatch.size() <= 12, "Received more sessions than requested");
+        List<QueuedSession> all = new ArrayList<>(firstBatch);
+        List<QueuedSession> batch;
+        while (!(batch = queue.receive(12)).isEmpty()) {
+            all.addAll(batch);
+        }
+        assertEquals(25, all.size());
+        queue.acknowledge(all);
+    }
+
+    // ────────────────────── ACKNOWLEDGE TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should not deliver a session again while it is in flight")
+    protected void shouldNotDeliverAgainWhileInFlight() {
+        // Given
+        queue.enqueue(List.of(session(MetricsTestData.TODAY_METRICS)));
+        List<QueuedSession> received = queue.receive(10);
+
+        // When
+        List<QueuedSession> again = queue.receive(10);
+
+        // Then
+        assertEquals(1, received.size());
+        assertTrue(again.isEmpty(), "An in-flight session should stay hidden");
+        queue.acknowledge(received);
+    }
+
+    @Test
+    @DisplayName("Should remove acknowledged sessions from the queue")
+    protected void shouldRemoveAcknowledgedSessions() {
+        // Given
+        queue.enqueue(sessions(3));
+        List<QueuedSession> received = queue.receive(10);
+
+        // When
+        queue.acknowledge(received);
+
+        // Then
+        assertEquals(3, received.size());
+        assertTrue(queue.receive(10).isEmpty());
+    }
+
+    // ────────────────────── HELPERS ──────────────────────
+
+    protected static SessionMetrics session(PortfolioMetrics metrics) {
+        return new SessionMetrics(
+            metrics.portfolioId(),
+            metrics.engagement(),
+            metrics.scroll(),
+            metrics.cumProjects(),
+            MetricsTestData.TODAY_HEATMAP_SNAPSHOT,
+            MetricsTestData.TODAY_PROJECT_METRICS);
+    }
+
+    protected static List<SessionMetrics> sessions(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> session(MetricsTestData.createMetricsForDate(
+                new PortfolioId("queue-portfolio-" + i), MetricsTestData.TODAY_METRICS.date(), 10 + i, 60000, 50)))
+            .toList();
+    }
+}
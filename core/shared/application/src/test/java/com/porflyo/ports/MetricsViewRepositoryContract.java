@@ -0,0 +1,123 @@
+package com.porflyo.ports;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.dto.MetricsView;
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Contract test for MetricsViewRepository implementations.
+ */
+public abstract class MetricsViewRepositoryContract {
+
+    protected MetricsViewRepository repository;
+    protected PortfolioMetricsRepository metricsRepository;
+
+    protected final PortfolioId testPortfolioId = MetricsTestData.DEFAULT_PORTFOLIO_ID;
+    protected final Instant renderedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    protected MetricsViewRepositoryContract(
+            MetricsViewRepository repository,
+            PortfolioMetricsRepository metricsRepository) {
+        this.repository = repository;
+        this.metricsRepository = metricsRepository;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteMetricsView(testPortfolioId);
+        metricsRepository.deleteAllMetrics(testPortfolioId);
+    }
+
+    // ────────────────────── SAVE / FIND TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should return empty when no view exists")
+    protected void shouldReturnEmptyWhenNoViewExists() {
+        assertTrue(repository.findMetricsView(new PortfolioId("non-existent-portfolio")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should save and retrieve a view unchanged")
+    protected void shouldSaveAndRetrieveView() {
+        // Given
+        MetricsView view = view(renderedAt, "2025-11-10.4.0.2", "{\"dailyAgg\":[]}");
+
+        // When
+        boolean saved = repository.saveMetricsView(view);
+
+        // Then
+        assertTrue(saved);
+        MetricsView found = repository.findMetricsView(testPortfolioId).orElseThrow();
+        assertEquals(view.portfolioId(), found.portfolioId());
+        assertEquals(view.monthsBack(), found.monthsBack());
+        assertEquals(view.version(), found.version());
+        assertEquals(view.renderedAt(), found.renderedAt());
+        assertArrayEquals(view.body(), found.body());
+    }
+
+    @Test
+    @DisplayName("Should keep the stored view when saving one rendered earlier")
+    protected void shouldKeepStoredViewWhenSavingOlderOne() {
+        // Given
+        repository.saveMetricsView(view(renderedAt, "v2", "current"));
+
+        // When
+        boolean older = repository.saveMetricsView(view(renderedAt.minusSeconds(5), "v1", "older"));
+        boolean newer = repository.saveMetricsView(view(renderedAt.plusSeconds(5), "v3", "newer"));
+
+        // Then
+        assertFalse(older);
+        assertTrue(newer);
+        assertEquals("v3", repository.findMetricsView(testPortfolioId).orElseThrow().version());
+    }
+
+    @Test
+    @DisplayName("Should not be seen by metrics reads and be gone once deleted")
+    protected void shouldStayOutOfMetricsReadsAndBeDeleted() {
+        // Given
+        repository.saveMetricsView(view(renderedAt, "v1", "body"));
+
+        // When / Then
+        assertTrue(metricsRepository.findPortfolioMetrics(testPortfolioId, 3).isEmpty());
+
+        repository.deleteMetricsView(testPortfolioId);
+        assertTrue(repository.findMetricsView(testPortfolioId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only delete a view rendered before the write")
+    protected void shouldOnlyDeleteViewRenderedBeforeWrite() {
+        // Given
+        repository.saveMetricsView(view(renderedAt, "v1", "body"));
+
+        // When
+        boolean beforeRender = repository.deleteMetricsViewRenderedBefore(testPortfolioId, renderedAt.minusSeconds(5));
+        boolean afterRender = repository.deleteMetricsViewRenderedBefore(testPortfolioId, renderedAt.plusSeconds(5));
+        boolean missing = repository.deleteMetricsViewRenderedBefore(testPortfolioId, renderedAt.plusSeconds(10));
+
+        // Then
+        assertFalse(beforeRender);
+        assertTrue(afterRender);
+        assertFalse(missing);
+        assertTrue(repository.findMetricsView(testPortfolioId).isEmpty());
+    }
+
+    // ────────────────────── HELPERS ──────────────────────
+
+    private MetricsView view(Instant at, String version, String body) {
+        return new MetricsView(testPortfolioId, 3, version, at, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -19,7 +20,10 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import com.porflyo.data.MetricsTestData;
 import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.RollupPeriod;
+import com.porflyo.utils.PortfolioMetricsUtils;
 
 /**
  * Contract tests for PortfolioMetricsRepository implementations.
@@ -112,6 +116,106 @@ public abstract class PortfolioMetricsRepositoryContract {
         assertEquals(95, saved.scroll().scoreTotal());
     }
 
+    // ────────────────────────── Conditional Merge Tests ──────────────────────────
+
+    @Test
+    @DisplayName("Should merge today's metrics with the stored ones")
+    protected void shouldMergeTodayMetricsWithStoredOnes() {
+        // Given
+        PortfolioMetrics todayMetrics = MetricsTestData.TODAY_METRICS;
+
+        // When
+        boolean created = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(stored.isEmpty(), "Nothing should be stored yet");
+            return todayMetrics;
+        });
+        boolean updated = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(stored.isPresent(), "The first merge should be stored");
+            return MetricsTestData.createMetricsForDate(testPortfolioId, LocalDate.now(), 300, 5400000, 95);
+        });
+
+        // Then
+        assertTrue(created, "First merge should be saved");
+        assertTrue(updated, "Second merge should be saved");
+        assertEquals(300, repository.getTodayMetrics(testPortfolioId).orElseThrow().engagement().views());
+    }
+
+    @Test
+    @DisplayName("Should reject the merge when today's metrics changed after being read")
+    protected void shouldRejectMergeWhenTodayMetricsChangedAfterRead() {
+        // Given
+        repository.saveTodayMetrics(MetricsTestData.TODAY_METRICS);
+        PortfolioMetrics concurrent = MetricsTestData.createMetricsForDate(testPortfolioId, LocalDate.now(), 300, 5400000, 95);
+        PortfolioMetrics stale = MetricsTestData.createMetricsForDate(testPortfolioId, LocalDate.now(), 999, 1, 1);
+
+        // When - another writer saves between our read and our write
+        boolean saved = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(repository.mergeTodayMetrics(testPortfolioId, inner -> concurrent));
+            return stale;
+        });
+
+        // Then
+        assertFalse(saved, "Merge based on a stale read should be rejected");
+        assertMetricsEquals(concurrent, repository.getTodayMetrics(testPortfolioId).orElseThrow());
+    }
+
+    // ────────────────────────── Atomic Counter Tests ──────────────────────────
+
+    @Test
+    @DisplayName("Should accumulate today's metrics when adding counters several times")
+    protected void shouldAccumulateTodayMetricsWhenAddingCounters() {
+        // Given
+        PortfolioMetrics delta = MetricsTestData.TODAY_METRICS;
+
+        // When
+        repository.addTodayMetrics(delta);
+        repository.addTodayMetrics(delta);
+
+        // Then
+        Optional<PortfolioMetrics> retrieved = repository.getTodayMetrics(testPortfolioId);
+        assertTrue(retrieved.isPresent(), "Today's metrics should be found");
+
+        PortfolioMetrics saved = retrieved.get();
+        assertEquals(delta.engagement().views() * 2, saved.engagement().views());
+        assertEquals(delta.engagement().activeTime() * 2, saved.engagement().activeTime());
+        assertEquals(delta.engagement().devices().mobileTabletViews() * 2, saved.engagement().devices().mobileTabletViews());
+        assertEquals(delta.scroll().ttfiSumMs() * 2, saved.scroll().ttfiSumMs());
+        assertEquals(delta.cumProjects().liveViews() * 2, saved.cumProjects().liveViews());
+    }
+
+    @Test
+    @DisplayName("Should return added counters from range queries")
+    protected void shouldReturnAddedCountersFromRangeQueries() {
+        // Given
+        PortfolioMetrics delta = MetricsTestData.TODAY_METRICS;
+
+        // When
+        repository.addTodayMetrics(delta);
+
+        // Then
+        List<PortfolioMetrics> months = repository.findPortfolioMetrics(testPortfolioId, 1);
+        List<PortfolioMetrics> oneMonth = repository.findPortfolioMetricsOneMonth(testPortfolioId, 0);
+
+        assertEquals(1, months.size());
+        assertMetricsEquals(delta, months.get(0));
+        assertEquals(1, oneMonth.size());
+        assertMetricsEquals(delta, oneMonth.get(0));
+    }
+
+    @Test
+    @DisplayName("Should delete added counters when deleting all metrics")
+    protected void shouldDeleteAddedCountersWhenDeletingAllMetrics() {
+        // Given
+        repository.addTodayMetrics(MetricsTestData.TODAY_METRICS);
+
+        // When
+        repository.deleteAllMetrics(testPortfolioId);
+
+        // Then
+        assertTrue(repository.getTodayMetrics(testPortfolioId).isEmpty());
+        assertTrue(repository.findPortfolioMetrics(testPortfolioId, 1).isEmpty());
+    }
+
     // ────────────────────────── Sharding Tests ──────────────────────────
 
     @Test
@@ -215,6 +319,172 @@ public abstract class PortfolioMetricsRepositoryContract {
         assertEquals(350, foundDay10.get().engagement().views(), "Day 10 metrics should be preserved");
     }
 
+    // ────────────────────────── Date Range Tests ──────────────────────────
+
+    @Test
+    @DisplayName("Should return only the days in range across a month boundary, most recent first")
+    protected void shouldReturnOnlyDaysInRangeAcrossMonthBoundary() {
+        // Given
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        PortfolioMetrics before = MetricsTestData.createMetricsForDate(testPortfolioId, monthStart.minusDays(10), 10, 600000, 40);
+        PortfolioMetrics lastOfMonth = MetricsTestData.createMetricsForDate(testPortfolioId, monthStart.minusDays(1), 20, 900000, 50);
+        PortfolioMetrics firstOfMonth = MetricsTestData.createMetricsForDate(testPortfolioId, monthStart, 30, 1200000, 60);
+        PortfolioMetrics third = MetricsTestData.createMetricsForDate(testPortfolioId, monthStart.plusDays(2), 40, 1500000, 70);
+        PortfolioMetrics after = MetricsTestData.createMetricsForDate(testPortfolioId, monthStart.plusDays(19), 50, 1800000, 80);
+        for (PortfolioMetrics day : List.of(before, lastOfMonth, firstOfMonth, third, after)) {
+            repository.saveTodayMetrics(day);
+        }
+
+        // When
+        List<PortfolioMetrics> range = repository.findPortfolioMetricsBetween(
+            testPortfolioId, monthStart.minusDays(2), monthStart.plusDays(4));
+
+        // Then
+        assertEquals(List.of(third.date(), firstOfMonth.date(), lastOfMonth.date()),
+            range.stream().map(PortfolioMetrics::date).toList());
+        assertMetricsEquals(lastOfMonth, range.get(2));
+    }
+
+    @Test
+    @DisplayName("Should return added counters from date range reads")
+    protected void shouldReturnAddedCountersFromDateRangeReads() {
+        // Given
+        PortfolioMetrics delta = MetricsTestData.TODAY_METRICS;
+        repository.addTodayMetrics(delta);
+
+        // When
+        List<PortfolioMetrics> range = repository.findPortfolioMetricsBetween(
+            testPortfolioId, delta.date().minusDays(2), delta.date());
+
+        // Then
+        assertEquals(1, range.size());
+        assertMetricsEquals(delta, range.get(0));
+    }
+
+    @Test
+    @DisplayName("Should read only the requested counters, leaving the others at 0")
+    protected void shouldReadOnlyRequestedCounters() {
+        // Given
+        PortfolioMetrics shardDay = MetricsTestData.createMetricsForDate(
+            testPortfolioId, LocalDate.now().minusDays(1), 20, 900000, 50);
+        PortfolioMetrics counterDay = MetricsTestData.TODAY_METRICS;
+        repository.saveTodayMetrics(shardDay);
+        repository.addTodayMetrics(counterDay);
+
+        // When
+        List<PortfolioMetrics> range = repository.findPortfolioMetricsBetween(
+            testPortfolioId, shardDay.date(), counterDay.date(), EnumSet.of(MetricsField.VIEWS, MetricsField.TTFI_COUNT));
+
+        // Then
+        assertEquals(2, range.size());
+        assertEquals(counterDay.engagement().views(), range.get(0).engagement().views());
+        assertEquals(counterDay.scroll().ttfiCount(), range.get(0).scroll().ttfiCount());
+        assertEquals(0, range.get(0).engagement().activeTime());
+        assertEquals(0, range.get(0).cumProjects().viewTime());
+        assertEquals(shardDay.engagement().views(), range.get(1).engagement().views());
+        assertEquals(shardDay.scroll().ttfiCount(), range.get(1).scroll().ttfiCount());
+        assertEquals(0, range.get(1).engagement().activeTime());
+        assertEquals(0, range.get(1).cumProjects().viewTime());
+    }
+
+    @Test
+    @DisplayName("Should return nothing when the range is empty")
+    protected void shouldReturnNothingWhenRangeIsEmpty() {
+        // Given
+        repository.saveTodayMetrics(MetricsTestData.TODAY_METRICS);
+        LocalDate today = MetricsTestData.TODAY_METRICS.date();
+
+        // When & Then
+        assertTrue(repository.findPortfolioMetricsBetween(testPortfolioId, today.plusDays(1), today).isEmpty());
+        assertTrue(repository.findPortfolioMetricsBetween(testPortfolioId, today.minusDays(3), today.minusDays(1)).isEmpty());
+    }
+
+    // ────────────────────────── Rollup Tests ──────────────────────────
+
+    @Test
+    @DisplayName("Should sum the days of a closed month into its monthly rollup")
+    protected void shouldSumDaysOfClosedMonthIntoMonthlyRollup() {
+        // Given
+        LocalDate lastMonth = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+        PortfolioMetrics day2 = MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(1), 100, 1800000, 75);
+        PortfolioMetrics day20 = MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(19), 200, 3600000, 85);
+        repository.saveTodayMetrics(day2);
+        repository.saveTodayMetrics(day20);
+
+        // When
+        List<PortfolioMetrics> first = repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+        List<PortfolioMetrics> second = repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+
+        // Then
+        PortfolioMetrics expected = PortfolioMetricsUtils.sumPortfolioMetrics(withDate(day2, lastMonth), day20);
+        assertEquals(1, first.size(), "Only the month with data should be returned");
+        assertMetricsEquals(expected, first.get(0));
+        assertEquals(1, second.size(), "The compacted rollup should be served on later reads");
+        assertMetricsEquals(expected, second.get(0));
+    }
+
+    @Test
+    @DisplayName("Should return weekly rollups most recent first")
+    protected void shouldReturnWeeklyRollupsMostRecentFirst() {
+        // Given
+        LocalDate today = LocalDate.now();
+        LocalDate thisWeek = RollupPeriod.WEEK.startOf(today);
+        LocalDate twoWeeksAgo = thisWeek.minusWeeks(2);
+        PortfolioMetrics older = MetricsTestData.createMetricsForDate(testPortfolioId, twoWeeksAgo, 120, 1800000, 70);
+        PortfolioMetrics olderSameWeek = MetricsTestData.createMetricsForDate(testPortfolioId, twoWeeksAgo.plusDays(3), 80, 900000, 60);
+        PortfolioMetrics current = MetricsTestData.createMetricsForDate(testPortfolioId, today, 40, 600000, 50);
+        repository.saveTodayMetrics(older);
+        repository.saveTodayMetrics(olderSameWeek);
+        repository.saveTodayMetrics(current);
+
+        // When
+        List<PortfolioMetrics> weeks = repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.WEEK);
+
+        // Then
+        assertEquals(2, weeks.size(), "Weeks without data should be skipped");
+        assertMetricsEquals(withDate(current, thisWeek), weeks.get(0));
+        assertMetricsEquals(PortfolioMetricsUtils.sumPortfolioMetrics(withDate(older, twoWeeksAgo), olderSameWeek), weeks.get(1));
+    }
+
+    @Test
+    @DisplayName("Should sum a closed month again once its rollups are deleted after a late write")
+    protected void shouldSumClosedMonthAgainAfterLateWrite() {
+        // Given
+        LocalDate lastMonth = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+        PortfolioMetrics day5 = MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(4), 100, 1800000, 75);
+        repository.saveTodayMetrics(day5);
+        repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+
+        // When
+        PortfolioMetrics late = MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(9), 300, 900000, 60);
+        repository.saveTodayMetrics(late);
+        repository.deleteRollupsCovering(testPortfolioId, late.date());
+
+        // Then
+        List<PortfolioMetrics> months = repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+        assertEquals(1, months.size());
+        assertMetricsEquals(PortfolioMetricsUtils.sumPortfolioMetrics(withDate(day5, lastMonth), late), months.get(0));
+    }
+
+    @Test
+    @DisplayName("Should delete rollups when deleting all metrics")
+    protected void shouldDeleteRollupsWhenDeletingAllMetrics() {
+        // Given
+        LocalDate lastMonth = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+        repository.saveTodayMetrics(MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(4), 100, 1800000, 75));
+        repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+
+        // When
+        repository.deleteAllMetrics(testPortfolioId);
+        PortfolioMetrics replacement = MetricsTestData.createMetricsForDate(testPortfolioId, lastMonth.plusDays(9), 300, 900000, 60);
+        repository.saveTodayMetrics(replacement);
+
+        // Then
+        List<PortfolioMetrics> months = repository.findPortfolioMetricsRollups(testPortfolioId, 2, RollupPeriod.MONTH);
+        assertEquals(1, months.size());
+        assertMetricsEquals(withDate(replacement, lastMonth), months.get(0));
+    }
+
     // ────────────────────────── Edge Cases and Data Integrity Tests ──────────────────────────
 
     @Test
@@ -453,6 +723,10 @@ public abstract class PortfolioMetricsRepositoryContract {
                 "Live views should match");
     }
 
+    private static PortfolioMetrics withDate(PortfolioMetrics metrics, LocalDate date) {
+        return new PortfolioMetrics(metrics.portfolioId(), date, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+    }
+
     private void assertNotEquals(Object expected, Object actual, String message) {
         assertFalse(expected.equals(actual), message);
     }
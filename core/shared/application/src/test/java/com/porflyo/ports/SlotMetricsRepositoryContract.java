@@ -110,6 +110,49 @@ public abstract class SlotMetricsRepositoryContract {
         assertEquals(Integer.valueOf(99), saved.projects().get(0).id(), "Should contain the latest project data");
     }
 
+    // ────────────────────── CONDITIONAL MERGE TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should merge today's slot with the stored one")
+    protected void shouldMergeTodaySlotWithStoredOne() {
+        // Given
+        DetailSlot first = new DetailSlot(LocalDate.now(), SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+
+        // When
+        boolean created = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(stored.isEmpty(), "Nothing should be stored yet");
+            return first;
+        });
+        boolean updated = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertEquals(first.projects().size(), stored.orElseThrow().projects().size());
+            return new DetailSlot(LocalDate.now(), stored.get().heatmap(), SlotMetricsTestData.EMPTY_PROJECTS);
+        });
+
+        // Then
+        assertTrue(created, "First merge should be saved");
+        assertTrue(updated, "Second merge should be saved");
+        assertTrue(repository.getTodayMetrics(testPortfolioId).orElseThrow().projects().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject the merge when today's slot changed after being read")
+    protected void shouldRejectMergeWhenTodaySlotChangedAfterRead() {
+        // Given
+        repository.saveTodayMetrics(testPortfolioId, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+        DetailSlot concurrent = new DetailSlot(LocalDate.now(), SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.EMPTY_PROJECTS);
+
+        // When - another writer saves between our read and our write
+        boolean saved = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(repository.mergeTodayMetrics(testPortfolioId, inner -> concurrent));
+            return stored.orElseThrow();
+        });
+
+        // Then
+        assertFalse(saved, "Merge based on a stale read should be rejected");
+        assertTrue(repository.getTodayMetrics(testPortfolioId).orElseThrow().projects().isEmpty(),
+            "The concurrent write should be kept");
+    }
+
     // ────────────────────── GET TODAY METRICS TESTS ──────────────────────
 
     @Test
@@ -247,6 +290,39 @@ public abstract class SlotMetricsRepositoryContract {
         assertEquals(heatmap.version(), retrieved.heatmap().version());
     }
 
+    // ────────────────────── FIND METRICS SINCE TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should return slots dated on or after since")
+    protected void shouldReturnSlotsSinceGivenDay() {
+        // Given
+        repository.saveTodayMetrics(testPortfolioId, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+        repository.saveTodayMetrics(differentPortfolioId, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+
+        // When
+        List<DetailSlot> sinceToday = repository.findMetricsSince(testPortfolioId, LocalDate.now());
+        List<DetailSlot> sinceLastMonth = repository.findMetricsSince(testPortfolioId, LocalDate.now().minusDays(30));
+
+        // Then
+        assertEquals(1, sinceToday.size(), "Should retrieve today's slot");
+        assertEquals(LocalDate.now(), sinceToday.get(0).date());
+        assertEquals(SlotMetricsTestData.TODAY_HEATMAP.version(), sinceToday.get(0).heatmap().version());
+        assertEquals(repository.getAllMetrics(testPortfolioId), sinceLastMonth, "Should be capped to the stored slots");
+    }
+
+    @Test
+    @DisplayName("Should return empty list when since is after today")
+    protected void shouldReturnEmptyListWhenSinceIsAfterToday() {
+        // Given
+        repository.saveTodayMetrics(testPortfolioId, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+
+        // When
+        List<DetailSlot> result = repository.findMetricsSince(testPortfolioId, LocalDate.now().plusDays(1));
+
+        // Then
+        assertTrue(result.isEmpty(), "Should not return slots before since");
+    }
+
     // ────────────────────── DELETE ALL METRICS TESTS ──────────────────────
 
     @Test
@@ -0,0 +1,197 @@
+package com.porflyo.ports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.data.MetricsTestData;
+import com.porflyo.data.SlotMetricsTestData;
+import com.porflyo.dto.DetailSlot;
+import com.porflyo.dto.PortfolioMetricsSnapshot;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.PortfolioMetrics;
+
+/**
+ * Contract test for TodayMetricsRepository implementations.
+ * <p>
+ * The aggregate and the detail slot are read through the single-item repositories
+ * to check that both halves of a merge are written together or not at all.
+ * </p>
+ */
+public abstract class TodayMetricsRepositoryContract {
+
+    protected TodayMetricsRepository repository;
+    protected PortfolioMetricsRepository metricsRepository;
+    protected SlotMetricsRepository slotRepository;
+
+    protected final PortfolioId testPortfolioId = MetricsTestData.DEFAULT_PORTFOLIO_ID;
+
+    protected TodayMetricsRepositoryContract(
+            TodayMetricsRepository repository,
+            PortfolioMetricsRepository metricsRepository,
+            SlotMetricsRepository slotRepository) {
+        this.repository = repository;
+        this.metricsRepository = metricsRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        metricsRepository.deleteAllMetrics(testPortfolioId);
+        slotRepository.deleteAllMetrics(testPortfolioId);
+    }
+
+    // ────────────────────── MERGE TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should save today's aggregate and slot together")
+    protected void shouldSaveAggregateAndSlotTogether() {
+        // Given
+        PortfolioMetrics aggregate = todayAggregate(120);
+        DetailSlot slot = todaySlot();
+
+        // When
+        boolean saved = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertNull(stored.aggregate(), "No aggregate should be stored yet");
+            assertNull(stored.todaySlot(), "No slot should be stored yet");
+            return new PortfolioMetricsSnapshot(testPortfolioId, aggregate, slot);
+        });
+
+        // Then
+        assertTrue(saved, "The merge should be saved");
+        assertEquals(120, metricsRepository.getTodayMetrics(testPortfolioId).orElseThrow().engagement().views());
+        assertEquals(slot.projects().size(), slotRepository.getTodayMetrics(testPortfolioId).orElseThrow().projects().size());
+    }
+
+    @Test
+    @DisplayName("Should pass the stored aggregate and slot to the merge")
+    protected void shouldPassStoredAggregateAndSlotToMerge() {
+        // Given
+        repository.mergeTodayMetrics(testPortfolioId,
+            stored -> new PortfolioMetricsSnapshot(testPortfolioId, todayAggregate(120), todaySlot()));
+
+        // When
+        boolean saved = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertEquals(120, stored.aggregate().engagement().views());
+            assertEquals(SlotMetricsTestData.TODAY_PROJECTS.size(), stored.todaySlot().projects().size());
+            return new PortfolioMetricsSnapshot(testPortfolioId,
+                todayAggregate(stored.aggregate().engagement().views() + 1),
+                new DetailSlot(LocalDate.now(), stored.todaySlot().heatmap(), SlotMetricsTestData.EMPTY_PROJECTS));
+        });
+
+        // Then
+        assertTrue(saved, "The second merge should be saved");
+        assertEquals(121, metricsRepository.getTodayMetrics(testPortfolioId).orElseThrow().engagement().views());
+        assertTrue(slotRepository.getTodayMetrics(testPortfolioId).orElseThrow().projects().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should write neither item when the slot changed after being read")
+    protected void shouldWriteNeitherItemWhenSlotChangedAfterRead() {
+        // Given
+        repository.mergeTodayMetrics(testPortfolioId,
+            stored -> new PortfolioMetricsSnapshot(testPortfolioId, todayAggregate(120), todaySlot()));
+        DetailSlot concurrent = new DetailSlot(LocalDate.now(), SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.EMPTY_PROJECTS);
+
+        // When - another writer saves the slot between our read and our write
+        boolean saved = repository.mergeTodayMetrics(testPortfolioId, stored -> {
+            assertTrue(slotRepository.mergeTodayMetrics(testPortfolioId, inner -> concurrent));
+            return new PortfolioMetricsSnapshot(testPortfolioId, todayAggregate(999), stored.todaySlot());
+        });
+
+        // Then
+        assertFalse(saved, "Merge based on a stale read should be rejected");
+        assertEquals(120, metricsRepository.getTodayMetrics(testPortfolioId).orElseThrow().engagement().views(),
+            "The aggregate should not be written on its own");
+        assertTrue(slotRepository.getTodayMetrics(testPortfolioId).orElseThrow().projects().isEmpty(),
+            "The concurrent slot write should be kept");
+    }
+
+    @Test
+    @DisplayName("Should save a past day's aggregate and slot to that day, not today")
+    protected void shouldSavePastDayToThatDay() {
+        // Given
+        repository.mergeTodayMetrics(testPortfolioId,
+            stored -> new PortfolioMetricsSnapshot(testPortfolioId, todayAggregate(50), todaySlot()));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        PortfolioMetrics aggregate = MetricsTestData.createMetricsForDate(testPortfolioId, yesterday, 120, 5400000, 95);
+        DetailSlot slot = new DetailSlot(yesterday, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.EMPTY_PROJECTS);
+
+        // When
+        boolean saved = repository.mergeDayMetrics(testPortfolioId, yesterday, stored -> {
+            assertNull(stored.aggregate(), "Today's aggregate should not be passed as yesterday's");
+            assertNull(stored.todaySlot(), "Today's slot should not be passed as yesterday's");
+            return new PortfolioMetricsSnapshot(testPortfolioId, aggregate, slot);
+        });
+
+        // Then
+        assertTrue(saved, "The merge should be saved");
+        assertEquals(50, metricsRepository.getTodayMetrics(testPortfolioId).orElseThrow().engagement().views());
+        assertEquals(SlotMetricsTestData.TODAY_PROJECTS.size(),
+            slotRepository.getTodayMetrics(testPortfolioId).orElseThrow().projects().size());
+        assertEquals(120, metricsRepository.findPortfolioMetricsBetween(testPortfolioId, yesterday, yesterday)
+            .get(0).engagement().views());
+        assertEquals(yesterday, slotRepository.findMetricsSince(testPortfolioId, yesterday).get(1).date());
+    }
+
+    // ────────────────────── VERSION TESTS ──────────────────────
+
+    @Test
+    @DisplayName("Should change today's version on every write of today's metrics")
+    protected void shouldChangeVersionOnEveryWrite() {
+        // Given
+        String empty = repository.findTodayVersion(testPortfolioId);
+
+        // When / Then - aggregate and slot together
+        repository.mergeTodayMetrics(testPortfolioId,
+            stored -> new PortfolioMetricsSnapshot(testPortfolioId, todayAggregate(120), todaySlot()));
+        String merged = repository.findTodayVersion(testPortfolioId);
+        assertNotEquals(empty, merged, "A merge should change the version");
+        assertEquals(merged, repository.findTodayVersion(testPortfolioId), "Reads should not change the version");
+
+        // When / Then - atomic counters
+        metricsRepository.addTodayMetrics(todayAggregate(1));
+        String added = repository.findTodayVersion(testPortfolioId);
+        assertNotEquals(merged, added, "A counter increment should change the version");
+
+        // When / Then - slot alone
+        slotRepository.mergeTodayMetrics(testPortfolioId, stored -> todaySlot());
+        assertNotEquals(added, repository.findTodayVersion(testPortfolioId), "A slot write should change the version");
+    }
+
+    @Test
+    @DisplayName("Should change today's version on a late write of a past day")
+    protected void shouldChangeVersionOnLateWrite() {
+        // Given
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        String before = repository.findTodayVersion(testPortfolioId);
+
+        // When - yesterday's slot is not today's, and yesterday may sit in another month shard
+        repository.mergeDayMetrics(testPortfolioId, yesterday, stored -> new PortfolioMetricsSnapshot(
+            testPortfolioId,
+            MetricsTestData.createMetricsForDate(testPortfolioId, yesterday, 40, 5400000, 95),
+            new DetailSlot(yesterday, SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS)));
+        repository.recordLateWrite(testPortfolioId);
+
+        // Then
+        assertNotEquals(before, repository.findTodayVersion(testPortfolioId), "A recorded late write should change the version");
+    }
+
+    // ────────────────────── HELPERS ──────────────────────
+
+    private PortfolioMetrics todayAggregate(int views) {
+        return MetricsTestData.createMetricsForDate(testPortfolioId, LocalDate.now(), views, 5400000, 95);
+    }
+
+    private DetailSlot todaySlot() {
+        return new DetailSlot(LocalDate.now(), SlotMetricsTestData.TODAY_HEATMAP, SlotMetricsTestData.TODAY_PROJECTS);
+    }
+}
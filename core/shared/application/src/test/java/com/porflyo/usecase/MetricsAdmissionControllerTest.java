@@ -0,0 +1,176 @@
+package com.porflyo.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.configuration.MetricsAdmissionConfig;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+
+import static com.porflyo.data.MetricsTestData.*;
+
+@DisplayName("MetricsAdmissionController (unit)")
+class MetricsAdmissionControllerTest {
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("should admit the burst then carry the shed sessions into the next admitted one")
+    void should_admit_burst_then_carry_shed_sessions() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(1, 2, 100, 10), clock::get);
+
+        // when
+        int first = controller.admit(DEFAULT_PORTFOLIO_ID);
+        int second = controller.admit(DEFAULT_PORTFOLIO_ID);
+        int shedOne = controller.admit(DEFAULT_PORTFOLIO_ID);
+        int shedTwo = controller.admit(DEFAULT_PORTFOLIO_ID);
+        clock.set(SECOND_NANOS);
+        int refilled = controller.admit(DEFAULT_PORTFOLIO_ID);
+
+        // then
+        assertThat(List.of(first, second, shedOne, shedTwo, refilled)).containsExactly(1, 1, 0, 0, 3);
+        assertThat(controller.stats().admitted()).isEqualTo(3);
+        assertThat(controller.stats().shed()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should cap the weight and keep carrying the rest")
+    void should_cap_weight_and_keep_carrying_rest() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(1, 1, 3, 10), clock::get);
+        controller.admit(DEFAULT_PORTFOLIO_ID);
+        for (int i = 0; i < 4; i++) {
+            controller.admit(DEFAULT_PORTFOLIO_ID);
+        }
+
+        // when
+        clock.set(SECOND_NANOS);
+        int capped = controller.admit(DEFAULT_PORTFOLIO_ID);
+        clock.set(2 * SECOND_NANOS);
+        int rest = controller.admit(DEFAULT_PORTFOLIO_ID);
+
+        // then
+        assertThat(capped).isEqualTo(3);
+        assertThat(rest).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should take one token per write and carry the sessions of a shed write into the next one")
+    void should_take_one_token_per_write_and_carry_shed_write() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(1, 1, 100, 10), clock::get);
+
+        // when
+        int batch = controller.admit(DEFAULT_PORTFOLIO_ID, 4);
+        int shed = controller.admit(DEFAULT_PORTFOLIO_ID, 3);
+        clock.set(SECOND_NANOS);
+        int refilled = controller.admit(DEFAULT_PORTFOLIO_ID, 2);
+
+        // then
+        assertThat(List.of(batch, shed, refilled)).containsExactly(4, 0, 5);
+        assertThat(controller.stats().admitted()).isEqualTo(6);
+        assertThat(controller.stats().shed()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should cap the weight of a write at max weight per session")
+    void should_cap_weight_of_write_per_session() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(1, 1, 2, 10), clock::get);
+        controller.admit(DEFAULT_PORTFOLIO_ID, 1);
+        controller.admit(DEFAULT_PORTFOLIO_ID, 10);
+
+        // when
+        clock.set(SECOND_NANOS);
+        int capped = controller.admit(DEFAULT_PORTFOLIO_ID, 2);
+        clock.set(2 * SECOND_NANOS);
+        int rest = controller.admit(DEFAULT_PORTFOLIO_ID, 10);
+
+        // then
+        assertThat(capped).isEqualTo(4);
+        assertThat(rest).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("should spread the weight of an admitted write over its sessions")
+    void should_spread_weight_of_admitted_write_over_its_sessions() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(1, 1, 100, 10), clock::get);
+        SessionMetrics session = new SessionMetrics(
+            DEFAULT_PORTFOLIO_ID, TODAY_METRICS.engagement(), TODAY_METRICS.scroll(), TODAY_METRICS.cumProjects(),
+            TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, null);
+        controller.admit(DEFAULT_PORTFOLIO_ID, 1);
+        controller.admit(DEFAULT_PORTFOLIO_ID, 2);
+
+        // when
+        clock.set(SECOND_NANOS);
+        List<SessionMetrics> admitted = controller.admit(DEFAULT_PORTFOLIO_ID, List.of(session, session, session));
+        List<SessionMetrics> shed = controller.admit(DEFAULT_PORTFOLIO_ID, List.of(session));
+
+        // then
+        assertThat(admitted).extracting(s -> s.engagement().views()).containsExactly(
+            session.engagement().views() * 2, session.engagement().views() * 2, session.engagement().views());
+        assertThat(shed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should forget the least recently used portfolio when max portfolios reached")
+    void should_forget_least_recently_used_portfolio() {
+        // given
+        MetricsAdmissionController controller = new MetricsAdmissionController(config(0, 1, 100, 2), clock::get);
+        PortfolioId third = new PortfolioId("portfolio-789");
+        controller.admit(DEFAULT_PORTFOLIO_ID);
+        controller.admit(SECONDARY_PORTFOLIO_ID);
+        controller.admit(DEFAULT_PORTFOLIO_ID);
+
+        // when
+        controller.admit(third);
+
+        // then
+        assertThat(controller.stats().trackedPortfolios()).isEqualTo(2);
+        assertThat(controller.admit(SECONDARY_PORTFOLIO_ID)).as("a forgotten portfolio starts with a full bucket").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should scale every counter of a weighted session")
+    void should_scale_every_counter_of_weighted_session() {
+        // given
+        SessionMetrics session = new SessionMetrics(
+            DEFAULT_PORTFOLIO_ID,
+            TODAY_METRICS.engagement(),
+            TODAY_METRICS.scroll(),
+            TODAY_METRICS.cumProjects(),
+            TODAY_HEATMAP_SNAPSHOT,
+            TODAY_PROJECT_METRICS,
+            "beacon-1");
+
+        // when
+        SessionMetrics weighted = MetricsAdmissionController.weighted(session, 3);
+
+        // then
+        assertThat(weighted.engagement().views()).isEqualTo(session.engagement().views() * 3);
+        assertThat(weighted.engagement().devices().desktopViews()).isEqualTo(session.engagement().devices().desktopViews() * 3);
+        assertThat(weighted.scroll().ttfiCount()).isEqualTo(session.scroll().ttfiCount() * 3);
+        assertThat(weighted.cumProjects().exposures()).isEqualTo(session.cumProjects().exposures() * 3);
+        assertThat(weighted.projects().get(0).viewTime()).isEqualTo(session.projects().get(0).viewTime() * 3);
+        assertThat(weighted.projects().get(0).id()).isEqualTo(session.projects().get(0).id());
+        assertThat(weighted.heatmap().Indexes()).isEqualTo(session.heatmap().Indexes());
+        assertThat(weighted.heatmap().Values().get(0)).isEqualTo(session.heatmap().Values().get(0) * 3);
+        assertThat(weighted.beaconId()).isEqualTo("beacon-1");
+        assertThat(MetricsAdmissionController.weighted(session, 1)).isSameAs(session);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static MetricsAdmissionConfig config(int sessionsPerSecond, int burst, int maxWeight, int maxPortfolios) {
+        return new MetricsAdmissionConfig(true, sessionsPerSecond, burst, maxWeight, maxPortfolios);
+    }
+}
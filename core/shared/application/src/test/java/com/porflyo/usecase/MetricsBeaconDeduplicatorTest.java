@@ -0,0 +1,147 @@
+package com.porflyo.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.configuration.MetricsDedupConfig;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.ports.BeaconDedupRepository;
+
+import static com.porflyo.data.MetricsTestData.*;
+
+@DisplayName("MetricsBeaconDeduplicator (unit)")
+class MetricsBeaconDeduplicatorTest {
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    @DisplayName("should accept a beacon id again once the window is over")
+    void should_accept_beacon_again_once_window_over() {
+        // given
+        MetricsBeaconDeduplicator deduplicator = new MetricsBeaconDeduplicator(null, config(60, 100), clock::get);
+        deduplicator.dropDuplicates(List.of(session(DEFAULT_PORTFOLIO_ID, "beacon-1")), today);
+
+        // when
+        clock.set(59 * SECOND_NANOS);
+        List<SessionMetrics> inWindow = deduplicator.dropDuplicates(List.of(session(DEFAULT_PORTFOLIO_ID, "beacon-1")), today);
+        clock.set(60 * SECOND_NANOS);
+        List<SessionMetrics> afterWindow = deduplicator.dropDuplicates(List.of(session(DEFAULT_PORTFOLIO_ID, "beacon-1")), today);
+
+        // then
+        assertThat(inWindow).isEmpty();
+        assertThat(afterWindow).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should evict the oldest beacon id when max entries reached")
+    void should_evict_oldest_beacon_when_max_entries_reached() {
+        // given
+        MetricsBeaconDeduplicator deduplicator = new MetricsBeaconDeduplicator(null, config(600, 2), clock::get);
+        deduplicator.dropDuplicates(List.of(
+            session(DEFAULT_PORTFOLIO_ID, "beacon-1"),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-2"),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-3")), today);
+
+        // when
+        List<SessionMetrics> retried = deduplicator.dropDuplicates(List.of(
+            session(DEFAULT_PORTFOLIO_ID, "beacon-1"),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-3")), today);
+
+        // then
+        assertThat(retried).extracting(SessionMetrics::beaconId).containsExactly("beacon-1");
+        assertThat(deduplicator.stats().remembered()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should keep the same beacon id sent for different portfolios")
+    void should_keep_same_beacon_id_for_different_portfolios() {
+        // given
+        MetricsBeaconDeduplicator deduplicator = new MetricsBeaconDeduplicator(null, config(600, 100), clock::get);
+
+        // when
+        List<SessionMetrics> unique = deduplicator.dropDuplicates(List.of(
+            session(DEFAULT_PORTFOLIO_ID, "beacon-1"),
+            session(SECONDARY_PORTFOLIO_ID, "beacon-1")), today);
+
+        // then
+        assertThat(unique).hasSize(2);
+        assertThat(deduplicator.stats().duplicates()).isZero();
+    }
+
+    @Test
+    @DisplayName("should check the persisted filter once per portfolio, only for beacon ids not remembered")
+    void should_check_persisted_filter_once_per_portfolio_only_on_lru_miss() {
+        // given
+        BeaconDedupRepository repository = mock(BeaconDedupRepository.class);
+        given(repository.markSeen(any(), any(), any())).willAnswer(invocation -> Set.copyOf(invocation.getArgument(2)));
+        MetricsBeaconDeduplicator deduplicator = new MetricsBeaconDeduplicator(
+            repository, new MetricsDedupConfig(true, 600, 100, true), clock::get);
+        deduplicator.dropDuplicates(List.of(session(DEFAULT_PORTFOLIO_ID, "beacon-1")), today);
+
+        // when
+        List<SessionMetrics> retried = deduplicator.dropDuplicates(List.of(
+            session(DEFAULT_PORTFOLIO_ID, "beacon-1"),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-2"),
+            session(SECONDARY_PORTFOLIO_ID, "beacon-3"),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-4")), today);
+
+        // then
+        assertThat(retried).extracting(SessionMetrics::beaconId).containsExactly("beacon-2", "beacon-3", "beacon-4");
+        then(repository).should(times(1)).markSeen(DEFAULT_PORTFOLIO_ID, today, List.of("beacon-1"));
+        then(repository).should(times(1)).markSeen(DEFAULT_PORTFOLIO_ID, today, List.of("beacon-2", "beacon-4"));
+        then(repository).should(times(1)).markSeen(SECONDARY_PORTFOLIO_ID, today, List.of("beacon-3"));
+    }
+
+    @Test
+    @DisplayName("should drop the sessions whose beacon id the persisted filter already holds")
+    void should_drop_sessions_already_in_persisted_filter() {
+        // given
+        BeaconDedupRepository repository = mock(BeaconDedupRepository.class);
+        given(repository.markSeen(any(), any(), any())).willReturn(Set.of("beacon-2"));
+        MetricsBeaconDeduplicator deduplicator = new MetricsBeaconDeduplicator(
+            repository, new MetricsDedupConfig(true, 600, 100, true), clock::get);
+
+        // when
+        List<SessionMetrics> unique = deduplicator.dropDuplicates(List.of(
+            session(DEFAULT_PORTFOLIO_ID, "beacon-1"),
+            session(DEFAULT_PORTFOLIO_ID, null),
+            session(DEFAULT_PORTFOLIO_ID, "beacon-2")), today);
+
+        // then
+        assertThat(unique).extracting(SessionMetrics::beaconId).containsExactly(null, "beacon-2");
+        assertThat(deduplicator.stats().duplicates()).isEqualTo(1);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static MetricsDedupConfig config(int windowSeconds, int maxEntries) {
+        return new MetricsDedupConfig(true, windowSeconds, maxEntries, false);
+    }
+
+    private static SessionMetrics session(PortfolioId portfolioId, String beaconId) {
+        return new SessionMetrics(
+            portfolioId,
+            TODAY_METRICS.engagement(),
+            TODAY_METRICS.scroll(),
+            TODAY_METRICS.cumProjects(),
+            TODAY_HEATMAP_SNAPSHOT,
+            TODAY_PROJECT_METRICS,
+            beaconId);
+    }
+}
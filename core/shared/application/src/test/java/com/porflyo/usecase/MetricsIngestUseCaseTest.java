@@ -0,0 +1,227 @@
+package com.porflyo.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.porflyo.configuration.MetricsIngestConfig;
+import com.porflyo.dto.QueuedSession;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.ports.MetricsIngestQueue;
+
+import static com.porflyo.data.MetricsTestData.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MetricsIngestUseCase (unit)")
+class MetricsIngestUseCaseTest {
+
+    @Mock MetricsUseCase metricsUseCase;
+    @Mock MetricsIngestQueue ingestQueue;
+
+    private MetricsIngestUseCase ingestUseCase;
+
+    @BeforeEach
+    void setUp() {
+        ingestUseCase = new MetricsIngestUseCase(metricsUseCase, ingestQueue, config(2, 3, false));
+    }
+
+    // ────────────────────────── enqueue ──────────────────────────
+
+    @Test
+    @DisplayName("should enqueue sessions without writing them")
+    void should_enqueue_sessions_without_writing_them() {
+        // given
+        List<SessionMetrics> sessions = sessions(2);
+
+        // when
+        ingestUseCase.enqueue(sessions);
+
+        // then
+        then(ingestQueue).should().enqueue(sessions);
+        then(metricsUseCase).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should reject enqueue when no queue configured")
+    void should_reject_enqueue_when_no_queue_configured() {
+        // given
+        MetricsIngestUseCase synchronous = new MetricsIngestUseCase(metricsUseCase, null, config(2, 3, false));
+
+        // when / then
+        assertThat(synchronous.isQueueEnabled()).isFalse();
+        assertThatThrownBy(() -> synchronous.enqueue(sessions(1))).isInstanceOf(IllegalStateException.class);
+        assertThat(synchronous.drain()).isZero();
+    }
+
+    // ────────────────────────── drain ──────────────────────────
+
+    @Test
+    @DisplayName("should write and acknowledge each batch until the queue is empty")
+    void should_write_and_acknowledge_each_batch_until_queue_empty() {
+        // given
+        List<QueuedSession> first = queued(2);
+        List<QueuedSession> second = queued(1);
+        given(ingestQueue.receive(2)).willReturn(first, second, List.of());
+
+        // when
+        int drained = ingestUseCase.drain();
+
+        // then
+        assertThat(drained).isEqualTo(3);
+        then(metricsUseCase).should().saveTodaySessions(first.stream().map(QueuedSession::session).toList());
+        then(metricsUseCase).should().saveTodaySessions(second.stream().map(QueuedSession::session).toList());
+        then(ingestQueue).should().acknowledge(first);
+        then(ingestQueue).should().acknowledge(second);
+    }
+
+    @Test
+    @DisplayName("should stop after the configured number of batches")
+    void should_stop_after_configured_number_of_batches() {
+        // given
+        given(ingestQueue.receive(2)).willAnswer(invocation -> queued(2));
+
+        // when
+        int drained = ingestUseCase.drain();
+
+        // then
+        assertThat(drained).isEqualTo(6);
+        then(ingestQueue).should(times(3)).receive(2);
+        then(metricsUseCase).should(times(3)).saveTodaySessions(any());
+    }
+
+    @Test
+    @DisplayName("should pass each written batch to the callback")
+    void should_pass_each_written_batch_to_callback() {
+        // given
+        List<QueuedSession> first = queued(2);
+        List<QueuedSession> second = queued(1);
+        given(ingestQueue.receive(2)).willReturn(first, second, List.of());
+        List<SessionMetrics> written = new ArrayList<>();
+
+        // when
+        ingestUseCase.drain(written::addAll);
+
+        // then
+        assertThat(written).containsExactlyElementsOf(
+            Stream.concat(first.stream(), second.stream()).map(QueuedSession::session).toList());
+    }
+
+    @Test
+    @DisplayName("should leave the batch unacknowledged when its write fails")
+    void should_leave_batch_unacknowledged_when_write_fails() {
+        // given
+        given(ingestQueue.receive(anyInt())).willReturn(queued(2));
+        given(metricsUseCase.saveTodaySessions(any())).willThrow(new IllegalStateException("DynamoDB down"));
+
+        // when / then
+        assertThatThrownBy(() -> ingestUseCase.drain()).isInstanceOf(IllegalStateException.class);
+        then(ingestQueue).should(never()).acknowledge(any());
+    }
+
+    @Test
+    @DisplayName("should drain after request only when configured to")
+    void should_drain_after_request_only_when_configured() {
+        // given
+        MetricsIngestUseCase local = new MetricsIngestUseCase(metricsUseCase, ingestQueue, config(2, 3, true));
+        given(ingestQueue.receive(2)).willReturn(List.of());
+
+        // when
+        ingestUseCase.drainAfterRequest();
+        local.drainAfterRequest();
+
+        // then
+        then(ingestQueue).should(times(1)).receive(2);
+    }
+
+    // ────────────────────────── writeDelivered ──────────────────────────
+
+    @Test
+    @DisplayName("should write delivered sessions once per portfolio")
+    void should_write_delivered_sessions_once_per_portfolio() {
+        // given
+        List<QueuedSession> delivered = new ArrayList<>(queued(2));
+        delivered.add(new QueuedSession("message-3", secondarySession()));
+        List<SessionMetrics> written = new ArrayList<>();
+
+        // when
+        List<String> failed = ingestUseCase.writeDelivered(delivered, written::addAll);
+
+        // then
+        assertThat(failed).isEmpty();
+        then(metricsUseCase).should().saveTodaySessions(delivered.subList(0, 2).stream().map(QueuedSession::session).toList());
+        then(metricsUseCase).should().saveTodaySessions(List.of(delivered.get(2).session()));
+        assertThat(written).hasSize(3);
+        then(ingestQueue).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should report only the messages of the portfolio whose write failed")
+    void should_report_only_messages_of_failed_portfolio() {
+        // given
+        List<QueuedSession> delivered = new ArrayList<>(queued(2));
+        delivered.add(new QueuedSession("message-3", secondarySession()));
+        given(metricsUseCase.saveTodaySessions(any()))
+            .willThrow(new IllegalStateException("DynamoDB down"))
+            .willReturn(1);
+        List<SessionMetrics> written = new ArrayList<>();
+
+        // when
+        List<String> failed = ingestUseCase.writeDelivered(delivered, written::addAll);
+
+        // then
+        assertThat(failed).containsExactly(delivered.get(0).receipt(), delivered.get(1).receipt());
+        assertThat(written).containsExactly(delivered.get(2).session());
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static MetricsIngestConfig config(int batchSize, int maxBatches, boolean drainAfterRequest) {
+        return new MetricsIngestConfig("memory", batchSize, maxBatches, 30, drainAfterRequest);
+    }
+
+    private static List<SessionMetrics> sessions(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new SessionMetrics(
+                DEFAULT_PORTFOLIO_ID,
+                TODAY_METRICS.engagement(),
+                TODAY_METRICS.scroll(),
+                TODAY_METRICS.cumProjects(),
+                TODAY_HEATMAP_SNAPSHOT,
+                TODAY_PROJECT_METRICS))
+            .toList();
+    }
+
+    private static SessionMetrics secondarySession() {
+        return new SessionMetrics(
+            SECONDARY_PORTFOLIO_ID,
+            SECONDARY_PORTFOLIO_TODAY.engagement(),
+            SECONDARY_PORTFOLIO_TODAY.scroll(),
+            SECONDARY_PORTFOLIO_TODAY.cumProjects(),
+            TODAY_HEATMAP_SNAPSHOT,
+            TODAY_PROJECT_METRICS);
+    }
+
+    private static List<QueuedSession> queued(int count) {
+        return sessions(count).stream()
+            .map(s -> new QueuedSession(UUID.randomUUID().toString(), s))
+            .toList();
+    }
+}
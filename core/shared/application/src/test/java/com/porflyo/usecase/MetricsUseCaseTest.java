@@ -1,34 +1,67 @@
 package com.porflyo.usecase;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.porflyo.configuration.MetricsAdmissionConfig;
 import com.porflyo.configuration.MetricsConfig;
+import com.porflyo.configuration.MetricsDedupConfig;
+import com.porflyo.dto.AdmissionStats;
+import com.porflyo.dto.BeaconDedupStats;
 import com.porflyo.dto.DetailSlot;
 import com.porflyo.dto.EnhancedPortfolioMetrics;
 import com.porflyo.dto.EnhancedPortfolioMetricsBundle;
 import com.porflyo.dto.EnhancedPortfolioMetricsSnapshot;
 import com.porflyo.dto.HeatmapSnapshot;
+import com.porflyo.dto.PortfolioMetricsSnapshot;
+import com.porflyo.dto.SessionMetrics;
+import com.porflyo.dto.WriteBehindStats;
+import com.porflyo.dto.WriteConflictStats;
+import com.porflyo.exceptions.metrics.MetricsWriteConflictException;
 import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+import com.porflyo.model.metrics.MetricsField;
 import com.porflyo.model.metrics.PortfolioHeatmap;
 import com.porflyo.model.metrics.PortfolioMetrics;
 import com.porflyo.model.metrics.ProjectMetricsWithId;
+import com.porflyo.ports.BaselineStateRepository;
+import com.porflyo.ports.BeaconDedupRepository;
+import com.porflyo.ports.MetricsViewRepository;
 import com.porflyo.ports.PortfolioMetricsRepository;
 import com.porflyo.ports.SlotMetricsRepository;
+import com.porflyo.ports.TodayMetricsRepository;
+import com.porflyo.utils.facade.PortfolioAnalyticsFacade;
+import com.porflyo.utils.zscore.RollingBaseline;
 
 import static com.porflyo.data.MetricsTestData.*;
 import static com.porflyo.data.SlotMetricsTestData.*;
@@ -39,12 +72,26 @@ class MetricsUseCaseTest {
 
     @Mock PortfolioMetricsRepository portfolioMetricsRepository;
     @Mock SlotMetricsRepository slotMetricsRepository;
+    @Mock TodayMetricsRepository todayMetricsRepository;
     @Mock MetricsConfig metricsConfig;
+    @Mock BeaconDedupRepository beaconDedupRepository;
+    @Mock MetricsDedupConfig dedupConfig;
+    @Mock MetricsAdmissionConfig admissionConfig;
 
-    @InjectMocks MetricsUseCase metricsUseCase;
+    MetricsUseCase metricsUseCase;
+
+    private static final MetricsDedupConfig NO_DEDUP = new MetricsDedupConfig(false, 600, 1000, false);
+    private static final MetricsAdmissionConfig NO_ADMISSION = new MetricsAdmissionConfig(false, 5, 50, 100, 1000);
 
     private final PortfolioId portfolioId = com.porflyo.data.MetricsTestData.DEFAULT_PORTFOLIO_ID;
 
+    @BeforeEach
+    void setup() {
+        metricsUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, dedupConfig, admissionConfig, null, null);
+    }
+
     // ────────────────────────── saveTodayPortfolioMetrics ──────────────────────────
 
     @Test
@@ -52,12 +99,73 @@ class MetricsUseCaseTest {
     void should_save_todays_portfolio_metrics() {
         // given
         PortfolioMetrics metrics = TODAY_METRICS;
+        List<PortfolioMetrics> saved = stubMetricsMerge(Optional.empty());
 
         // when
         metricsUseCase.saveTodayPortfolioMetrics(portfolioId, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
 
         // then
-        then(portfolioMetricsRepository).should().saveTodayMetrics(metrics);
+        assertThat(saved).containsExactly(metrics);
+    }
+
+    @Test
+    @DisplayName("should add counters without reading when atomic counters enabled")
+    void should_add_counters_without_reading_when_atomic_counters_enabled() {
+        // given
+        PortfolioMetrics metrics = TODAY_METRICS;
+        given(metricsConfig.atomicCountersEnabled()).willReturn(true);
+
+        // when
+        metricsUseCase.saveTodayPortfolioMetrics(portfolioId, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+
+        // then
+        then(portfolioMetricsRepository).should().addTodayMetrics(metrics);
+        then(portfolioMetricsRepository).should(never()).getTodayMetrics(any());
+        then(portfolioMetricsRepository).should(never()).saveTodayMetrics(any());
+        then(portfolioMetricsRepository).should(never()).mergeTodayMetrics(any(), any());
+    }
+
+    // ────────────────────────── Conditional writes ──────────────────────────
+
+    @Test
+    @DisplayName("should re-read and merge again when a concurrent write rejects the first attempt")
+    void should_remerge_from_fresh_read_when_concurrent_write_rejected() {
+        // given
+        PortfolioMetrics metrics = TODAY_METRICS;
+        given(metricsConfig.writeMaxAttempts()).willReturn(3);
+
+        List<PortfolioMetrics> saved = new ArrayList<>();
+        List<Optional<PortfolioMetrics>> reads = List.of(Optional.empty(), Optional.of(TODAY_METRICS));
+        given(portfolioMetricsRepository.mergeTodayMetrics(eq(portfolioId), any())).willAnswer(invocation -> {
+            Function<Optional<PortfolioMetrics>, PortfolioMetrics> merge = invocation.getArgument(1);
+            PortfolioMetrics merged = merge.apply(reads.get(saved.size()));
+            saved.add(merged);
+            return saved.size() > 1;    // first attempt loses against another writer
+        });
+
+        // when
+        metricsUseCase.saveTodayPortfolioMetrics(portfolioId, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+
+        // then
+        then(portfolioMetricsRepository).should(times(2)).mergeTodayMetrics(eq(portfolioId), any());
+        assertThat(saved.get(1).engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 2);
+        assertThat(metricsUseCase.getWriteConflictStats()).isEqualTo(new WriteConflictStats(1, 1, 0));
+    }
+
+    @Test
+    @DisplayName("should throw conflict when every conditional write attempt is rejected")
+    void should_throw_conflict_when_every_attempt_rejected() {
+        // given
+        given(metricsConfig.writeMaxAttempts()).willReturn(3);
+        given(slotMetricsRepository.mergeTodayMetrics(eq(portfolioId), any())).willReturn(false);
+
+        // when / then
+        assertThatThrownBy(() -> metricsUseCase.saveTodayDetailSlot(portfolioId, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS))
+            .isInstanceOf(MetricsWriteConflictException.class);
+
+        then(slotMetricsRepository).should(times(3)).mergeTodayMetrics(eq(portfolioId), any());
+        then(slotMetricsRepository).should(never()).saveTodayMetrics(any(), any(), any());
+        assertThat(metricsUseCase.getWriteConflictStats()).isEqualTo(new WriteConflictStats(3, 2, 1));
     }
 
     // ────────────────────────── saveTodayDetailSlot (new slot) ──────────────────────────
@@ -69,19 +177,15 @@ class MetricsUseCaseTest {
         HeatmapSnapshot heatmapSnapshot = TODAY_HEATMAP_SNAPSHOT;
         List<ProjectMetricsWithId> projects = TODAY_PROJECT_METRICS;
         
-        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        List<DetailSlot> saved = stubSlotMerge(Optional.empty());
 
         // when
         metricsUseCase.saveTodayDetailSlot(portfolioId, heatmapSnapshot, projects);
 
         // then
-        ArgumentCaptor<PortfolioHeatmap> heatmapCaptor = ArgumentCaptor.forClass(PortfolioHeatmap.class);
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<ProjectMetricsWithId>> projectsCaptor = ArgumentCaptor.forClass(List.class);
-
-        then(slotMetricsRepository).should().saveTodayMetrics(any(PortfolioId.class), heatmapCaptor.capture(), projectsCaptor.capture());
+        assertThat(saved).hasSize(1);
 
-        PortfolioHeatmap savedHeatmap = heatmapCaptor.getValue();
+        PortfolioHeatmap savedHeatmap = saved.get(0).heatmap();
         assertThat(savedHeatmap.version()).isEqualTo("1.0.0");
         assertThat(savedHeatmap.rows()).isEqualTo(12);
         assertThat(savedHeatmap.Indexes()).isEqualTo(heatmapSnapshot.Indexes());
@@ -89,7 +193,7 @@ class MetricsUseCaseTest {
         // Counts should all be 1 (new visits)
         assertThat(savedHeatmap.Counts()).containsOnly(1);
 
-        List<ProjectMetricsWithId> savedProjects = projectsCaptor.getValue();
+        List<ProjectMetricsWithId> savedProjects = saved.get(0).projects();
         assertThat(savedProjects).isEqualTo(projects);
     }
 
@@ -103,25 +207,21 @@ class MetricsUseCaseTest {
         List<ProjectMetricsWithId> newProjects = UPDATED_PROJECT_METRICS;
         
         DetailSlot existingSlot = TODAY_DETAIL_SLOT;
-        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(existingSlot));
+        List<DetailSlot> saved = stubSlotMerge(Optional.of(existingSlot));
         given(metricsConfig.heatmapCellCount()).willReturn(100);
 
         // when
         metricsUseCase.saveTodayDetailSlot(portfolioId, newHeatmapSnapshot, newProjects);
 
         // then
-        ArgumentCaptor<PortfolioHeatmap> heatmapCaptor = ArgumentCaptor.forClass(PortfolioHeatmap.class);
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<ProjectMetricsWithId>> projectsCaptor = ArgumentCaptor.forClass(List.class);
-
-        then(slotMetricsRepository).should().saveTodayMetrics(any(PortfolioId.class), heatmapCaptor.capture(), projectsCaptor.capture());
+        assertThat(saved).hasSize(1);
 
         // Verify heatmap was updated (using MetricsHeatmapUtils.updateHeatmap)
-        PortfolioHeatmap updatedHeatmap = heatmapCaptor.getValue();
+        PortfolioHeatmap updatedHeatmap = saved.get(0).heatmap();
         assertThat(updatedHeatmap.version()).isEqualTo("1.1.0"); // Should use new version
 
         // Verify projects were merged
-        List<ProjectMetricsWithId> updatedProjects = projectsCaptor.getValue();
+        List<ProjectMetricsWithId> updatedProjects = saved.get(0).projects();
         assertThat(updatedProjects).hasSize(4); // 3 existing + 1 new - no duplicates
 
         // Check that project 1 was updated (should have combined values)
@@ -158,14 +258,15 @@ class MetricsUseCaseTest {
             existingProjects
         );
         
-        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(existingSlot));
+        List<DetailSlot> saved = stubSlotMerge(Optional.of(existingSlot));
         given(metricsConfig.heatmapCellCount()).willReturn(100);
 
         // when
         metricsUseCase.saveTodayDetailSlot(portfolioId, TODAY_HEATMAP_SNAPSHOT, newProjects);
 
         // then - verify the method was called with updated data
-        then(slotMetricsRepository).should().saveTodayMetrics(any(PortfolioId.class), any(PortfolioHeatmap.class), any());
+        then(slotMetricsRepository).should().mergeTodayMetrics(any(PortfolioId.class), any());
+        assertThat(saved).hasSize(1);
         
         // Note: The detailed testing of updateProjects logic should be done separately
         // as it's a complex private method. Here we just verify the orchestration works.
@@ -192,6 +293,35 @@ class MetricsUseCaseTest {
         then(portfolioMetricsRepository).should().findPortfolioMetrics(portfolioId, 3);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {365, 730})
+    @DisplayName("should score every day against the same baseline as the list-based calculator")
+    void should_score_every_day_against_same_baseline_as_list_based_calculator(int dayCount) {
+        // given
+        List<PortfolioMetrics> rawMetrics = new ArrayList<>(dayCount);     // most recent first
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < dayCount; i++) {
+            int views = 40 + (i * 37) % 160;
+            rawMetrics.add(createMetricsForDate(portfolioId, today.minusDays(i), views, 600_000 + (i * 7919) % 900_000, 20 + (i * 53) % 80));
+        }
+        given(portfolioMetricsRepository.findPortfolioMetrics(portfolioId, 24)).willReturn(rawMetrics);
+        given(metricsConfig.baselineWindowDays()).willReturn(28);
+
+        // when
+        List<EnhancedPortfolioMetrics> result = metricsUseCase.getPortfolioMetrics(portfolioId, 24);
+
+        // then
+        assertThat(result).hasSize(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            List<PortfolioMetrics> previousDays = rawMetrics.subList(i + 1, Math.min(dayCount, i + 1 + 28));
+            assertThat(result.get(i).date()).isEqualTo(rawMetrics.get(i).date());
+            assertThat(result.get(i).zScores())
+                .usingRecursiveComparison()
+                .withComparatorForType((a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b), Double.class)
+                .isEqualTo(PortfolioAnalyticsFacade.calculateZScores(rawMetrics.get(i), previousDays, 28));
+        }
+    }
+
     @Test
     @DisplayName("should get enhanced portfolio metrics for one month")
     void should_get_enhanced_portfolio_metrics_one_month() {
@@ -236,6 +366,114 @@ class MetricsUseCaseTest {
         assertThat(result.slots().get(0).projects()).hasSize(expectedSlots.get(0).projects().size());
     }
 
+    @Test
+    @DisplayName("should read only the range and requested counters, without z-scores nor slots")
+    void should_read_only_range_and_requested_counters() {
+        // given
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(13);
+        Set<MetricsField> fields = EnumSet.of(MetricsField.VIEWS);
+        PortfolioMetrics day = createMetricsForDate(portfolioId, to.minusDays(1), 90, 1200000, 65);
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, from, to, fields)).willReturn(List.of(day));
+
+        // when
+        EnhancedPortfolioMetricsBundle result = metricsUseCase.getPortfolioMetricsBetween(portfolioId, from, to, fields, false, false);
+
+        // then
+        assertThat(result.aggregates()).extracting(EnhancedPortfolioMetrics::date).containsExactly(day.date());
+        assertThat(result.aggregates().get(0).zScores().visits()).isNull();
+        assertThat(result.slots()).isEmpty();
+        then(slotMetricsRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should score the first days of the range against the window before it")
+    void should_score_first_days_against_window_before_range() {
+        // given
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(1);
+        Set<MetricsField> fields = EnumSet.allOf(MetricsField.class);
+        List<PortfolioMetrics> rawMetrics = List.of(                      // most recent first
+            createMetricsForDate(portfolioId, to, 120, 1500000, 70),
+            createMetricsForDate(portfolioId, from, 90, 1200000, 65),
+            createMetricsForDate(portfolioId, from.minusDays(1), 60, 900000, 50),
+            createMetricsForDate(portfolioId, from.minusDays(2), 80, 1000000, 55));
+        given(metricsConfig.baselineWindowDays()).willReturn(28);
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, from.minusDays(28), to, fields)).willReturn(rawMetrics);
+        given(slotMetricsRepository.getAllMetrics(portfolioId)).willReturn(List.of());
+
+        // when
+        EnhancedPortfolioMetricsBundle result = metricsUseCase.getPortfolioMetricsBetween(portfolioId, from, to, fields, true, true);
+
+        // then
+        assertThat(result.aggregates()).extracting(EnhancedPortfolioMetrics::date).containsExactly(to, from);
+        assertThat(result.aggregates().get(1).zScores())
+            .usingRecursiveComparison()
+            .withComparatorForType((a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b), Double.class)
+            .isEqualTo(PortfolioAnalyticsFacade.calculateZScores(rawMetrics.get(1), rawMetrics.subList(2, 4), 28));
+        then(slotMetricsRepository).should().getAllMetrics(portfolioId);
+    }
+
+    @Test
+    @DisplayName("should read only the days and slots since the given day")
+    void should_read_only_days_and_slots_since_given_day() {
+        // given
+        LocalDate today = LocalDate.now();
+        LocalDate since = today.minusDays(2);
+        Set<MetricsField> fields = EnumSet.of(MetricsField.VIEWS);
+        PortfolioMetrics day = createMetricsForDate(portfolioId, today, 90, 1200000, 65);
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, since, today, fields)).willReturn(List.of(day));
+        given(slotMetricsRepository.findMetricsSince(portfolioId, since)).willReturn(List.of(TODAY_DETAIL_SLOT));
+
+        // when
+        EnhancedPortfolioMetricsBundle result = metricsUseCase.getPortfolioMetricsSince(portfolioId, since, fields, false, true);
+
+        // then
+        assertThat(result.aggregates()).extracting(EnhancedPortfolioMetrics::date).containsExactly(today);
+        assertThat(result.slots()).extracting(DetailSlot::date).containsExactly(TODAY_DETAIL_SLOT.date());
+        then(slotMetricsRepository).should(never()).getAllMetrics(any());
+    }
+
+    @Test
+    @DisplayName("should read only today's metrics and the persisted baseline when syncing since today")
+    void should_read_only_today_and_baseline_when_syncing_since_today() {
+        // given
+        BaselineStateRepository baselineStateRepository = mock(BaselineStateRepository.class);
+        MetricsUseCase baselineUseCase = baselineUseCase(baselineStateRepository);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        RollingBaseline baseline = RollingBaseline.empty(28);
+        baseline.push(createMetricsForDate(portfolioId, yesterday, 90, 1200000, 65));
+
+        given(portfolioMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(TODAY_METRICS));
+        given(baselineStateRepository.findBaselineState(portfolioId)).willReturn(Optional.of(baseline.toState(portfolioId, yesterday)));
+
+        // when
+        EnhancedPortfolioMetricsBundle result = baselineUseCase.getPortfolioMetricsSince(
+            portfolioId, LocalDate.now(), EnumSet.allOf(MetricsField.class), true, false);
+
+        // then
+        assertThat(result.aggregates()).hasSize(1);
+        assertThat(result.aggregates().get(0).zScores()).isEqualTo(PortfolioAnalyticsFacade.calculateZScores(TODAY_METRICS, baseline));
+        then(portfolioMetricsRepository).should(never()).findPortfolioMetricsBetween(any(), any(), any(), any());
+        then(slotMetricsRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should tag the metrics version with today's date")
+    void should_tag_metrics_version_with_todays_date() {
+        // given
+        given(todayMetricsRepository.findTodayVersion(portfolioId)).willReturn("7.3.2");
+
+        // when
+        String version = metricsUseCase.getMetricsVersion(portfolioId);
+
+        // then
+        assertThat(version).isEqualTo(LocalDate.now() + ".7.3.2");
+        then(portfolioMetricsRepository).shouldHaveNoInteractions();
+        then(slotMetricsRepository).shouldHaveNoInteractions();
+    }
+
     @Test
     @DisplayName("should get today's enhanced metrics with details")
     void should_get_todays_enhanced_metrics_with_details() {
@@ -246,8 +484,9 @@ class MetricsUseCaseTest {
         
         given(portfolioMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(rawAggregate));
         given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(expectedDetails));
-        given(portfolioMetricsRepository.findPortfolioMetrics(portfolioId, 1)).willReturn(baselineMetrics);
         given(metricsConfig.baselineWindowDays()).willReturn(28);
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(
+            portfolioId, rawAggregate.date().minusDays(28), rawAggregate.date().minusDays(1))).willReturn(baselineMetrics);
 
         // when
         EnhancedPortfolioMetricsSnapshot result = metricsUseCase.getTodayMetricsWithDetails(portfolioId);
@@ -260,6 +499,94 @@ class MetricsUseCaseTest {
         assertThat(result.details()).isEqualTo(expectedDetails);
     }
 
+    @Test
+    @DisplayName("should compute today's z-scores from the persisted baseline without reading past days")
+    void should_compute_todays_zscores_from_persisted_baseline() {
+        // given
+        BaselineStateRepository baselineStateRepository = mock(BaselineStateRepository.class);
+        MetricsUseCase baselineUseCase = baselineUseCase(baselineStateRepository);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        RollingBaseline baseline = RollingBaseline.empty(28);
+        baseline.push(createMetricsForDate(portfolioId, yesterday.minusDays(1), 60, 900000, 50));
+        baseline.push(createMetricsForDate(portfolioId, yesterday, 90, 1200000, 65));
+
+        given(portfolioMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(TODAY_METRICS));
+        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        given(baselineStateRepository.findBaselineState(portfolioId)).willReturn(Optional.of(baseline.toState(portfolioId, yesterday)));
+
+        // when
+        EnhancedPortfolioMetricsSnapshot result = baselineUseCase.getTodayMetricsWithDetails(portfolioId);
+
+        // then
+        assertThat(result.aggregate().zScores()).isEqualTo(PortfolioAnalyticsFacade.calculateZScores(TODAY_METRICS, baseline));
+        assertThat(result.aggregate().zScores().visits()).isNotNull();
+        then(portfolioMetricsRepository).should(never()).findPortfolioMetricsBetween(any(), any(), any());
+        then(baselineStateRepository).should(never()).saveBaselineState(any());
+    }
+
+    @Test
+    @DisplayName("should rebuild and store the baseline through yesterday when none is stored")
+    void should_rebuild_and_store_baseline_when_none_stored() {
+        // given
+        BaselineStateRepository baselineStateRepository = mock(BaselineStateRepository.class);
+        MetricsUseCase baselineUseCase = baselineUseCase(baselineStateRepository);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        PortfolioMetrics older = createMetricsForDate(portfolioId, yesterday.minusDays(3), 60, 900000, 50);
+        PortfolioMetrics newer = createMetricsForDate(portfolioId, yesterday, 90, 1200000, 65);
+
+        given(portfolioMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(TODAY_METRICS));
+        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        given(baselineStateRepository.findBaselineState(portfolioId)).willReturn(Optional.empty());
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, LocalDate.now().minusDays(28), yesterday))
+            .willReturn(List.of(newer, older));
+
+        // when
+        EnhancedPortfolioMetricsSnapshot result = baselineUseCase.getTodayMetricsWithDetails(portfolioId);
+
+        // then
+        ArgumentCaptor<BaselineState> stored = ArgumentCaptor.forClass(BaselineState.class);
+        then(baselineStateRepository).should().saveBaselineState(stored.capture());
+        assertThat(stored.getValue().throughDate()).isEqualTo(yesterday);
+        assertThat(stored.getValue().stats().get(0).window()).containsExactly(60.0, 90.0);    // today left out
+        assertThat(result.aggregate().zScores())
+            .usingRecursiveComparison()
+            .withComparatorForType((a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b), Double.class)
+            .isEqualTo(PortfolioAnalyticsFacade.calculateZScores(TODAY_METRICS, List.of(newer, older), 28));
+    }
+
+    @Test
+    @DisplayName("should read only the days closed since the stored baseline when catching up")
+    void should_read_only_closed_days_when_catching_up() {
+        // given
+        BaselineStateRepository baselineStateRepository = mock(BaselineStateRepository.class);
+        MetricsUseCase baselineUseCase = baselineUseCase(baselineStateRepository);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        PortfolioMetrics stale = createMetricsForDate(portfolioId, yesterday.minusDays(2), 60, 900000, 50);
+        PortfolioMetrics closed = createMetricsForDate(portfolioId, yesterday, 90, 1200000, 65);
+
+        RollingBaseline baseline = RollingBaseline.empty(28);
+        baseline.push(stale);
+
+        given(portfolioMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.of(TODAY_METRICS));
+        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        given(baselineStateRepository.findBaselineState(portfolioId))
+            .willReturn(Optional.of(baseline.toState(portfolioId, stale.date())));
+        given(portfolioMetricsRepository.findPortfolioMetricsBetween(portfolioId, stale.date().plusDays(1), yesterday))
+            .willReturn(List.of(closed));
+
+        // when
+        baselineUseCase.getTodayMetricsWithDetails(portfolioId);
+
+        // then
+        ArgumentCaptor<BaselineState> stored = ArgumentCaptor.forClass(BaselineState.class);
+        then(baselineStateRepository).should().saveBaselineState(stored.capture());
+        assertThat(stored.getValue().throughDate()).isEqualTo(yesterday);
+        assertThat(stored.getValue().stats().get(0).window()).containsExactly(60.0, 90.0);
+        then(portfolioMetricsRepository).should(times(1)).findPortfolioMetricsBetween(any(), any(), any());
+        then(portfolioMetricsRepository).should(never()).findPortfolioMetrics(any(), anyInt());
+    }
+
     @Test
     @DisplayName("should handle missing today's data gracefully")
     void should_handle_missing_todays_data() {
@@ -276,6 +603,457 @@ class MetricsUseCaseTest {
         assertThat(result.details()).isNull();
     }
 
+    // ────────────────────────── saveTodaySessions ──────────────────────────
+
+    @Test
+    @DisplayName("should fold sessions and write once per portfolio when saving a batch")
+    void should_fold_sessions_and_write_once_per_portfolio_when_saving_batch() {
+        // given
+        PortfolioId secondaryId = SECONDARY_PORTFOLIO_TODAY.portfolioId();
+        List<SessionMetrics> sessions = List.of(
+            toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS),
+            toSession(SECONDARY_PORTFOLIO_TODAY, UPDATED_HEATMAP_SNAPSHOT, UPDATED_PROJECT_METRICS),
+            toSession(TODAY_METRICS, UPDATED_HEATMAP_SNAPSHOT, UPDATED_PROJECT_METRICS)
+        );
+
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+        given(metricsConfig.heatmapCellCount()).willReturn(100);
+
+        // when
+        int portfolios = metricsUseCase.saveTodaySessions(sessions);
+
+        // then
+        assertThat(portfolios).isEqualTo(2);
+        then(todayMetricsRepository).should(times(1)).mergeDayMetrics(eq(portfolioId), any(), any());
+        then(todayMetricsRepository).should(times(1)).mergeDayMetrics(eq(secondaryId), any(), any());
+        then(portfolioMetricsRepository).shouldHaveNoInteractions();
+        then(slotMetricsRepository).shouldHaveNoInteractions();
+
+        assertThat(saved).hasSize(2);
+
+        PortfolioMetrics folded = saved.get(0).aggregate();
+        assertThat(folded.portfolioId()).isEqualTo(portfolioId);
+        assertThat(folded.engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 2);
+        assertThat(folded.cumProjects().viewTime()).isEqualTo(TODAY_METRICS.cumProjects().viewTime() * 2);
+        assertThat(saved.get(1).aggregate()).isEqualTo(SECONDARY_PORTFOLIO_TODAY);
+
+        // index 1 is present in both snapshots of the first portfolio
+        PortfolioHeatmap heatmap = saved.get(0).todaySlot().heatmap();
+        int cell = heatmap.Indexes().indexOf(1);
+        assertThat(heatmap.Values().get(cell)).isEqualTo(35); // 25 + 10
+        assertThat(heatmap.Counts().get(cell)).isEqualTo(2);
+        assertThat(saved.get(0).todaySlot().projects()).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("should merge folded heatmap counts with the stored slot when saving a batch")
+    void should_merge_folded_heatmap_with_stored_slot_when_saving_batch() {
+        // given
+        List<SessionMetrics> sessions = List.of(
+            toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS),
+            toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS)
+        );
+        DetailSlot storedSlot = new DetailSlot(
+            LocalDate.now(),
+            new PortfolioHeatmap("1.0.0", 12, List.of(0), List.of(5), List.of(3)),
+            List.of());
+
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(TODAY_METRICS, storedSlot);
+        given(metricsConfig.heatmapCellCount()).willReturn(100);
+
+        // when
+        metricsUseCase.saveTodaySessions(sessions);
+
+        // then
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).aggregate().engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 3);
+
+        PortfolioHeatmap heatmap = saved.get(0).todaySlot().heatmap();
+        int cell = heatmap.Indexes().indexOf(0);
+        assertThat(heatmap.Values().get(cell)).isEqualTo(35); // 5 + 15 + 15
+        assertThat(heatmap.Counts().get(cell)).isEqualTo(5);  // 3 + 1 + 1
+    }
+
+    @Test
+    @DisplayName("should add counters and merge only the slot when atomic counters enabled in a batch")
+    void should_add_counters_and_merge_only_slot_when_atomic_counters_enabled_in_batch() {
+        // given
+        given(metricsConfig.atomicCountersEnabled()).willReturn(true);
+        List<DetailSlot> savedSlots = stubDaySlotMerge(Optional.empty());
+
+        // when
+        metricsUseCase.saveTodaySessions(List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS)));
+
+        // then
+        then(portfolioMetricsRepository).should().addTodayMetrics(TODAY_METRICS);
+        then(todayMetricsRepository).shouldHaveNoInteractions();
+        assertThat(savedSlots).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should not add the counters when the slot write fails with atomic counters")
+    void should_not_add_counters_when_slot_write_fails_with_atomic_counters() {
+        // given
+        given(metricsConfig.atomicCountersEnabled()).willReturn(true);
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            null, new MetricsDedupConfig(true, 600, 1000, false), NO_ADMISSION, null, null);
+        SessionMetrics beacon = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1");
+        given(slotMetricsRepository.mergeDayMetrics(any(PortfolioId.class), any(LocalDate.class), any()))
+            .willReturn(false)
+            .willReturn(true);
+
+        // when
+        assertThatThrownBy(() -> dedupUseCase.saveTodaySessions(List.of(beacon)))
+            .isInstanceOf(MetricsWriteConflictException.class);
+
+        // then
+        then(portfolioMetricsRepository).should(never()).addTodayMetrics(any());
+
+        // when - the retry is not dropped as a duplicate
+        int retried = dedupUseCase.saveTodaySessions(List.of(beacon));
+
+        // then
+        assertThat(retried).isEqualTo(1);
+        then(portfolioMetricsRepository).should(times(1)).addTodayMetrics(TODAY_METRICS);
+    }
+
+    @Test
+    @DisplayName("should not touch repositories when batch is empty")
+    void should_not_touch_repositories_when_batch_empty() {
+        // when
+        int portfolios = metricsUseCase.saveTodaySessions(List.of());
+
+        // then
+        assertThat(portfolios).isZero();
+        then(portfolioMetricsRepository).shouldHaveNoInteractions();
+        then(slotMetricsRepository).shouldHaveNoInteractions();
+        then(todayMetricsRepository).shouldHaveNoInteractions();
+    }
+
+    // ────────────────────────── Write-behind ──────────────────────────
+
+    @Test
+    @DisplayName("should buffer sessions until the accumulator is full when write-behind enabled")
+    void should_buffer_sessions_until_accumulator_full_when_write_behind_enabled() {
+        // given
+        MetricsUseCase writeBehindUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, true, 3, 3600, 100, false, 5, 0, 0), null, NO_DEDUP, NO_ADMISSION, null, null);
+        SessionMetrics session = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS);
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+        List<PortfolioId> written = new ArrayList<>();
+
+        // when
+        writeBehindUseCase.saveTodaySessions(List.of(session), written::add);
+        writeBehindUseCase.saveTodaySessions(List.of(session), written::add);
+
+        // then
+        then(todayMetricsRepository).should(never()).mergeDayMetrics(any(), any(), any());
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(2, 0, 1));
+        assertThat(written).isEmpty();
+
+        // when
+        writeBehindUseCase.saveTodaySessions(List.of(session), written::add);
+
+        // then
+        then(todayMetricsRepository).should(times(1)).mergeDayMetrics(eq(portfolioId), any(), any());
+        assertThat(written).containsExactly(portfolioId);
+
+        assertThat(saved.get(0).aggregate().engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 3);
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(0, 3, 0));
+    }
+
+    @Test
+    @DisplayName("should write pending accumulators when write-behind buffer is flushed on shutdown")
+    void should_write_pending_accumulators_when_flushed_on_shutdown() {
+        // given
+        MetricsUseCase writeBehindUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, true, 50, 3600, 100, false, 5, 0, 0), null, NO_DEDUP, NO_ADMISSION, null, null);
+        stubTodayMerge(null, null);
+
+        writeBehindUseCase.saveTodaySessions(List.of(
+            toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS),
+            toSession(SECONDARY_PORTFOLIO_TODAY, UPDATED_HEATMAP_SNAPSHOT, UPDATED_PROJECT_METRICS)));
+        then(todayMetricsRepository).should(never()).mergeDayMetrics(any(), any(), any());
+
+        // when
+        writeBehindUseCase.flushWriteBehind();
+
+        // then
+        then(todayMetricsRepository).should(times(2)).mergeDayMetrics(any(), any(), any());
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(0, 2, 0));
+        then(todayMetricsRepository).should(never()).recordLateWrite(any());
+        then(portfolioMetricsRepository).should(never()).deleteRollupsCovering(any(), any());
+    }
+
+    @Test
+    @DisplayName("should write immediately and report no buffered sessions when write-behind disabled")
+    void should_write_immediately_when_write_behind_disabled() {
+        // given
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        // when
+        metricsUseCase.saveTodaySessions(List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS)));
+        metricsUseCase.flushWriteBehind();
+
+        // then
+        assertThat(saved).extracting(PortfolioMetricsSnapshot::aggregate).containsExactly(TODAY_METRICS);
+        assertThat(metricsUseCase.isWriteBehindEnabled()).isFalse();
+        assertThat(metricsUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("should write an accumulator buffered before midnight to its own day")
+    void should_write_accumulator_buffered_before_midnight_to_its_own_day() {
+        // given
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        AtomicLong clock = new AtomicLong(epochMillis(yesterday.atTime(23, 59)));
+        BaselineStateRepository baselineStateRepository = mock(BaselineStateRepository.class);
+        MetricsUseCase writeBehindUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, true, 50, 3600, 100, false, 5, 0, 0), null, NO_DEDUP, NO_ADMISSION,
+            baselineStateRepository, null, clock::get);
+        SessionMetrics session = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS);
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        writeBehindUseCase.saveTodaySessions(List.of(session));
+
+        // when
+        clock.set(epochMillis(LocalDate.now().atTime(0, 1)));
+        writeBehindUseCase.saveTodaySessions(List.of(session));
+
+        // then
+        then(todayMetricsRepository).should(times(1)).mergeDayMetrics(eq(portfolioId), eq(yesterday), any());
+        assertThat(saved).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.aggregate().date()).isEqualTo(yesterday);
+            assertThat(snapshot.todaySlot().date()).isEqualTo(yesterday);
+        });
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(1, 1, 1));
+
+        // and - the late write changes the version and drops the baseline and rollups that may cover it
+        then(todayMetricsRepository).should().recordLateWrite(portfolioId);
+        then(baselineStateRepository).should().deleteBaselineState(portfolioId);
+        then(portfolioMetricsRepository).should().deleteRollupsCovering(portfolioId, yesterday);
+    }
+
+    @Test
+    @DisplayName("should keep a failed accumulator buffered and its beacons seen")
+    void should_keep_failed_accumulator_buffered_and_its_beacons_seen() {
+        // given
+        MetricsUseCase writeBehindUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, true, 1, 3600, 100, false, 5, 0, 0),
+            null, new MetricsDedupConfig(true, 600, 1000, false), NO_ADMISSION, null, null);
+        SessionMetrics beacon = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1");
+        List<PortfolioMetricsSnapshot> saved = new ArrayList<>();
+        given(todayMetricsRepository.mergeDayMetrics(any(PortfolioId.class), any(LocalDate.class), any()))
+            .willThrow(new IllegalStateException("DynamoDB down"))
+            .willAnswer(invocation -> {
+                UnaryOperator<PortfolioMetricsSnapshot> merge = invocation.getArgument(2);
+                saved.add(merge.apply(new PortfolioMetricsSnapshot(portfolioId, null, null)));
+                return true;
+            });
+
+        // when
+        assertThatThrownBy(() -> writeBehindUseCase.saveTodaySessions(List.of(beacon))).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(1, 0, 1));
+
+        // when - the retry is a duplicate and the next flush writes the buffered session
+        int retried = writeBehindUseCase.saveTodaySessions(List.of(beacon));
+        writeBehindUseCase.flushExpiredWriteBehind();
+
+        // then
+        assertThat(retried).isZero();
+        assertThat(saved).extracting(PortfolioMetricsSnapshot::aggregate).containsExactly(TODAY_METRICS);
+        assertThat(writeBehindUseCase.getWriteBehindStats()).isEqualTo(new WriteBehindStats(0, 1, 0));
+    }
+
+    // ────────────────────────── Beacon dedup ──────────────────────────
+
+    @Test
+    @DisplayName("should drop a retried beacon before reading anything")
+    void should_drop_retried_beacon_before_reading_anything() {
+        // given
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, new MetricsDedupConfig(true, 600, 1000, false), NO_ADMISSION, null, null);
+        SessionMetrics beacon = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1");
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        // when
+        int first = dedupUseCase.saveTodaySessions(List.of(beacon, beacon));
+        int retry = dedupUseCase.saveTodaySessions(List.of(beacon));
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(retry).isZero();
+        assertThat(saved).extracting(PortfolioMetricsSnapshot::aggregate).containsExactly(TODAY_METRICS);
+        assertThat(dedupUseCase.getBeaconDedupStats()).isEqualTo(new BeaconDedupStats(3, 2, 1));
+        then(beaconDedupRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should keep sessions without beacon id")
+    void should_keep_sessions_without_beacon_id() {
+        // given
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, new MetricsDedupConfig(true, 600, 1000, true), NO_ADMISSION, null, null);
+        SessionMetrics session = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS);
+        given(metricsConfig.heatmapCellCount()).willReturn(100);
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        // when
+        dedupUseCase.saveTodaySessions(List.of(session, session));
+
+        // then
+        assertThat(saved.get(0).aggregate().engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 2);
+        then(beaconDedupRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should drop a beacon already recorded in the persisted filter")
+    void should_drop_beacon_already_recorded_in_persisted_filter() {
+        // given
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, new MetricsDedupConfig(true, 600, 1000, true), NO_ADMISSION, null, null);
+        given(beaconDedupRepository.markSeen(eq(portfolioId), any(LocalDate.class), eq(List.of("beacon-1")))).willReturn(Set.of());
+
+        // when
+        int portfolios = dedupUseCase.saveTodaySessions(
+            List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1")));
+
+        // then
+        assertThat(portfolios).isZero();
+        then(todayMetricsRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("should keep the beacon when the persisted filter fails")
+    void should_keep_beacon_when_persisted_filter_fails() {
+        // given
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, new MetricsDedupConfig(true, 600, 1000, true), NO_ADMISSION, null, null);
+        given(beaconDedupRepository.markSeen(any(), any(), any())).willThrow(new IllegalStateException("DynamoDB down"));
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        // when
+        dedupUseCase.saveTodaySessions(List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1")));
+
+        // then
+        assertThat(saved).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should forget the beacons of a failed write so the retry is counted")
+    void should_forget_beacons_of_failed_write() {
+        // given
+        MetricsUseCase dedupUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            beaconDedupRepository, new MetricsDedupConfig(true, 600, 1000, true), NO_ADMISSION, null, null);
+        SessionMetrics beacon = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS, "beacon-1");
+        given(beaconDedupRepository.markSeen(any(), any(), any())).willReturn(Set.of("beacon-1"));
+        given(todayMetricsRepository.mergeDayMetrics(any(PortfolioId.class), any(LocalDate.class), any()))
+            .willThrow(new IllegalStateException("DynamoDB down"))
+            .willReturn(true);
+
+        // when
+        assertThatThrownBy(() -> dedupUseCase.saveTodaySessions(List.of(beacon))).isInstanceOf(IllegalStateException.class);
+        int retried = dedupUseCase.saveTodaySessions(List.of(beacon));
+
+        // then
+        then(beaconDedupRepository).should().forget(eq(portfolioId), any(LocalDate.class), eq(List.of("beacon-1")));
+        assertThat(retried).isEqualTo(1);
+    }
+
+    // ────────────────────────── Admission control ──────────────────────────
+
+    @Test
+    @DisplayName("should take one token per portfolio write and shed the sessions of a write over the limit")
+    void should_take_one_token_per_portfolio_write_and_shed_write_over_limit() {
+        // given
+        MetricsUseCase limitedUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            null, NO_DEDUP, new MetricsAdmissionConfig(true, 0, 1, 100, 1000), null, null);
+        SessionMetrics session = toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS);
+        List<PortfolioMetricsSnapshot> saved = stubTodayMerge(null, null);
+
+        // when
+        int first = limitedUseCase.saveTodaySessions(List.of(session, session, session));
+        int second = limitedUseCase.saveTodaySessions(List.of(session, session));
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(saved).singleElement().satisfies(snapshot ->
+            assertThat(snapshot.aggregate().engagement().views()).isEqualTo(TODAY_METRICS.engagement().views() * 3));
+        assertThat(limitedUseCase.getAdmissionStats()).isEqualTo(new AdmissionStats(3, 2, 1));
+    }
+
+    @Test
+    @DisplayName("should not let one portfolio use another portfolio's limit")
+    void should_not_let_one_portfolio_use_another_portfolios_limit() {
+        // given
+        MetricsUseCase limitedUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            null, NO_DEDUP, new MetricsAdmissionConfig(true, 0, 1, 100, 1000), null, null);
+        stubTodayMerge(null, null);
+
+        // when
+        limitedUseCase.saveTodaySessions(List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS)));
+        int second = limitedUseCase.saveTodaySessions(
+            List.of(toSession(SECONDARY_PORTFOLIO_TODAY, UPDATED_HEATMAP_SNAPSHOT, UPDATED_PROJECT_METRICS)));
+
+        // then
+        assertThat(second).isEqualTo(1);
+        then(todayMetricsRepository).should(times(2)).mergeDayMetrics(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should admit a batch once when atomic counters are enabled")
+    void should_admit_batch_once_when_atomic_counters_enabled() {
+        // given
+        given(metricsConfig.atomicCountersEnabled()).willReturn(true);
+        MetricsUseCase limitedUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            null, NO_DEDUP, new MetricsAdmissionConfig(true, 0, 1, 100, 1000), null, null);
+        List<DetailSlot> savedSlots = stubDaySlotMerge(Optional.empty());
+
+        // when
+        int portfolios = limitedUseCase.saveTodaySessions(List.of(toSession(TODAY_METRICS, TODAY_HEATMAP_SNAPSHOT, TODAY_PROJECT_METRICS)));
+
+        // then
+        assertThat(portfolios).isEqualTo(1);
+        then(portfolioMetricsRepository).should().addTodayMetrics(TODAY_METRICS);
+        assertThat(savedSlots).hasSize(1);
+        assertThat(limitedUseCase.getAdmissionStats()).isEqualTo(new AdmissionStats(1, 0, 1));
+    }
+
+    @Test
+    @DisplayName("should skip the write of today's metrics when the portfolio is over its limit")
+    void should_skip_write_of_todays_metrics_when_over_limit() {
+        // given
+        MetricsUseCase limitedUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository, metricsConfig,
+            null, NO_DEDUP, new MetricsAdmissionConfig(true, 0, 1, 100, 1000), null, null);
+        List<PortfolioMetrics> saved = stubMetricsMerge(Optional.empty());
+        PortfolioMetrics metrics = TODAY_METRICS;
+
+        // when
+        limitedUseCase.saveTodayPortfolioMetrics(portfolioId, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+        limitedUseCase.saveTodayPortfolioMetrics(portfolioId, metrics.engagement(), metrics.scroll(), metrics.cumProjects());
+
+        // then
+        assertThat(saved).containsExactly(metrics);
+        assertThat(limitedUseCase.getAdmissionStats().shed()).isEqualTo(1);
+    }
+
     // ────────────────────────── Delete Operations ──────────────────────────
 
     @Test
@@ -289,6 +1067,23 @@ class MetricsUseCaseTest {
         then(slotMetricsRepository).should().deleteAllMetrics(portfolioId);
     }
 
+    @Test
+    @DisplayName("should delete the materialized view along with the metrics")
+    void should_delete_view_along_with_metrics() {
+        // given
+        MetricsViewRepository metricsViewRepository = mock(MetricsViewRepository.class);
+        MetricsUseCase viewUseCase = new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, false, 50, 30, 100, false, 5, 0, 0), null, NO_DEDUP, NO_ADMISSION, null, metricsViewRepository);
+
+        // when
+        viewUseCase.deleteAll(portfolioId);
+
+        // then
+        then(portfolioMetricsRepository).should().deleteAllMetrics(portfolioId);
+        then(metricsViewRepository).should().deleteMetricsView(portfolioId);
+    }
+
     // ────────────────────────── Edge Cases ──────────────────────────
 
     @Test
@@ -298,17 +1093,16 @@ class MetricsUseCaseTest {
         HeatmapSnapshot emptySnapshot = EMPTY_HEATMAP_SNAPSHOT;
         List<ProjectMetricsWithId> projects = TODAY_PROJECT_METRICS;
         
-        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        List<DetailSlot> saved = stubSlotMerge(Optional.empty());
 
         // when
         metricsUseCase.saveTodayDetailSlot(portfolioId, emptySnapshot, projects);
 
         // then
-        ArgumentCaptor<PortfolioHeatmap> heatmapCaptor = ArgumentCaptor.forClass(PortfolioHeatmap.class);
-
-        then(slotMetricsRepository).should().saveTodayMetrics(any(PortfolioId.class), heatmapCaptor.capture(), eq(projects));
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).projects()).isEqualTo(projects);
 
-        PortfolioHeatmap savedHeatmap = heatmapCaptor.getValue();
+        PortfolioHeatmap savedHeatmap = saved.get(0).heatmap();
         assertThat(savedHeatmap.Indexes()).isEmpty();
         assertThat(savedHeatmap.Values()).isEmpty();
         assertThat(savedHeatmap.Counts()).isEmpty();
@@ -321,12 +1115,87 @@ class MetricsUseCaseTest {
         HeatmapSnapshot heatmapSnapshot = TODAY_HEATMAP_SNAPSHOT;
         List<ProjectMetricsWithId> emptyProjects = EMPTY_PROJECT_METRICS;
         
-        given(slotMetricsRepository.getTodayMetrics(portfolioId)).willReturn(Optional.empty());
+        List<DetailSlot> saved = stubSlotMerge(Optional.empty());
 
         // when
         metricsUseCase.saveTodayDetailSlot(portfolioId, heatmapSnapshot, emptyProjects);
 
         // then
-        then(slotMetricsRepository).should().saveTodayMetrics(any(PortfolioId.class), any(PortfolioHeatmap.class), eq(emptyProjects));
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).projects()).isEqualTo(emptyProjects);
+    }
+
+    private MetricsUseCase baselineUseCase(BaselineStateRepository baselineStateRepository) {
+        return new MetricsUseCase(
+            portfolioMetricsRepository, slotMetricsRepository, todayMetricsRepository,
+            new MetricsConfig(100, 28, false, 50, 30, 100, false, 5, 0, 0), null, NO_DEDUP, NO_ADMISSION, baselineStateRepository, null);
+    }
+
+    /**
+     * Accepts every conditional write, merging against {@code stored}; returns the saved values.
+     */
+    private List<PortfolioMetrics> stubMetricsMerge(Optional<PortfolioMetrics> stored) {
+        List<PortfolioMetrics> saved = new ArrayList<>();
+        given(portfolioMetricsRepository.mergeTodayMetrics(any(PortfolioId.class), any())).willAnswer(invocation -> {
+            Function<Optional<PortfolioMetrics>, PortfolioMetrics> merge = invocation.getArgument(1);
+            saved.add(merge.apply(stored));
+            return true;
+        });
+        return saved;
+    }
+
+    /**
+     * Accepts every conditional write, merging against {@code stored}; returns the saved slots.
+     */
+    private List<DetailSlot> stubSlotMerge(Optional<DetailSlot> stored) {
+        List<DetailSlot> saved = new ArrayList<>();
+        given(slotMetricsRepository.mergeTodayMetrics(any(PortfolioId.class), any())).willAnswer(invocation -> {
+            Function<Optional<DetailSlot>, DetailSlot> merge = invocation.getArgument(1);
+            saved.add(merge.apply(stored));
+            return true;
+        });
+        return saved;
+    }
+
+    /**
+     * Same as {@link #stubSlotMerge(Optional)} for the slot of a given day, written by batches.
+     */
+    private List<DetailSlot> stubDaySlotMerge(Optional<DetailSlot> stored) {
+        List<DetailSlot> saved = new ArrayList<>();
+        given(slotMetricsRepository.mergeDayMetrics(any(PortfolioId.class), any(LocalDate.class), any())).willAnswer(invocation -> {
+            Function<Optional<DetailSlot>, DetailSlot> merge = invocation.getArgument(2);
+            saved.add(merge.apply(stored));
+            return true;
+        });
+        return saved;
+    }
+
+    /**
+     * Accepts every combined conditional write, merging against the stored aggregate and slot
+     * (null when absent); returns the saved snapshots.
+     */
+    private List<PortfolioMetricsSnapshot> stubTodayMerge(PortfolioMetrics storedAggregate, DetailSlot storedSlot) {
+        List<PortfolioMetricsSnapshot> saved = new ArrayList<>();
+        given(todayMetricsRepository.mergeDayMetrics(any(PortfolioId.class), any(LocalDate.class), any())).willAnswer(invocation -> {
+            PortfolioId id = invocation.getArgument(0);
+            UnaryOperator<PortfolioMetricsSnapshot> merge = invocation.getArgument(2);
+            saved.add(merge.apply(new PortfolioMetricsSnapshot(id, storedAggregate, storedSlot)));
+            return true;
+        });
+        return saved;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static SessionMetrics toSession(PortfolioMetrics metrics, HeatmapSnapshot heatmap, List<ProjectMetricsWithId> projects) {
+        return toSession(metrics, heatmap, projects, null);
+    }
+
+    private static SessionMetrics toSession(
+            PortfolioMetrics metrics, HeatmapSnapshot heatmap, List<ProjectMetricsWithId> projects, String beaconId) {
+        return new SessionMetrics(
+            metrics.portfolioId(), metrics.engagement(), metrics.scroll(), metrics.cumProjects(), heatmap, projects, beaconId);
     }
 }
@@ -0,0 +1,138 @@
+package com.porflyo.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.configuration.MetricsConfig;
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.PortfolioHeatmap;
+import com.porflyo.model.metrics.PortfolioMetrics;
+
+import static com.porflyo.data.MetricsTestData.*;
+
+@DisplayName("MetricsWriteBehindBuffer (unit)")
+class MetricsWriteBehindBufferTest {
+
+    private static final BinaryOperator<FoldedSessions> SUM_SESSIONS = (a, b) ->
+        new FoldedSessions(a.portfolioId(), a.aggregate(), a.heatmap(), a.projects(), a.sessions() + b.sessions());
+
+    @Test
+    @DisplayName("should hand out accumulator when max sessions reached")
+    void should_hand_out_accumulator_when_max_sessions_reached() {
+        // given
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(3, 3600, 100));
+
+        // when
+        List<FoldedSessions> first = buffer.add(folded(TODAY_METRICS, 2), 0, SUM_SESSIONS);
+        List<FoldedSessions> second = buffer.add(folded(TODAY_METRICS, 1), 0, SUM_SESSIONS);
+
+        // then
+        assertThat(first).isEmpty();
+        assertThat(second).singleElement().extracting(FoldedSessions::sessions).isEqualTo(3);
+        assertThat(buffer.bufferedSessions()).isZero();
+        assertThat(buffer.flushedSessions()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should hand out accumulator when max age reached")
+    void should_hand_out_accumulator_when_max_age_reached() {
+        // given
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(50, 30, 100));
+        buffer.add(folded(TODAY_METRICS, 1), 0, SUM_SESSIONS);
+
+        // when
+        List<FoldedSessions> early = buffer.drainExpired(29_999, LocalDate.now());
+        List<FoldedSessions> late = buffer.drainExpired(30_000, LocalDate.now());
+
+        // then
+        assertThat(early).isEmpty();
+        assertThat(late).hasSize(1);
+        assertThat(buffer.pendingPortfolios()).isZero();
+    }
+
+    @Test
+    @DisplayName("should evict the oldest accumulator when max portfolios exceeded")
+    void should_evict_oldest_accumulator_when_max_portfolios_exceeded() {
+        // given
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(50, 3600, 1));
+        buffer.add(folded(TODAY_METRICS, 1), 0, SUM_SESSIONS);
+
+        // when
+        List<FoldedSessions> due = buffer.add(folded(SECONDARY_PORTFOLIO_TODAY, 1), 1, SUM_SESSIONS);
+
+        // then
+        assertThat(due).singleElement().extracting(FoldedSessions::portfolioId).isEqualTo(TODAY_METRICS.portfolioId());
+        assertThat(buffer.pendingPortfolios()).isEqualTo(1);
+        assertThat(buffer.bufferedSessions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should hand out accumulators of a past day")
+    void should_hand_out_accumulators_of_past_day() {
+        // given
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(50, 3600, 100));
+        PortfolioMetrics yesterday = new PortfolioMetrics(
+            TODAY_METRICS.portfolioId(), LocalDate.now().minusDays(1),
+            TODAY_METRICS.engagement(), TODAY_METRICS.scroll(), TODAY_METRICS.cumProjects());
+        buffer.add(folded(yesterday, 1), 0, SUM_SESSIONS);
+
+        // when
+        List<FoldedSessions> due = buffer.add(folded(TODAY_METRICS, 1), 1, SUM_SESSIONS);
+
+        // then
+        assertThat(due).singleElement().extracting(f -> f.aggregate().date()).isEqualTo(yesterday.date());
+        assertThat(buffer.pendingPortfolios()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should hand out every accumulator when drained")
+    void should_hand_out_every_accumulator_when_drained() {
+        // given
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(50, 3600, 100));
+        buffer.add(folded(TODAY_METRICS, 2), 0, SUM_SESSIONS);
+        buffer.add(folded(SECONDARY_PORTFOLIO_TODAY, 1), 0, SUM_SESSIONS);
+
+        // when
+        List<FoldedSessions> due = buffer.drainAll();
+
+        // then
+        assertThat(due).hasSize(2);
+        assertThat(buffer.bufferedSessions()).isZero();
+        assertThat(buffer.flushedSessions()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should hand out a restored accumulator again with the next add")
+    void should_hand_out_restored_accumulator_with_next_add() {
+        // given
+        long now = 10_000_000;
+        MetricsWriteBehindBuffer buffer = new MetricsWriteBehindBuffer(config(2, 3600, 100));
+        List<FoldedSessions> failed = buffer.add(folded(TODAY_METRICS, 2), now, SUM_SESSIONS);
+
+        // when
+        buffer.restore(failed, SUM_SESSIONS);
+        List<FoldedSessions> due = buffer.add(folded(SECONDARY_PORTFOLIO_TODAY, 1), now, SUM_SESSIONS);
+
+        // then
+        assertThat(due).singleElement().extracting(FoldedSessions::portfolioId).isEqualTo(TODAY_METRICS.portfolioId());
+        assertThat(buffer.flushedSessions()).isEqualTo(2);
+        assertThat(buffer.bufferedSessions()).isEqualTo(1);
+        assertThat(buffer.pendingPortfolios()).isEqualTo(1);
+    }
+
+    private static MetricsConfig config(int maxSessions, int maxAgeSeconds, int maxPortfolios) {
+        return new MetricsConfig(400, 28, true, maxSessions, maxAgeSeconds, maxPortfolios, false, 5, 0, 0);
+    }
+
+    private static FoldedSessions folded(PortfolioMetrics metrics, int sessions) {
+        PortfolioId portfolioId = metrics.portfolioId();
+        PortfolioHeatmap heatmap = new PortfolioHeatmap("1.0", 12, List.of(), List.of(), List.of());
+        return new FoldedSessions(portfolioId, metrics, heatmap, List.of(), sessions);
+    }
+}
@@ -0,0 +1,115 @@
+package com.porflyo.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.model.metrics.PortfolioHeatmap;
+
+@DisplayName("HeatmapCells (unit)")
+class HeatmapCellsTest {
+
+    @Test
+    @DisplayName("should sort cells and sum repeated indexes")
+    void should_sort_cells_and_sum_repeated_indexes() {
+        // when
+        HeatmapCells cells = HeatmapCells.of(List.of(7, 2, 7, 5), List.of(10, 20, 30, 40), List.of(1, 2, 3, 4));
+
+        // then
+        PortfolioHeatmap heatmap = cells.toPortfolioHeatmap("2.0", 12);
+        assertThat(heatmap.Indexes()).containsExactly(2, 5, 7);
+        assertThat(heatmap.Values()).containsExactly(20, 40, 40);
+        assertThat(heatmap.Counts()).containsExactly(2, 4, 4);
+    }
+
+    @Test
+    @DisplayName("should merge-join two sorted cell sets")
+    void should_merge_join_two_sorted_cell_sets() {
+        // given
+        HeatmapCells existing = HeatmapCells.of(List.of(1, 3, 5), List.of(10, 30, 50), List.of(1, 1, 1));
+        HeatmapCells incoming = HeatmapCells.of(List.of(0, 3, 6), List.of(5, 7, 9), null);
+
+        // when
+        PortfolioHeatmap merged = existing.merge(incoming).toPortfolioHeatmap("2.0", 12);
+
+        // then
+        assertThat(merged.Indexes()).containsExactly(0, 1, 3, 5, 6);
+        assertThat(merged.Values()).containsExactly(5, 10, 37, 50, 9);
+        assertThat(merged.Counts()).containsExactly(1, 1, 2, 1, 1);
+    }
+
+    @Test
+    @DisplayName("should keep the same cells as a full sort by score")
+    void should_keep_same_cells_as_full_sort_by_score() {
+        // given
+        Random random = new Random(42);
+        List<Integer> indexes = IntStream.range(0, 800).map(i -> i * 3).boxed().toList();
+        List<Integer> values = IntStream.range(0, 800).mapToObj(i -> random.nextInt(5000)).toList();
+        List<Integer> counts = IntStream.range(0, 800).mapToObj(i -> 1 + random.nextInt(20)).toList();
+
+        // when
+        PortfolioHeatmap top = HeatmapCells.of(indexes, values, counts).top(400).toPortfolioHeatmap("2.0", 12);
+
+        // then
+        assertThat(top.Indexes()).hasSize(400).isSorted();
+        assertThat(top.Indexes()).containsExactlyInAnyOrderElementsOf(topByFullSort(indexes, values, counts, 400));
+    }
+
+    @Test
+    @DisplayName("should keep tied cells in index order")
+    void should_keep_tied_cells_in_index_order() {
+        // when
+        HeatmapCells top = HeatmapCells.of(List.of(1, 2, 3, 4), List.of(10, 10, 10, 10), List.of(1, 1, 1, 1)).top(2);
+
+        // then
+        assertThat(top.toPortfolioHeatmap("2.0", 12).Indexes()).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("should reject a non-positive limit only when trimming is needed")
+    void should_reject_non_positive_limit_only_when_trimming_needed() {
+        // given
+        HeatmapCells cells = HeatmapCells.of(List.of(1), List.of(10), null);
+
+        // when / then
+        assertThat(HeatmapCells.of(List.of(), List.of(), null).top(0).size()).isZero();
+        assertThatThrownBy(() -> cells.top(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should select the k-th smallest score")
+    void should_select_kth_smallest_score() {
+        // given
+        Random random = new Random(7);
+        double[] scores = random.doubles(1000).map(d -> Math.floor(d * 50)).toArray();
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+
+        // when / then
+        for (int k : new int[] {0, 1, 499, 500, 998, 999}) {
+            assertThat(HeatmapCells.select(scores.clone(), k)).isEqualTo(sorted[k]);
+        }
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private static List<Integer> topByFullSort(List<Integer> indexes, List<Integer> values, List<Integer> counts, int k) {
+        int maxValue = values.stream().mapToInt(Integer::intValue).max().orElse(1);
+        double maxRatio = IntStream.range(0, values.size()).mapToDouble(i -> (double) values.get(i) / counts.get(i)).max().orElse(1);
+
+        List<Integer> order = new ArrayList<>(IntStream.range(0, indexes.size()).boxed().toList());
+        order.sort(Comparator.comparingDouble((Integer i) ->
+            0.7 * values.get(i) / maxValue + 0.3 * ((double) values.get(i) / counts.get(i)) / maxRatio).reversed());
+
+        return order.subList(0, k).stream().map(indexes::get).toList();
+    }
+}
@@ -220,4 +220,60 @@ class MetricsHeatmapUtilsTest {
         assertThat(result.Values()).containsExactly(150); // 100 + 50
         assertThat(result.Counts()).containsExactly(6);   // 5 + 1
     }
-}
\ No newline at end of file
+
+    // ────────────────────────── mergeHeatmaps ──────────────────────────
+
+    @Test
+    @DisplayName("should sum values and counts when merging heatmaps with counts")
+    void should_sum_values_and_counts_when_merging_heatmaps() {
+        // given
+        PortfolioHeatmap existingHeatmap = new PortfolioHeatmap(
+            "1.0", 10,
+            List.of(0, 1),
+            List.of(5, 10),
+            List.of(2, 3)
+        );
+
+        PortfolioHeatmap incomingHeatmap = new PortfolioHeatmap(
+            "2.0", 12,
+            List.of(1, 2),
+            List.of(15, 25),
+            List.of(4, 1)
+        );
+
+        // when
+        PortfolioHeatmap result = HeatmapUtils.mergeHeatmaps(existingHeatmap, incomingHeatmap, 100);
+
+        // then
+        assertThat(result.version()).isEqualTo("2.0");
+        assertThat(result.rows()).isEqualTo(12);
+        assertThat(result.Indexes()).containsExactly(0, 1, 2);
+        assertThat(result.Values()).containsExactly(5, 25, 25);
+        assertThat(result.Counts()).containsExactly(2, 7, 1);
+    }
+
+    @Test
+    @DisplayName("should keep most relevant cells when merged heatmap exceeds limit")
+    void should_keep_most_relevant_cells_when_merged_heatmap_exceeds_limit() {
+        // given
+        PortfolioHeatmap existingHeatmap = new PortfolioHeatmap(
+            "1.0", 10,
+            List.of(0, 1),
+            List.of(5, 100),
+            List.of(1, 1)
+        );
+
+        PortfolioHeatmap incomingHeatmap = new PortfolioHeatmap(
+            "1.0", 10,
+            List.of(2),
+            List.of(50),
+            List.of(1)
+        );
+
+        // when
+        PortfolioHeatmap result = HeatmapUtils.mergeHeatmaps(existingHeatmap, incomingHeatmap, 2);
+
+        // then
+        assertThat(result.Indexes()).containsExactly(1, 2);
+    }
+}
@@ -113,4 +113,30 @@ class PortfolioMetricsUtilsTest {
         assertThat(out.cumProjects().viewTime()).isEqualTo(200);
     }
 
+    @Test
+    @DisplayName("should sum period totals keeping the total's date and saturating")
+    void should_sum_period_totals_keeping_date_and_saturating() {
+        // given
+        PortfolioId pid = new PortfolioId("p5");
+        LocalDate weekStart = LocalDate.of(2025, 11, 10);
+        PortfolioMetrics total = new PortfolioMetrics(pid, weekStart,
+                new Engagement(Integer.MAX_VALUE - 10, 10, 1, null, 1, new Devices(6, 4)), new InteractionMetrics(30, 60, 120, 2),
+                new ProjectMetrics(200, 80, 5, 2));
+        PortfolioMetrics day = new PortfolioMetrics(pid, weekStart.plusDays(3),
+                new Engagement(100, 5, 2, 1, 1, new Devices(3, 2)), new InteractionMetrics(10, 20, 80, 1),
+                new ProjectMetrics(50, 20, 1, 1));
+
+        // when
+        PortfolioMetrics out = PortfolioMetricsUtils.sumPortfolioMetrics(total, day);
+
+        // then
+        assertThat(out.date()).isEqualTo(weekStart);
+        assertThat(out.engagement().activeTime()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(out.engagement().views()).isEqualTo(15);
+        assertThat(out.engagement().emailCopies()).isEqualTo(1); // null counts as 0
+        assertThat(out.engagement().devices().desktopViews()).isEqualTo(9);
+        assertThat(out.scroll().ttfiSumMs()).isEqualTo(200);
+        assertThat(out.cumProjects().exposures()).isEqualTo(100);
+    }
+
 }
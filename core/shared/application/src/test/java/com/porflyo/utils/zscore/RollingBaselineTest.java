@@ -0,0 +1,158 @@
+package com.porflyo.utils.zscore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.porflyo.model.ids.PortfolioId;
+import com.porflyo.model.metrics.BaselineState;
+import com.porflyo.model.metrics.Devices;
+import com.porflyo.model.metrics.Engagement;
+import com.porflyo.model.metrics.InteractionMetrics;
+import com.porflyo.model.metrics.PortfolioMetrics;
+import com.porflyo.model.metrics.ProjectMetrics;
+import com.porflyo.model.metrics.ZScores;
+
+@DisplayName("RollingBaseline")
+class RollingBaselineTest {
+
+    private final PortfolioId portfolioId = new PortfolioId("test-portfolio");
+    private final LocalDate firstDay = LocalDate.of(2025, 1, 1);
+
+    @Test
+    @DisplayName("should match the z-scores of the list-based calculator as the window slides")
+    void should_match_list_based_zscores_as_window_slides() {
+        // given
+        int windowDays = 7;
+        List<PortfolioMetrics> days = days(60);
+        RollingBaseline baseline = RollingBaseline.empty(windowDays);
+
+        for (int i = 0; i < days.size(); i++) {
+            // when
+            PortfolioMetrics current = days.get(i);
+            List<PortfolioMetrics> previous = new ArrayList<>(days.subList(0, i));
+            Collections.reverse(previous);  // most recent first
+
+            ZScores expected = PortfolioZScoreCalculator.calculate(current, previous, windowDays);
+            ZScores actual = PortfolioZScoreCalculator.calculate(current, baseline);
+
+            // then
+            assertZScoresClose(expected, actual);
+            baseline.push(current);
+        }
+        assertThat(baseline.days()).isEqualTo(windowDays);
+    }
+
+    @Test
+    @DisplayName("should give the same z-scores after a round trip through its state")
+    void should_give_same_zscores_after_state_round_trip() {
+        // given
+        RollingBaseline baseline = RollingBaseline.empty(5);
+        List<PortfolioMetrics> days = days(9);
+        days.subList(0, 8).forEach(baseline::push);
+        PortfolioMetrics current = days.get(8);
+
+        // when
+        BaselineState state = baseline.toState(portfolioId, days.get(7).date());
+        RollingBaseline restored = RollingBaseline.from(state);
+
+        // then
+        assertThat(state.stats()).hasSize(5);
+        assertThat(state.stats().get(0).window()).hasSize(5);
+        assertThat(PortfolioZScoreCalculator.calculate(current, restored))
+            .isEqualTo(PortfolioZScoreCalculator.calculate(current, baseline));
+    }
+
+    @Test
+    @DisplayName("should leave days without a value out of that metric only")
+    void should_leave_days_without_value_out_of_that_metric_only() {
+        // given
+        RollingBaseline baseline = RollingBaseline.empty(5);
+        baseline.push(createMetrics(firstDay, 100, 50, 0));         // no TTFI
+        baseline.push(createMetrics(firstDay.plusDays(1), 120, 60, 4));
+        baseline.push(createMetrics(firstDay.plusDays(2), 80, 40, 0));   // no TTFI
+
+        // when
+        BaselineState state = baseline.toState(portfolioId, firstDay.plusDays(2));
+
+        // then
+        assertThat(state.stats().get(RollingBaseline.VIEWS).count()).isEqualTo(3);
+        assertThat(state.stats().get(RollingBaseline.TTFI).count()).isEqualTo(1);
+        assertThat(state.stats().get(RollingBaseline.TTFI).window()).containsExactly(null, Math.log(1500.0 / 4), null);
+    }
+
+    @Test
+    @DisplayName("should return empty z-scores when fewer than two days are in the window")
+    void should_return_empty_zscores_when_fewer_than_two_days() {
+        // given
+        RollingBaseline baseline = RollingBaseline.empty(28);
+        baseline.push(createMetrics(firstDay, 100, 50, 4));
+
+        // when
+        ZScores result = PortfolioZScoreCalculator.calculate(createMetrics(firstDay.plusDays(1), 120, 60, 4), baseline);
+
+        // then
+        assertThat(result).isEqualTo(new ZScores(null, null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("should reject a state whose windows differ in size")
+    void should_reject_state_whose_windows_differ_in_size() {
+        // given
+        List<BaselineState.Stat> stats = new ArrayList<>();
+        for (int s = 0; s < 5; s++) {
+            stats.add(new BaselineState.Stat(1, 1.0, 0.0, s == 0 ? List.of(1.0, 2.0) : List.of(1.0)));
+        }
+        BaselineState state = new BaselineState(portfolioId, firstDay, 28, stats);
+
+        // when / then
+        assertThatThrownBy(() -> RollingBaseline.from(state)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ────────────────────────── Helpers ──────────────────────────
+
+    private List<PortfolioMetrics> days(int count) {
+        List<PortfolioMetrics> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int views = 40 + (i * 37) % 90;
+            int score = 10 + (i * 53) % 70 * views / 20;
+            int ttfiCount = i % 6 == 0 ? 0 : 1 + i % 5;
+            days.add(createMetrics(firstDay.plusDays(i), views, score, ttfiCount));
+        }
+        return days;
+    }
+
+    private PortfolioMetrics createMetrics(LocalDate date, int views, int scoreTotal, int ttfiCount) {
+        return new PortfolioMetrics(
+            portfolioId,
+            date,
+            new Engagement(views * 30, views, views / 3 + date.getDayOfMonth() % 4, 1, views % 7, new Devices(views / 2, views - views / 2)),
+            new InteractionMetrics(scoreTotal, views * 12, 1500, ttfiCount),
+            new ProjectMetrics(views * 5, views, 2, 1)
+        );
+    }
+
+    private static void assertZScoresClose(ZScores expected, ZScores actual) {
+        assertClose(expected.visits(), actual.visits());
+        assertClose(expected.engagement(), actual.engagement());
+        assertClose(expected.ttfi(), actual.ttfi());
+        assertClose(expected.qualityVisitRate(), actual.qualityVisitRate());
+        assertClose(expected.socialCtr(), actual.socialCtr());
+    }
+
+    private static void assertClose(Double expected, Double actual) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+        } else {
+            assertThat(actual).isCloseTo(expected, within(1e-9));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.porflyo.exceptions.metrics;
+
+import com.porflyo.exceptions.shared.DomainException;
+
+public abstract class MetricsException extends DomainException {
+    protected MetricsException(int httpStatus, String code, String message) {
+        super(httpStatus, code, message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.porflyo.exceptions.metrics;
+
+public final class MetricsWriteConflictException extends MetricsException {
+    private final String portfolioId;
+    private final int attempts;
+
+    public MetricsWriteConflictException(String portfolioId, int attempts) {
+        super(409, "metrics_write_conflict",
+            "Concurrent writes on today's metrics of portfolio " + portfolioId + " (attempts=" + attempts + ")");
+        this.portfolioId = portfolioId; this.attempts = attempts;
+    }
+    public String portfolioId() { return portfolioId; }
+    public int attempts()       { return attempts; }
+}
@@ -0,0 +1,32 @@
+package com.porflyo.model.metrics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.porflyo.model.ids.PortfolioId;
+
+/**
+ * Persisted z-score baseline of a portfolio: the last {@code windowDays} days with metrics,
+ * up to and including {@code throughDate}, and the running moments computed over them.
+ * <p>
+ * {@code stats} holds one entry per z-score metric, in {@link ZScores} order; TTFI values
+ * are kept as natural logs, as the z-score of TTFI is computed on them.
+ */
+public record BaselineState(
+    PortfolioId portfolioId,
+    LocalDate throughDate,
+    int windowDays,
+    List<Stat> stats
+) {
+
+    /**
+     * Count, mean and sum of squared deviations (M2) of one metric over the window, and the
+     * window values, oldest first. A null value marks a day without a value for the metric.
+     */
+    public record Stat(
+        int count,
+        double mean,
+        double m2,
+        List<Double> window
+    ) {}
+}
@@ -0,0 +1,27 @@
+package com.porflyo.model.metrics;
+
+/**
+ * Stored counters of a day of {@link PortfolioMetrics}, one per column of the metrics shards.
+ * Reads can be limited to a set of them; the counters left out come back as 0.
+ */
+public enum MetricsField {
+    // Engagement
+    ACTIVE_TIME,
+    VIEWS,
+    QUALITY_VISITS,
+    EMAIL_COPIES,
+    SOCIAL_CLICKS,
+    DEVICE_VIEWS,       // mobile/tablet views; desktop views are VIEWS minus these
+
+    // Interaction
+    SCROLL_SCORE,
+    SCROLL_TIME,
+    TTFI_SUM_MS,
+    TTFI_COUNT,
+
+    // Projects
+    PROJECT_VIEW_TIME,
+    PROJECT_EXPOSURES,
+    PROJECT_CODE_VIEWS,
+    PROJECT_LIVE_VIEWS
+}
@@ -0,0 +1,38 @@
+package com.porflyo.model.metrics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Period over which daily {@link PortfolioMetrics} are summed for long-range views.
+ * Weeks are ISO weeks, starting on Monday.
+ */
+public enum RollupPeriod {
+    WEEK,
+    MONTH;
+
+    /** First day of the period containing {@code date}. */
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /** First day of the period following the one starting on {@code start}. */
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    public static RollupPeriod resolve(String name) {
+        return switch (name.toLowerCase()) {
+            case "week" -> WEEK;
+            case "month" -> MONTH;
+            default -> throw new IllegalArgumentException("Unknown rollup period: " + name);
+        };
+    }
+}